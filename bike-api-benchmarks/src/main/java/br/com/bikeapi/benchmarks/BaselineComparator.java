@@ -0,0 +1,119 @@
+package br.com.bikeapi.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Compara um resultado JSON do JMH com um baseline guardado no mesmo formato.
+ * 
+ * <p>Um benchmark regrediu quando piorou mais do que o limite relativo
+ * ({@code threshold}) e a diferenca e maior que a soma das margens de erro
+ * dos dois resultados. "Piorar" depende do modo: no {@code thrpt} o score
+ * maior e melhor, nos demais (tempo medio, amostra, single shot) o menor.</p>
+ */
+public class BaselineComparator {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private final double threshold;
+
+	public BaselineComparator(double threshold) {
+		this.threshold = threshold;
+	}
+
+	public List<Comparison> compare(File current, File baseline) throws IOException {
+		return compare(read(current), read(baseline));
+	}
+
+	List<Comparison> compare(Map<String, Score> current, Map<String, Score> baseline) {
+		List<Comparison> comparisons = new ArrayList<>();
+		current.forEach((key, score) -> {
+			Score base = baseline.get(key);
+			if (base == null || !base.mode.equals(score.mode) || !base.unit.equals(score.unit)) {
+				comparisons.add(new Comparison(key, score, null, 0d, Verdict.NEW));
+				return;
+			}
+			double change = (score.score - base.score) / base.score;
+			double worsening = "thrpt".equals(score.mode) ? -change : change;
+			boolean significant = Math.abs(score.score - base.score) > score.error + base.error;
+			Verdict verdict = !significant || Math.abs(change) <= threshold ? Verdict.UNCHANGED
+					: worsening > 0 ? Verdict.REGRESSION : Verdict.IMPROVEMENT;
+			comparisons.add(new Comparison(key, score, base, change, verdict));
+		});
+		return comparisons;
+	}
+
+	static Map<String, Score> read(File file) throws IOException {
+		Map<String, Score> scores = new LinkedHashMap<>();
+		for (JsonNode result : MAPPER.readTree(file)) {
+			StringBuilder key = new StringBuilder(result.path("benchmark").asText());
+			result.path("params").fields().forEachRemaining(
+					param -> key.append(':').append(param.getKey()).append('=').append(param.getValue().asText()));
+			JsonNode metric = result.path("primaryMetric");
+			double error = metric.path("scoreError").asDouble(0d);
+			scores.put(key.toString(), new Score(result.path("mode").asText(), metric.path("score").asDouble(),
+					Double.isNaN(error) ? 0d : error, metric.path("scoreUnit").asText()));
+		}
+		return scores;
+	}
+
+	public enum Verdict {
+		NEW, UNCHANGED, IMPROVEMENT, REGRESSION
+	}
+
+	static class Score {
+
+		final String mode;
+		final double score;
+		final double error;
+		final String unit;
+
+		Score(String mode, double score, double error, String unit) {
+			this.mode = mode;
+			this.score = score;
+			this.error = error;
+			this.unit = unit;
+		}
+
+	}
+
+	public static class Comparison {
+
+		final String benchmark;
+		final Score current;
+		final Score baseline;
+		final double change;
+		final Verdict verdict;
+
+		Comparison(String benchmark, Score current, Score baseline, double change, Verdict verdict) {
+			this.benchmark = benchmark;
+			this.current = current;
+			this.baseline = baseline;
+			this.change = change;
+			this.verdict = verdict;
+		}
+
+		public Verdict getVerdict() {
+			return verdict;
+		}
+
+		@Override
+		public String toString() {
+			if (baseline == null) {
+				return String.format("%-11s %s: %.3f %s (sem baseline)", verdict, benchmark, current.score,
+						current.unit);
+			}
+			return String.format("%-11s %s: %.3f -> %.3f %s (%+.1f%%)", verdict, benchmark, baseline.score,
+					current.score, current.unit, change * 100);
+		}
+
+	}
+
+}
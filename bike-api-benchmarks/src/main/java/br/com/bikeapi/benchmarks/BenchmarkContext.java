@@ -0,0 +1,91 @@
+package br.com.bikeapi.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+
+import br.com.bikeapi.BikeApiApplication;
+import br.com.bikeapi.reactive.BikeApiReactiveApplication;
+
+/**
+ * Sobe a aplicacao com o perfil de teste (H2 em memoria) e sem o log de SQL,
+ * para os benchmarks e testes de carga que precisam dos beans reais.
+ * 
+ * <p>As propriedades vao como argumentos de linha de comando, que tem
+ * precedencia sobre o application-test.properties (as "default properties"
+ * do builder perderiam para ele).</p>
+ */
+public final class BenchmarkContext {
+
+	private BenchmarkContext() {
+	}
+
+	static ConfigurableApplicationContext start() {
+		return start(WebApplicationType.NONE);
+	}
+
+	/**
+	 * @param type       {@code SERVLET} sobe o Tomcat embarcado
+	 * @param properties propriedades adicionais, no formato {@code chave=valor}
+	 */
+	public static ConfigurableApplicationContext start(WebApplicationType type, String... properties) {
+		List<String> args = new ArrayList<>();
+		for (String property : Arrays.asList(
+				"spring.main.banner-mode=off",
+				"spring.jpa.properties.hibernate.show_sql=false",
+				"spring.jpa.properties.hibernate.format_sql=false",
+				"logging.file.name=",
+				"logging.level.root=WARN",
+				/*
+				 * a carga sai toda de localhost, sem X-Api-Key, e repete os
+				 * mesmos cpfs: com o rate limit as escritas virariam 429
+				 */
+				"application.rate-limit.enabled=false",
+				// o R2DBC no classpath e da api reativa, usada so na comparacao de leituras
+				"spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration")) {
+			args.add("--" + property);
+		}
+		for (String property : properties) {
+			args.add("--" + property);
+		}
+		return new SpringApplicationBuilder(BikeApiApplication.class)
+				.initializers(context -> context.getBeanFactory()
+						.registerSingleton(ReactiveModuleExcludeFilter.class.getName(), new ReactiveModuleExcludeFilter()))
+				.web(type)
+				.profiles("test")
+				.run(args.toArray(new String[0]));
+	}
+
+	/**
+	 * Tira do component scan da bike-api os beans da api reativa, que estao
+	 * num subpacote de {@code br.com.bikeapi}.
+	 */
+	private static final class ReactiveModuleExcludeFilter extends TypeExcludeFilter {
+
+		private static final String PACKAGE = BikeApiReactiveApplication.class.getPackage().getName() + ".";
+
+		@Override
+		public boolean match(MetadataReader metadataReader, MetadataReaderFactory metadataReaderFactory) {
+			return metadataReader.getClassMetadata().getClassName().startsWith(PACKAGE);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj != null && getClass() == obj.getClass();
+		}
+
+		@Override
+		public int hashCode() {
+			return getClass().hashCode();
+		}
+
+	}
+
+}
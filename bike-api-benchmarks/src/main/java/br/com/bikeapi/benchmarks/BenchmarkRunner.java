@@ -0,0 +1,68 @@
+package br.com.bikeapi.benchmarks;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import br.com.bikeapi.benchmarks.BaselineComparator.Comparison;
+import br.com.bikeapi.benchmarks.BaselineComparator.Verdict;
+
+/**
+ * Executa os benchmarks, grava o resultado em JSON e compara com o baseline.
+ * 
+ * <p>Configurado por propriedades de sistema (veja o pom):
+ * {@code benchmarks.include}, {@code benchmarks.result}, {@code benchmarks.gc}
+ * (inclui a alocacao por operacao no resultado),
+ * {@code baseline.file}, {@code baseline.threshold} e
+ * {@code baseline.update}, que substitui o baseline pelo resultado atual.
+ * Termina com codigo 1 quando algum benchmark regrediu.</p>
+ */
+public class BenchmarkRunner {
+
+	public static void main(String[] args) throws Exception {
+		String include = System.getProperty("benchmarks.include", ".*");
+		File result = new File(System.getProperty("benchmarks.result", "target/jmh-result.json"));
+		File baseline = new File(System.getProperty("baseline.file", "baseline/jmh-baseline.json"));
+		double threshold = Double.parseDouble(System.getProperty("baseline.threshold", "0.10"));
+		boolean update = Boolean.getBoolean("baseline.update");
+
+		result.getAbsoluteFile().getParentFile().mkdirs();
+		ChainedOptionsBuilder options = new OptionsBuilder()
+				.include(include)
+				.resultFormat(ResultFormatType.JSON)
+				.result(result.getPath());
+		if (Boolean.getBoolean("benchmarks.gc")) {
+			options.addProfiler(GCProfiler.class);
+		}
+		new Runner(options.build()).run();
+
+		boolean regression = false;
+		if (baseline.exists()) {
+			List<Comparison> comparisons = new BaselineComparator(threshold).compare(result, baseline);
+			System.out.println();
+			System.out.println("Comparacao com " + baseline + " (limite de " + Math.round(threshold * 100) + "%):");
+			for (Comparison comparison : comparisons) {
+				System.out.println(comparison);
+				regression |= comparison.getVerdict() == Verdict.REGRESSION;
+			}
+		} else {
+			System.out.println("Sem baseline em " + baseline + "; use -Dbaseline.update=true para grava-lo");
+		}
+
+		if (update) {
+			baseline.getAbsoluteFile().getParentFile().mkdirs();
+			Files.copy(result.toPath(), baseline.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			System.out.println("Baseline atualizado em " + baseline);
+		} else if (regression) {
+			System.exit(1);
+		}
+	}
+
+}
@@ -0,0 +1,70 @@
+package br.com.bikeapi.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import br.com.bikeapi.config.DataGenProperties;
+import br.com.bikeapi.datagen.SyntheticDataGenerator;
+import br.com.bikeapi.model.entity.Bike;
+import br.com.bikeapi.service.BikeService;
+
+/**
+ * Filtragem de bicicletas por {@code BikeServiceImpl.find} (ExampleMatcher
+ * com "contains" e ignore case) contra o H2, com a frota semeada pelo
+ * {@link SyntheticDataGenerator}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BikeFindBenchmark {
+
+	@Param({ "10000", "100000" })
+	public int bikes;
+
+	private ConfigurableApplicationContext context;
+
+	private BikeService service;
+
+	private Bike filter;
+
+	@Setup
+	public void setUp() {
+		context = BenchmarkContext.start();
+		service = context.getBean(BikeService.class);
+		DataGenProperties settings = new DataGenProperties();
+		settings.setBikes(bikes);
+		settings.setClients(0);
+		settings.setRents(0);
+		context.getBean(SyntheticDataGenerator.class).generate(settings);
+		filter = Bike.builder().model("caloi").color("PRETA").build();
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public Page<Bike> findByExample() {
+		return service.find(filter, PageRequest.of(0, 20));
+	}
+
+}
@@ -0,0 +1,119 @@
+package br.com.bikeapi.benchmarks;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import javax.validation.ValidatorFactory;
+import javax.validation.constraints.Email;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+
+import org.hibernate.validator.constraints.br.CPF;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.bikeapi.api.dto.RentDTO;
+import br.com.bikeapi.api.validation.ChassiValidator;
+import br.com.bikeapi.api.validation.CpfValidator;
+
+/**
+ * Validacao do cpf e do chassi de um aluguel pelas anotacoes anteriores
+ * ({@code @CPF} e {@code @Size}) contra {@code @Cpf} e {@code @Chassi}, tanto
+ * pelo {@link Validator} (como o MVC faz a cada requisicao) quanto chamando
+ * os validadores diretamente. Rode com {@code -Dbenchmarks.gc=true} para ver
+ * os bytes alocados por operacao.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DocumentValidationBenchmark {
+
+	/*
+	 * Com e sem mascara, ja que o @CPF escolhe o caminho pela expressao
+	 * regular que casa
+	 */
+	@Param({ "389.831.240-24", "38983124024" })
+	public String cpf;
+
+	private ValidatorFactory factory;
+
+	private Validator validator;
+
+	private LegacyRentDTO legacyDto;
+
+	private RentDTO dto;
+
+	@Setup
+	public void setUp() {
+		factory = Validation.buildDefaultValidatorFactory();
+		validator = factory.getValidator();
+		legacyDto = new LegacyRentDTO("BK000000042", cpf);
+		dto = RentDTO.builder().customerEmail("customer@mail.com").chassi("BK000000042").cpf(cpf).build();
+	}
+
+	@TearDown
+	public void tearDown() {
+		factory.close();
+	}
+
+	@Benchmark
+	public Set<ConstraintViolation<LegacyRentDTO>> hibernateAnnotations() {
+		return validator.validate(legacyDto);
+	}
+
+	@Benchmark
+	public Set<ConstraintViolation<RentDTO>> customAnnotations() {
+		return validator.validate(dto);
+	}
+
+	@Benchmark
+	public boolean customValidatorsOnly() {
+		return CpfValidator.isValid(cpf) && ChassiValidator.isValid(dto.getChassi(), 6, 255);
+	}
+
+	/**
+	 * O {@link RentDTO} com as restricoes de cpf e chassi anteriores a
+	 * {@code @Cpf} e {@code @Chassi}, e os mesmos demais campos validados.
+	 */
+	public static class LegacyRentDTO {
+
+		@NotEmpty
+		@Email
+		private String customerEmail = "customer@mail.com";
+
+		@NotNull
+		private Integer rentHoursDuration = 0;
+
+		@NotEmpty
+		@Size(min = 6)
+		private String chassi;
+
+		@NotEmpty
+		@CPF
+		private String cpf;
+
+		public LegacyRentDTO(String chassi, String cpf) {
+			this.chassi = chassi;
+			this.cpf = cpf;
+		}
+
+	}
+
+}
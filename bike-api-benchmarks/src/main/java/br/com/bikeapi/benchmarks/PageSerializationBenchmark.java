@@ -0,0 +1,76 @@
+package br.com.bikeapi.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import br.com.bikeapi.api.dto.BikeDTO;
+import br.com.bikeapi.api.dto.ClientDTO;
+import br.com.bikeapi.api.dto.RentDTO;
+
+/**
+ * Serializacao com o Jackson de uma pagina de {@link RentDTO}, a resposta de
+ * {@code GET /api/rent}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PageSerializationBenchmark {
+
+	@Param({ "10", "100" })
+	public int pageSize;
+
+	private ObjectMapper objectMapper;
+
+	private PageImpl<RentDTO> page;
+
+	@Setup
+	public void setUp() {
+		// mesma configuracao que o Spring Boot aplica ao ObjectMapper da aplicacao
+		objectMapper = Jackson2ObjectMapperBuilder.json()
+				.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+				.build();
+		List<RentDTO> rents = new ArrayList<>(pageSize);
+		for (int i = 0; i < pageSize; i++) {
+			rents.add(RentDTO.builder()
+						.id((long) i)
+						.customerEmail("customer" + i + "@mail.com")
+						.rentHoursDuration(4)
+						.chassi("BENCH" + i)
+						.cpf("389.831.240-24")
+						.bike(BikeDTO.builder().id((long) i).chassi("BENCH" + i).model("Caloi Volcano")
+								.color("preta").companyProperty(true).build())
+						.cliente(ClientDTO.builder().id((long) i).nome("Cliente " + i).cpf("389.831.240-24").build())
+						.build());
+		}
+		page = new PageImpl<>(rents, PageRequest.of(0, pageSize), 10_000);
+	}
+
+	@Benchmark
+	public byte[] serializePage() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(page);
+	}
+
+}
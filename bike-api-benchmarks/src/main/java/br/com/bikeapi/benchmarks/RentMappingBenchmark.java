@@ -0,0 +1,64 @@
+package br.com.bikeapi.benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.bikeapi.api.dto.BikeDTO;
+import br.com.bikeapi.api.dto.ClientDTO;
+import br.com.bikeapi.api.dto.RentDTO;
+import br.com.bikeapi.model.entity.Bike;
+import br.com.bikeapi.model.entity.Client;
+import br.com.bikeapi.model.entity.Rent;
+
+/**
+ * Mapeamento de um {@link Rent} para {@link RentDTO} com o ModelMapper, do
+ * mesmo jeito que cada linha das listagens de alugueis e montada.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RentMappingBenchmark {
+
+	private ModelMapper mapper;
+
+	private Rent rent;
+
+	@Setup
+	public void setUp() {
+		mapper = new ModelMapper();
+		rent = Rent.builder()
+					.id(1l)
+					.rentDate(LocalDateTime.now())
+					.expectedReturnDate(LocalDateTime.now().plusHours(5))
+					.rentHoursDuration(4)
+					.customerEmail("customer@mail.com")
+					.bike(Bike.builder().id(1l).chassi("123abc").model("Caloi Volcano").color("preta")
+							.companyProperty(true).build())
+					.client(Client.builder().id(1l).nome("Fulano").cpf("389.831.240-24").build())
+					.build();
+	}
+
+	@Benchmark
+	public RentDTO mapRentToDto() {
+		RentDTO rentDTO = mapper.map(rent, RentDTO.class);
+		rentDTO.setBike(mapper.map(rent.getBike(), BikeDTO.class));
+		rentDTO.setCliente(mapper.map(rent.getClient(), ClientDTO.class));
+		return rentDTO;
+	}
+
+}
@@ -0,0 +1,103 @@
+package br.com.bikeapi.benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import br.com.bikeapi.model.entity.Bike;
+import br.com.bikeapi.model.entity.Client;
+import br.com.bikeapi.model.entity.Rent;
+import br.com.bikeapi.model.repository.BikeRepository;
+import br.com.bikeapi.model.repository.ClientRepository;
+import br.com.bikeapi.service.RentService;
+
+/**
+ * Criacao de alugueis por {@code RentServiceImpl.save} contra o H2: a trava
+ * da bicicleta e do cliente, a verificacao do status e do aluguel em
+ * andamento, o insert e a atualizacao dos dois.
+ * 
+ * <p>Cada iteracao salva exatamente {@link #BATCH} alugueis, um para cada par
+ * bicicleta/cliente livre, e o score e o tempo do lote inteiro. Antes de cada
+ * iteracao todos os alugueis sao devolvidos e as bicicletas e os clientes
+ * liberados de novo.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, batchSize = RentSaveBenchmark.BATCH)
+@Measurement(iterations = 10, batchSize = RentSaveBenchmark.BATCH)
+@Fork(1)
+public class RentSaveBenchmark {
+
+	static final int BATCH = 1000;
+
+	private ConfigurableApplicationContext context;
+
+	private RentService service;
+
+	private JdbcTemplate jdbcTemplate;
+
+	private List<Bike> bikes;
+
+	private List<Client> clients;
+
+	private int next;
+
+	@Setup
+	public void setUp() {
+		context = BenchmarkContext.start();
+		service = context.getBean(RentService.class);
+		jdbcTemplate = context.getBean(JdbcTemplate.class);
+		List<Bike> newBikes = new ArrayList<>(BATCH);
+		List<Client> newClients = new ArrayList<>(BATCH);
+		for (int i = 0; i < BATCH; i++) {
+			newBikes.add(Bike.builder().chassi("BENCH" + i).model("Caloi Volcano").color("preta")
+					.companyProperty(true).build());
+			newClients.add(Client.builder().nome("Cliente " + i).cpf(String.format("%011d", i)).build());
+		}
+		bikes = context.getBean(BikeRepository.class).saveAll(newBikes);
+		clients = context.getBean(ClientRepository.class).saveAll(newClients);
+	}
+
+	@Setup(Level.Iteration)
+	public void returnAllBikes() {
+		jdbcTemplate.update("update rent set returned_date_time = current_timestamp where returned_date_time is null");
+		jdbcTemplate.update("update bike set status = 'AVAILABLE' where status = 'RENTED'");
+		jdbcTemplate.update("update client set active_rent_id = null where active_rent_id is not null");
+		next = 0;
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public Rent save() {
+		int index = next++;
+		return service.save(Rent.builder()
+						.bike(bikes.get(index))
+						.client(clients.get(index))
+						.rentDate(LocalDateTime.now())
+						.rentHoursDuration(4)
+						.customerEmail("customer@mail.com")
+						.build());
+	}
+
+}
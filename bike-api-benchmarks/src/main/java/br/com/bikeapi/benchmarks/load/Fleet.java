@@ -0,0 +1,124 @@
+package br.com.bikeapi.benchmarks.load;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.context.ApplicationContext;
+
+import br.com.bikeapi.config.DataGenProperties;
+import br.com.bikeapi.datagen.SyntheticDataGenerator;
+import br.com.bikeapi.service.bloom.UniqueKeyFilterLoader;
+
+/**
+ * Frota semeada para o teste de carga: {@code size} bicicletas e
+ * {@code size} clientes, formando pares fixos (a bicicleta {@code i} e sempre
+ * alugada pelo cliente {@code i}). Os pares livres e os alugueis em aberto
+ * ficam em filas concorrentes, para que criacoes e devolucoes simultaneas
+ * nunca disputem o mesmo par.
+ */
+class Fleet {
+
+	/** Trechos de modelo e cores usados no filtro de bicicletas. */
+	static final String[] MODELS = { "caloi", "sense", "oggi", "trek" };
+
+	static final String[] COLORS = { "preta", "branca", "vermelha", "azul" };
+
+	private final List<String> chassis;
+
+	private final List<String> cpfs;
+
+	private final Queue<Integer> free = new ConcurrentLinkedQueue<>();
+
+	private final Queue<ActiveRent> active = new ConcurrentLinkedQueue<>();
+
+	private Fleet(List<String> chassis, List<String> cpfs) {
+		this.chassis = chassis;
+		this.cpfs = cpfs;
+		for (int i = 0; i < chassis.size(); i++) {
+			free.add(i);
+		}
+	}
+
+	/**
+	 * Semeia a frota pelo {@link SyntheticDataGenerator}, com um historico de
+	 * {@code rentsPerPair} alugueis ja devolvidos por par, e recarrega os
+	 * filtros de unicidade, que nao veem as linhas inseridas por JDBC.
+	 */
+	static Fleet seed(ApplicationContext context, int size, int rentsPerPair, long seed) {
+		DataGenProperties settings = new DataGenProperties();
+		settings.setSeed(seed);
+		settings.setBikes(size);
+		settings.setClients(size);
+		settings.setRents(size * rentsPerPair);
+		settings.setActiveRatio(0);
+		context.getBean(SyntheticDataGenerator.class).generate(settings);
+		context.getBean(UniqueKeyFilterLoader.class).rebuild();
+
+		List<String> chassis = new ArrayList<>(size);
+		List<String> cpfs = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			chassis.add(SyntheticDataGenerator.chassi(seed, i));
+			cpfs.add(SyntheticDataGenerator.cpf(seed, i));
+		}
+		return new Fleet(chassis, cpfs);
+	}
+
+	int size() {
+		return chassis.size();
+	}
+
+	String chassi(int pair) {
+		return chassis.get(pair);
+	}
+
+	String cpf(int pair) {
+		return cpfs.get(pair);
+	}
+
+	String randomCpf() {
+		return cpfs.get(ThreadLocalRandom.current().nextInt(cpfs.size()));
+	}
+
+	String randomModel() {
+		return MODELS[ThreadLocalRandom.current().nextInt(MODELS.length)];
+	}
+
+	String randomColor() {
+		return COLORS[ThreadLocalRandom.current().nextInt(COLORS.length)];
+	}
+
+	/** @return um par livre, ou {@code null} quando todos estao alugados */
+	Integer takeFree() {
+		return free.poll();
+	}
+
+	void release(int pair) {
+		free.add(pair);
+	}
+
+	void rented(long rentId, int pair) {
+		active.add(new ActiveRent(rentId, pair));
+	}
+
+	/** @return um aluguel em aberto, ou {@code null} quando nao ha nenhum */
+	ActiveRent takeActive() {
+		return active.poll();
+	}
+
+	static class ActiveRent {
+
+		final long id;
+
+		final int pair;
+
+		ActiveRent(long id, int pair) {
+			this.id = id;
+			this.pair = pair;
+		}
+
+	}
+
+}
@@ -0,0 +1,119 @@
+package br.com.bikeapi.benchmarks.load;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Renderiza o {@link LoadTestReport} numa pagina HTML sem dependencias
+ * externas: um grafico SVG da vazao e do p99 por taxa oferecida e as tabelas
+ * de cada estagio.
+ */
+final class HtmlReport {
+
+	private static final int WIDTH = 720;
+
+	private static final int HEIGHT = 260;
+
+	private static final int MARGIN = 40;
+
+	private HtmlReport() {
+	}
+
+	static String render(LoadTestReport report) {
+		StringBuilder html = new StringBuilder();
+		html.append("<!DOCTYPE html>\n<html><head><meta charset=\"utf-8\"><title>bike-api - teste de carga</title>\n")
+				.append("<style>body{font-family:sans-serif;margin:2em}table{border-collapse:collapse;margin:1em 0}")
+				.append("td,th{border:1px solid #ccc;padding:4px 8px;text-align:right}th{background:#eee}")
+				.append("tr.saturated td{background:#fde2e2}td.text{text-align:left}</style></head><body>\n")
+				.append("<h1>bike-api - teste de carga</h1>\n")
+				.append("<p>Inicio: ").append(report.startedAt).append("<br>Configuracao: ")
+				.append(escape(report.settings.toString())).append("</p>\n")
+				.append("<p><strong>Teto sustentado:</strong> ")
+				.append(format("%.1f req/s", report.maxSustainedThroughput))
+				.append(" &mdash; <strong>saturacao:</strong> ")
+				.append(report.saturationRate == null ? "nao atingida" : report.saturationRate + " req/s oferecidas")
+				.append("</p>\n");
+
+		chart(html, report.stages);
+
+		html.append("<h2>Estagios</h2>\n<table><tr><th>oferecida (req/s)</th><th>atendida (req/s)</th>")
+				.append("<th>requisicoes</th><th>erros</th><th>p50 (ms)</th><th>p90 (ms)</th><th>p99 (ms)</th>")
+				.append("<th>p99.9 (ms)</th><th>max (ms)</th><th>saturacao</th></tr>\n");
+		for (StageResult stage : report.stages) {
+			html.append(stage.saturated ? "<tr class=\"saturated\">" : "<tr>")
+					.append(cell(stage.offeredRate)).append(cell(format("%.1f", stage.achievedThroughput)))
+					.append(cell(stage.requests)).append(cell(format("%.2f%%", stage.errorRate * 100)));
+			latencyCells(html, stage.latency);
+			html.append("<td class=\"text\">").append(escape(String.join("; ", stage.saturationReasons)))
+					.append("</td></tr>\n");
+		}
+		html.append("</table>\n");
+
+		for (StageResult stage : report.stages) {
+			html.append("<h3>").append(stage.offeredRate).append(" req/s</h3>\n<table><tr><th>cenario</th>")
+					.append("<th>requisicoes</th><th>erros</th><th>p50 (ms)</th><th>p90 (ms)</th><th>p99 (ms)</th>")
+					.append("<th>p99.9 (ms)</th><th>max (ms)</th></tr>\n");
+			for (ScenarioResult scenario : stage.scenarios) {
+				html.append("<tr><td class=\"text\">").append(scenario.scenario).append("</td>")
+						.append(cell(scenario.requests)).append(cell(scenario.errors));
+				latencyCells(html, scenario.latency);
+				html.append("</tr>\n");
+			}
+			html.append("</table>\n");
+		}
+		return html.append("</body></html>\n").toString();
+	}
+
+	/**
+	 * Vazao atendida (azul) contra a oferecida (cinza) e o p99 (vermelho), cada
+	 * serie na sua propria escala vertical.
+	 */
+	private static void chart(StringBuilder html, List<StageResult> stages) {
+		if (stages.isEmpty()) {
+			return;
+		}
+		double maxRate = stages.stream().mapToDouble(stage -> Math.max(stage.offeredRate, stage.achievedThroughput))
+				.max().orElse(1d);
+		double maxP99 = Math.max(1d, stages.stream().mapToDouble(stage -> stage.latency.p99).max().orElse(1d));
+		html.append("<svg width=\"").append(WIDTH).append("\" height=\"").append(HEIGHT)
+				.append("\" style=\"border:1px solid #ccc\">\n");
+		polyline(html, stages, "#999", stage -> stage.offeredRate / maxRate);
+		polyline(html, stages, "#1f77b4", stage -> stage.achievedThroughput / maxRate);
+		polyline(html, stages, "#d62728", stage -> stage.latency.p99 / maxP99);
+		html.append("<text x=\"").append(MARGIN).append("\" y=\"20\" font-size=\"12\">")
+				.append(format("vazao ate %.0f req/s (cinza: oferecida, azul: atendida); ", maxRate))
+				.append(format("p99 ate %.1f ms (vermelho)", maxP99)).append("</text>\n</svg>\n");
+	}
+
+	private static void polyline(StringBuilder html, List<StageResult> stages, String color,
+			ToDoubleFunction<StageResult> value) {
+		html.append("<polyline fill=\"none\" stroke-width=\"2\" stroke=\"").append(color).append("\" points=\"");
+		double step = stages.size() == 1 ? 0 : (WIDTH - 2d * MARGIN) / (stages.size() - 1);
+		for (int i = 0; i < stages.size(); i++) {
+			double x = MARGIN + i * step;
+			double y = HEIGHT - MARGIN - value.applyAsDouble(stages.get(i)) * (HEIGHT - 2d * MARGIN);
+			html.append(format("%.1f,%.1f ", x, y));
+		}
+		html.append("\"/>\n");
+	}
+
+	private static void latencyCells(StringBuilder html, LatencySummary latency) {
+		html.append(cell(format("%.1f", latency.p50))).append(cell(format("%.1f", latency.p90)))
+				.append(cell(format("%.1f", latency.p99))).append(cell(format("%.1f", latency.p999)))
+				.append(cell(format("%.1f", latency.max)));
+	}
+
+	private static String cell(Object value) {
+		return "<td>" + value + "</td>";
+	}
+
+	private static String format(String pattern, Object... args) {
+		return String.format(Locale.ROOT, pattern, args);
+	}
+
+	private static String escape(String text) {
+		return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+	}
+
+}
@@ -0,0 +1,39 @@
+package br.com.bikeapi.benchmarks.load;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Percentis de latencia, em milissegundos, extraidos de um histograma
+ * gravado em microssegundos.
+ */
+public class LatencySummary {
+
+	public final long count;
+
+	public final double mean;
+
+	public final double p50;
+
+	public final double p90;
+
+	public final double p99;
+
+	public final double p999;
+
+	public final double max;
+
+	LatencySummary(Histogram micros) {
+		this.count = micros.getTotalCount();
+		this.mean = count == 0 ? 0d : micros.getMean() / 1000d;
+		this.p50 = millis(micros, 50d);
+		this.p90 = millis(micros, 90d);
+		this.p99 = millis(micros, 99d);
+		this.p999 = millis(micros, 99.9d);
+		this.max = micros.getMaxValue() / 1000d;
+	}
+
+	private static double millis(Histogram micros, double percentile) {
+		return micros.getValueAtPercentile(percentile) / 1000d;
+	}
+
+}
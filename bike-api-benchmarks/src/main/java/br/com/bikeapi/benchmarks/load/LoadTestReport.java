@@ -0,0 +1,78 @@
+package br.com.bikeapi.benchmarks.load;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+/**
+ * Relatorio do teste de carga: a configuracao usada, o resultado de cada
+ * estagio e o ponto de saturacao encontrado.
+ */
+public class LoadTestReport {
+
+	public final Instant startedAt;
+
+	public final Map<String, Object> settings;
+
+	public final List<StageResult> stages;
+
+	/** Taxa oferecida do primeiro estagio saturado, ou {@code null} se nenhum saturou. */
+	public final Integer saturationRate;
+
+	/** Maior vazao atendida num estagio nao saturado: o teto de capacidade do no. */
+	public final double maxSustainedThroughput;
+
+	LoadTestReport(Instant startedAt, LoadTestSettings settings, List<StageResult> stages) {
+		this.startedAt = startedAt;
+		this.settings = describe(settings);
+		this.stages = Collections.unmodifiableList(stages);
+		this.saturationRate = stages.stream().filter(stage -> stage.saturated).map(stage -> stage.offeredRate)
+				.findFirst().orElse(null);
+		this.maxSustainedThroughput = stages.stream().filter(stage -> !stage.saturated)
+				.mapToDouble(stage -> stage.achievedThroughput).max().orElse(0d);
+	}
+
+	private static Map<String, Object> describe(LoadTestSettings settings) {
+		Map<String, Object> description = new LinkedHashMap<>();
+		description.put("rates", settings.rates);
+		description.put("stageSeconds", settings.stageSeconds);
+		description.put("warmupSeconds", settings.warmupSeconds);
+		description.put("fleet", settings.fleet);
+		description.put("historyRentsPerPair", settings.historyRentsPerPair);
+		description.put("seed", settings.seed);
+		Map<String, Integer> mix = new LinkedHashMap<>();
+		settings.mix.forEach((scenario, weight) -> mix.put(scenario.getKey(), weight));
+		description.put("mix", mix);
+		description.put("arrivals", settings.poisson ? "poisson" : "constant");
+		description.put("maxConcurrency", settings.maxConcurrency);
+		description.put("sloP99Millis", settings.sloP99Millis);
+		description.put("maxErrorRate", settings.maxErrorRate);
+		description.put("minThroughputRatio", settings.minThroughputRatio);
+		return description;
+	}
+
+	/**
+	 * Grava {@code load-test.json} e {@code load-test.html} no diretorio.
+	 */
+	void write(File directory) throws IOException {
+		directory.mkdirs();
+		new ObjectMapper()
+				.registerModule(new JavaTimeModule())
+				.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+				.writerWithDefaultPrettyPrinter()
+				.writeValue(new File(directory, "load-test.json"), this);
+		Files.write(new File(directory, "load-test.html").toPath(),
+				HtmlReport.render(this).getBytes(StandardCharsets.UTF_8));
+	}
+
+}
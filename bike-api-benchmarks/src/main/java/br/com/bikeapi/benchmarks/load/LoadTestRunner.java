@@ -0,0 +1,59 @@
+package br.com.bikeapi.benchmarks.load;
+
+import java.io.File;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import br.com.bikeapi.benchmarks.BenchmarkContext;
+
+/**
+ * Sobe a api numa porta livre com H2, semeia a frota e aplica estagios de
+ * carga crescente em modelo aberto, gravando os relatorios JSON e HTML.
+ * 
+ * <p>Configurado pelas propriedades {@code load.*} (veja
+ * {@link LoadTestSettings}). Um estagio de aquecimento, fora do relatorio,
+ * roda antes na menor taxa para tirar o JIT e os caches frios da medicao.</p>
+ */
+public class LoadTestRunner {
+
+	public static void main(String[] args) throws Exception {
+		LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+		Instant startedAt = Instant.now();
+		List<StageResult> stages = new ArrayList<>();
+
+		try (ConfigurableApplicationContext context = BenchmarkContext.start(WebApplicationType.SERVLET,
+				"server.port=0",
+				"server.tomcat.threads.max=" + settings.maxConcurrency)) {
+			int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+			Fleet fleet = Fleet.seed(context, settings.fleet, settings.historyRentsPerPair, settings.seed);
+			System.out.println("Api em http://localhost:" + port + " com " + fleet.size() + " bicicletas e clientes");
+
+			try (Workload workload = new Workload("http://localhost:" + port, fleet, settings.maxConcurrency);
+					OpenModelDriver driver = new OpenModelDriver(workload, settings)) {
+				if (settings.warmupSeconds > 0) {
+					driver.run(settings.rates.get(0), settings.warmupSeconds);
+				}
+				for (int rate : settings.rates) {
+					StageResult stage = driver.run(rate, settings.stageSeconds);
+					stages.add(stage);
+					System.out.println(String.format("%5d req/s oferecidas: %8.1f atendidas, p99 %8.1f ms, erros %.2f%%%s",
+							rate, stage.achievedThroughput, stage.latency.p99, stage.errorRate * 100,
+							stage.saturated ? " -> saturado: " + String.join("; ", stage.saturationReasons) : ""));
+					if (stage.saturated && !settings.continueAfterSaturation) {
+						break;
+					}
+				}
+			}
+		}
+
+		File directory = new File(settings.reportDirectory);
+		new LoadTestReport(startedAt, settings, stages).write(directory);
+		System.out.println("Relatorios em " + directory.getAbsolutePath());
+	}
+
+}
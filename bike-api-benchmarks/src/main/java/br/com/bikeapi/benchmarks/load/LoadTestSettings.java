@@ -0,0 +1,106 @@
+package br.com.bikeapi.benchmarks.load;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parametros do teste de carga, lidos das propriedades de sistema
+ * {@code load.*} (veja o pom do modulo).
+ */
+public class LoadTestSettings {
+
+	/** Taxas de chegada oferecidas, em requisicoes por segundo, uma por estagio. */
+	public final List<Integer> rates;
+
+	public final int stageSeconds;
+
+	public final int warmupSeconds;
+
+	/** Quantidade de bicicletas e de clientes semeados antes do teste. */
+	public final int fleet;
+
+	/** Alugueis ja devolvidos semeados por par bicicleta/cliente. */
+	public final int historyRentsPerPair;
+
+	/** Semente do gerador de dados sinteticos. */
+	public final long seed;
+
+	/** Peso de cada cenario no sorteio de cada chegada. */
+	public final Map<Scenario, Integer> mix;
+
+	/** {@code poisson} (intervalos exponenciais) ou {@code constant}. */
+	public final boolean poisson;
+
+	/** Limite de requisicoes em andamento; as demais esperam na fila. */
+	public final int maxConcurrency;
+
+	public final long sloP99Millis;
+
+	public final double maxErrorRate;
+
+	/** Fracao minima da taxa oferecida que precisa ser atendida. */
+	public final double minThroughputRatio;
+
+	/** Continua subindo a taxa mesmo depois do primeiro estagio saturado. */
+	public final boolean continueAfterSaturation;
+
+	public final String reportDirectory;
+
+	LoadTestSettings(List<Integer> rates, int stageSeconds, int warmupSeconds, int fleet,
+			int historyRentsPerPair, long seed, Map<Scenario, Integer> mix, boolean poisson, int maxConcurrency, long sloP99Millis, double maxErrorRate,
+			double minThroughputRatio, boolean continueAfterSaturation, String reportDirectory) {
+		this.rates = Collections.unmodifiableList(rates);
+		this.stageSeconds = stageSeconds;
+		this.warmupSeconds = warmupSeconds;
+		this.fleet = fleet;
+		this.historyRentsPerPair = historyRentsPerPair;
+		this.seed = seed;
+		this.mix = Collections.unmodifiableMap(mix);
+		this.poisson = poisson;
+		this.maxConcurrency = maxConcurrency;
+		this.sloP99Millis = sloP99Millis;
+		this.maxErrorRate = maxErrorRate;
+		this.minThroughputRatio = minThroughputRatio;
+		this.continueAfterSaturation = continueAfterSaturation;
+		this.reportDirectory = reportDirectory;
+	}
+
+	public static LoadTestSettings fromSystemProperties() {
+		return new LoadTestSettings(
+				parseRates(System.getProperty("load.rates", "25,50,100,200,400,800")),
+				Integer.getInteger("load.stage-seconds", 30),
+				Integer.getInteger("load.warmup-seconds", 10),
+				Integer.getInteger("load.fleet", 2000),
+				Integer.getInteger("load.history-rents-per-pair", 5),
+				Long.getLong("load.seed", 42),
+				parseMix(System.getProperty("load.mix", "create:25,return:25,list:25,filter:25")),
+				!"constant".equalsIgnoreCase(System.getProperty("load.arrivals", "poisson")),
+				Integer.getInteger("load.max-concurrency", 200),
+				Long.getLong("load.slo-p99-ms", 500),
+				Double.parseDouble(System.getProperty("load.max-error-rate", "0.01")),
+				Double.parseDouble(System.getProperty("load.min-throughput-ratio", "0.95")),
+				Boolean.getBoolean("load.continue-after-saturation"),
+				System.getProperty("load.report-dir", "target/load-test"));
+	}
+
+	static List<Integer> parseRates(String value) {
+		List<Integer> rates = new ArrayList<>();
+		for (String rate : value.split(",")) {
+			rates.add(Integer.valueOf(rate.trim()));
+		}
+		return rates;
+	}
+
+	static Map<Scenario, Integer> parseMix(String value) {
+		Map<Scenario, Integer> mix = new EnumMap<>(Scenario.class);
+		for (String entry : value.split(",")) {
+			String[] parts = entry.split(":");
+			mix.put(Scenario.of(parts[0].trim()), Integer.valueOf(parts[1].trim()));
+		}
+		return mix;
+	}
+
+}
@@ -0,0 +1,150 @@
+package br.com.bikeapi.benchmarks.load;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import br.com.bikeapi.benchmarks.load.Workload.Call;
+
+/**
+ * Gerador de carga em modelo aberto: as chegadas seguem a taxa configurada
+ * independentemente de quantas requisicoes ainda estao em andamento, como
+ * acontece com usuarios reais. Num modelo fechado (N threads em loop) o
+ * gerador desacelera junto com o servidor e a saturacao nunca aparece.
+ * 
+ * <p>Cada chegada tem um instante planejado; a latencia gravada vai desse
+ * instante ate a resposta, incluindo o tempo de espera na fila local quando
+ * as {@code maxConcurrency} conexoes estao ocupadas.</p>
+ */
+class OpenModelDriver implements AutoCloseable {
+
+	/** Maior latencia registravel: 60 segundos, em microssegundos. */
+	private static final long HIGHEST_MICROS = TimeUnit.SECONDS.toMicros(60);
+
+	private static final long DRAIN_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+	private final Workload workload;
+
+	private final LoadTestSettings settings;
+
+	private final ExecutorService executor;
+
+	private final Scenario[] scenarios;
+
+	private final int[] cumulativeWeights;
+
+	OpenModelDriver(Workload workload, LoadTestSettings settings) {
+		this.workload = workload;
+		this.settings = settings;
+		AtomicInteger threads = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(settings.maxConcurrency, settings.maxConcurrency, 0L,
+				TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+					Thread thread = new Thread(runnable, "load-" + threads.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+		this.scenarios = settings.mix.keySet().toArray(new Scenario[0]);
+		this.cumulativeWeights = new int[scenarios.length];
+		int total = 0;
+		for (int i = 0; i < scenarios.length; i++) {
+			total += settings.mix.get(scenarios[i]);
+			cumulativeWeights[i] = total;
+		}
+	}
+
+	StageResult run(int rate, int seconds) {
+		Map<Scenario, Recorder> recorders = new EnumMap<>(Scenario.class);
+		Map<Scenario, LongAdder> errors = new EnumMap<>(Scenario.class);
+		for (Scenario scenario : Scenario.values()) {
+			recorders.put(scenario, new Recorder(HIGHEST_MICROS, 3));
+			errors.put(scenario, new LongAdder());
+		}
+		AtomicLong submitted = new AtomicLong();
+		AtomicLong completed = new AtomicLong();
+		LongAdder successesInWindow = new LongAdder();
+
+		long start = System.nanoTime();
+		long end = start + TimeUnit.SECONDS.toNanos(seconds);
+		long intended = start;
+		while (intended < end) {
+			long wait = intended - System.nanoTime();
+			if (wait > 0) {
+				LockSupport.parkNanos(wait);
+			}
+			long intendedStart = intended;
+			Scenario scenario = pick();
+			submitted.incrementAndGet();
+			executor.execute(() -> {
+				Call call = workload.run(scenario);
+				long now = System.nanoTime();
+				recorders.get(call.scenario).recordValue(
+						Math.min(TimeUnit.NANOSECONDS.toMicros(now - intendedStart), HIGHEST_MICROS));
+				if (call.isError()) {
+					errors.get(call.scenario).increment();
+				} else if (now < end) {
+					successesInWindow.increment();
+				}
+				completed.incrementAndGet();
+			});
+			intended += nextInterval(rate);
+		}
+
+		long drainDeadline = System.nanoTime() + DRAIN_TIMEOUT_NANOS;
+		while (completed.get() < submitted.get() && System.nanoTime() < drainDeadline) {
+			LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+		}
+
+		Histogram total = new Histogram(HIGHEST_MICROS, 3);
+		long totalErrors = 0;
+		List<ScenarioResult> results = new ArrayList<>();
+		for (Scenario scenario : Scenario.values()) {
+			Histogram histogram = recorders.get(scenario).getIntervalHistogram();
+			if (histogram.getTotalCount() == 0) {
+				continue;
+			}
+			total.add(histogram);
+			totalErrors += errors.get(scenario).sum();
+			results.add(new ScenarioResult(scenario.getKey(), errors.get(scenario).sum(), histogram));
+		}
+		return new StageResult(rate, successesInWindow.sum() / (double) seconds, totalErrors,
+				Math.max(0, submitted.get() - total.getTotalCount()), total, results, settings);
+	}
+
+	private Scenario pick() {
+		int value = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+		for (int i = 0; i < cumulativeWeights.length; i++) {
+			if (value < cumulativeWeights[i]) {
+				return scenarios[i];
+			}
+		}
+		return scenarios[scenarios.length - 1];
+	}
+
+	private long nextInterval(int rate) {
+		double mean = TimeUnit.SECONDS.toNanos(1) / (double) rate;
+		if (!settings.poisson) {
+			return (long) mean;
+		}
+		// intervalos exponenciais: chegadas de Poisson, com rajadas como no trafego real
+		return (long) (-Math.log(1d - ThreadLocalRandom.current().nextDouble()) * mean);
+	}
+
+	@Override
+	public void close() {
+		executor.shutdownNow();
+	}
+
+}
@@ -0,0 +1,133 @@
+package br.com.bikeapi.benchmarks.load;
+
+import java.io.File;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.IntSupplier;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import br.com.bikeapi.benchmarks.BenchmarkContext;
+import br.com.bikeapi.benchmarks.load.ReadStackReport.Stack;
+import br.com.bikeapi.benchmarks.load.ReadStackReport.Stage;
+import br.com.bikeapi.benchmarks.load.ResourceSampler.ResourceUsage;
+import br.com.bikeapi.reactive.BikeApiReactiveApplication;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.PoolMetrics;
+
+/**
+ * Aplica a mesma carga de leituras na api servlet (Tomcat + JDBC) e na
+ * reativa (Reactor Netty + R2DBC), uma depois da outra, e compara as threads
+ * do servidor e as conexoes com o banco que cada uma precisou para atender
+ * cada taxa.
+ * 
+ * <p>As duas sobem na mesma JVM sobre o mesmo H2 em memoria, com pools do
+ * mesmo tamanho ({@code load.db-pool-size}); a frota e semeada uma vez pela
+ * api servlet. Aceita apenas os cenarios de leitura ({@code list} e
+ * {@code filter}) em {@code load.mix}. O R2DBC do H2 roda as consultas na
+ * propria thread de I/O (o H2 embarcado nao tem I/O de rede), entao a
+ * comparacao mostra o uso de threads e conexoes, nao a latencia contra um
+ * banco remoto.</p>
+ */
+public class ReadStackComparisonRunner {
+
+	private static final String DATABASE = "readstack";
+
+	private static final Set<Scenario> READ_SCENARIOS = EnumSet.of(Scenario.LIST_RENTS, Scenario.FILTER_BIKES);
+
+	public static void main(String[] args) throws Exception {
+		LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+		if (!READ_SCENARIOS.containsAll(settings.mix.keySet())) {
+			throw new IllegalArgumentException("A api reativa so atende leituras; use load.mix=list:50,filter:50");
+		}
+		int poolSize = Integer.getInteger("load.db-pool-size", 10);
+		ReadStackReport report = new ReadStackReport(Instant.now(), settings, poolSize);
+
+		try (ConfigurableApplicationContext servlet = BenchmarkContext.start(WebApplicationType.SERVLET,
+				"server.port=0",
+				"server.tomcat.threads.max=" + settings.maxConcurrency,
+				"spring.datasource.url=jdbc:h2:mem:" + DATABASE + ";DB_CLOSE_DELAY=-1",
+				"spring.datasource.hikari.maximum-pool-size=" + poolSize);
+				ConfigurableApplicationContext reactive = startReactive(poolSize)) {
+			Fleet fleet = Fleet.seed(servlet, settings.fleet, settings.historyRentsPerPair, settings.seed);
+			HikariPoolMXBean hikari = servlet.getBean(DataSource.class).unwrap(HikariDataSource.class)
+					.getHikariPoolMXBean();
+			PoolMetrics r2dbc = reactive.getBean(ConnectionPool.class).getMetrics()
+					.orElseThrow(() -> new IllegalStateException("Pool R2DBC sem metricas"));
+			run(report.stack("servlet"), servlet, "http-nio-", hikari::getActiveConnections, fleet, settings);
+			run(report.stack("reactive"), reactive, "reactor-http-", r2dbc::acquiredSize, fleet, settings);
+		}
+
+		File directory = new File(settings.reportDirectory);
+		report.write(directory);
+		System.out.println("Relatorio em " + new File(directory, "read-stack-comparison.json").getAbsolutePath());
+	}
+
+	/*
+	 * O application.properties visivel e o da bike-api (vem antes no
+	 * classpath), entao a conexao R2DBC vai toda por argumento. Com o Tomcat da
+	 * bike-api tambem no classpath o Spring Boot serviria o WebFlux por ele; a
+	 * fabrica do Netty registrada aqui mantem o servidor de producao.
+	 */
+	private static ConfigurableApplicationContext startReactive(int poolSize) {
+		return new SpringApplicationBuilder(BikeApiReactiveApplication.class)
+				.web(WebApplicationType.REACTIVE)
+				.initializers((GenericApplicationContext context) -> context
+						.registerBean(NettyReactiveWebServerFactory.class))
+				.run("--server.port=0",
+						"--spring.main.banner-mode=off",
+						"--logging.file.name=",
+						"--logging.level.root=WARN",
+						"--spring.r2dbc.url=r2dbc:h2:mem:///" + DATABASE + ";DB_CLOSE_DELAY=-1",
+						"--spring.r2dbc.username=sa",
+						"--spring.r2dbc.password=password",
+						"--spring.r2dbc.pool.max-size=" + poolSize,
+						"--spring.autoconfigure.exclude="
+								+ "org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration");
+	}
+
+	private static void run(Stack stack, ConfigurableApplicationContext context, String threadPrefix,
+			IntSupplier connections, Fleet fleet, LoadTestSettings settings) throws Exception {
+		int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+		System.out.println("Api " + stack.name + " em http://localhost:" + port);
+
+		try (Workload workload = new Workload("http://localhost:" + port, fleet, settings.maxConcurrency);
+				OpenModelDriver driver = new OpenModelDriver(workload, settings)) {
+			if (settings.warmupSeconds > 0) {
+				driver.run(settings.rates.get(0), settings.warmupSeconds);
+			}
+			for (int rate : settings.rates) {
+				ResourceSampler sampler = ResourceSampler.start(threadPrefix, connections);
+				StageResult result;
+				ResourceUsage usage;
+				try {
+					result = driver.run(rate, settings.stageSeconds);
+				} finally {
+					usage = sampler.stop();
+				}
+				stack.stages.add(new Stage(result, usage));
+				System.out.println(String.format(
+						"%-8s %5d req/s oferecidas: %8.1f atendidas, p99 %8.1f ms, threads do servidor %4d,"
+								+ " conexoes em uso %4.1f (pico %2d)%s",
+						stack.name, rate, result.achievedThroughput, result.latency.p99, usage.peakServerThreads,
+						usage.meanConnectionsInUse, usage.peakConnectionsInUse,
+						result.saturated ? " -> saturado: " + String.join("; ", result.saturationReasons) : ""));
+				if (result.saturated && !settings.continueAfterSaturation) {
+					break;
+				}
+			}
+		}
+	}
+
+}
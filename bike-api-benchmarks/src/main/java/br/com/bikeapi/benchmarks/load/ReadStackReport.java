@@ -0,0 +1,88 @@
+package br.com.bikeapi.benchmarks.load;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import br.com.bikeapi.benchmarks.load.ResourceSampler.ResourceUsage;
+
+/**
+ * Comparacao das leituras na api servlet e na reativa: para cada taxa
+ * oferecida, a latencia e a vazao de cada pilha ao lado das threads e
+ * conexoes que ela precisou.
+ */
+public class ReadStackReport {
+
+	public final Instant startedAt;
+
+	public final Map<String, Object> settings;
+
+	public final List<Stack> stacks = new ArrayList<>();
+
+	ReadStackReport(Instant startedAt, LoadTestSettings settings, int databasePoolSize) {
+		this.startedAt = startedAt;
+		Map<String, Object> description = new LinkedHashMap<>();
+		description.put("rates", settings.rates);
+		description.put("stageSeconds", settings.stageSeconds);
+		description.put("fleet", settings.fleet);
+		Map<String, Integer> mix = new LinkedHashMap<>();
+		settings.mix.forEach((scenario, weight) -> mix.put(scenario.getKey(), weight));
+		description.put("mix", mix);
+		description.put("maxConcurrency", settings.maxConcurrency);
+		description.put("databasePoolSize", databasePoolSize);
+		this.settings = Collections.unmodifiableMap(description);
+	}
+
+	Stack stack(String name) {
+		Stack stack = new Stack(name);
+		stacks.add(stack);
+		return stack;
+	}
+
+	/**
+	 * Grava {@code read-stack-comparison.json} no diretorio.
+	 */
+	void write(File directory) throws IOException {
+		directory.mkdirs();
+		new ObjectMapper()
+				.registerModule(new JavaTimeModule())
+				.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+				.writerWithDefaultPrettyPrinter()
+				.writeValue(new File(directory, "read-stack-comparison.json"), this);
+	}
+
+	public static class Stack {
+
+		public final String name;
+
+		public final List<Stage> stages = new ArrayList<>();
+
+		Stack(String name) {
+			this.name = name;
+		}
+
+	}
+
+	public static class Stage {
+
+		public final StageResult result;
+
+		public final ResourceUsage resources;
+
+		Stage(StageResult result, ResourceUsage resources) {
+			this.result = result;
+			this.resources = resources;
+		}
+
+	}
+
+}
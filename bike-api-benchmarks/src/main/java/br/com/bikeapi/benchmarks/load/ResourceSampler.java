@@ -0,0 +1,114 @@
+package br.com.bikeapi.benchmarks.load;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+/**
+ * Amostra, durante um estagio, as threads do servidor HTTP e as conexoes com
+ * o banco em uso, guardando os picos e a media.
+ * 
+ * <p>As threads sao contadas pelo prefixo do nome ({@code http-nio-} no
+ * Tomcat, {@code reactor-http-} no Reactor Netty), porque a api servlet e a
+ * reativa rodam na mesma JVM. As conexoes vem do proprio pool (Hikari ou
+ * r2dbc-pool).</p>
+ */
+class ResourceSampler implements AutoCloseable {
+
+	private static final long INTERVAL_MILLIS = 50;
+
+	private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+	private final String threadPrefix;
+
+	private final IntSupplier connections;
+
+	private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "resource-sampler");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private int peakServerThreads;
+
+	private int peakJvmThreads;
+
+	private int peakConnections;
+
+	private long connectionSum;
+
+	private long samples;
+
+	private ResourceSampler(String threadPrefix, IntSupplier connections) {
+		this.threadPrefix = threadPrefix;
+		this.connections = connections;
+	}
+
+	static ResourceSampler start(String threadPrefix, IntSupplier connections) {
+		ResourceSampler sampler = new ResourceSampler(threadPrefix, connections);
+		sampler.scheduler.scheduleAtFixedRate(sampler::sample, 0, INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+		return sampler;
+	}
+
+	private synchronized void sample() {
+		int serverThreads = 0;
+		for (ThreadInfo info : threads.getThreadInfo(threads.getAllThreadIds(), 0)) {
+			if (info != null && info.getThreadName().startsWith(threadPrefix)) {
+				serverThreads++;
+			}
+		}
+		int inUse = connections.getAsInt();
+		peakServerThreads = Math.max(peakServerThreads, serverThreads);
+		peakJvmThreads = Math.max(peakJvmThreads, threads.getThreadCount());
+		peakConnections = Math.max(peakConnections, inUse);
+		connectionSum += inUse;
+		samples++;
+	}
+
+	/**
+	 * Para a amostragem e devolve o uso observado desde o inicio.
+	 */
+	ResourceUsage stop() throws InterruptedException {
+		scheduler.shutdown();
+		scheduler.awaitTermination(1, TimeUnit.SECONDS);
+		synchronized (this) {
+			return new ResourceUsage(peakServerThreads, peakJvmThreads, peakConnections,
+					samples == 0 ? 0d : connectionSum / (double) samples);
+		}
+	}
+
+	@Override
+	public void close() {
+		scheduler.shutdownNow();
+	}
+
+	/**
+	 * Uso de threads e conexoes de um estagio.
+	 */
+	public static class ResourceUsage {
+
+		/** Maior numero de threads do servidor HTTP vivas ao mesmo tempo. */
+		public final int peakServerThreads;
+
+		/** Maior numero de threads da JVM, incluindo as do gerador de carga. */
+		public final int peakJvmThreads;
+
+		public final int peakConnectionsInUse;
+
+		public final double meanConnectionsInUse;
+
+		ResourceUsage(int peakServerThreads, int peakJvmThreads, int peakConnectionsInUse,
+				double meanConnectionsInUse) {
+			this.peakServerThreads = peakServerThreads;
+			this.peakJvmThreads = peakJvmThreads;
+			this.peakConnectionsInUse = peakConnectionsInUse;
+			this.meanConnectionsInUse = meanConnectionsInUse;
+		}
+
+	}
+
+}
@@ -0,0 +1,39 @@
+package br.com.bikeapi.benchmarks.load;
+
+/**
+ * Operacoes que o teste de carga dispara contra a api.
+ */
+public enum Scenario {
+
+	/** POST /api/rent com um par bicicleta/cliente livre. */
+	CREATE_RENT("create"),
+
+	/** PATCH /api/rent/{id} devolvendo um aluguel em aberto. */
+	RETURN_RENT("return"),
+
+	/** GET /api/rent filtrando pelo cpf de um cliente. */
+	LIST_RENTS("list"),
+
+	/** GET /api/bikes filtrando por modelo e cor. */
+	FILTER_BIKES("filter");
+
+	private final String key;
+
+	Scenario(String key) {
+		this.key = key;
+	}
+
+	public String getKey() {
+		return key;
+	}
+
+	static Scenario of(String key) {
+		for (Scenario scenario : values()) {
+			if (scenario.key.equalsIgnoreCase(key)) {
+				return scenario;
+			}
+		}
+		throw new IllegalArgumentException("Cenario desconhecido: " + key);
+	}
+
+}
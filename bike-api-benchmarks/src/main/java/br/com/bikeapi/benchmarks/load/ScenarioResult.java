@@ -0,0 +1,25 @@
+package br.com.bikeapi.benchmarks.load;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Requisicoes, erros e latencia de um cenario dentro de um estagio.
+ */
+public class ScenarioResult {
+
+	public final String scenario;
+
+	public final long requests;
+
+	public final long errors;
+
+	public final LatencySummary latency;
+
+	ScenarioResult(String scenario, long errors, Histogram micros) {
+		this.scenario = scenario;
+		this.requests = micros.getTotalCount();
+		this.errors = errors;
+		this.latency = new LatencySummary(micros);
+	}
+
+}
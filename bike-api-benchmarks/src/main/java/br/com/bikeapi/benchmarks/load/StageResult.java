@@ -0,0 +1,70 @@
+package br.com.bikeapi.benchmarks.load;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Resultado de um estagio do teste de carga, com a taxa de chegada oferecida
+ * e a efetivamente atendida.
+ * 
+ * <p>Um estagio esta saturado quando atende menos que
+ * {@code minThroughputRatio} da taxa oferecida, quando a taxa de erros passa
+ * de {@code maxErrorRate} ou quando o p99 passa do SLO. Como a latencia e
+ * medida a partir do instante planejado de cada chegada (e nao de quando a
+ * requisicao conseguiu sair), a fila que se forma na saturacao aparece no
+ * p99 em vez de ser escondida.</p>
+ */
+public class StageResult {
+
+	public final int offeredRate;
+
+	public final double achievedThroughput;
+
+	public final long requests;
+
+	public final long errors;
+
+	/** Requisicoes que nao terminaram dentro do prazo de drenagem do estagio. */
+	public final long unfinished;
+
+	public final double errorRate;
+
+	public final LatencySummary latency;
+
+	public final List<ScenarioResult> scenarios;
+
+	public final boolean saturated;
+
+	public final List<String> saturationReasons;
+
+	StageResult(int offeredRate, double achievedThroughput, long errors, long unfinished, Histogram micros,
+			List<ScenarioResult> scenarios, LoadTestSettings settings) {
+		this.offeredRate = offeredRate;
+		this.achievedThroughput = achievedThroughput;
+		this.requests = micros.getTotalCount() + unfinished;
+		this.errors = errors + unfinished;
+		this.unfinished = unfinished;
+		this.errorRate = requests == 0 ? 0d : (double) this.errors / requests;
+		this.latency = new LatencySummary(micros);
+		this.scenarios = Collections.unmodifiableList(scenarios);
+
+		List<String> reasons = new ArrayList<>();
+		if (achievedThroughput < offeredRate * settings.minThroughputRatio) {
+			reasons.add(String.format("vazao %.1f req/s abaixo de %.0f%% da taxa oferecida", achievedThroughput,
+					settings.minThroughputRatio * 100));
+		}
+		if (errorRate > settings.maxErrorRate) {
+			reasons.add(String.format("taxa de erros %.2f%% acima de %.2f%%", errorRate * 100,
+					settings.maxErrorRate * 100));
+		}
+		if (latency.p99 > settings.sloP99Millis) {
+			reasons.add(String.format("p99 %.1f ms acima do SLO de %d ms", latency.p99, settings.sloP99Millis));
+		}
+		this.saturated = !reasons.isEmpty();
+		this.saturationReasons = Collections.unmodifiableList(reasons);
+	}
+
+}
@@ -0,0 +1,159 @@
+package br.com.bikeapi.benchmarks.load;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.ResponseErrorHandler;
+import org.springframework.web.client.RestTemplate;
+
+import br.com.bikeapi.benchmarks.load.Fleet.ActiveRent;
+
+/**
+ * Executa um cenario contra a api por HTTP, mantendo a {@link Fleet} em dia.
+ * 
+ * <p>Criar um aluguel sem par livre vira uma devolucao, e devolver sem
+ * aluguel em aberto vira uma criacao; o cenario efetivamente executado e o
+ * que vai para o relatorio.</p>
+ */
+class Workload implements AutoCloseable {
+
+	private static final ResponseErrorHandler NO_ERROR_HANDLER = new ResponseErrorHandler() {
+
+		@Override
+		public boolean hasError(ClientHttpResponse response) {
+			return false;
+		}
+
+		@Override
+		public void handleError(ClientHttpResponse response) {
+		}
+
+	};
+
+	private final String baseUrl;
+
+	private final Fleet fleet;
+
+	private final CloseableHttpClient httpClient;
+
+	private final RestTemplate restTemplate;
+
+	Workload(String baseUrl, Fleet fleet, int maxConnections) {
+		this.baseUrl = baseUrl;
+		this.fleet = fleet;
+		this.httpClient = HttpClients.custom()
+				.setMaxConnTotal(maxConnections)
+				.setMaxConnPerRoute(maxConnections)
+				.setDefaultRequestConfig(RequestConfig.custom()
+						.setConnectTimeout(2_000)
+						.setSocketTimeout(10_000)
+						.build())
+				.build();
+		this.restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+		this.restTemplate.setErrorHandler(NO_ERROR_HANDLER);
+	}
+
+	Call run(Scenario scenario) {
+		try {
+			switch (scenario) {
+			case CREATE_RENT:
+				return createRent(true);
+			case RETURN_RENT:
+				return returnRent(true);
+			case LIST_RENTS:
+				return new Call(scenario, restTemplate.getForEntity(baseUrl + "/api/rent?cpf={cpf}&page=0&size=20",
+						String.class, fleet.randomCpf()).getStatusCodeValue());
+			default:
+				return new Call(scenario, restTemplate.getForEntity(
+						baseUrl + "/api/bikes?model={model}&color={color}&page=0&size=20", String.class,
+						fleet.randomModel(), fleet.randomColor()).getStatusCodeValue());
+			}
+		} catch (RuntimeException e) {
+			return new Call(scenario, 0);
+		}
+	}
+
+	private Call createRent(boolean fallback) {
+		Integer pair = fleet.takeFree();
+		if (pair == null) {
+			return fallback ? returnRent(false) : new Call(Scenario.CREATE_RENT, 0);
+		}
+		Map<String, Object> body = new HashMap<>();
+		body.put("chassi", fleet.chassi(pair));
+		body.put("cpf", fleet.cpf(pair));
+		body.put("customerEmail", "cliente" + pair + "@mail.com");
+		body.put("rentHoursDuration", 2);
+		ResponseEntity<Long> response;
+		try {
+			response = restTemplate.postForEntity(baseUrl + "/api/rent", body, Long.class);
+		} catch (RuntimeException e) {
+			fleet.release(pair);
+			throw e;
+		}
+		if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
+			fleet.rented(response.getBody(), pair);
+		} else {
+			fleet.release(pair);
+		}
+		return new Call(Scenario.CREATE_RENT, response.getStatusCodeValue());
+	}
+
+	private Call returnRent(boolean fallback) {
+		ActiveRent rent = fleet.takeActive();
+		if (rent == null) {
+			return fallback ? createRent(false) : new Call(Scenario.RETURN_RENT, 0);
+		}
+		Map<String, Object> body = new HashMap<>();
+		body.put("returned", true);
+		body.put("clientCpf", fleet.cpf(rent.pair));
+		int status;
+		try {
+			status = restTemplate.exchange(baseUrl + "/api/rent/{id}", HttpMethod.PATCH, new HttpEntity<>(body),
+					Void.class, rent.id).getStatusCodeValue();
+		} catch (RuntimeException e) {
+			fleet.rented(rent.id, rent.pair);
+			throw e;
+		}
+		if (status < 400) {
+			fleet.release(rent.pair);
+		} else {
+			fleet.rented(rent.id, rent.pair);
+		}
+		return new Call(Scenario.RETURN_RENT, status);
+	}
+
+	@Override
+	public void close() throws Exception {
+		httpClient.close();
+	}
+
+	/**
+	 * Resultado de uma requisicao; status 0 indica falha de I/O (timeout,
+	 * conexao recusada).
+	 */
+	static class Call {
+
+		final Scenario scenario;
+
+		final int status;
+
+		Call(Scenario scenario, int status) {
+			this.scenario = scenario;
+			this.status = status;
+		}
+
+		boolean isError() {
+			return status == 0 || status >= 400;
+		}
+
+	}
+
+}
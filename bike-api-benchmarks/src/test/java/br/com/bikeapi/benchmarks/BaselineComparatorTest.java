@@ -0,0 +1,62 @@
+package br.com.bikeapi.benchmarks;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import br.com.bikeapi.benchmarks.BaselineComparator.Comparison;
+import br.com.bikeapi.benchmarks.BaselineComparator.Verdict;
+
+public class BaselineComparatorTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	@DisplayName("Deve apontar regressao conforme o modo do benchmark")
+	public void compareWithBaselineTest() throws Exception {
+
+		// cenario
+		File baseline = write("baseline.json",
+				result("RentSaveBenchmark.save", "ss", 100, 2, "ms", null),
+				result("RentMappingBenchmark.mapRentToDto", "avgt", 10, 0.1, "us/op", null),
+				result("PageSerializationBenchmark.serializePage", "avgt", 50, 1, "us/op", "10"),
+				result("BikeFindBenchmark.findByExample", "thrpt", 1000, 10, "ops/s", null));
+		File current = write("current.json",
+				result("RentSaveBenchmark.save", "ss", 130, 2, "ms", null),
+				result("RentMappingBenchmark.mapRentToDto", "avgt", 10.5, 0.1, "us/op", null),
+				result("PageSerializationBenchmark.serializePage", "avgt", 50, 1, "us/op", "100"),
+				result("BikeFindBenchmark.findByExample", "thrpt", 1500, 10, "ops/s", null));
+
+		// execucao
+		List<Comparison> comparisons = new BaselineComparator(0.10).compare(current, baseline);
+
+		// verificacao
+		assertThat(comparisons).extracting(Comparison::getVerdict)
+			.containsExactly(Verdict.REGRESSION, Verdict.UNCHANGED, Verdict.NEW, Verdict.IMPROVEMENT);
+
+	}
+
+	private File write(String name, String... results) throws Exception {
+		Path file = directory.resolve(name);
+		Files.write(file, ("[" + String.join(",", results) + "]").getBytes(StandardCharsets.UTF_8));
+		return file.toFile();
+	}
+
+	private static String result(String benchmark, String mode, double score, double error, String unit,
+			String pageSize) {
+		return "{\"benchmark\":\"br.com.bikeapi.benchmarks." + benchmark + "\",\"mode\":\"" + mode + "\","
+				+ (pageSize == null ? "" : "\"params\":{\"pageSize\":\"" + pageSize + "\"},")
+				+ "\"primaryMetric\":{\"score\":" + score + ",\"scoreError\":" + error + ",\"scoreUnit\":\"" + unit
+				+ "\"}}";
+	}
+
+}
@@ -0,0 +1,56 @@
+package br.com.bikeapi.benchmarks.load;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class StageResultTest {
+
+	private final LoadTestSettings settings = new LoadTestSettings(Collections.singletonList(100), 30, 0, 10, 0, 42,
+			LoadTestSettings.parseMix("create:1"), true, 10, 500, 0.01, 0.95, false, "target");
+
+	@Test
+	@DisplayName("Nao deve considerar saturado o estagio que atende a taxa dentro do SLO")
+	public void stageWithinLimitsTest() {
+
+		// cenario
+		Histogram micros = latencies(1000, 20_000);
+
+		// execucao
+		StageResult stage = new StageResult(100, 98.5, 0, 0, micros, Collections.emptyList(), settings);
+
+		// verificacao
+		assertThat(stage.saturated).isFalse();
+		assertThat(stage.latency.p99).isBetween(19.9, 20.1);
+
+	}
+
+	@Test
+	@DisplayName("Deve apontar todos os motivos de saturacao do estagio")
+	public void saturatedStageTest() {
+
+		// cenario
+		Histogram micros = latencies(1000, 800_000);
+
+		// execucao
+		StageResult stage = new StageResult(100, 60, 5, 20, micros, Collections.emptyList(), settings);
+
+		// verificacao
+		assertThat(stage.saturated).isTrue();
+		assertThat(stage.requests).isEqualTo(1020);
+		assertThat(stage.errors).isEqualTo(25);
+		assertThat(stage.saturationReasons).hasSize(3);
+
+	}
+
+	private static Histogram latencies(int count, long micros) {
+		Histogram histogram = new Histogram(3);
+		histogram.recordValueWithCount(micros, count);
+		return histogram;
+	}
+
+}
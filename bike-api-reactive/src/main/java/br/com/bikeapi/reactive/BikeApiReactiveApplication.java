@@ -0,0 +1,18 @@
+package br.com.bikeapi.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * Variante somente leitura da bike-api em WebFlux com R2DBC: responde os GET
+ * de bicicletas, clientes e alugueis sobre o mesmo banco, com os mesmos DTOs e
+ * ETags, sem prender uma thread nem uma conexao enquanto espera a consulta.
+ */
+@SpringBootApplication
+public class BikeApiReactiveApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(BikeApiReactiveApplication.class, args);
+	}
+
+}
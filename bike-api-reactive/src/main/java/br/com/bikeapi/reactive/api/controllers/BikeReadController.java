@@ -0,0 +1,68 @@
+package br.com.bikeapi.reactive.api.controllers;
+
+import java.time.Instant;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+
+import br.com.bikeapi.api.EntityTags;
+import br.com.bikeapi.api.dto.BikeDTO;
+import br.com.bikeapi.reactive.model.repository.BikeReadRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/bikes")
+@RequiredArgsConstructor
+@Slf4j
+public class BikeReadController {
+
+	private final BikeReadRepository repository;
+
+	/**
+	 * Recuperar bicicleta por ID
+	 * 
+	 * @param id       identificador da bicicleta
+	 * @param exchange usado para responder 304 quando o cliente ja tem a versao
+	 *                 atual
+	 * @return a bicicleta encontrada, ou vazio se nao foi modificada
+	 * @throws ResponseStatusException
+	 */
+	@GetMapping("/{id}")
+	public Mono<BikeDTO> get(@PathVariable Long id, ServerWebExchange exchange) {
+		log.info("Recuperando uma bicicleta de ID: {}", id);
+		return repository.findVersionById(id)
+				.switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND)))
+				.flatMap(version -> exchange.checkNotModified(EntityTags.of("bike", id, version),
+						Instant.ofEpochMilli(EntityTags.lastModified(version))) ? Mono.empty()
+								: repository.findById(id));
+	}
+
+	/**
+	 * Filtrar bicicletas
+	 * 
+	 * @param dto         os dados pelos quais se deseja filtrar
+	 * @param pageRequest a paginacao
+	 * @return a lista paginada dos resultados
+	 */
+	@GetMapping
+	public Mono<Page<BikeDTO>> find(BikeDTO dto, Pageable pageRequest) {
+		log.info("Filtrando bicicletas");
+		return repository.find(dto, pageRequest);
+	}
+
+	@GetMapping("/info/{chassi}")
+	public Mono<BikeDTO> findByChassi(@PathVariable String chassi) {
+		return repository.findByChassi(chassi)
+				.switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND)));
+	}
+
+}
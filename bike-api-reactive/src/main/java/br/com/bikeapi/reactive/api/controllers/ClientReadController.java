@@ -0,0 +1,85 @@
+package br.com.bikeapi.reactive.api.controllers;
+
+import java.time.Instant;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+
+import br.com.bikeapi.api.EntityTags;
+import br.com.bikeapi.api.dto.ClientDTO;
+import br.com.bikeapi.api.dto.RentDTO;
+import br.com.bikeapi.reactive.model.repository.ClientReadRepository;
+import br.com.bikeapi.reactive.model.repository.RentReadRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/clientes")
+@RequiredArgsConstructor
+@Slf4j
+public class ClientReadController {
+
+	private final ClientReadRepository repository;
+	private final RentReadRepository rentRepository;
+
+	/**
+	 * Recuperar cliente por ID.
+	 * 
+	 * @param id       identificador do cliente a se recuperar
+	 * @param exchange usado para responder 304 quando o cliente ja tem a versao
+	 *                 atual
+	 * @return o cliente encontrado, ou vazio se nao foi modificado
+	 * @throws ResponseStatusException
+	 */
+	@GetMapping("/{id}")
+	public Mono<ClientDTO> get(@PathVariable Long id, ServerWebExchange exchange) {
+		log.info("Recuperando o cliente de ID: {}", id);
+		return repository.findVersionById(id)
+				.switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND)))
+				.flatMap(version -> exchange.checkNotModified(EntityTags.of("client", id, version),
+						Instant.ofEpochMilli(EntityTags.lastModified(version))) ? Mono.empty()
+								: repository.findById(id));
+	}
+
+	/**
+	 * Filtrar clientes.
+	 * 
+	 * @param dto         os dados pelos quais se deseja filtrar
+	 * @param pageRequest a paginacao
+	 * @return a lista paginada dos resultados
+	 */
+	@GetMapping
+	public Mono<Page<ClientDTO>> find(ClientDTO dto, Pageable pageRequest) {
+		log.info("Filtrando clientes");
+		return repository.find(dto, pageRequest);
+	}
+
+	/**
+	 * Recuperar aluguel por cliente.
+	 * 
+	 * @param id       identificador do cliente
+	 * @param pageable a paginacao
+	 * @param exchange usado para responder 304 quando a listagem nao mudou
+	 * @return a lista paginada dos alugueis feitos pelo cliente
+	 * @throws ResponseStatusException
+	 */
+	@GetMapping("/{id}/rents")
+	public Mono<Page<RentDTO>> rentsByClient(@PathVariable Long id, Pageable pageable, ServerWebExchange exchange) {
+		log.info("Buscando os alugueis feitos pelo cliente de ID: {}", id);
+		return repository.findVersionById(id)
+				.switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND)))
+				.flatMap(version -> rentRepository.findListingVersionByClientId(id))
+				.flatMap(listing -> exchange.checkNotModified(EntityTags.of("client-rents", listing, pageable, id))
+						? Mono.empty()
+						: rentRepository.findByClientId(id, pageable));
+	}
+
+}
@@ -0,0 +1,44 @@
+package br.com.bikeapi.reactive.api.controllers;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+
+import br.com.bikeapi.api.EntityTags;
+import br.com.bikeapi.api.dto.RentDTO;
+import br.com.bikeapi.api.dto.RentFilterDTO;
+import br.com.bikeapi.reactive.model.repository.RentReadRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/rent")
+@RequiredArgsConstructor
+@Slf4j
+public class RentReadController {
+
+	private final RentReadRepository repository;
+
+	/**
+	 * Filtra os alugueis
+	 * 
+	 * @param dto      os dados do aluguel
+	 * @param pageable a paginacao
+	 * @param exchange usado para responder 304 quando a listagem nao mudou
+	 * @return A lista paginada dos resultados
+	 */
+	@GetMapping
+	public Mono<Page<RentDTO>> find(RentFilterDTO dto, Pageable pageable, ServerWebExchange exchange) {
+		log.info("Filtrando alugueis");
+		return repository.findListingVersion(dto)
+				.flatMap(listing -> exchange.checkNotModified(
+						EntityTags.of("rents", listing, pageable, dto.getChassi(), dto.getCpf()))
+								? Mono.empty()
+								: repository.find(dto, pageable));
+	}
+
+}
@@ -0,0 +1,87 @@
+package br.com.bikeapi.reactive.model.repository;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import br.com.bikeapi.api.dto.BikeDTO;
+import br.com.bikeapi.model.repository.EntityVersion;
+import io.r2dbc.spi.Row;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+/**
+ * Consultas de leitura da tabela {@code bike}, ja no formato do
+ * {@link BikeDTO}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BikeReadRepository {
+
+	static final String COLUMNS = "b.id, b.chassi, b.model, b.color, b.company_property";
+
+	private static final Map<String, String> SORT_COLUMNS = new LinkedHashMap<>();
+
+	static {
+		SORT_COLUMNS.put("id", "b.id");
+		SORT_COLUMNS.put("chassi", "b.chassi");
+		SORT_COLUMNS.put("model", "b.model");
+		SORT_COLUMNS.put("color", "b.color");
+		SORT_COLUMNS.put("companyProperty", "b.company_property");
+	}
+
+	private final DatabaseClient client;
+
+	public Mono<BikeDTO> findById(Long id) {
+		return client.sql("select " + COLUMNS + " from bike b where b.id = :id")
+				.bind("id", id)
+				.map((row, metadata) -> toDTO(row, "id"))
+				.one();
+	}
+
+	public Mono<BikeDTO> findByChassi(String chassi) {
+		return client.sql("select " + COLUMNS + " from bike b where b.chassi = :chassi")
+				.bind("chassi", chassi)
+				.map((row, metadata) -> toDTO(row, "id"))
+				.one();
+	}
+
+	public Mono<EntityVersion> findVersionById(Long id) {
+		return client.sql("select b.version, b.last_modified_date from bike b where b.id = :id")
+				.bind("id", id)
+				.map((row, metadata) -> Versions.entity(row))
+				.one();
+	}
+
+	/**
+	 * Filtra como o {@code Example} da api servlet: campos nulos ignorados e
+	 * textos por "contem", sem diferenciar maiusculas.
+	 */
+	public Mono<Page<BikeDTO>> find(BikeDTO filter, Pageable pageable) {
+		return new PagedQuery(COLUMNS, "bike b", SORT_COLUMNS)
+				.equalsIfPresent("b.id", "id", filter.getId())
+				.containsIfPresent("b.chassi", "chassi", filter.getChassi())
+				.containsIfPresent("b.model", "model", filter.getModel())
+				.containsIfPresent("b.color", "color", filter.getColor())
+				.equalsIfPresent("b.company_property", "companyProperty", filter.getCompanyProperty())
+				.execute(client, pageable, (row, metadata) -> toDTO(row, "id"));
+	}
+
+	/**
+	 * @param idColumn nome (ou alias) da coluna de id, que muda nos joins
+	 */
+	static BikeDTO toDTO(Row row, String idColumn) {
+		return BikeDTO.builder()
+				.id(row.get(idColumn, Long.class))
+				.chassi(row.get("chassi", String.class))
+				.model(row.get("model", String.class))
+				.color(row.get("color", String.class))
+				.companyProperty(row.get("company_property", Boolean.class))
+				.build();
+	}
+
+}
@@ -0,0 +1,74 @@
+package br.com.bikeapi.reactive.model.repository;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import br.com.bikeapi.api.dto.ClientDTO;
+import br.com.bikeapi.model.repository.EntityVersion;
+import io.r2dbc.spi.Row;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+/**
+ * Consultas de leitura da tabela {@code client}, ja no formato do
+ * {@link ClientDTO}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ClientReadRepository {
+
+	static final String COLUMNS = "c.id, c.nome, c.cpf";
+
+	private static final Map<String, String> SORT_COLUMNS = new LinkedHashMap<>();
+
+	static {
+		SORT_COLUMNS.put("id", "c.id");
+		SORT_COLUMNS.put("nome", "c.nome");
+		SORT_COLUMNS.put("cpf", "c.cpf");
+	}
+
+	private final DatabaseClient client;
+
+	public Mono<ClientDTO> findById(Long id) {
+		return client.sql("select " + COLUMNS + " from client c where c.id = :id")
+				.bind("id", id)
+				.map((row, metadata) -> toDTO(row, "id"))
+				.one();
+	}
+
+	public Mono<EntityVersion> findVersionById(Long id) {
+		return client.sql("select c.version, c.last_modified_date from client c where c.id = :id")
+				.bind("id", id)
+				.map((row, metadata) -> Versions.entity(row))
+				.one();
+	}
+
+	/**
+	 * Filtra como o {@code Example} da api servlet: campos nulos ignorados e
+	 * textos por "contem", sem diferenciar maiusculas.
+	 */
+	public Mono<Page<ClientDTO>> find(ClientDTO filter, Pageable pageable) {
+		return new PagedQuery(COLUMNS, "client c", SORT_COLUMNS)
+				.equalsIfPresent("c.id", "id", filter.getId())
+				.containsIfPresent("c.nome", "nome", filter.getNome())
+				.containsIfPresent("c.cpf", "cpf", filter.getCpf())
+				.execute(client, pageable, (row, metadata) -> toDTO(row, "id"));
+	}
+
+	/**
+	 * @param idColumn nome (ou alias) da coluna de id, que muda nos joins
+	 */
+	static ClientDTO toDTO(Row row, String idColumn) {
+		return ClientDTO.builder()
+				.id(row.get(idColumn, Long.class))
+				.nome(row.get("nome", String.class))
+				.cpf(row.get("cpf", String.class))
+				.build();
+	}
+
+}
@@ -0,0 +1,144 @@
+package br.com.bikeapi.reactive.model.repository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.web.server.ResponseStatusException;
+
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import reactor.core.publisher.Mono;
+
+/**
+ * Monta uma consulta paginada em SQL: filtros com parametros nomeados,
+ * ordenacao restrita a propriedades conhecidas e {@code limit/offset}.
+ * 
+ * <p>Como o {@code PageableExecutionUtils} do Spring Data JPA, pula a
+ * contagem quando a primeira pagina ja veio incompleta.</p>
+ */
+class PagedQuery {
+
+	private final String select;
+
+	private final String from;
+
+	private final Map<String, String> sortColumns;
+
+	private final List<String> conditions = new ArrayList<>();
+
+	private final Map<String, Object> parameters = new LinkedHashMap<>();
+
+	private final Map<String, Class<?>> nullParameters = new LinkedHashMap<>();
+
+	private String operator = " and ";
+
+	/**
+	 * @param select      a lista de colunas
+	 * @param from        tabelas e joins
+	 * @param sortColumns coluna de cada propriedade aceita no {@code sort}
+	 */
+	PagedQuery(String select, String from, Map<String, String> sortColumns) {
+		this.select = select;
+		this.from = from;
+		this.sortColumns = sortColumns;
+	}
+
+	PagedQuery or() {
+		this.operator = " or ";
+		return this;
+	}
+
+	PagedQuery where(String condition, String parameter, Object value, Class<?> type) {
+		conditions.add(condition);
+		if (value == null) {
+			nullParameters.put(parameter, type);
+		} else {
+			parameters.put(parameter, value);
+		}
+		return this;
+	}
+
+	/**
+	 * Igualdade, ignorada quando o valor e nulo (como no
+	 * {@code ExampleMatcher.withIgnoreNullValues})
+	 */
+	PagedQuery equalsIfPresent(String column, String parameter, Object value) {
+		return value == null ? this : where(column + " = :" + parameter, parameter, value, value.getClass());
+	}
+
+	/**
+	 * "Contem", sem diferenciar maiusculas, ignorado quando o valor e nulo
+	 * (como no {@code StringMatcher.CONTAINING} com {@code withIgnoreCase})
+	 */
+	PagedQuery containsIfPresent(String column, String parameter, String value) {
+		return value == null ? this
+				: where("upper(" + column + ") like upper(:" + parameter + ") escape '\\'", parameter,
+						"%" + escapeLike(value) + "%", String.class);
+	}
+
+	<T> Mono<Page<T>> execute(DatabaseClient client, Pageable pageable,
+			BiFunction<Row, RowMetadata, T> mapper) {
+		return Mono.defer(() -> query(client, pageable, mapper));
+	}
+
+	private <T> Mono<Page<T>> query(DatabaseClient client, Pageable pageable,
+			BiFunction<Row, RowMetadata, T> mapper) {
+		String where = conditions.isEmpty() ? "" : " where " + String.join(operator, conditions);
+		StringBuilder sql = new StringBuilder("select ").append(select).append(" from ").append(from).append(where)
+				.append(orderBy(pageable.getSort()));
+		if (pageable.isPaged()) {
+			sql.append(" limit ").append(pageable.getPageSize()).append(" offset ").append(pageable.getOffset());
+		}
+		Mono<List<T>> content = bind(client.sql(sql.toString())).map(mapper).all().collectList();
+		return content.flatMap(rows -> {
+			if (pageable.isUnpaged() || (pageable.getOffset() == 0 && rows.size() < pageable.getPageSize())) {
+				return Mono.just(new PageImpl<>(rows, pageable, rows.size()));
+			}
+			return bind(client.sql("select count(*) from " + from + where))
+					.map(row -> row.get(0, Number.class).longValue())
+					.one()
+					.map(total -> new PageImpl<>(rows, pageable, total));
+		});
+	}
+
+	private GenericExecuteSpec bind(GenericExecuteSpec spec) {
+		for (Map.Entry<String, Object> parameter : parameters.entrySet()) {
+			spec = spec.bind(parameter.getKey(), parameter.getValue());
+		}
+		for (Map.Entry<String, Class<?>> parameter : nullParameters.entrySet()) {
+			spec = spec.bindNull(parameter.getKey(), parameter.getValue());
+		}
+		return spec;
+	}
+
+	private String orderBy(Sort sort) {
+		if (sort.isUnsorted()) {
+			return "";
+		}
+		List<String> orders = new ArrayList<>();
+		for (Sort.Order order : sort) {
+			String column = sortColumns.get(order.getProperty());
+			if (column == null) {
+				throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+						"Propriedade de ordenacao desconhecida: " + order.getProperty());
+			}
+			orders.add(column + (order.isAscending() ? " asc" : " desc"));
+		}
+		return " order by " + String.join(", ", orders);
+	}
+
+	private static String escapeLike(String value) {
+		return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+	}
+
+}
@@ -0,0 +1,101 @@
+package br.com.bikeapi.reactive.model.repository;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.stereotype.Repository;
+
+import br.com.bikeapi.api.dto.RentDTO;
+import br.com.bikeapi.api.dto.RentFilterDTO;
+import br.com.bikeapi.model.repository.ListingVersion;
+import io.r2dbc.spi.Row;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+/**
+ * Consultas de leitura da tabela {@code rent}, com a bicicleta e o cliente de
+ * cada aluguel no mesmo select.
+ */
+@Repository
+@RequiredArgsConstructor
+public class RentReadRepository {
+
+	private static final String COLUMNS = "r.id, r.customer_email, r.rent_hours_duration,"
+			+ " b.id as bike_id, b.chassi, b.model, b.color, b.company_property,"
+			+ " c.id as client_id, c.nome, c.cpf";
+
+	private static final String FROM = "rent r join bike b on b.id = r.id_bike join client c on c.id = r.id_client";
+
+	private static final String VERSION_COLUMNS = "count(r.id) as count,"
+			+ " max(r.last_modified_date) as rent_modified_date,"
+			+ " max(b.last_modified_date) as bike_modified_date,"
+			+ " max(c.last_modified_date) as client_modified_date";
+
+	private static final Map<String, String> SORT_COLUMNS = new LinkedHashMap<>();
+
+	static {
+		SORT_COLUMNS.put("id", "r.id");
+		SORT_COLUMNS.put("rentDate", "r.rent_date");
+		SORT_COLUMNS.put("expectedReturnDate", "r.expected_return_date");
+		SORT_COLUMNS.put("returnedDateTime", "r.returned_date_time");
+		SORT_COLUMNS.put("rentHoursDuration", "r.rent_hours_duration");
+		SORT_COLUMNS.put("customerEmail", "r.customer_email");
+	}
+
+	private final DatabaseClient client;
+
+	/**
+	 * Alugueis da bicicleta ou do cliente informados
+	 */
+	public Mono<Page<RentDTO>> find(RentFilterDTO filter, Pageable pageable) {
+		return new PagedQuery(COLUMNS, FROM, SORT_COLUMNS)
+				.or()
+				.where("b.chassi = :chassi", "chassi", filter.getChassi(), String.class)
+				.where("c.cpf = :cpf", "cpf", filter.getCpf(), String.class)
+				.execute(client, pageable, (row, metadata) -> toDTO(row));
+	}
+
+	public Mono<ListingVersion> findListingVersion(RentFilterDTO filter) {
+		GenericExecuteSpec spec = client
+				.sql("select " + VERSION_COLUMNS + " from " + FROM + " where b.chassi = :chassi or c.cpf = :cpf");
+		spec = bind(spec, "chassi", filter.getChassi());
+		spec = bind(spec, "cpf", filter.getCpf());
+		return spec.map((row, metadata) -> Versions.listing(row)).one();
+	}
+
+	public Mono<Page<RentDTO>> findByClientId(Long clientId, Pageable pageable) {
+		return new PagedQuery(COLUMNS, FROM, SORT_COLUMNS)
+				.where("c.id = :clientId", "clientId", clientId, Long.class)
+				.execute(client, pageable, (row, metadata) -> toDTO(row));
+	}
+
+	public Mono<ListingVersion> findListingVersionByClientId(Long clientId) {
+		return client.sql("select " + VERSION_COLUMNS + " from " + FROM + " where c.id = :clientId")
+				.bind("clientId", clientId)
+				.map((row, metadata) -> Versions.listing(row))
+				.one();
+	}
+
+	private static GenericExecuteSpec bind(GenericExecuteSpec spec, String name, String value) {
+		return value == null ? spec.bindNull(name, String.class) : spec.bind(name, value);
+	}
+
+	/*
+	 * Mesmo resultado do ModelMapper na api servlet: chassi e cpf do RentDTO
+	 * ficam nulos, a bicicleta e o cliente vao nos objetos aninhados
+	 */
+	private static RentDTO toDTO(Row row) {
+		return RentDTO.builder()
+				.id(row.get("id", Long.class))
+				.customerEmail(row.get("customer_email", String.class))
+				.rentHoursDuration(row.get("rent_hours_duration", Integer.class))
+				.bike(BikeReadRepository.toDTO(row, "bike_id"))
+				.cliente(ClientReadRepository.toDTO(row, "client_id"))
+				.build();
+	}
+
+}
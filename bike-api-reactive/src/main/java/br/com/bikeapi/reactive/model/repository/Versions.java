@@ -0,0 +1,65 @@
+package br.com.bikeapi.reactive.model.repository;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import br.com.bikeapi.model.repository.EntityVersion;
+import br.com.bikeapi.model.repository.ListingVersion;
+import io.r2dbc.spi.Row;
+import lombok.Value;
+
+/**
+ * Versoes lidas por R2DBC, com os mesmos valores que as projecoes JPA da api
+ * servlet, para que as ETags geradas pelo {@code EntityTags} coincidam.
+ */
+final class Versions {
+
+	private Versions() {
+	}
+
+	static EntityVersion entity(Row row) {
+		return new Entity(row.get("version", Long.class), instant(row.get("last_modified_date", LocalDateTime.class)));
+	}
+
+	static ListingVersion listing(Row row) {
+		return new Listing(longValue(row.get("count", Number.class)),
+				instant(row.get("rent_modified_date", LocalDateTime.class)),
+				instant(row.get("bike_modified_date", LocalDateTime.class)),
+				instant(row.get("client_modified_date", LocalDateTime.class)));
+	}
+
+	/*
+	 * O Hibernate grava Instant como TIMESTAMP no fuso da JVM
+	 */
+	private static Instant instant(LocalDateTime value) {
+		return value == null ? null : value.atZone(ZoneId.systemDefault()).toInstant();
+	}
+
+	private static Long longValue(Number value) {
+		return value == null ? null : value.longValue();
+	}
+
+	@Value
+	private static class Entity implements EntityVersion {
+
+		Long version;
+
+		Instant lastModifiedDate;
+
+	}
+
+	@Value
+	private static class Listing implements ListingVersion {
+
+		Long count;
+
+		Instant rentModifiedDate;
+
+		Instant bikeModifiedDate;
+
+		Instant clientModifiedDate;
+
+	}
+
+}
@@ -0,0 +1,128 @@
+package br.com.bikeapi.reactive;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+
+import javax.persistence.Entity;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.tool.hbm2ddl.SchemaExport;
+import org.hibernate.tool.schema.TargetType;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+import org.springframework.boot.orm.jpa.hibernate.SpringPhysicalNamingStrategy;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.r2dbc.connection.init.ConnectionFactoryInitializer;
+import org.springframework.r2dbc.connection.init.ResourceDatabasePopulator;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import br.com.bikeapi.model.entity.Bike;
+import io.r2dbc.spi.ConnectionFactory;
+
+/**
+ * Cria o esquema da api servlet no H2 e insere as linhas usadas pelos testes.
+ */
+@TestConfiguration
+public class ReadTestData {
+
+	@Bean
+	public ConnectionFactoryInitializer schemaInitializer(ConnectionFactory connectionFactory) throws IOException {
+		ConnectionFactoryInitializer initializer = new ConnectionFactoryInitializer();
+		initializer.setConnectionFactory(connectionFactory);
+		initializer.setDatabasePopulator(new ResourceDatabasePopulator(entitySchema()));
+		return initializer;
+	}
+
+	/*
+	 * O DDL sai das entidades da bike-api, com o dialeto e as estrategias de
+	 * nomes que o Spring Boot aplica na api servlet, em vez de uma copia do
+	 * esquema mantida a mao
+	 */
+	private static Resource entitySchema() throws IOException {
+		StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+				.applySetting(AvailableSettings.DIALECT, H2Dialect.class.getName())
+				.build();
+		try {
+			MetadataSources sources = new MetadataSources(registry);
+			ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+			scanner.addIncludeFilter(new AnnotationTypeFilter(Entity.class));
+			for (BeanDefinition entity : scanner.findCandidateComponents(Bike.class.getPackage().getName())) {
+				sources.addAnnotatedClassName(entity.getBeanClassName());
+			}
+			Metadata metadata = sources.getMetadataBuilder()
+					.applyImplicitNamingStrategy(new SpringImplicitNamingStrategy())
+					.applyPhysicalNamingStrategy(new SpringPhysicalNamingStrategy())
+					.build();
+			File script = File.createTempFile("schema", ".sql");
+			script.deleteOnExit();
+			new SchemaExport()
+					.setOutputFile(script.getAbsolutePath())
+					.setDelimiter(";")
+					.execute(EnumSet.of(TargetType.SCRIPT), SchemaExport.Action.BOTH, metadata);
+			return new FileSystemResource(script);
+		} finally {
+			StandardServiceRegistryBuilder.destroy(registry);
+		}
+	}
+
+	public static void clear(DatabaseClient client) {
+		client.sql("delete from rent").then()
+				.then(client.sql("delete from bike").then())
+				.then(client.sql("delete from client").then())
+				.block();
+	}
+
+	public static void insertBike(DatabaseClient client, long id, String chassi, String model, String color,
+			LocalDateTime lastModifiedDate) {
+		client.sql("insert into bike (id, chassi, model, color, company_property, version, last_modified_date)"
+				+ " values (:id, :chassi, :model, :color, true, 0, :lastModifiedDate)")
+				.bind("id", id)
+				.bind("chassi", chassi)
+				.bind("model", model)
+				.bind("color", color)
+				.bind("lastModifiedDate", lastModifiedDate)
+				.then()
+				.block();
+	}
+
+	public static void insertClient(DatabaseClient client, long id, String nome, String cpf,
+			LocalDateTime lastModifiedDate) {
+		client.sql("insert into client (id, nome, cpf, version, last_modified_date)"
+				+ " values (:id, :nome, :cpf, 0, :lastModifiedDate)")
+				.bind("id", id)
+				.bind("nome", nome)
+				.bind("cpf", cpf)
+				.bind("lastModifiedDate", lastModifiedDate)
+				.then()
+				.block();
+	}
+
+	public static void insertRent(DatabaseClient client, long id, long bikeId, long clientId,
+			LocalDateTime lastModifiedDate) {
+		client.sql("insert into rent (id, rent_date, expected_return_date, rent_hours_duration, customer_email,"
+				+ " id_client, id_bike, version, last_modified_date)"
+				+ " values (:id, :rentDate, :expectedReturnDate, 2, :email, :clientId, :bikeId, 1, :lastModifiedDate)")
+				.bind("id", id)
+				.bind("rentDate", lastModifiedDate)
+				.bind("expectedReturnDate", lastModifiedDate.plusHours(3))
+				.bind("email", "cliente" + clientId + "@mail.com")
+				.bind("clientId", clientId)
+				.bind("bikeId", bikeId)
+				.bind("lastModifiedDate", lastModifiedDate)
+				.then()
+				.block();
+	}
+
+}
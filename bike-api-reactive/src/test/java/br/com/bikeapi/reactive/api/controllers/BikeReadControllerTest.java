@@ -0,0 +1,135 @@
+package br.com.bikeapi.reactive.api.controllers;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import br.com.bikeapi.reactive.ReadTestData;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+@AutoConfigureWebTestClient
+@Import(ReadTestData.class)
+public class BikeReadControllerTest {
+
+	static final String BIKE_API = "/api/bikes";
+
+	@Autowired
+	WebTestClient client;
+
+	@Autowired
+	DatabaseClient database;
+
+	@BeforeEach
+	public void setUp() {
+		ReadTestData.clear(database);
+		LocalDateTime modified = LocalDateTime.of(2021, 1, 10, 12, 30);
+		ReadTestData.insertBike(database, 1, "123abc", "Caloi Volcano", "preta", modified);
+		ReadTestData.insertBike(database, 2, "456def", "Caloi Elite", "azul", modified);
+		ReadTestData.insertBike(database, 3, "789ghi", "Sense Impact", "preta", modified);
+	}
+
+	@Test
+	@DisplayName("Deve obter as informacoes de uma bicicleta com a mesma ETag da api servlet")
+	public void getBikeDetailsTest() throws Exception {
+
+		// execucao e verificacao
+		client.get().uri(BIKE_API + "/1").exchange()
+			.expectStatus().isOk()
+			.expectHeader().valueEquals("ETag", "\"bike-1-0\"")
+			.expectHeader().exists("Last-Modified")
+			.expectBody()
+			.jsonPath("id").isEqualTo(1)
+			.jsonPath("chassi").isEqualTo("123abc")
+			.jsonPath("model").isEqualTo("Caloi Volcano")
+			.jsonPath("color").isEqualTo("preta")
+			.jsonPath("companyProperty").isEqualTo(true);
+
+	}
+
+	@Test
+	@DisplayName("Deve responder 304 quando a bicicleta nao mudou")
+	public void getBikeNotModifiedTest() throws Exception {
+
+		// execucao e verificacao
+		client.get().uri(BIKE_API + "/1").header("If-None-Match", "\"bike-1-0\"").exchange()
+			.expectStatus().isNotModified()
+			.expectBody().isEmpty();
+
+	}
+
+	@Test
+	@DisplayName("Deve retornar resource not found quando a bicicleta procurada nao existir")
+	public void bikeNotFoundTest() throws Exception {
+
+		// execucao e verificacao
+		client.get().uri(BIKE_API + "/99").exchange().expectStatus().isNotFound();
+		client.get().uri(BIKE_API + "/info/nao-existe").exchange().expectStatus().isNotFound();
+
+	}
+
+	@Test
+	@DisplayName("Deve filtrar bicicletas por trechos dos campos, sem diferenciar maiusculas")
+	public void findBikesTest() throws Exception {
+
+		// execucao e verificacao
+		client.get().uri(BIKE_API + "?model=CALOI&color=pre&page=0&size=100").exchange()
+			.expectStatus().isOk()
+			.expectBody()
+			.jsonPath("content.length()").isEqualTo(1)
+			.jsonPath("content[0].chassi").isEqualTo("123abc")
+			.jsonPath("totalElements").isEqualTo(1)
+			.jsonPath("pageable.pageSize").isEqualTo(100)
+			.jsonPath("pageable.pageNumber").isEqualTo(0);
+
+	}
+
+	@Test
+	@DisplayName("Deve paginar e ordenar o filtro de bicicletas")
+	public void findBikesPagedTest() throws Exception {
+
+		// execucao e verificacao
+		client.get().uri(BIKE_API + "?color=preta&page=1&size=1&sort=chassi,desc").exchange()
+			.expectStatus().isOk()
+			.expectBody()
+			.jsonPath("content.length()").isEqualTo(1)
+			.jsonPath("content[0].chassi").isEqualTo("123abc")
+			.jsonPath("totalElements").isEqualTo(2)
+			.jsonPath("totalPages").isEqualTo(2);
+
+	}
+
+	@Test
+	@DisplayName("Deve recusar a ordenacao por uma propriedade desconhecida")
+	public void findBikesUnknownSortTest() throws Exception {
+
+		// execucao e verificacao
+		client.get().uri(BIKE_API + "?sort=chassi;drop table bike").exchange()
+			.expectStatus().isBadRequest();
+
+	}
+
+	@Test
+	@DisplayName("Deve obter uma bicicleta pelo chassi")
+	public void findByChassiTest() throws Exception {
+
+		// execucao e verificacao
+		client.get().uri(BIKE_API + "/info/456def").exchange()
+			.expectStatus().isOk()
+			.expectBody()
+			.jsonPath("id").isEqualTo(2)
+			.jsonPath("model").isEqualTo("Caloi Elite");
+
+	}
+
+}
@@ -0,0 +1,103 @@
+package br.com.bikeapi.reactive.api.controllers;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import br.com.bikeapi.reactive.ReadTestData;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+@AutoConfigureWebTestClient
+@Import(ReadTestData.class)
+public class ClientReadControllerTest {
+
+	static final String CLIENT_API = "/api/clientes";
+
+	@Autowired
+	WebTestClient client;
+
+	@Autowired
+	DatabaseClient database;
+
+	@BeforeEach
+	public void setUp() {
+		ReadTestData.clear(database);
+		LocalDateTime modified = LocalDateTime.of(2021, 1, 10, 12, 30);
+		ReadTestData.insertClient(database, 1, "Maria Silva", "52998224725", modified);
+		ReadTestData.insertClient(database, 2, "Joao Souza", "11144477735", modified);
+		ReadTestData.insertBike(database, 10, "123abc", "Caloi Volcano", "preta", modified);
+		ReadTestData.insertRent(database, 100, 10, 1, modified);
+	}
+
+	@Test
+	@DisplayName("Deve obter as informacoes de um cliente")
+	public void getClientTest() throws Exception {
+
+		// execucao e verificacao
+		client.get().uri(CLIENT_API + "/1").exchange()
+			.expectStatus().isOk()
+			.expectHeader().valueEquals("ETag", "\"client-1-0\"")
+			.expectBody()
+			.jsonPath("id").isEqualTo(1)
+			.jsonPath("nome").isEqualTo("Maria Silva")
+			.jsonPath("cpf").isEqualTo("52998224725");
+
+	}
+
+	@Test
+	@DisplayName("Deve filtrar clientes pelo nome")
+	public void findClientsTest() throws Exception {
+
+		// execucao e verificacao
+		client.get().uri(CLIENT_API + "?nome=souza").exchange()
+			.expectStatus().isOk()
+			.expectBody()
+			.jsonPath("content.length()").isEqualTo(1)
+			.jsonPath("content[0].id").isEqualTo(2)
+			.jsonPath("totalElements").isEqualTo(1);
+
+	}
+
+	@Test
+	@DisplayName("Deve listar os alugueis do cliente no mesmo formato da api servlet")
+	public void rentsByClientTest() throws Exception {
+
+		// execucao e verificacao
+		String etag = client.get().uri(CLIENT_API + "/1/rents").exchange()
+			.expectStatus().isOk()
+			.expectBody()
+			.jsonPath("content.length()").isEqualTo(1)
+			.jsonPath("content[0].id").isEqualTo(100)
+			.jsonPath("content[0].customerEmail").isEqualTo("cliente1@mail.com")
+			.jsonPath("content[0].rentHoursDuration").isEqualTo(2)
+			.jsonPath("content[0].chassi").doesNotExist()
+			.jsonPath("content[0].bike.chassi").isEqualTo("123abc")
+			.jsonPath("content[0].cliente.cpf").isEqualTo("52998224725")
+			.returnResult().getResponseHeaders().getETag();
+
+		client.get().uri(CLIENT_API + "/1/rents").header("If-None-Match", etag).exchange()
+			.expectStatus().isNotModified();
+
+	}
+
+	@Test
+	@DisplayName("Deve retornar resource not found ao listar os alugueis de um cliente inexistente")
+	public void rentsByUnknownClientTest() throws Exception {
+
+		// execucao e verificacao
+		client.get().uri(CLIENT_API + "/99/rents").exchange().expectStatus().isNotFound();
+
+	}
+
+}
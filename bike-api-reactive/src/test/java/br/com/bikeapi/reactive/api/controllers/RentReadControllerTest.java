@@ -0,0 +1,125 @@
+package br.com.bikeapi.reactive.api.controllers;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import br.com.bikeapi.api.EntityTags;
+import br.com.bikeapi.model.repository.ListingVersion;
+import br.com.bikeapi.reactive.ReadTestData;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+@AutoConfigureWebTestClient
+@Import(ReadTestData.class)
+public class RentReadControllerTest {
+
+	static final String RENT_API = "/api/rent";
+
+	static final LocalDateTime MODIFIED = LocalDateTime.of(2021, 1, 10, 12, 30);
+
+	@Autowired
+	WebTestClient client;
+
+	@Autowired
+	DatabaseClient database;
+
+	@BeforeEach
+	public void setUp() {
+		ReadTestData.clear(database);
+		ReadTestData.insertClient(database, 1, "Maria Silva", "52998224725", MODIFIED);
+		ReadTestData.insertClient(database, 2, "Joao Souza", "11144477735", MODIFIED);
+		ReadTestData.insertBike(database, 10, "123abc", "Caloi Volcano", "preta", MODIFIED);
+		ReadTestData.insertBike(database, 20, "456def", "Caloi Elite", "azul", MODIFIED);
+		ReadTestData.insertRent(database, 100, 10, 1, MODIFIED);
+		ReadTestData.insertRent(database, 101, 20, 1, MODIFIED.plusDays(1));
+		ReadTestData.insertRent(database, 102, 20, 2, MODIFIED.plusDays(2));
+	}
+
+	@Test
+	@DisplayName("Deve filtrar alugueis pela bicicleta ou pelo cliente")
+	public void findRentsTest() throws Exception {
+
+		// execucao e verificacao
+		client.get().uri(RENT_API + "?chassi=123abc&cpf=11144477735&sort=id").exchange()
+			.expectStatus().isOk()
+			.expectBody()
+			.jsonPath("content.length()").isEqualTo(2)
+			.jsonPath("content[0].id").isEqualTo(100)
+			.jsonPath("content[0].bike.id").isEqualTo(10)
+			.jsonPath("content[0].cliente.id").isEqualTo(1)
+			.jsonPath("content[1].id").isEqualTo(102)
+			.jsonPath("totalElements").isEqualTo(2);
+
+	}
+
+	@Test
+	@DisplayName("Deve contar os alugueis quando a pagina vem cheia")
+	public void findRentsPagedTest() throws Exception {
+
+		// execucao e verificacao
+		client.get().uri(RENT_API + "?cpf=52998224725&page=0&size=1&sort=id,desc").exchange()
+			.expectStatus().isOk()
+			.expectBody()
+			.jsonPath("content.length()").isEqualTo(1)
+			.jsonPath("content[0].id").isEqualTo(101)
+			.jsonPath("totalElements").isEqualTo(2)
+			.jsonPath("last").isEqualTo(false);
+
+	}
+
+	@Test
+	@DisplayName("Deve gerar a mesma ETag da api servlet e responder 304 quando a listagem nao mudou")
+	public void findRentsNotModifiedTest() throws Exception {
+
+		// cenario
+		Instant rentModified = MODIFIED.plusDays(1).atZone(ZoneId.systemDefault()).toInstant();
+		Instant modified = MODIFIED.atZone(ZoneId.systemDefault()).toInstant();
+		ListingVersion version = new ListingVersion() {
+
+			@Override
+			public Long getCount() {
+				return 2l;
+			}
+
+			@Override
+			public Instant getRentModifiedDate() {
+				return rentModified;
+			}
+
+			@Override
+			public Instant getBikeModifiedDate() {
+				return modified;
+			}
+
+			@Override
+			public Instant getClientModifiedDate() {
+				return modified;
+			}
+
+		};
+		String etag = EntityTags.of("rents", version, PageRequest.of(0, 20), null, "52998224725");
+
+		// execucao e verificacao
+		client.get().uri(RENT_API + "?cpf=52998224725").exchange()
+			.expectStatus().isOk()
+			.expectHeader().valueEquals("ETag", etag);
+		client.get().uri(RENT_API + "?cpf=52998224725").header("If-None-Match", etag).exchange()
+			.expectStatus().isNotModified();
+
+	}
+
+}
@@ -0,0 +1,178 @@
+package br.com.bikeapi.api;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import br.com.bikeapi.config.AdmissionProperties;
+import br.com.bikeapi.monitoring.PoolSaturation;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Controle de admissao dos {@link ControllerExecutors}: limita as requisicoes
+ * admitidas (na fila ou rodando) e ajusta o limite pela saturacao do pool de
+ * conexoes, em AIMD.
+ *
+ * <p>A cada {@code sampleInterval} olha a espera media por uma conexao no
+ * intervalo (ou, sem nenhuma conexao entregue, se ha threads esperando com o
+ * pool todo ativo). Com o pool saturado o limite cai pelo
+ * {@code decreaseFactor}; sem saturacao, e se alguma requisicao esbarrou no
+ * limite no intervalo, sobe {@code increase}. Assim, quando o MySQL fica
+ * lento, as requisicoes sao recusadas na entrada em vez de se acumularem
+ * esperando conexoes.</p>
+ *
+ * <p>As listagens so podem ocupar {@code readShare} do limite, entao sao as
+ * primeiras recusadas quando ele cai; o restante fica para a criacao e a
+ * devolucao de alugueis.</p>
+ *
+ * <p>Metricas: {@code bikeapi.web.admission.limit},
+ * {@code bikeapi.web.admission.inflight} e {@code bikeapi.web.admission.shed}
+ * (tag {@code priority}).</p>
+ */
+@Slf4j
+public class AdaptiveAdmission implements MeterBinder {
+
+	public enum Priority {
+
+		/**
+		 * Listagens, recusadas primeiro
+		 */
+		LOW,
+
+		/**
+		 * Escritas de aluguel
+		 */
+		HIGH
+
+	}
+
+	private final PoolSaturation pool;
+
+	private final AdmissionProperties settings;
+
+	private final long targetWaitNanos;
+
+	private final AtomicInteger inflight = new AtomicInteger();
+
+	private final AtomicInteger peakInflight = new AtomicInteger();
+
+	private final LongAdder shedLow = new LongAdder();
+
+	private final LongAdder shedHigh = new LongAdder();
+
+	private final ScheduledExecutorService sampler;
+
+	private volatile int limit;
+
+	private volatile boolean limitReached;
+
+	private long lastAcquireNanos;
+
+	private long lastAcquisitions;
+
+	public AdaptiveAdmission(PoolSaturation pool, AdmissionProperties settings) {
+		this.pool = pool;
+		this.settings = settings;
+		this.targetWaitNanos = settings.getTargetWait().toNanos();
+		this.limit = Math.max(settings.getMinLimit(), Math.min(settings.getMaxLimit(), settings.getInitialLimit()));
+		this.lastAcquireNanos = pool.getAcquireNanos();
+		this.lastAcquisitions = pool.getAcquisitions();
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("admission-");
+		threadFactory.setDaemon(true);
+		this.sampler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+		long interval = settings.getSampleInterval().toNanos();
+		this.sampler.scheduleWithFixedDelay(this::sample, interval, interval, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Admite a requisicao se ha espaco no limite da sua prioridade; cada
+	 * admissao deve ser seguida de um {@link #release()}.
+	 *
+	 * @return <code>false</code> quando a requisicao deve ser recusada
+	 */
+	public boolean tryAcquire(Priority priority) {
+		int current = limit;
+		int allowed = priority == Priority.HIGH ? current : Math.max(1, (int) (current * settings.getReadShare()));
+		while (true) {
+			int admitted = inflight.get();
+			if (admitted >= allowed) {
+				limitReached = true;
+				(priority == Priority.HIGH ? shedHigh : shedLow).increment();
+				return false;
+			}
+			if (inflight.compareAndSet(admitted, admitted + 1)) {
+				peakInflight.accumulateAndGet(admitted + 1, Math::max);
+				return true;
+			}
+		}
+	}
+
+	public void release() {
+		inflight.decrementAndGet();
+	}
+
+	public int getLimit() {
+		return limit;
+	}
+
+	/**
+	 * Ajusta o limite pelo que o pool passou desde a amostra anterior. Chamado
+	 * pela thread de amostragem; publico para os testes.
+	 */
+	public void sample() {
+		try {
+			long acquireNanos = pool.getAcquireNanos();
+			long acquisitions = pool.getAcquisitions();
+			long waited = acquireNanos - lastAcquireNanos;
+			long acquired = acquisitions - lastAcquisitions;
+			lastAcquireNanos = acquireNanos;
+			lastAcquisitions = acquisitions;
+			boolean saturated = acquired > 0 ? waited / acquired > targetWaitNanos
+					: pool.getThreadsAwaitingConnection() > 0
+							&& pool.getActiveConnections() >= pool.getTotalConnections();
+			boolean reached = limitReached || peakInflight.getAndSet(inflight.get()) >= limit;
+			limitReached = false;
+			int current = limit;
+			if (saturated) {
+				limit = Math.max(settings.getMinLimit(), (int) (current * settings.getDecreaseFactor()));
+				log.debug("Pool de conexoes saturado ({} ns de espera em {} conexoes): limite de admissao {} -> {}",
+						waited, acquired, current, limit);
+			} else if (reached) {
+				limit = Math.min(settings.getMaxLimit(), current + settings.getIncrease());
+			}
+		} catch (RuntimeException e) {
+			log.warn("Falha ao amostrar o pool de conexoes", e);
+		}
+	}
+
+	public void shutdown() {
+		sampler.shutdownNow();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("bikeapi.web.admission.limit", this, AdaptiveAdmission::getLimit)
+			.description("Requisicoes admitidas nos executores dos controllers, ajustado pelo pool de conexoes")
+			.register(registry);
+		Gauge.builder("bikeapi.web.admission.inflight", inflight, AtomicInteger::get)
+			.description("Requisicoes admitidas, na fila ou rodando")
+			.register(registry);
+		FunctionCounter.builder("bikeapi.web.admission.shed", shedLow, LongAdder::sum)
+			.description("Requisicoes recusadas pelo controle de admissao")
+			.tag("priority", "low")
+			.register(registry);
+		FunctionCounter.builder("bikeapi.web.admission.shed", shedHigh, LongAdder::sum)
+			.description("Requisicoes recusadas pelo controle de admissao")
+			.tag("priority", "high")
+			.register(registry);
+	}
+
+}
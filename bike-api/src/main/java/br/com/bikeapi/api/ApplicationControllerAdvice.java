@@ -1,5 +1,8 @@
 package br.com.bikeapi.api;
 
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
@@ -7,9 +10,11 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
 import org.springframework.web.server.ResponseStatusException;
 
 import br.com.bikeapi.api.exception.ApiErrors;
+import br.com.bikeapi.api.ratelimit.RateLimitExceededException;
 import br.com.bikeapi.exception.BusinessException;
 
 @RestControllerAdvice
@@ -33,5 +38,24 @@ public class ApplicationControllerAdvice {
 	public ResponseEntity handleResponseStatusException(ResponseStatusException ex) {
 		return new ResponseEntity(new ApiErrors(ex), ex.getStatus());
 	}
+
+	/*
+	 * Requisicoes que esperaram demais pelos executores dos controllers. Os
+	 * streams SSE e as exportacoes tambem expiram assim, mas ja com a resposta
+	 * enviada
+	 */
+	@ExceptionHandler(AsyncRequestTimeoutException.class)
+	@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+	public ApiErrors handleAsyncRequestTimeoutException(AsyncRequestTimeoutException ex,
+			HttpServletResponse response) {
+		return response.isCommitted() ? null : new ApiErrors(ex);
+	}
+
+	@ExceptionHandler(RateLimitExceededException.class)
+	public ResponseEntity<ApiErrors> handleRateLimitExceededException(RateLimitExceededException ex) {
+		return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+				.header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+				.body(new ApiErrors(ex));
+	}
 	
 }
@@ -0,0 +1,43 @@
+package br.com.bikeapi.api;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+/**
+ * Timeout assincrono por requisicao, para os endpoints cujo corpo e escrito
+ * por um {@code StreamingResponseBody} (como o export de alugueis), que o
+ * Spring roda sem timeout proprio: sem isto eles ficariam com o
+ * {@code spring.mvc.async.request-timeout} global, que vale para todos os
+ * endpoints assincronos.
+ *
+ * <p>O controller marca a requisicao com {@link #set(HttpServletRequest, Duration)}
+ * e o interceptor aplica o timeout antes de a requisicao entrar em modo
+ * assincrono; as demais ficam com o padrao.</p>
+ */
+public class AsyncRequestTimeout implements CallableProcessingInterceptor {
+
+	private static final String ATTRIBUTE = AsyncRequestTimeout.class.getName() + ".TIMEOUT";
+
+	/**
+	 * Define o timeout assincrono desta requisicao
+	 */
+	public static void set(HttpServletRequest request, Duration timeout) {
+		request.setAttribute(ATTRIBUTE, timeout);
+	}
+
+	@Override
+	public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+		Object timeout = request.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+		if (timeout instanceof Duration && request instanceof AsyncWebRequest) {
+			((AsyncWebRequest) request).setTimeout(((Duration) timeout).toMillis());
+		}
+	}
+
+}
@@ -0,0 +1,261 @@
+package br.com.bikeapi.api;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.server.ResponseStatusException;
+
+import br.com.bikeapi.config.ControllerExecutorProperties;
+import br.com.bikeapi.monitoring.StatementCount;
+import br.com.bikeapi.monitoring.StatementCountListener;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Executores limitados onde os controllers rodam o trabalho que depende da
+ * base, liberando a thread do Tomcat que aceitou a requisicao.
+ *
+ * <p>Ha um executor para as listagens ({@link #read(Supplier)}) e outro para
+ * as escritas de aluguel ({@link #write(Supplier)}), cada um com threads, fila
+ * e tempo limite proprios: uma rajada de listagens lentas enche o executor de
+ * leitura sem tomar as threads do Tomcat, que seguem atendendo as consultas
+ * baratas, nem as threads das escritas. Com a fila cheia a requisicao recebe
+ * 503 na hora; passado o tempo limite o MVC lanca
+ * {@link AsyncRequestTimeoutException}, que o
+ * {@link ApplicationControllerAdvice} tambem responde com 503.</p>
+ *
+ * <p>Antes da fila, a {@link AdaptiveAdmission} (quando configurada) recusa
+ * com 503 as requisicoes acima do limite ajustado pela saturacao do pool de
+ * conexoes, comecando pelas leituras.</p>
+ *
+ * <p>Uma tarefa que ainda estava na fila quando a requisicao expirou e
+ * descartada; uma que ja tinha comecado nao e interrompida, entao um 503 numa
+ * escrita nao garante que ela nao foi aplicada.</p>
+ *
+ * <p>Cada tarefa abre o proprio EntityManager, ligado a thread do executor e
+ * fechado no fim da tarefa: o do open-in-view da requisicao nao e
+ * compartilhado, ja que EntityManager nao e thread-safe e o open-in-view o
+ * fecharia no timeout com a tarefa ainda rodando. Por isso a tarefa deve
+ * devolver DTOs, nao entidades com associacoes preguicosas. Os statements da
+ * tarefa contam para a requisicao que a submeteu.</p>
+ *
+ * <p>Metricas por executor (tag {@code executor}):
+ * {@code bikeapi.web.executor.active}, {@code bikeapi.web.executor.queued},
+ * {@code bikeapi.web.executor.wait} (tempo na fila),
+ * {@code bikeapi.web.executor.rejected} (fila cheia) e
+ * {@code bikeapi.web.executor.timeouts}.</p>
+ */
+@Slf4j
+public class ControllerExecutors implements MeterBinder {
+
+	private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+
+	private final Pool read;
+
+	private final Pool write;
+
+	private final EntityManagerFactory entityManagerFactory;
+
+	private final AdaptiveAdmission admission;
+
+	/**
+	 * @param read                 configuracao do executor das listagens
+	 * @param write                configuracao do executor das escritas
+	 * @param entityManagerFactory de onde sai o EntityManager de cada tarefa,
+	 *                             ou <code>null</code> sem JPA (nos testes
+	 *                             de controller)
+	 * @param admission            o controle de admissao, ou
+	 *                             <code>null</code> para admitir tudo o que
+	 *                             couber nas filas
+	 */
+	public ControllerExecutors(ControllerExecutorProperties.Pool read, ControllerExecutorProperties.Pool write,
+			EntityManagerFactory entityManagerFactory, AdaptiveAdmission admission) {
+		this.read = new Pool("read", read, AdaptiveAdmission.Priority.LOW);
+		this.write = new Pool("write", write, AdaptiveAdmission.Priority.HIGH);
+		this.entityManagerFactory = entityManagerFactory;
+		this.admission = admission;
+	}
+
+	/**
+	 * Roda uma leitura no executor de leitura.
+	 *
+	 * @param work a leitura; excecoes sao tratadas como se o controller as
+	 *             tivesse lancado
+	 * @return o resultado, a ser devolvido pelo controller
+	 * @throws ResponseStatusException 503 quando a fila do executor esta cheia
+	 *                                 ou o controle de admissao recusa
+	 */
+	public <T> DeferredResult<T> read(Supplier<T> work) {
+		return read.submit(work);
+	}
+
+	/**
+	 * Roda uma escrita no executor de escrita.
+	 *
+	 * @param work a escrita; excecoes sao tratadas como se o controller as
+	 *             tivesse lancado
+	 * @return o resultado, a ser devolvido pelo controller
+	 * @throws ResponseStatusException 503 quando a fila do executor esta cheia
+	 *                                 ou o controle de admissao recusa
+	 */
+	public <T> DeferredResult<T> write(Supplier<T> work) {
+		return write.submit(work);
+	}
+
+	public void shutdown() {
+		read.executor.shutdown();
+		write.executor.shutdown();
+		read.awaitTermination();
+		write.awaitTermination();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		read.bindTo(registry);
+		write.bindTo(registry);
+	}
+
+	private <T> void run(Supplier<T> work, DeferredResult<T> result, StatementCount count) {
+		EntityManagerHolder holder = null;
+		if (entityManagerFactory != null) {
+			holder = new EntityManagerHolder(entityManagerFactory.createEntityManager());
+			TransactionSynchronizationManager.bindResource(entityManagerFactory, holder);
+		}
+		StatementCountListener.resume(count);
+		try {
+			result.setResult(work.get());
+		} catch (RuntimeException | Error e) {
+			result.setErrorResult(e);
+		} finally {
+			StatementCountListener.stop();
+			if (holder != null) {
+				TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+				EntityManagerFactoryUtils.closeEntityManager(holder.getEntityManager());
+			}
+		}
+	}
+
+	/**
+	 * Um executor e as suas metricas.
+	 */
+	private final class Pool {
+
+		private final String name;
+
+		private final ThreadPoolExecutor executor;
+
+		private final long timeoutMillis;
+
+		private final AdaptiveAdmission.Priority priority;
+
+		private final LongAdder started = new LongAdder();
+
+		private final LongAdder waitNanos = new LongAdder();
+
+		private final LongAdder rejected = new LongAdder();
+
+		private final LongAdder timeouts = new LongAdder();
+
+		private Pool(String name, ControllerExecutorProperties.Pool settings, AdaptiveAdmission.Priority priority) {
+			this.name = name;
+			this.executor = new ThreadPoolExecutor(settings.getThreads(), settings.getThreads(), 0L,
+					TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(settings.getQueueCapacity()),
+					new CustomizableThreadFactory("web-" + name + "-"));
+			this.timeoutMillis = settings.getTimeout().toMillis();
+			this.priority = priority;
+		}
+
+		private <T> DeferredResult<T> submit(Supplier<T> work) {
+			if (admission != null && !admission.tryAcquire(priority)) {
+				log.debug("Requisicao recusada pelo controle de admissao no executor {} (limite {})", name,
+						admission.getLimit());
+				throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Servidor sobrecarregado.");
+			}
+			DeferredResult<T> result = new DeferredResult<>(timeoutMillis);
+			result.onTimeout(timeouts::increment);
+			StatementCount count = StatementCountListener.current();
+			long submitted = System.nanoTime();
+			try {
+				executor.execute(() -> {
+					waitNanos.add(System.nanoTime() - submitted);
+					started.increment();
+					try {
+						// a requisicao expirou enquanto a tarefa esperava na fila
+						if (!result.isSetOrExpired()) {
+							run(work, result, count);
+						}
+					} finally {
+						release();
+					}
+				});
+			} catch (RejectedExecutionException e) {
+				release();
+				rejected.increment();
+				log.warn("Executor {} saturado: {} requisicoes na fila", name, executor.getQueue().size());
+				throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Servidor ocupado.", e);
+			}
+			return result;
+		}
+
+		private void release() {
+			if (admission != null) {
+				admission.release();
+			}
+		}
+
+		private void awaitTermination() {
+			try {
+				if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+					log.warn("Executor {} encerrado com {} requisicoes pendentes", name,
+							executor.shutdownNow().size());
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				executor.shutdownNow();
+			}
+		}
+
+		private void bindTo(MeterRegistry registry) {
+			Gauge.builder("bikeapi.web.executor.active", executor, ThreadPoolExecutor::getActiveCount)
+				.description("Threads do executor ocupadas")
+				.tag("executor", name)
+				.register(registry);
+			Gauge.builder("bikeapi.web.executor.queued", executor, executor -> executor.getQueue().size())
+				.description("Requisicoes esperando uma thread do executor")
+				.tag("executor", name)
+				.register(registry);
+			FunctionTimer.builder("bikeapi.web.executor.wait", this, pool -> pool.started.sum(),
+						pool -> pool.waitNanos.sum(), TimeUnit.NANOSECONDS)
+				.description("Tempo das requisicoes na fila do executor")
+				.tag("executor", name)
+				.register(registry);
+			FunctionCounter.builder("bikeapi.web.executor.rejected", rejected, LongAdder::sum)
+				.description("Requisicoes recusadas com a fila do executor cheia")
+				.tag("executor", name)
+				.register(registry);
+			FunctionCounter.builder("bikeapi.web.executor.timeouts", timeouts, LongAdder::sum)
+				.description("Requisicoes que passaram do tempo limite do executor")
+				.tag("executor", name)
+				.register(registry);
+		}
+
+	}
+
+}
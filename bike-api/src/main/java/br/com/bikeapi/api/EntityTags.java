@@ -0,0 +1,85 @@
+package br.com.bikeapi.api;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.DigestUtils;
+
+import br.com.bikeapi.model.repository.EntityVersion;
+import br.com.bikeapi.model.repository.ListingVersion;
+
+/**
+ * Monta os ETags fortes e as datas de Last-Modified usados nos GETs
+ * condicionais (If-None-Match / If-Modified-Since).
+ */
+public final class EntityTags {
+
+	private EntityTags() {
+	}
+
+	/**
+	 * @return o ETag de uma entidade, derivado do seu id e da sua versao
+	 */
+	public static String of(String resource, Long id, EntityVersion version) {
+		return "\"" + resource + "-" + id + "-" + version.getVersion() + "\"";
+	}
+
+	/**
+	 * @return o ETag de uma pagina de listagem; muda quando o conteudo, o filtro,
+	 * a pagina, o tamanho ou a ordenacao mudam
+	 */
+	public static String of(String resource, ListingVersion version, Pageable pageable, Object... filter) {
+		StringBuilder key = new StringBuilder(resource);
+		for (Object value : filter) {
+			key.append('|').append(value);
+		}
+		if (pageable.isPaged()) {
+			key.append('|').append(pageable.getPageNumber())
+					.append('|').append(pageable.getPageSize());
+		}
+		key.append('|').append(pageable.getSort())
+				.append('|').append(version.getCount())
+				.append('|').append(version.getRentModifiedDate())
+				.append('|').append(version.getBikeModifiedDate())
+				.append('|').append(version.getClientModifiedDate());
+		return "\"" + DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+	}
+
+	/**
+	 * Confere o If-None-Match sem o {@code WebRequest}, para as listagens que
+	 * so conhecem a versao dentro dos {@link ControllerExecutors}; quem
+	 * responde 304 e o controller.
+	 * 
+	 * @param requestHeaders os cabecalhos da requisicao
+	 * @param etag           o ETag atual
+	 * @return se o cliente ja tem a versao atual
+	 */
+	public static boolean notModified(HttpHeaders requestHeaders, String etag) {
+		List<String> candidates;
+		try {
+			candidates = requestHeaders.getIfNoneMatch();
+		} catch (IllegalArgumentException e) {
+			// If-None-Match malformado: responde por completo, como o WebRequest
+			return false;
+		}
+		for (String candidate : candidates) {
+			if ("*".equals(candidate) || candidate.equals(etag) || candidate.equals("W/" + etag)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return a data da ultima alteracao em milissegundos, ou -1 quando
+	 * desconhecida (o que desliga a verificacao por If-Modified-Since)
+	 */
+	public static long lastModified(EntityVersion version) {
+		Instant lastModified = version.getLastModifiedDate();
+		return lastModified == null ? -1 : lastModified.toEpochMilli();
+	}
+
+}
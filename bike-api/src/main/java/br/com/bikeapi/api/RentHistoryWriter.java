@@ -0,0 +1,188 @@
+package br.com.bikeapi.api;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+import org.springframework.http.MediaType;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import br.com.bikeapi.model.repository.RentHistoryRow;
+
+/**
+ * Escreve o historico de alugueis linha a linha, em CSV ou NDJSON (um objeto
+ * JSON por linha), sem acumular nada alem do buffer de saida.
+ * 
+ * <p>Como {@link Consumer}, pode ser passado direto ao cursor do
+ * repositorio; uma falha de escrita (o cliente desconectou) vira
+ * {@link UncheckedIOException} e interrompe a leitura.</p>
+ */
+public abstract class RentHistoryWriter implements Consumer<RentHistoryRow>, AutoCloseable {
+
+	private static final JsonFactory JSON = new JsonFactory();
+
+	public enum Format {
+
+		CSV("csv", new MediaType("text", "csv", StandardCharsets.UTF_8)),
+
+		NDJSON("ndjson", new MediaType("application", "x-ndjson", StandardCharsets.UTF_8));
+
+		private final String extension;
+		private final MediaType mediaType;
+
+		Format(String extension, MediaType mediaType) {
+			this.extension = extension;
+			this.mediaType = mediaType;
+		}
+
+		public String getExtension() {
+			return extension;
+		}
+
+		public MediaType getMediaType() {
+			return mediaType;
+		}
+
+	}
+
+	public static RentHistoryWriter of(Format format, OutputStream output) throws IOException {
+		return format == Format.NDJSON ? new Ndjson(output) : new Csv(output);
+	}
+
+	@Override
+	public void accept(RentHistoryRow row) {
+		try {
+			write(row);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	protected abstract void write(RentHistoryRow row) throws IOException;
+
+	@Override
+	public abstract void close() throws IOException;
+
+	private static final class Csv extends RentHistoryWriter {
+
+		private static final String HEADER = "id,rent_date,expected_return_date,returned_date_time,"
+				+ "rent_hours_duration,customer_email,bike_id,chassi,model,client_id,cpf,nome\n";
+
+		private final Writer writer;
+
+		Csv(OutputStream output) throws IOException {
+			this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 16 * 1024);
+			writer.write(HEADER);
+		}
+
+		@Override
+		protected void write(RentHistoryRow row) throws IOException {
+			writer.write(Long.toString(row.getId()));
+			writer.write(',');
+			date(row.getRentDate());
+			date(row.getExpectedReturnDate());
+			date(row.getReturnedDateTime());
+			writer.write(Integer.toString(row.getRentHoursDuration()));
+			writer.write(',');
+			text(row.getCustomerEmail());
+			writer.write(Long.toString(row.getBikeId()));
+			writer.write(',');
+			text(row.getChassi());
+			text(row.getModel());
+			writer.write(Long.toString(row.getClientId()));
+			writer.write(',');
+			text(row.getCpf());
+			quoted(row.getNome());
+			writer.write('\n');
+		}
+
+		private void date(LocalDateTime value) throws IOException {
+			if (value != null) {
+				writer.write(value.toString());
+			}
+			writer.write(',');
+		}
+
+		private void text(String value) throws IOException {
+			quoted(value);
+			writer.write(',');
+		}
+
+		/*
+		 * RFC 4180: aspas apenas quando o valor tem virgula, aspas ou quebra
+		 * de linha, dobrando as aspas internas
+		 */
+		private void quoted(String value) throws IOException {
+			if (value == null) {
+				return;
+			}
+			if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+					&& value.indexOf('\r') < 0) {
+				writer.write(value);
+				return;
+			}
+			writer.write('"');
+			writer.write(value.replace("\"", "\"\""));
+			writer.write('"');
+		}
+
+		@Override
+		public void close() throws IOException {
+			writer.close();
+		}
+
+	}
+
+	private static final class Ndjson extends RentHistoryWriter {
+
+		private final JsonGenerator generator;
+
+		Ndjson(OutputStream output) throws IOException {
+			this.generator = JSON.createGenerator(output);
+			// o separador padrao entre valores de raiz e um espaco, que iniciaria cada linha
+			this.generator.setRootValueSeparator(null);
+		}
+
+		@Override
+		protected void write(RentHistoryRow row) throws IOException {
+			generator.writeStartObject();
+			generator.writeNumberField("id", row.getId());
+			date("rentDate", row.getRentDate());
+			date("expectedReturnDate", row.getExpectedReturnDate());
+			date("returnedDateTime", row.getReturnedDateTime());
+			generator.writeNumberField("rentHoursDuration", row.getRentHoursDuration());
+			generator.writeStringField("customerEmail", row.getCustomerEmail());
+			generator.writeNumberField("bikeId", row.getBikeId());
+			generator.writeStringField("chassi", row.getChassi());
+			generator.writeStringField("model", row.getModel());
+			generator.writeNumberField("clientId", row.getClientId());
+			generator.writeStringField("cpf", row.getCpf());
+			generator.writeStringField("nome", row.getNome());
+			generator.writeEndObject();
+			generator.writeRaw('\n');
+		}
+
+		private void date(String field, LocalDateTime value) throws IOException {
+			if (value == null) {
+				generator.writeNullField(field);
+			} else {
+				generator.writeStringField(field, value.toString());
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			generator.close();
+		}
+
+	}
+
+}
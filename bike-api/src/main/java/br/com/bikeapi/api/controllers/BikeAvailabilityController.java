@@ -0,0 +1,42 @@
+package br.com.bikeapi.api.controllers;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import br.com.bikeapi.service.availability.AvailabilityBroadcaster;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api/bikes/availability")
+@RequiredArgsConstructor
+@Api("Bike availability API")
+@Slf4j
+public class BikeAvailabilityController {
+
+	private final AvailabilityBroadcaster broadcaster;
+
+	/**
+	 * Acompanhar os alugueis e devolucoes de bicicletas por Server-Sent Events.
+	 * Cada evento ({@code rented} ou {@code returned}) traz a bicicleta e o
+	 * aluguel; um evento {@code reset} indica que eventos foram perdidos e a
+	 * disponibilidade deve ser recarregada.
+	 * 
+	 * @param lastEventId o ultimo evento recebido, enviado pelo EventSource ao
+	 *                    reconectar
+	 * @return o stream de eventos
+	 */
+	@ApiOperation("Acompanhar a disponibilidade das bicicletas")
+	@GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter stream(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+		log.info("Novo assinante da disponibilidade de bicicletas, Last-Event-ID: {}", lastEventId);
+		return broadcaster.subscribe(lastEventId);
+	}
+
+}
@@ -1,6 +1,11 @@
 package br.com.bikeapi.api.controllers;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import javax.validation.Valid;
@@ -10,6 +15,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -18,12 +24,20 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.web.server.ResponseStatusException;
 
+import br.com.bikeapi.api.ControllerExecutors;
+import br.com.bikeapi.api.EntityTags;
 import br.com.bikeapi.api.dto.BikeDTO;
+import br.com.bikeapi.api.dto.BikeImportReport;
 import br.com.bikeapi.model.entity.Bike;
+import br.com.bikeapi.model.repository.EntityVersion;
+import br.com.bikeapi.service.BikeImportService;
 import br.com.bikeapi.service.BikeService;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
@@ -40,6 +54,8 @@ public class BikeController {
 
 	private final BikeService service;
 	private final ModelMapper modelMapper;
+	private final BikeImportService importService;
+	private final ControllerExecutors executors;
 
 	/**
 	 * Criar uma bicicleta
@@ -58,17 +74,39 @@ public class BikeController {
 		return modelMapper.map(entity, BikeDTO.class);
 	}
 
+	/**
+	 * Importar bicicletas de um CSV (UTF-8) com cabecalho
+	 * {@code chassi,model,color,companyProperty}
+	 * 
+	 * @param csv o corpo da requisicao, lido de forma incremental
+	 * @return quantas bicicletas foram importadas e os registros rejeitados
+	 * @throws IOException
+	 */
+	@ApiOperation("Importar bicicletas de um CSV")
+	@PostMapping(value = "/import", consumes = { "text/csv", MediaType.TEXT_PLAIN_VALUE })
+	public BikeImportReport importCsv(InputStream csv) throws IOException {
+		log.info("Importando bicicletas de um CSV");
+		return importService.importCsv(new InputStreamReader(csv, StandardCharsets.UTF_8));
+	}
+
 	/**
 	 * Recuperar bicicleta por ID
 	 * 
-	 * @param id identificador da bicicleta
-	 * @return a bicicleta encontrada
+	 * @param id      identificador da bicicleta
+	 * @param request usado para responder 304 quando o cliente ja tem a versao
+	 *                atual
+	 * @return a bicicleta encontrada, ou <code>null</code> se nao foi modificada
 	 * @throws ResponseStatusException
 	 */
 	@ApiOperation("Recuperar bicicleta por ID")
 	@GetMapping("/{id}")
-	public BikeDTO get(@PathVariable Long id) {
+	public BikeDTO get(@PathVariable Long id, WebRequest request) {
 		log.info("Recuperando uma bicicleta de ID: {}", id);
+		Optional<EntityVersion> version = service.getVersionById(id);
+		if (version.isPresent() && request.checkNotModified(EntityTags.of("bike", id, version.get()),
+				EntityTags.lastModified(version.get()))) {
+			return null;
+		}
 		return service.getById(id).map(bike -> modelMapper.map(bike, BikeDTO.class))
 				.orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
 	}
@@ -110,7 +148,7 @@ public class BikeController {
 	}
 
 	/**
-	 * Filtrar bicicletas
+	 * Filtrar bicicletas, no executor de leitura
 	 * 
 	 * @param dto         os dados pelos quais se deseja filtrar
 	 * @param pageRequest a paginacao
@@ -118,13 +156,36 @@ public class BikeController {
 	 */
 	@ApiOperation("Filtrar bicicletas")
 	@GetMapping
-	public Page<BikeDTO> find(BikeDTO dto, Pageable pageRequest) {
+	public DeferredResult<Page<BikeDTO>> find(BikeDTO dto, Pageable pageRequest) {
 		log.info("Filtrando bicicletas");
 		Bike filter = modelMapper.map(dto, Bike.class);
-		Page<Bike> result = service.find(filter, pageRequest);
-		List<BikeDTO> list = result.getContent().stream().map(entity -> modelMapper.map(entity, BikeDTO.class))
-				.collect(Collectors.toList());
-		return new PageImpl<BikeDTO>(list, pageRequest, result.getTotalElements());
+		return executors.read(() -> {
+			Page<Bike> result = service.find(filter, pageRequest);
+			List<BikeDTO> list = result.getContent().stream().map(entity -> modelMapper.map(entity, BikeDTO.class))
+					.collect(Collectors.toList());
+			return new PageImpl<BikeDTO>(list, pageRequest, result.getTotalElements());
+		});
+	}
+
+	/**
+	 * Listar as bicicletas disponiveis para aluguel, no executor de leitura
+	 * 
+	 * @param model       o modelo exato, opcional
+	 * @param color       a cor exata, opcional
+	 * @param pageRequest a paginacao
+	 * @return a lista paginada das bicicletas disponiveis
+	 */
+	@ApiOperation("Listar bicicletas disponiveis")
+	@GetMapping("/available")
+	public DeferredResult<Page<BikeDTO>> findAvailable(@RequestParam(required = false) String model,
+			@RequestParam(required = false) String color, Pageable pageRequest) {
+		log.info("Listando bicicletas disponiveis");
+		return executors.read(() -> {
+			Page<Bike> result = service.findAvailable(model, color, pageRequest);
+			List<BikeDTO> list = result.getContent().stream().map(entity -> modelMapper.map(entity, BikeDTO.class))
+					.collect(Collectors.toList());
+			return new PageImpl<BikeDTO>(list, pageRequest, result.getTotalElements());
+		});
 	}
 
 	/**
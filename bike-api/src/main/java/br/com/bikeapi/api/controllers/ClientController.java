@@ -1,6 +1,13 @@
 package br.com.bikeapi.api.controllers;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 import javax.validation.Valid;
@@ -9,7 +16,10 @@ import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -17,17 +27,25 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.web.server.ResponseStatusException;
 
+import br.com.bikeapi.api.ControllerExecutors;
+import br.com.bikeapi.api.EntityTags;
 import br.com.bikeapi.api.dto.BikeDTO;
 import br.com.bikeapi.api.dto.ClientDTO;
+import br.com.bikeapi.api.dto.ClientImportStatus;
 import br.com.bikeapi.api.dto.RentDTO;
 import br.com.bikeapi.model.entity.Bike;
 import br.com.bikeapi.model.entity.Client;
 import br.com.bikeapi.model.entity.Rent;
+import br.com.bikeapi.model.repository.EntityVersion;
+import br.com.bikeapi.service.ClientImportService;
 import br.com.bikeapi.service.ClientService;
 import br.com.bikeapi.service.RentService;
 import io.swagger.annotations.Api;
@@ -46,6 +64,8 @@ public class ClientController {
 	private final ClientService service;
 	private final RentService rentService;
 	private final ModelMapper mapper;
+	private final ClientImportService importService;
+	private final ControllerExecutors executors;
 
 	/**
 	 * Criar um cliente.
@@ -64,17 +84,61 @@ public class ClientController {
 		return mapper.map(entity, ClientDTO.class);
 	}
 
+	/**
+	 * Importar clientes de um CSV (UTF-8) com cabecalho {@code nome,cpf}. A
+	 * importacao roda em segundo plano; o andamento fica em
+	 * {@code /api/clientes/import/{id}}.
+	 * 
+	 * @param csv o corpo da requisicao
+	 * @return a situacao inicial da importacao
+	 * @throws IOException
+	 * @throws ResponseStatusException quando ha importacoes demais na fila
+	 */
+	@ApiOperation("Importar clientes de um CSV")
+	@PostMapping(value = "/import", consumes = { "text/csv", MediaType.TEXT_PLAIN_VALUE })
+	public ResponseEntity<ClientImportStatus> importCsv(InputStream csv) throws IOException {
+		log.info("Importando clientes de um CSV");
+		ClientImportStatus status;
+		try {
+			status = importService.start(new InputStreamReader(csv, StandardCharsets.UTF_8));
+		} catch (RejectedExecutionException e) {
+			throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Importacoes demais na fila.", e);
+		}
+		return ResponseEntity.accepted().location(URI.create("/api/clientes/import/" + status.getId()))
+				.body(status);
+	}
+
+	/**
+	 * Recuperar o andamento de uma importacao de clientes.
+	 * 
+	 * @param id identificador da importacao
+	 * @return o andamento da importacao
+	 * @throws ResponseStatusException
+	 */
+	@ApiOperation("Recuperar o andamento de uma importacao de clientes")
+	@GetMapping("/import/{id}")
+	public ClientImportStatus importStatus(@PathVariable String id) {
+		return importService.getStatus(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+	}
+
 	/**
 	 * Recuperar cliente por ID.
 	 * 
-	 * @param id identificador do cliente a se recuperar
-	 * @return o cliente encontrado
+	 * @param id      identificador do cliente a se recuperar
+	 * @param request usado para responder 304 quando o cliente ja tem a versao
+	 *                atual
+	 * @return o cliente encontrado, ou <code>null</code> se nao foi modificado
 	 * @throws ResponseStatusException
 	 */
 	@ApiOperation("Recuperar cliente por ID")
 	@GetMapping(value = "/{id}")
-	public ClientDTO get(@PathVariable Long id) {
+	public ClientDTO get(@PathVariable Long id, WebRequest request) {
 		log.info("Recuperando o cliente de ID: {}", id);
+		Optional<EntityVersion> version = service.getVersionById(id);
+		if (version.isPresent() && request.checkNotModified(EntityTags.of("client", id, version.get()),
+				EntityTags.lastModified(version.get()))) {
+			return null;
+		}
 		return service.getById(id).map(cliente -> mapper.map(cliente, ClientDTO.class))
 				.orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
 	}
@@ -117,7 +181,7 @@ public class ClientController {
 	}
 
 	/**
-	 * Filtrar clientes.
+	 * Filtrar clientes, no executor de leitura.
 	 * 
 	 * @param dto         os dados pelos quais se deseja filtrar
 	 * @param pageRequest a paginacao
@@ -125,28 +189,49 @@ public class ClientController {
 	 */
 	@ApiOperation("Filtrar clientes")
 	@GetMapping
-	public Page<ClientDTO> find(ClientDTO dto, Pageable pageRequest) {
+	public DeferredResult<Page<ClientDTO>> find(ClientDTO dto, Pageable pageRequest) {
 		log.info("Filtrando clientes");
 		Client filter = mapper.map(dto, Client.class);
-		Page<Client> result = service.find(filter, pageRequest);
-		List<ClientDTO> list = result.getContent().stream().map(entity -> mapper.map(entity, ClientDTO.class))
-				.collect(Collectors.toList());
-		return new PageImpl<ClientDTO>(list, pageRequest, result.getTotalElements());
+		return executors.read(() -> {
+			Page<Client> result = service.find(filter, pageRequest);
+			List<ClientDTO> list = result.getContent().stream().map(entity -> mapper.map(entity, ClientDTO.class))
+					.collect(Collectors.toList());
+			return new PageImpl<ClientDTO>(list, pageRequest, result.getTotalElements());
+		});
 	}
 
 	/**
-	 * Recuperar aluguel por cliente.
+	 * Recuperar aluguel por cliente, no executor de leitura. A versao da
+	 * listagem (ETag) tambem e lida no executor, para que a thread da
+	 * requisicao nao segure uma conexao enquanto espera na fila.
 	 * 
 	 * @param id       identificador do cliente
 	 * @param pageable a paginacao
+	 * @param headers  usados para responder 304 quando a listagem nao mudou
 	 * @return a lista paginada dos alugueis feitos pelo cliente
 	 * @throws ResponseStatusException
 	 */
 	@ApiOperation("Recuperar aluguel por cliente")
 	@GetMapping("/{id}/rents")
-	Page<RentDTO> rentsByClient(@PathVariable Long id, Pageable pageable) {
+	DeferredResult<ResponseEntity<Page<RentDTO>>> rentsByClient(@PathVariable Long id, Pageable pageable,
+			@ApiIgnore @RequestHeader HttpHeaders headers) {
 		log.info("Buscando os alugueis feitos pelo cliente de ID: {}", id);
 
+		return executors.read(() -> {
+			if (!service.getVersionById(id).isPresent()) {
+				return ResponseEntity.ok(findRentsByClient(id, pageable));
+			}
+			String etag = EntityTags.of("client-rents", rentService.getRentsByClientVersion(id), pageable, id);
+			if (EntityTags.notModified(headers, etag)) {
+				return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+			}
+			return ResponseEntity.ok().eTag(etag).body(findRentsByClient(id, pageable));
+		});
+
+	}
+
+	private Page<RentDTO> findRentsByClient(Long id, Pageable pageable) {
+
 		Client client = service.getById(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
 
 		Page<Rent> result = rentService.getRentsByClient(client, pageable);
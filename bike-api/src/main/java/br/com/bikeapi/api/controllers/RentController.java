@@ -1,35 +1,59 @@
 package br.com.bikeapi.api.controllers;
 
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
 
 import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import br.com.bikeapi.api.AsyncRequestTimeout;
+import br.com.bikeapi.api.ControllerExecutors;
+import br.com.bikeapi.api.EntityTags;
+import br.com.bikeapi.api.RentHistoryWriter;
 import br.com.bikeapi.api.dto.BikeDTO;
 import br.com.bikeapi.api.dto.ClientDTO;
 import br.com.bikeapi.api.dto.RentDTO;
 import br.com.bikeapi.api.dto.RentFilterDTO;
 import br.com.bikeapi.api.dto.ReturnedBikeDTO;
+import br.com.bikeapi.api.ratelimit.RateLimitExceededException;
+import br.com.bikeapi.api.ratelimit.RateLimiter;
 import br.com.bikeapi.model.entity.Bike;
 import br.com.bikeapi.model.entity.Client;
 import br.com.bikeapi.model.entity.Rent;
+import br.com.bikeapi.monitoring.jfr.RentReturnEvent;
 import br.com.bikeapi.service.BikeService;
 import br.com.bikeapi.service.ClientService;
 import br.com.bikeapi.service.RentService;
@@ -37,6 +61,7 @@ import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import springfox.documentation.annotations.ApiIgnore;
 
 @RestController
 @RequestMapping("/api/rent")
@@ -49,22 +74,36 @@ public class RentController {
 	private final BikeService bikeService;
 	private final ClientService clientService;
 	private final ModelMapper mapper;
+	private final ControllerExecutors executors;
+	private final RateLimiter rateLimiter;
+
+	@Value("${application.export.timeout:30m}")
+	private Duration exportTimeout;
 
 	/**
-	 * Cria o aluguel
+	 * Cria o aluguel, no executor de escrita, se a chave de API e o CPF ainda
+	 * estao dentro do rate limit
 	 * 
-	 * @param dto os dados do aluguel
+	 * @param dto     os dados do aluguel
+	 * @param request de onde vem a chave de API
 	 * @return o aluguel criado
 	 * @throws MethodArgumentNotValidException
 	 * @throws ResponseStatusException
+	 * @throws RateLimitExceededException
 	 */
 	@ApiOperation("Criar aluguel")
 	@PostMapping
 	@ResponseStatus(HttpStatus.CREATED)
-	public Long create(@RequestBody RentDTO dto) {
+	public DeferredResult<Long> create(@RequestBody RentDTO dto, @ApiIgnore HttpServletRequest request) {
 
 		log.info("Criando aluguel para o cliente: {}, utilizando a bicicleta: {}", dto.getCpf(), dto.getChassi());
-		
+
+		rateLimiter.acquire(RateLimiter.RENT_CREATE, request, dto.getCpf());
+		return executors.write(() -> createRent(dto));
+	}
+
+	private Long createRent(RentDTO dto) {
+
 		Bike bike = bikeService.findByChassi(dto.getChassi()).orElseThrow(
 				() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Bike not found with given chassi"));
 
@@ -80,19 +119,41 @@ public class RentController {
 	}
 
 	/**
-	 * Atualiza o aluguel para marcar a data e a hora que a bicicleta foi devolvida
+	 * Atualiza o aluguel para marcar a data e a hora que a bicicleta foi
+	 * devolvida, no executor de escrita, se a chave de API e o CPF ainda estao
+	 * dentro do rate limit
 	 * 
-	 * @param id  identificador do aluguel
-	 * @param dto contem o sinal indicando que a bicicleta foi devolvida
+	 * @param id      identificador do aluguel
+	 * @param dto     contem o sinal indicando que a bicicleta foi devolvida
+	 * @param request de onde vem a chave de API
 	 * @throws ResponseStatusException
 	 * @throws MethodArgumentNotValidException
+	 * @throws RateLimitExceededException
 	 */
 	@ApiOperation("Atualizar aluguel")
 	@PatchMapping("/{id}")
-	public void returnedBike(@PathVariable Long id, @RequestBody @Valid ReturnedBikeDTO dto) {
+	public DeferredResult<Void> returnedBike(@PathVariable Long id, @RequestBody @Valid ReturnedBikeDTO dto,
+			@ApiIgnore HttpServletRequest request) {
 
 		log.info("Atualizando o estado aluguel de ID: {}", id);
-		
+
+		rateLimiter.acquire(RateLimiter.RENT_RETURN, request, dto.getClientCpf());
+		return executors.write(() -> {
+			RentReturnEvent event = new RentReturnEvent();
+			event.begin();
+			event.rentId = id;
+			try {
+				returnBike(id, dto, event);
+			} finally {
+				event.commit();
+			}
+			return null;
+		});
+
+	}
+
+	private void returnBike(Long id, ReturnedBikeDTO dto, RentReturnEvent event) {
+
 		Rent rent = service.getById(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
 
 		Client client = clientService.findByCpf(dto.getClientCpf())
@@ -105,26 +166,46 @@ public class RentController {
 			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "This client didn't rent this bike");
 		}
 
+		event.bikeId = rent.getBike() == null || rent.getBike().getId() == null ? 0 : rent.getBike().getId();
+		event.clientId = client.getId() == null ? 0 : client.getId();
+
 		if (dto != null && dto.getReturned()) {
-			rent.setReturnedDateTime(LocalDateTime.now());
-			service.update(rent);
+			service.returnBike(rent);
+			event.returned = true;
 		}
 
 	}
 
 	/**
-	 * Filtra os alugueis
+	 * Filtra os alugueis, no executor de leitura. A versao da listagem (ETag)
+	 * tambem e lida no executor, para que a thread da requisicao nao segure uma
+	 * conexao enquanto espera na fila
 	 * 
 	 * @param dto      os dados do aluguel
 	 * @param pageable a paginacao
+	 * @param headers  usados para responder 304 quando a listagem nao mudou
 	 * @return A lista paginada dos resultados
 	 */
 	@ApiOperation("Filtrar alugueis")
 	@GetMapping
-	public Page<RentDTO> find(RentFilterDTO dto, Pageable pageable) {
+	public DeferredResult<ResponseEntity<Page<RentDTO>>> find(RentFilterDTO dto, Pageable pageable,
+			@ApiIgnore @RequestHeader HttpHeaders headers) {
 
 		log.info("Filtrando alugueis");
-		
+
+		return executors.read(() -> {
+			String etag = EntityTags.of("rents", service.getListingVersion(dto), pageable, dto.getChassi(),
+					dto.getCpf());
+			if (EntityTags.notModified(headers, etag)) {
+				return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+			}
+			return ResponseEntity.ok().eTag(etag).body(findRents(dto, pageable));
+		});
+
+	}
+
+	private Page<RentDTO> findRents(RentFilterDTO dto, Pageable pageable) {
+
 		Page<Rent> result = service.find(dto, pageable);
 		List<RentDTO> rents = result.getContent().stream().map(entity -> {
 			Bike bike = entity.getBike();
@@ -141,4 +222,71 @@ public class RentController {
 
 	}
 
+	/**
+	 * Exporta o historico de alugueis em CSV ou NDJSON, escrevendo as linhas a
+	 * medida que saem do cursor da base, sem paginacao e sem carregar o
+	 * historico em memoria
+	 * 
+	 * @param format {@code csv} ou {@code ndjson}
+	 * @param from   data inicial (inclusive) do aluguel
+	 * @param to     data final (exclusive) do aluguel
+	 * @param gzip   compacta o arquivo
+	 * @param request recebe o timeout do export
+	 * @return o arquivo, escrito depois que o metodo retorna
+	 * @throws ResponseStatusException
+	 */
+	@ApiOperation("Exportar historico de alugueis")
+	@GetMapping("/export")
+	public ResponseEntity<StreamingResponseBody> export(
+			@RequestParam(defaultValue = "csv") String format,
+			@RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate from,
+			@RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate to,
+			@RequestParam(defaultValue = "false") boolean gzip,
+			@ApiIgnore HttpServletRequest request) {
+
+		RentHistoryWriter.Format historyFormat = exportFormat(format);
+		if (from != null && to != null && !from.isBefore(to)) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The export range is empty");
+		}
+		LocalDateTime start = from == null ? null : from.atStartOfDay();
+		LocalDateTime end = to == null ? null : to.atStartOfDay();
+
+		log.info("Exportando historico de alugueis de {} a {} em {}", from, to, historyFormat);
+
+		StringBuilder fileName = new StringBuilder("rents");
+		if (from != null) {
+			fileName.append('-').append(from);
+		}
+		if (to != null) {
+			fileName.append('-').append(to);
+		}
+		fileName.append('.').append(historyFormat.getExtension()).append(gzip ? ".gz" : "");
+
+		// exports grandes escrevem por minutos; os demais endpoints assincronos ficam com o timeout padrao
+		AsyncRequestTimeout.set(request, exportTimeout);
+
+		StreamingResponseBody body = output -> {
+			OutputStream target = gzip ? new GZIPOutputStream(output, 8 * 1024) : output;
+			try (RentHistoryWriter writer = RentHistoryWriter.of(historyFormat, target)) {
+				long rows = service.exportHistory(start, end, writer);
+				log.info("Historico de alugueis exportado: {} linhas", rows);
+			}
+		};
+
+		return ResponseEntity.ok()
+				.contentType(gzip ? new MediaType("application", "gzip") : historyFormat.getMediaType())
+				.header(HttpHeaders.CONTENT_DISPOSITION,
+						ContentDisposition.attachment().filename(fileName.toString()).build().toString())
+				.body(body);
+
+	}
+
+	private static RentHistoryWriter.Format exportFormat(String format) {
+		try {
+			return RentHistoryWriter.Format.valueOf(format.toUpperCase(Locale.ROOT));
+		} catch (IllegalArgumentException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown export format: " + format);
+		}
+	}
+
 }
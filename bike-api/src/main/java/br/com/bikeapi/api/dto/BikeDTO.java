@@ -2,8 +2,8 @@ package br.com.bikeapi.api.dto;
 
 import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
-import javax.validation.constraints.Size;
 
+import br.com.bikeapi.api.validation.Chassi;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -18,7 +18,7 @@ public class BikeDTO {
 	private Long id;
 	
 	@NotEmpty
-	@Size(min = 6)
+	@Chassi
 	private String chassi;
 	
 	@NotEmpty
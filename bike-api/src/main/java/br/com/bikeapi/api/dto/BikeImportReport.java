@@ -0,0 +1,55 @@
+package br.com.bikeapi.api.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BikeImportReport {
+
+	/**
+	 * Registros lidos do arquivo, sem contar o cabecalho
+	 */
+	private long rows;
+
+	private long imported;
+
+	private long rejected;
+
+	/**
+	 * Motivo de cada registro rejeitado, limitado aos primeiros
+	 */
+	private List<RowError> errors;
+
+	/**
+	 * Indica que houve mais rejeicoes do que as listadas em {@link #errors}
+	 */
+	private boolean errorsTruncated;
+
+	private long elapsedMillis;
+
+	private double rowsPerSecond;
+
+	@Data
+	@AllArgsConstructor
+	@NoArgsConstructor
+	public static class RowError {
+
+		/**
+		 * Linha do arquivo (a partir de 1, contando o cabecalho)
+		 */
+		private long line;
+
+		private String chassi;
+
+		private String message;
+
+	}
+
+}
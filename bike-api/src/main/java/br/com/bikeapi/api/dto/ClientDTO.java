@@ -3,8 +3,7 @@ package br.com.bikeapi.api.dto;
 import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Size;
 
-import org.hibernate.validator.constraints.br.CPF;
-
+import br.com.bikeapi.api.validation.Cpf;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -23,7 +22,7 @@ public class ClientDTO {
 	private String nome;
 	
 	@NotEmpty
-	@CPF
+	@Cpf
 	private String cpf;
 
 }
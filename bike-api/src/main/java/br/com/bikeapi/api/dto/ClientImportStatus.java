@@ -0,0 +1,78 @@
+package br.com.bikeapi.api.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ClientImportStatus {
+
+	public enum State {
+		RUNNING, COMPLETED, FAILED
+	}
+
+	private String id;
+
+	private State state;
+
+	/**
+	 * Registros lidos do arquivo, sem contar o cabecalho
+	 */
+	private long rows;
+
+	/**
+	 * Registros ja validados e gravados ou rejeitados
+	 */
+	private long processed;
+
+	private long imported;
+
+	private long rejected;
+
+	/**
+	 * Motivo de cada registro rejeitado, limitado aos primeiros
+	 */
+	private List<RowError> errors;
+
+	/**
+	 * Indica que houve mais rejeicoes do que as listadas em {@link #errors}
+	 */
+	private boolean errorsTruncated;
+
+	/**
+	 * Motivo da falha quando {@link #state} e {@link State#FAILED}
+	 */
+	private String failure;
+
+	private Instant startedAt;
+
+	private Instant finishedAt;
+
+	private long elapsedMillis;
+
+	private double rowsPerSecond;
+
+	@Data
+	@AllArgsConstructor
+	@NoArgsConstructor
+	public static class RowError {
+
+		/**
+		 * Linha do arquivo (a partir de 1, contando o cabecalho)
+		 */
+		private long line;
+
+		private String cpf;
+
+		private String message;
+
+	}
+
+}
@@ -3,10 +3,9 @@ package br.com.bikeapi.api.dto;
 import javax.validation.constraints.Email;
 import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
-import javax.validation.constraints.Size;
-
-import org.hibernate.validator.constraints.br.CPF;
 
+import br.com.bikeapi.api.validation.Chassi;
+import br.com.bikeapi.api.validation.Cpf;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -29,11 +28,11 @@ public class RentDTO {
 	private Integer rentHoursDuration = 0;
 	
 	@NotEmpty
-	@Size(min = 6)
+	@Chassi
 	private String chassi;
 	
 	@NotEmpty
-	@CPF
+	@Cpf
 	private String cpf;
 	
 	private ClientDTO cliente;
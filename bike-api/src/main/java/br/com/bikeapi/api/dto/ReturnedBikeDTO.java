@@ -3,8 +3,7 @@ package br.com.bikeapi.api.dto;
 import javax.persistence.Column;
 import javax.validation.constraints.NotEmpty;
 
-import org.hibernate.validator.constraints.br.CPF;
-
+import br.com.bikeapi.api.validation.Cpf;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -20,7 +19,7 @@ public class ReturnedBikeDTO {
 	@Builder.Default
 	private Boolean returned = false;
 	
-	@CPF
+	@Cpf
 	@NotEmpty
 	private String clientCpf;
 
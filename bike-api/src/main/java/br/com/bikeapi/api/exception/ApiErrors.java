@@ -5,8 +5,10 @@ import java.util.Arrays;
 import java.util.List;
 
 import org.springframework.validation.BindingResult;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
 import org.springframework.web.server.ResponseStatusException;
 
+import br.com.bikeapi.api.ratelimit.RateLimitExceededException;
 import br.com.bikeapi.exception.BusinessException;
 
 public class ApiErrors {
@@ -29,6 +31,14 @@ public class ApiErrors {
 		this.errors = Arrays.asList(ex.getReason());
 	}
 
+	public ApiErrors(AsyncRequestTimeoutException ex) {
+		this.errors = Arrays.asList("Tempo limite da requisicao esgotado.");
+	}
+
+	public ApiErrors(RateLimitExceededException ex) {
+		this.errors = Arrays.asList(ex.getMessage());
+	}
+
 	public List<String> getErrors() {
 		return errors;
 	}
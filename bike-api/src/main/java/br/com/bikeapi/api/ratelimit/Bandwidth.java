@@ -0,0 +1,76 @@
+package br.com.bikeapi.api.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * Vazao de um token bucket: {@code capacity} requisicoes a cada
+ * {@code period}, com rajadas de ate {@code capacity}.
+ *
+ * <p>O estado do balde e um unico numero, o instante teorico em que ele
+ * estaria cheio de novo (TAT, do GCRA): cada requisicao aceita o empurra um
+ * intervalo ({@code period / capacity}) para frente, e a requisicao e recusada
+ * quando ele passaria de {@code period} a frente do relogio. Assim o balde
+ * cabe num {@code AtomicLong} ou numa coluna, e um balde com o TAT no passado
+ * esta cheio e pode ser descartado.</p>
+ */
+public final class Bandwidth {
+
+	private final int capacity;
+
+	private final long periodNanos;
+
+	private final long intervalNanos;
+
+	private final long toleranceNanos;
+
+	public Bandwidth(int capacity, Duration period) {
+		if (capacity < 1 || period.isZero() || period.isNegative()) {
+			throw new IllegalArgumentException("Limite invalido: " + capacity + " a cada " + period);
+		}
+		this.capacity = capacity;
+		this.periodNanos = period.toNanos();
+		this.intervalNanos = Math.max(1, periodNanos / capacity);
+		this.toleranceNanos = periodNanos - intervalNanos;
+	}
+
+	/**
+	 * @param tat o instante em que o balde estaria cheio
+	 * @param now o instante da requisicao, no mesmo relogio
+	 * @return quanto a requisicao teria que esperar, ou 0 se ha um token
+	 */
+	public long waitNanos(long tat, long now) {
+		return Math.max(0, Math.max(tat, now) - toleranceNanos - now);
+	}
+
+	/**
+	 * @return o TAT depois de consumir um token, quando
+	 *         {@link #waitNanos(long, long)} e 0
+	 */
+	public long consume(long tat, long now) {
+		return Math.max(tat, now) + intervalNanos;
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * @return o tempo para o balde vazio encher de novo
+	 */
+	public long getPeriodNanos() {
+		return periodNanos;
+	}
+
+	/**
+	 * @return o tempo para um token voltar ao balde
+	 */
+	public long getIntervalNanos() {
+		return intervalNanos;
+	}
+
+	@Override
+	public String toString() {
+		return capacity + "/" + Duration.ofNanos(periodNanos);
+	}
+
+}
@@ -0,0 +1,86 @@
+package br.com.bikeapi.api.ratelimit;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Token buckets na tabela {@code rate_limit_bucket}, para que os limites
+ * valham somados entre todas as instancias.
+ *
+ * <p>E o mesmo compare-and-set do {@link LocalRateLimitStore}, feito na base:
+ * le o TAT do balde e o atualiza com {@code where tat = <lido>}, repetindo
+ * quando outra instancia o alterou no meio. Cada requisicao limitada custa
+ * dois statements, em autocommit e com uma conexao propria, devolvida ao pool
+ * na hora (o EntityManager da requisicao nao e usado).</p>
+ *
+ * <p>O relogio e o de cada instancia ({@code currentTimeMillis}), entao uma
+ * diferenca de relogio entre elas desloca o limite na mesma medida. Os baldes
+ * cheios (TAT no passado) sao apagados de tempos em tempos.</p>
+ */
+@Slf4j
+public class JdbcRateLimitStore implements RateLimitStore {
+
+	private static final int MAX_ATTEMPTS = 5;
+
+	private static final Ticker WALL_CLOCK = () -> TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private final Ticker ticker;
+
+	public JdbcRateLimitStore(DataSource dataSource, Ticker ticker) {
+		this.jdbcTemplate = new JdbcTemplate(dataSource);
+		this.ticker = ticker == null ? WALL_CLOCK : ticker;
+	}
+
+	@Override
+	public long tryConsume(String key, Bandwidth bandwidth) {
+		for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+			long now = ticker.read();
+			List<Long> tat = jdbcTemplate.queryForList("select tat from rate_limit_bucket where bucket_key = ?",
+					Long.class, key);
+			if (tat.isEmpty()) {
+				try {
+					jdbcTemplate.update("insert into rate_limit_bucket (bucket_key, tat) values (?, ?)", key,
+							bandwidth.consume(now, now));
+					return 0;
+				} catch (DuplicateKeyException e) {
+					continue;
+				}
+			}
+			long wait = bandwidth.waitNanos(tat.get(0), now);
+			if (wait > 0) {
+				return wait;
+			}
+			if (jdbcTemplate.update("update rate_limit_bucket set tat = ? where bucket_key = ? and tat = ?",
+					bandwidth.consume(tat.get(0), now), key, tat.get(0)) == 1) {
+				return 0;
+			}
+		}
+		// chave disputada por muitas requisicoes ao mesmo tempo: e quem mais
+		// precisa esperar
+		log.warn("Balde {} disputado demais, requisicao recusada", key);
+		return bandwidth.getIntervalNanos();
+	}
+
+	/**
+	 * Apaga os baldes cheios, que seriam recriados iguais na proxima
+	 * requisicao.
+	 */
+	@Scheduled(fixedDelayString = "${application.rate-limit.purge-interval:PT10M}")
+	public void purge() {
+		int purged = jdbcTemplate.update("delete from rate_limit_bucket where tat < ?", ticker.read());
+		log.debug("{} baldes de rate limit cheios apagados", purged);
+	}
+
+}
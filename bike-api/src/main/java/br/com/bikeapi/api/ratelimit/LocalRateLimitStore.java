@@ -0,0 +1,53 @@
+package br.com.bikeapi.api.ratelimit;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+/**
+ * Token buckets em memoria, cada um num {@link AtomicLong} atualizado por
+ * compare-and-set, sem locks.
+ *
+ * <p>Os limites valem por no: com varias instancias atras de um balanceador,
+ * cada uma aceita o limite inteiro (ver {@link JdbcRateLimitStore}).</p>
+ *
+ * <p>Um balde parado por {@code idleTimeout} (o maior periodo configurado)
+ * ja esta cheio, entao descarta-lo e o mesmo que recria-lo; acima de
+ * {@code maximumKeys} os menos usados tambem sao descartados.</p>
+ */
+public class LocalRateLimitStore implements RateLimitStore {
+
+	private final Ticker ticker;
+
+	private final Cache<String, AtomicLong> buckets;
+
+	public LocalRateLimitStore(long maximumKeys, Duration idleTimeout, Ticker ticker) {
+		this.ticker = ticker == null ? Ticker.systemTicker() : ticker;
+		this.buckets = Caffeine.newBuilder()
+							.maximumSize(maximumKeys)
+							.expireAfterAccess(idleTimeout.toNanos(), TimeUnit.NANOSECONDS)
+							.ticker(this.ticker)
+							.build();
+	}
+
+	@Override
+	public long tryConsume(String key, Bandwidth bandwidth) {
+		long now = ticker.read();
+		AtomicLong bucket = buckets.get(key, k -> new AtomicLong(now));
+		while (true) {
+			long tat = bucket.get();
+			long wait = bandwidth.waitNanos(tat, now);
+			if (wait > 0) {
+				return wait;
+			}
+			if (bucket.compareAndSet(tat, bandwidth.consume(tat, now))) {
+				return 0;
+			}
+		}
+	}
+
+}
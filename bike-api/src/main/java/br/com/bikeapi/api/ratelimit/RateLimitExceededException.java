@@ -0,0 +1,28 @@
+package br.com.bikeapi.api.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A requisicao passou do limite do endpoint; respondida com 429 e
+ * {@code Retry-After}.
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+	private static final long serialVersionUID = 4316289072741325853L;
+
+	private final long retryAfterNanos;
+
+	public RateLimitExceededException(String message, long retryAfterNanos) {
+		super(message, null, false, false);
+		this.retryAfterNanos = retryAfterNanos;
+	}
+
+	/**
+	 * @return os segundos ate haver um token, arredondados para cima, para o
+	 *         {@code Retry-After}
+	 */
+	public long getRetryAfterSeconds() {
+		return Math.max(1, (retryAfterNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+	}
+
+}
@@ -0,0 +1,21 @@
+package br.com.bikeapi.api.ratelimit;
+
+/**
+ * Onde ficam os token buckets do {@link RateLimiter}.
+ *
+ * @see LocalRateLimitStore
+ * @see JdbcRateLimitStore
+ */
+public interface RateLimitStore {
+
+	/**
+	 * Consome um token do balde da chave, criando-o cheio se ainda nao existe.
+	 *
+	 * @param key       a chave do balde
+	 * @param bandwidth a vazao do balde
+	 * @return 0 quando o token foi consumido, ou o tempo em nanossegundos ate
+	 *         haver um token
+	 */
+	long tryConsume(String key, Bandwidth bandwidth);
+
+}
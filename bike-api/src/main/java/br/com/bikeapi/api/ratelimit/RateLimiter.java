@@ -0,0 +1,171 @@
+package br.com.bikeapi.api.ratelimit;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.servlet.http.HttpServletRequest;
+
+import br.com.bikeapi.config.RateLimitProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Rate limit das escritas de aluguel, com um token bucket por chave de API e
+ * outro por CPF do cliente, configurados por endpoint.
+ *
+ * <p>Os controllers chamam {@link #acquire(String, HttpServletRequest, String)}
+ * antes de submeter a escrita aos executores, para que uma integracao em
+ * rajada nao ocupe a fila das outras. A requisicao sem a chave de API e
+ * limitada pelo endereco de origem. A chave nao e autenticada aqui: quem a
+ * troca a cada requisicao escapa do limite por chave, mas nao do limite por
+ * CPF.</p>
+ *
+ * <p>Metrica: {@code bikeapi.ratelimit.rejected}, com as tags
+ * {@code endpoint} e {@code key} ({@code api-key} ou {@code cpf}).</p>
+ */
+@Slf4j
+public class RateLimiter implements MeterBinder {
+
+	public static final String RENT_CREATE = "rent-create";
+
+	public static final String RENT_RETURN = "rent-return";
+
+	private static final String MESSAGE = "Limite de requisicoes excedido.";
+
+	/*
+	 * Cabe na coluna bucket_key com o prefixo; chaves maiores dividem o balde
+	 * com as que comecam igual
+	 */
+	private static final int MAX_API_KEY_LENGTH = 128;
+
+	private final String apiKeyHeader;
+
+	private final RateLimitStore store;
+
+	private final Map<String, Endpoint> endpoints = new HashMap<>();
+
+	/**
+	 * @param endpoints    os limites de cada endpoint; vazio desliga o rate
+	 *                     limit
+	 * @param apiKeyHeader o header com a chave de API
+	 * @param store        onde ficam os baldes
+	 */
+	public RateLimiter(Map<String, RateLimitProperties.Endpoint> endpoints, String apiKeyHeader,
+			RateLimitStore store) {
+		this.apiKeyHeader = apiKeyHeader;
+		this.store = store;
+		endpoints.forEach((name, limits) -> this.endpoints.put(name, new Endpoint(name, limits)));
+	}
+
+	/**
+	 * Consome um token dos baldes da chave de API e do CPF.
+	 *
+	 * @param endpoint o endpoint, como configurado
+	 * @param request  a requisicao, de onde vem a chave de API
+	 * @param cpf      o CPF do cliente, ou <code>null</code>
+	 * @throws RateLimitExceededException quando algum dos baldes esta vazio
+	 */
+	public void acquire(String endpoint, HttpServletRequest request, String cpf) {
+		Endpoint limits = endpoints.get(endpoint);
+		if (limits == null) {
+			return;
+		}
+		if (limits.apiKey != null) {
+			String apiKey = request.getHeader(apiKeyHeader);
+			String key = apiKey == null || apiKey.isEmpty() ? limits.addressPrefix + request.getRemoteAddr()
+					: limits.apiKeyPrefix + (apiKey.length() > MAX_API_KEY_LENGTH
+							? apiKey.substring(0, MAX_API_KEY_LENGTH) : apiKey);
+			consume(key, limits.apiKey, limits.rejectedByApiKey);
+		}
+		if (limits.cpf != null && cpf != null) {
+			consume(limits.cpfPrefix + digits(cpf), limits.cpf, limits.rejectedByCpf);
+		}
+	}
+
+	private void consume(String key, Bandwidth bandwidth, LongAdder rejected) {
+		long wait = store.tryConsume(key, bandwidth);
+		if (wait > 0) {
+			rejected.increment();
+			log.debug("Rate limit de {} ({}) excedido", key, bandwidth);
+			throw new RateLimitExceededException(MESSAGE, wait);
+		}
+	}
+
+	/*
+	 * O mesmo CPF com e sem mascara cai no mesmo balde
+	 */
+	private static String digits(String cpf) {
+		for (int i = 0; i < cpf.length(); i++) {
+			if (!Character.isDigit(cpf.charAt(i))) {
+				StringBuilder digits = new StringBuilder(cpf.length());
+				for (int j = 0; j < cpf.length(); j++) {
+					if (Character.isDigit(cpf.charAt(j))) {
+						digits.append(cpf.charAt(j));
+					}
+				}
+				return digits.toString();
+			}
+		}
+		return cpf;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		endpoints.values().forEach(endpoint -> {
+			if (endpoint.apiKey != null) {
+				rejectedCounter(registry, endpoint.name, "api-key", endpoint.rejectedByApiKey);
+			}
+			if (endpoint.cpf != null) {
+				rejectedCounter(registry, endpoint.name, "cpf", endpoint.rejectedByCpf);
+			}
+		});
+	}
+
+	private static void rejectedCounter(MeterRegistry registry, String endpoint, String key, LongAdder rejected) {
+		FunctionCounter.builder("bikeapi.ratelimit.rejected", rejected, LongAdder::sum)
+			.description("Requisicoes recusadas pelo rate limit")
+			.tag("endpoint", endpoint)
+			.tag("key", key)
+			.register(registry);
+	}
+
+	/**
+	 * Os baldes de um endpoint e os seus contadores.
+	 */
+	private static final class Endpoint {
+
+		private final String name;
+
+		private final Bandwidth apiKey;
+
+		private final Bandwidth cpf;
+
+		private final String apiKeyPrefix;
+
+		private final String addressPrefix;
+
+		private final String cpfPrefix;
+
+		private final LongAdder rejectedByApiKey = new LongAdder();
+
+		private final LongAdder rejectedByCpf = new LongAdder();
+
+		private Endpoint(String name, RateLimitProperties.Endpoint limits) {
+			this.name = name;
+			this.apiKey = bandwidth(limits.getApiKey());
+			this.cpf = bandwidth(limits.getCpf());
+			this.apiKeyPrefix = name + ":key:";
+			this.addressPrefix = name + ":ip:";
+			this.cpfPrefix = name + ":cpf:";
+		}
+
+		private static Bandwidth bandwidth(RateLimitProperties.Limit limit) {
+			return limit == null ? null : new Bandwidth(limit.getCapacity(), limit.getPeriod());
+		}
+
+	}
+
+}
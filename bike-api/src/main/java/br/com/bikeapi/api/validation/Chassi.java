@@ -0,0 +1,39 @@
+package br.com.bikeapi.api.validation;
+
+import static java.lang.annotation.ElementType.ANNOTATION_TYPE;
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.PARAMETER;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import javax.validation.Constraint;
+import javax.validation.Payload;
+
+/**
+ * Chassi de bicicleta: entre {@link #min()} e {@link #max()} caracteres, apenas
+ * letras sem acento, digitos e hifen. {@code null} e valido.
+ */
+@Documented
+@Constraint(validatedBy = ChassiValidator.class)
+@Target({ METHOD, FIELD, ANNOTATION_TYPE, PARAMETER })
+@Retention(RUNTIME)
+public @interface Chassi {
+
+	String message() default "{br.com.bikeapi.api.validation.Chassi.message}";
+
+	Class<?>[] groups() default {};
+
+	Class<? extends Payload>[] payload() default {};
+
+	int min() default 6;
+
+	/**
+	 * Tamanho da coluna {@code chassi}
+	 */
+	int max() default 255;
+
+}
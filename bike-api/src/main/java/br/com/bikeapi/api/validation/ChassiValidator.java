@@ -0,0 +1,41 @@
+package br.com.bikeapi.api.validation;
+
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+
+/**
+ * Validador de {@link Chassi} que verifica os caracteres diretamente, sem
+ * expressoes regulares e sem alocar.
+ */
+public class ChassiValidator implements ConstraintValidator<Chassi, CharSequence> {
+
+	private int min;
+
+	private int max;
+
+	@Override
+	public void initialize(Chassi constraint) {
+		this.min = constraint.min();
+		this.max = constraint.max();
+	}
+
+	@Override
+	public boolean isValid(CharSequence value, ConstraintValidatorContext context) {
+		return value == null || isValid(value, min, max);
+	}
+
+	public static boolean isValid(CharSequence value, int min, int max) {
+		int length = value.length();
+		if (length < min || length > max) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			char c = value.charAt(i);
+			if (!(c >= '0' && c <= '9' || c >= 'A' && c <= 'Z' || c >= 'a' && c <= 'z' || c == '-')) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
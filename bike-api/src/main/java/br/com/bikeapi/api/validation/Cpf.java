@@ -0,0 +1,38 @@
+package br.com.bikeapi.api.validation;
+
+import static java.lang.annotation.ElementType.ANNOTATION_TYPE;
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.PARAMETER;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import javax.validation.Constraint;
+import javax.validation.Payload;
+
+/**
+ * Cpf valido: 11 digitos, sem mascara, so com o traco ou com a mascara
+ * completa {@code 000.000.000-00}, com os digitos verificadores corretos e
+ * nao formado por um unico digito repetido.
+ * 
+ * <p>Substitui o {@link org.hibernate.validator.constraints.br.CPF}, com o mesmo
+ * resultado para as mascaras que ele trata corretamente, mas verifica os
+ * caracteres diretamente, sem as expressoes regulares que ele avalia a cada
+ * validacao. {@code null} e valido.</p>
+ */
+@Documented
+@Constraint(validatedBy = CpfValidator.class)
+@Target({ METHOD, FIELD, ANNOTATION_TYPE, PARAMETER })
+@Retention(RUNTIME)
+public @interface Cpf {
+
+	String message() default "{org.hibernate.validator.constraints.br.CPF.message}";
+
+	Class<?>[] groups() default {};
+
+	Class<? extends Payload>[] payload() default {};
+
+}
@@ -0,0 +1,77 @@
+package br.com.bikeapi.api.validation;
+
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+
+/**
+ * Validador de {@link Cpf} que percorre o texto uma unica vez, sem
+ * expressoes regulares e sem alocar.
+ */
+public class CpfValidator implements ConstraintValidator<Cpf, CharSequence> {
+
+	@Override
+	public boolean isValid(CharSequence value, ConstraintValidatorContext context) {
+		return value == null || isValid(value);
+	}
+
+	/**
+	 * Formatos aceitos: {@code 00000000000}, {@code 000000000-00} e
+	 * {@code 000.000.000-00}. O {@code @CPF} tambem casa a mascara com um so
+	 * ponto, mas confere os digitos dela nas posicoes erradas; aqui ela e
+	 * simplesmente recusada.
+	 */
+	public static boolean isValid(CharSequence value) {
+		int length = value.length();
+		if (length == 12) {
+			if (value.charAt(9) != '-') {
+				return false;
+			}
+		} else if (length == 14) {
+			if (value.charAt(3) != '.' || value.charAt(7) != '.' || value.charAt(11) != '-') {
+				return false;
+			}
+		} else if (length != 11) {
+			return false;
+		}
+		int digits = 0;
+		int firstSum = 0;
+		int secondSum = 0;
+		int firstCheck = 0;
+		int secondCheck = 0;
+		boolean repeated = true;
+		for (int i = 0; i < length; i++) {
+			char c = value.charAt(i);
+			if (length > 11 && (c == '.' || c == '-')) {
+				// as posicoes dos separadores ja foram conferidas
+				continue;
+			}
+			if (c < '0' || c > '9') {
+				return false;
+			}
+			int digit = c - '0';
+			if (digits > 0 && c != value.charAt(0)) {
+				repeated = false;
+			}
+			if (digits < 9) {
+				firstSum += digit * (10 - digits);
+				secondSum += digit * (11 - digits);
+			} else if (digits == 9) {
+				firstCheck = digit;
+				secondSum += digit * 2;
+			} else {
+				secondCheck = digit;
+			}
+			digits++;
+		}
+		if (digits != 11 || repeated) {
+			return false;
+		}
+		return checkDigit(firstSum) == firstCheck && checkDigit(secondSum) == secondCheck;
+	}
+
+	private static int checkDigit(int sum) {
+		int remainder = sum % 11;
+		return remainder < 2 ? 0 : 11 - remainder;
+	}
+
+}
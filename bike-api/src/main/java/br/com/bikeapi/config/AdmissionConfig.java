@@ -0,0 +1,30 @@
+package br.com.bikeapi.config;
+
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import br.com.bikeapi.api.AdaptiveAdmission;
+import br.com.bikeapi.monitoring.HikariPoolSaturation;
+
+@Configuration
+@EnableConfigurationProperties(AdmissionProperties.class)
+@ConditionalOnProperty(prefix = "application.web.admission", name = "enabled", matchIfMissing = true)
+public class AdmissionConfig {
+
+	@Bean
+	public HikariPoolSaturation hikariPoolSaturation(DataSource dataSource) throws SQLException {
+		return HikariPoolSaturation.of(dataSource);
+	}
+
+	@Bean(destroyMethod = "shutdown")
+	public AdaptiveAdmission adaptiveAdmission(AdmissionProperties properties, HikariPoolSaturation pool) {
+		return new AdaptiveAdmission(pool, properties);
+	}
+
+}
@@ -0,0 +1,53 @@
+package br.com.bikeapi.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Configuracao do controle de admissao dos executores dos controllers.
+ *
+ * @see br.com.bikeapi.api.AdaptiveAdmission
+ */
+@Data
+@ConfigurationProperties(prefix = "application.web.admission")
+public class AdmissionProperties {
+
+	private boolean enabled = true;
+
+	/**
+	 * Limite de requisicoes admitidas (na fila ou rodando) ao iniciar
+	 */
+	private int initialLimit = 100;
+
+	private int minLimit = 4;
+
+	private int maxLimit = 300;
+
+	/**
+	 * Fracao do limite que as listagens podem ocupar; o restante fica para as
+	 * escritas de aluguel
+	 */
+	private double readShare = 0.75;
+
+	/**
+	 * Espera media por uma conexao do pool acima da qual o limite cai
+	 */
+	private Duration targetWait = Duration.ofMillis(50);
+
+	/**
+	 * Fator aplicado ao limite quando o pool esta saturado
+	 */
+	private double decreaseFactor = 0.7;
+
+	/**
+	 * Quanto o limite sobe a cada intervalo sem saturacao em que foi
+	 * atingido
+	 */
+	private int increase = 2;
+
+	private Duration sampleInterval = Duration.ofMillis(250);
+
+}
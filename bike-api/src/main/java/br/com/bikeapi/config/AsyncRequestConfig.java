@@ -0,0 +1,17 @@
+package br.com.bikeapi.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import br.com.bikeapi.api.AsyncRequestTimeout;
+
+@Configuration
+public class AsyncRequestConfig implements WebMvcConfigurer {
+
+	@Override
+	public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+		configurer.registerCallableInterceptors(new AsyncRequestTimeout());
+	}
+
+}
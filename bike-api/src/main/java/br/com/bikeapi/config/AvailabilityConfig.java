@@ -0,0 +1,19 @@
+package br.com.bikeapi.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import br.com.bikeapi.service.availability.AvailabilityBroadcaster;
+
+@Configuration
+@EnableConfigurationProperties(AvailabilityProperties.class)
+public class AvailabilityConfig {
+
+	@Bean(destroyMethod = "shutdown")
+	public AvailabilityBroadcaster availabilityBroadcaster(AvailabilityProperties properties) {
+		return new AvailabilityBroadcaster(properties.getRingSize(), properties.getSubscriberBuffer(),
+				properties.getHeartbeatInterval(), properties.getStreamTimeout(), properties.getSenderThreads());
+	}
+
+}
@@ -0,0 +1,44 @@
+package br.com.bikeapi.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Configuracao do stream SSE de disponibilidade de bicicletas.
+ */
+@Data
+@ConfigurationProperties(prefix = "application.availability")
+public class AvailabilityProperties {
+
+	/**
+	 * Eventos recentes guardados para reenvio a quem reconecta com
+	 * Last-Event-ID
+	 */
+	private int ringSize = 1024;
+
+	/**
+	 * Eventos pendentes por assinante; alem disso os mais antigos sao
+	 * descartados
+	 */
+	private int subscriberBuffer = 256;
+
+	/**
+	 * Intervalo dos comentarios de heartbeat enviados aos assinantes ociosos
+	 */
+	private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+	/**
+	 * Tempo maximo de uma conexao; o EventSource do navegador reconecta
+	 * sozinho
+	 */
+	private Duration streamTimeout = Duration.ofMinutes(30);
+
+	/**
+	 * Threads que escrevem nas conexoes dos assinantes
+	 */
+	private int senderThreads = 2;
+
+}
@@ -0,0 +1,15 @@
+package br.com.bikeapi.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/*
+ * O executor e o fork-join pool da importacao ficam dentro do servico, e nao
+ * como beans: um bean Executor desligaria o applicationTaskExecutor do Spring
+ * Boot, usado pelas respostas assincronas do MVC
+ */
+@Configuration
+@EnableConfigurationProperties(ClientImportProperties.class)
+public class ClientImportConfig {
+
+}
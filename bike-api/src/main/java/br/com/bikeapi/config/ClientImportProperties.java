@@ -0,0 +1,37 @@
+package br.com.bikeapi.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Configuracao da importacao de clientes em massa
+ * ({@link br.com.bikeapi.service.ClientImportService}).
+ */
+@Data
+@ConfigurationProperties(prefix = "application.clients.import")
+public class ClientImportProperties {
+
+	/**
+	 * Registros validados, consultados na base e inseridos de cada vez
+	 */
+	private int chunkSize = 1000;
+
+	/**
+	 * Threads do fork-join pool que valida os cpfs; 0 usa o numero de
+	 * processadores
+	 */
+	private int parallelism = 0;
+
+	/**
+	 * Importacoes aguardando a vez; as importacoes rodam uma de cada vez e,
+	 * com a fila cheia, novas importacoes sao recusadas
+	 */
+	private int queueCapacity = 10;
+
+	/**
+	 * Importacoes concluidas cujo andamento continua disponivel para consulta
+	 */
+	private int retainedJobs = 100;
+
+}
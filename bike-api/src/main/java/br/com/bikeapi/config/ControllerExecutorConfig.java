@@ -0,0 +1,29 @@
+package br.com.bikeapi.config;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import br.com.bikeapi.api.AdaptiveAdmission;
+import br.com.bikeapi.api.ControllerExecutors;
+
+/*
+ * ControllerExecutors nao e um Executor: um bean Executor desligaria o
+ * applicationTaskExecutor do Spring Boot, usado pelas respostas assincronas
+ * do MVC
+ */
+@Configuration
+@EnableConfigurationProperties(ControllerExecutorProperties.class)
+public class ControllerExecutorConfig {
+
+	@Bean(destroyMethod = "shutdown")
+	public ControllerExecutors controllerExecutors(ControllerExecutorProperties properties,
+			ObjectProvider<EntityManagerFactory> entityManagerFactory, ObjectProvider<AdaptiveAdmission> admission) {
+		return new ControllerExecutors(properties.getRead(), properties.getWrite(),
+				entityManagerFactory.getIfAvailable(), admission.getIfAvailable());
+	}
+
+}
@@ -0,0 +1,50 @@
+package br.com.bikeapi.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Configuracao dos executores onde os controllers rodam as listagens
+ * ({@code read}) e as escritas de aluguel ({@code write}).
+ * 
+ * @see br.com.bikeapi.api.ControllerExecutors
+ */
+@Data
+@ConfigurationProperties(prefix = "application.web.executors")
+public class ControllerExecutorProperties {
+
+	private Pool read = new Pool(8, 200, Duration.ofSeconds(10));
+
+	private Pool write = new Pool(4, 100, Duration.ofSeconds(10));
+
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class Pool {
+
+		/**
+		 * Threads do executor; somadas, as threads dos dois executores devem
+		 * ficar perto do tamanho do pool de conexoes
+		 */
+		private int threads;
+
+		/**
+		 * Requisicoes esperando uma thread; alem disso a requisicao recebe 503
+		 * na hora
+		 */
+		private int queueCapacity;
+
+		/**
+		 * Tempo maximo da requisicao, contando a espera na fila; depois disso
+		 * ela recebe 503
+		 */
+		private Duration timeout;
+
+	}
+
+}
@@ -0,0 +1,40 @@
+package br.com.bikeapi.config;
+
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import br.com.bikeapi.datagen.SyntheticDataGenerator;
+
+/**
+ * Perfil {@code datagen}: carrega a base com dados sinteticos na subida,
+ * conforme as propriedades {@code application.datagen.*}, e encerra a
+ * aplicacao ao terminar. Os runners rodam antes do ApplicationReadyEvent,
+ * entao os filtros de unicidade ja sobem com as chaves geradas. Ex.:
+ * 
+ * <pre>
+ * java -jar bike-api-0.0.1-SNAPSHOT-exec.jar --spring.profiles.active=development,datagen \
+ *     --application.datagen.bikes=100000 --application.datagen.clients=500000 --application.datagen.rents=5000000
+ * </pre>
+ */
+@Configuration
+@Profile("datagen")
+@EnableConfigurationProperties(DataGenProperties.class)
+public class DataGenConfig {
+
+	@Bean
+	public ApplicationRunner dataGenRunner(SyntheticDataGenerator generator, DataGenProperties properties,
+			ConfigurableApplicationContext context) {
+		return args -> {
+			generator.generate(properties);
+			if (properties.isExitWhenDone()) {
+				System.exit(SpringApplication.exit(context));
+			}
+		};
+	}
+
+}
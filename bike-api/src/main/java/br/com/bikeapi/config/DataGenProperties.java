@@ -0,0 +1,60 @@
+package br.com.bikeapi.config;
+
+import java.time.LocalDateTime;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Volume e perfil dos dados sinteticos gerados pelo
+ * {@link br.com.bikeapi.datagen.SyntheticDataGenerator}.
+ */
+@Data
+@ConfigurationProperties(prefix = "application.datagen")
+public class DataGenProperties {
+
+	/**
+	 * Semente do gerador: a mesma semente sempre produz os mesmos dados
+	 */
+	private long seed = 42;
+
+	private int bikes = 1_000;
+
+	private int clients = 1_000;
+
+	private int rents = 10_000;
+
+	/**
+	 * Janela, em dias antes da data de referencia, em que caem os alugueis
+	 * ja devolvidos
+	 */
+	private int historyDays = 365;
+
+	/**
+	 * Fracao dos alugueis devolvidos (ou em aberto) depois da tolerancia
+	 */
+	private double lateRatio = 0.1;
+
+	/**
+	 * Fracao dos alugueis ainda em aberto; limitada a uma por bicicleta e
+	 * por cliente
+	 */
+	private double activeRatio = 0.02;
+
+	/**
+	 * Linhas por lote JDBC (e por transacao)
+	 */
+	private int batchSize = 1_000;
+
+	/**
+	 * Data a partir da qual o historico e gerado; vazia usa a hora atual
+	 */
+	private LocalDateTime referenceDate;
+
+	/**
+	 * No perfil datagen, encerra a aplicacao quando a geracao termina
+	 */
+	private boolean exitWhenDone = true;
+
+}
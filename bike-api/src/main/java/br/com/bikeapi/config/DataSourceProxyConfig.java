@@ -0,0 +1,51 @@
+package br.com.bikeapi.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import br.com.bikeapi.monitoring.StatementBudgetFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+/**
+ * Envolve o {@link DataSource} com o datasource-proxy, repassando cada
+ * statement executado aos {@link QueryExecutionListener}s do contexto, e
+ * registra o filtro que conta os statements de cada requisicao.
+ */
+@Configuration
+@EnableConfigurationProperties(SlowQueryProperties.class)
+public class DataSourceProxyConfig {
+
+	@Bean
+	public static BeanPostProcessor dataSourceProxyPostProcessor(ObjectProvider<QueryExecutionListener> listeners) {
+		return new BeanPostProcessor() {
+
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				if (!(bean instanceof DataSource) || bean instanceof ProxyDataSource) {
+					return bean;
+				}
+				ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create((DataSource) bean).name(beanName);
+				listeners.orderedStream().forEach(builder::listener);
+				return builder.build();
+			}
+
+		};
+	}
+
+	@Bean
+	public FilterRegistrationBean<StatementBudgetFilter> statementBudgetFilter(MeterRegistry registry,
+			@Value("${application.jdbc.statement-budget:20}") int budget) {
+		return new FilterRegistrationBean<>(new StatementBudgetFilter(registry, budget));
+	}
+
+}
@@ -0,0 +1,63 @@
+package br.com.bikeapi.config;
+
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import br.com.bikeapi.model.entity.Bike;
+import br.com.bikeapi.model.entity.Client;
+import br.com.bikeapi.service.cache.LookupCache;
+import br.com.bikeapi.service.cache.SingleFlight;
+
+@Configuration
+@EnableConfigurationProperties(LookupCacheProperties.class)
+public class LookupCacheConfig {
+
+	public static final String BIKE_BY_CHASSI = "bike-by-chassi";
+
+	public static final String CLIENT_BY_CPF = "client-by-cpf";
+
+	public static final String BIKE_BY_ID = "bike-by-id";
+
+	public static final String CLIENT_BY_ID = "client-by-id";
+
+	@Bean
+	public LookupCache<String, Bike> bikeByChassiCache(LookupCacheProperties properties) {
+		return lookupCache(BIKE_BY_CHASSI, properties.get(BIKE_BY_CHASSI), bike -> bike.toBuilder().build());
+	}
+
+	@Bean
+	public LookupCache<String, Client> clientByCpfCache(LookupCacheProperties properties) {
+		return lookupCache(CLIENT_BY_CPF, properties.get(CLIENT_BY_CPF), client -> client.toBuilder().build());
+	}
+
+	/*
+	 * As buscas por id ja passam pelo cache de segundo nivel; aqui so se
+	 * juntam as faltas concorrentes
+	 */
+	@Bean
+	public SingleFlight<Long, Optional<Bike>> bikeByIdFlight() {
+		return new SingleFlight<>(BIKE_BY_ID);
+	}
+
+	@Bean
+	public SingleFlight<Long, Optional<Client>> clientByIdFlight() {
+		return new SingleFlight<>(CLIENT_BY_ID);
+	}
+
+	private static <V> LookupCache<String, V> lookupCache(String name, LookupCacheProperties.Cache cache,
+			UnaryOperator<V> snapshot) {
+		return LookupCache.<String, V>builder()
+						.name(name)
+						.maximumSize(cache.getMaximumSize())
+						.timeToLive(cache.getTimeToLive())
+						.negativeTimeToLive(cache.getNegativeTimeToLive())
+						.singleFlight(cache.isSingleFlight())
+						.snapshot(snapshot)
+						.build();
+	}
+
+}
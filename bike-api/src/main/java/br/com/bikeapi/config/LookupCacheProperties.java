@@ -0,0 +1,50 @@
+package br.com.bikeapi.config;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Configuracao dos caches de busca da camada de servico (por exemplo
+ * {@code bike-by-chassi} e {@code client-by-cpf}).
+ */
+@Data
+@ConfigurationProperties(prefix = "application.cache.lookup")
+public class LookupCacheProperties {
+
+	private Map<String, Cache> caches = new LinkedHashMap<>();
+
+	public Cache get(String name) {
+		return caches.getOrDefault(name, new Cache());
+	}
+
+	@Data
+	public static class Cache {
+
+		/**
+		 * Numero maximo de chaves mantidas
+		 */
+		private long maximumSize = 10_000;
+
+		/**
+		 * Tempo de vida de um resultado encontrado
+		 */
+		private Duration timeToLive = Duration.ofMinutes(10);
+
+		/**
+		 * Tempo de vida de uma busca sem resultado
+		 */
+		private Duration negativeTimeToLive = Duration.ofSeconds(5);
+
+		/**
+		 * Buscas concorrentes pela mesma chave aguardam uma unica consulta
+		 */
+		private boolean singleFlight = true;
+
+	}
+
+}
@@ -0,0 +1,49 @@
+package br.com.bikeapi.config;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import br.com.bikeapi.api.ratelimit.JdbcRateLimitStore;
+import br.com.bikeapi.api.ratelimit.LocalRateLimitStore;
+import br.com.bikeapi.api.ratelimit.RateLimitStore;
+import br.com.bikeapi.api.ratelimit.RateLimiter;
+
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfig {
+
+	@Bean
+	public RateLimitStore rateLimitStore(RateLimitProperties properties, ObjectProvider<DataSource> dataSource) {
+		if (properties.getStore() == RateLimitProperties.Store.DATABASE) {
+			return new JdbcRateLimitStore(dataSource.getObject(), null);
+		}
+		return new LocalRateLimitStore(properties.getMaximumKeys(), longestPeriod(properties), null);
+	}
+
+	@Bean
+	public RateLimiter rateLimiter(RateLimitProperties properties, RateLimitStore rateLimitStore) {
+		return new RateLimiter(properties.isEnabled() ? properties.getEndpoints() : Collections.emptyMap(),
+				properties.getApiKeyHeader(), rateLimitStore);
+	}
+
+	/*
+	 * Um balde parado pelo maior periodo configurado ja esta cheio
+	 */
+	private static Duration longestPeriod(RateLimitProperties properties) {
+		return properties.getEndpoints().values().stream()
+				.flatMap(endpoint -> Stream.of(endpoint.getApiKey(), endpoint.getCpf()))
+				.filter(limit -> limit != null && limit.getPeriod() != null)
+				.map(RateLimitProperties.Limit::getPeriod)
+				.max(Duration::compareTo)
+				.orElse(Duration.ofMinutes(1));
+	}
+
+}
@@ -0,0 +1,84 @@
+package br.com.bikeapi.config;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Configuracao do rate limit das escritas de aluguel, por endpoint (por
+ * exemplo {@code rent-create}, {@code rent-return}).
+ *
+ * @see br.com.bikeapi.api.ratelimit.RateLimiter
+ */
+@Data
+@ConfigurationProperties(prefix = "application.rate-limit")
+public class RateLimitProperties {
+
+	private boolean enabled = true;
+
+	/**
+	 * Header com a chave da integracao; sem ele a requisicao e limitada pelo
+	 * endereco de origem
+	 */
+	private String apiKeyHeader = "X-Api-Key";
+
+	private Store store = Store.LOCAL;
+
+	/**
+	 * Baldes mantidos em memoria no modo {@code local}
+	 */
+	private long maximumKeys = 100_000;
+
+	private Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+
+	@Data
+	public static class Endpoint {
+
+		/**
+		 * Limite por chave de API (ou endereco de origem)
+		 */
+		private Limit apiKey;
+
+		/**
+		 * Limite por CPF do cliente
+		 */
+		private Limit cpf;
+
+	}
+
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class Limit {
+
+		/**
+		 * Requisicoes por periodo, e tambem a maior rajada aceita
+		 */
+		private int capacity;
+
+		private Duration period;
+
+	}
+
+	public enum Store {
+
+		/**
+		 * Baldes na memoria de cada instancia, sem locks
+		 */
+		LOCAL,
+
+		/**
+		 * Baldes na tabela rate_limit_bucket, compartilhados pelas instancias;
+		 * custa dois statements por requisicao limitada
+		 */
+		DATABASE
+
+	}
+
+}
@@ -0,0 +1,15 @@
+package br.com.bikeapi.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/*
+ * Os executores dos listeners ficam dentro do RentEventDispatcher, e nao como
+ * beans: um bean Executor desligaria o applicationTaskExecutor do Spring Boot,
+ * usado pelas respostas assincronas do MVC
+ */
+@Configuration
+@EnableConfigurationProperties(RentEventProperties.class)
+public class RentEventConfig {
+
+}
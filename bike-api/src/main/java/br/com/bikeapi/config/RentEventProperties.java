@@ -0,0 +1,62 @@
+package br.com.bikeapi.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Configuracao dos executores dos listeners de eventos de aluguel, por nome
+ * de listener (por exemplo {@code availability}, {@code audit}).
+ */
+@Data
+@ConfigurationProperties(prefix = "application.events")
+public class RentEventProperties {
+
+	private Map<String, Listener> listeners = new LinkedHashMap<>();
+
+	public Listener get(String name) {
+		return listeners.getOrDefault(name, new Listener());
+	}
+
+	@Data
+	public static class Listener {
+
+		/**
+		 * Threads do executor do listener; com 1 os eventos sao tratados na
+		 * ordem de publicacao
+		 */
+		private int threads = 1;
+
+		/**
+		 * Eventos pendentes; alem disso vale a politica de rejeicao
+		 */
+		private int queueCapacity = 1000;
+
+		private RejectionPolicy rejectionPolicy = RejectionPolicy.DISCARD;
+
+	}
+
+	public enum RejectionPolicy {
+
+		/**
+		 * Descarta o evento novo
+		 */
+		DISCARD,
+
+		/**
+		 * Descarta o evento mais antigo da fila e enfileira o novo
+		 */
+		DISCARD_OLDEST,
+
+		/**
+		 * Trata o evento na thread que publicou: nao perde eventos, mas a
+		 * requisicao passa a esperar pelo listener
+		 */
+		CALLER_RUNS
+
+	}
+
+}
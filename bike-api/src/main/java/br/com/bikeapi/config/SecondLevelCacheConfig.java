@@ -0,0 +1,62 @@
+package br.com.bikeapi.config;
+
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+@Configuration
+@EnableConfigurationProperties(SecondLevelCacheProperties.class)
+public class SecondLevelCacheConfig {
+
+	/**
+	 * Cria o {@link CacheManager} JCache (Caffeine) usado pelo Hibernate, com
+	 * as regioes ja limitadas em tamanho e tempo de vida.
+	 * 
+	 * @param properties a configuracao das regioes
+	 * @return o gerenciador de caches das regioes
+	 */
+	@Bean(destroyMethod = "close")
+	public CacheManager secondLevelCacheManager(SecondLevelCacheProperties properties) {
+		CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+		/*
+		 * Uma URI propria por contexto, para que contextos diferentes (nos
+		 * testes, por exemplo) nao disputem as mesmas regioes
+		 */
+		URI uri = URI.create("bike-api:second-level:" + UUID.randomUUID());
+		CacheManager cacheManager = provider.getCacheManager(uri, getClass().getClassLoader());
+		properties.getRegions().forEach((name, region) -> cacheManager.createCache(name, configuration(region)));
+		return cacheManager;
+	}
+
+	@Bean
+	public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+		return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+	}
+
+	private CaffeineConfiguration<Object, Object> configuration(SecondLevelCacheProperties.Region region) {
+		CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+		configuration.setMaximumSize(OptionalLong.of(region.getMaximumSize()));
+		configuration.setExpireAfterWrite(OptionalLong.of(region.getTimeToLive().toNanos()));
+		/*
+		 * O Hibernate ja guarda entradas desmontadas (CacheEntry); copiar por
+		 * serializacao a cada leitura so custaria CPU
+		 */
+		configuration.setStoreByValue(false);
+		configuration.setStatisticsEnabled(true);
+		return configuration;
+	}
+
+}
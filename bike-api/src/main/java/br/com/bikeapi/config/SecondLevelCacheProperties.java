@@ -0,0 +1,38 @@
+package br.com.bikeapi.config;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Configuracao das regioes do cache de segundo nivel do Hibernate.
+ * 
+ * <p>Cada regiao (por exemplo {@code bike} ou {@code client-natural-id}) e
+ * um cache local limitado pelo numero de entradas e pelo tempo de vida.</p>
+ */
+@Data
+@ConfigurationProperties(prefix = "application.cache.second-level")
+public class SecondLevelCacheProperties {
+
+	private Map<String, Region> regions = new LinkedHashMap<>();
+
+	@Data
+	public static class Region {
+
+		/**
+		 * Numero maximo de entradas mantidas na regiao
+		 */
+		private long maximumSize = 10_000;
+
+		/**
+		 * Tempo de vida de uma entrada a partir da escrita
+		 */
+		private Duration timeToLive = Duration.ofMinutes(30);
+
+	}
+
+}
@@ -0,0 +1,34 @@
+package br.com.bikeapi.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Configuracao do log de consultas lentas e das estatisticas por fingerprint
+ * de SQL.
+ */
+@Data
+@ConfigurationProperties(prefix = "application.jdbc.slow-query")
+public class SlowQueryProperties {
+
+	/**
+	 * Statements que demorarem pelo menos esse tempo sao logados
+	 */
+	private Duration threshold = Duration.ofMillis(200);
+
+	/**
+	 * Inclui os valores dos parametros no log; desligado por padrao, ja que
+	 * eles podem conter dados pessoais (cpf, email)
+	 */
+	private boolean logParameters = false;
+
+	/**
+	 * Numero maximo de fingerprints distintos mantidos; os excedentes sao
+	 * somados em um unico fingerprint "(other)"
+	 */
+	private int maxFingerprints = 1000;
+
+}
@@ -1,7 +1,9 @@
 package br.com.bikeapi.config;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import springfox.documentation.builders.ApiInfoBuilder;
 import springfox.documentation.builders.PathSelectors;
@@ -12,6 +14,11 @@ import springfox.documentation.spi.DocumentationType;
 import springfox.documentation.spring.web.plugins.Docket;
 import springfox.documentation.swagger2.annotations.EnableSwagger2;
 
+/*
+ * O springfox exige o ServletContext; sem servidor web (perfil datagen,
+ * benchmarks) a documentacao nao e carregada
+ */
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @EnableSwagger2
 @Configuration
 public class SwaggerConfig {
@@ -24,6 +31,8 @@ public class SwaggerConfig {
 						.basePackage("br.com.bikeapi"))
 				.paths(PathSelectors.any())
 				.build()
+				// listagens e escritas de aluguel respondem pelos ControllerExecutors
+				.genericModelSubstitutes(DeferredResult.class)
 				.apiInfo(apiInfo());
 					
 	}
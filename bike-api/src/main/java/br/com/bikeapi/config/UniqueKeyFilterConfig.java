@@ -0,0 +1,26 @@
+package br.com.bikeapi.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import br.com.bikeapi.service.bloom.UniqueKeyFilter;
+
+@Configuration
+public class UniqueKeyFilterConfig {
+
+	@Bean
+	public UniqueKeyFilter chassiFilter(
+			@Value("${application.bloom.chassi.expected-insertions:100000}") long expectedInsertions,
+			@Value("${application.bloom.chassi.false-positive-rate:0.01}") double falsePositiveRate) {
+		return new UniqueKeyFilter("chassi", expectedInsertions, falsePositiveRate);
+	}
+
+	@Bean
+	public UniqueKeyFilter cpfFilter(
+			@Value("${application.bloom.cpf.expected-insertions:100000}") long expectedInsertions,
+			@Value("${application.bloom.cpf.false-positive-rate:0.01}") double falsePositiveRate) {
+		return new UniqueKeyFilter("cpf", expectedInsertions, falsePositiveRate);
+	}
+
+}
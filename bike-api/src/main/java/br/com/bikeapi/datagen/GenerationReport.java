@@ -0,0 +1,31 @@
+package br.com.bikeapi.datagen;
+
+import java.time.Duration;
+
+import lombok.Value;
+
+/**
+ * Quantidades inseridas por uma execucao do gerador.
+ */
+@Value
+public class GenerationReport {
+
+	long bikes;
+
+	long clients;
+
+	long rents;
+
+	/** Alugueis ainda nao devolvidos */
+	long activeRents;
+
+	/** Alugueis devolvidos (ou em aberto) depois da tolerancia */
+	long lateRents;
+
+	Duration elapsed;
+
+	public long getRows() {
+		return bikes + clients + rents;
+	}
+
+}
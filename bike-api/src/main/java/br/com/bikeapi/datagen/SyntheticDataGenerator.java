@@ -0,0 +1,276 @@
+package br.com.bikeapi.datagen;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import br.com.bikeapi.config.DataGenProperties;
+import br.com.bikeapi.model.entity.Bike;
+import br.com.bikeapi.model.entity.BikeStatus;
+import br.com.bikeapi.model.entity.Client;
+import br.com.bikeapi.model.entity.Rent;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Gera bicicletas, clientes e historicos de aluguel sinteticos, inserindo-os
+ * em lotes JDBC, para testes de volume, benchmarks e o perfil
+ * {@code datagen}.
+ * 
+ * <p>Tudo deriva da semente: chassis e cpfs sao funcoes do indice (veja
+ * {@link #chassi(long, int)} e {@link #cpf(long, int)}), unicos para uma
+ * mesma semente, e os alugueis saem de um {@link SplittableRandom}. Os ids
+ * vem dos proprios geradores de id do Hibernate, entao a aplicacao continua
+ * cadastrando normalmente depois da carga.</p>
+ * 
+ * <p>Os alugueis em aberto usam a bicicleta {@code i} e o cliente {@code i},
+ * respeitando a regra de um aluguel em andamento por bicicleta e por
+ * cliente; os devolvidos sorteiam bicicletas e clientes com preferencia
+ * pelos primeiros indices, como numa frota em que alguns pontos sao mais
+ * movimentados.</p>
+ */
+@Component
+@Slf4j
+public class SyntheticDataGenerator {
+
+	private static final String INSERT_BIKE = "insert into bike (id, chassi, model, color, company_property, "
+			+ "status, version, last_modified_date) values (?, ?, ?, ?, ?, ?, 0, ?)";
+
+	private static final String INSERT_CLIENT = "insert into client (id, nome, cpf, active_rent_id, version, "
+			+ "last_modified_date) values (?, ?, ?, ?, 0, ?)";
+
+	private static final String INSERT_RENT = "insert into rent (id, rent_date, expected_return_date, "
+			+ "returned_date_time, rent_hours_duration, customer_email, id_client, id_bike, version, "
+			+ "last_modified_date) values (?, ?, ?, ?, ?, ?, ?, ?, 0, ?)";
+
+	private static final String[] MODELS = { "Caloi Volcano", "Caloi Elite", "Caloi 10", "Sense Impact",
+			"Sense Rock", "Oggi Hacker", "Oggi Big Wheel", "Specialized Rockhopper", "Trek Marlin", "Houston Foxer" };
+
+	private static final String[] COLORS = { "preta", "branca", "vermelha", "azul", "verde", "amarela", "cinza" };
+
+	private static final String[] FIRST_NAMES = { "Ana", "Bruno", "Carla", "Daniel", "Eduarda", "Felipe", "Gabriela",
+			"Henrique", "Isabela", "Joao", "Larissa", "Marcos", "Natalia", "Otavio", "Paula", "Rafael", "Sofia",
+			"Thiago", "Vitoria", "Lucas" };
+
+	private static final String[] LAST_NAMES = { "Silva", "Santos", "Oliveira", "Souza", "Lima", "Pereira",
+			"Ferreira", "Costa", "Rodrigues", "Almeida", "Nascimento", "Carvalho", "Araujo", "Ribeiro" };
+
+	/** Duracoes contratadas, em horas, e o peso de cada uma. */
+	private static final int[] DURATIONS = { 1, 2, 3, 4, 6, 8, 12, 24 };
+
+	private static final int[] DURATION_WEIGHTS = { 30, 25, 15, 10, 8, 6, 4, 2 };
+
+	/** Multiplicadores impares e nao multiplos de 5: permutam os indices modulo 10^9. */
+	private static final long CHASSI_MULTIPLIER = 387_420_489L;
+
+	private static final long CPF_MULTIPLIER = 282_475_249L;
+
+	private static final long KEY_SPACE = 1_000_000_000L;
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private final SessionFactoryImplementor sessionFactory;
+
+	private final TransactionTemplate transactionTemplate;
+
+	public SyntheticDataGenerator(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory,
+			PlatformTransactionManager transactionManager) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+	}
+
+	/**
+	 * Chassi unico, para a semente, da bicicleta de indice {@code index}.
+	 */
+	public static String chassi(long seed, int index) {
+		return String.format("BK%09d", permute(index, CHASSI_MULTIPLIER, seed));
+	}
+
+	/**
+	 * Cpf valido (com os digitos verificadores) e unico, para a semente, do
+	 * cliente de indice {@code index}.
+	 */
+	public static String cpf(long seed, int index) {
+		String base = String.format("%09d", permute(index, CPF_MULTIPLIER, seed * 31 + 7));
+		int[] digits = new int[11];
+		for (int i = 0; i < 9; i++) {
+			digits[i] = base.charAt(i) - '0';
+		}
+		digits[9] = checkDigit(digits, 9);
+		digits[10] = checkDigit(digits, 10);
+		StringBuilder cpf = new StringBuilder(11);
+		for (int digit : digits) {
+			cpf.append(digit);
+		}
+		return cpf.toString();
+	}
+
+	private static long permute(int index, long multiplier, long seed) {
+		return Math.floorMod(index * multiplier + seed * 1_000_003L, KEY_SPACE);
+	}
+
+	private static int checkDigit(int[] digits, int length) {
+		int sum = 0;
+		for (int i = 0; i < length; i++) {
+			sum += digits[i] * (length + 1 - i);
+		}
+		int rest = sum % 11;
+		return rest < 2 ? 0 : 11 - rest;
+	}
+
+	public GenerationReport generate(DataGenProperties settings) {
+		long start = System.nanoTime();
+		LocalDateTime reference = settings.getReferenceDate() != null ? settings.getReferenceDate()
+				: LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+		Timestamp now = Timestamp.valueOf(reference);
+		SplittableRandom random = new SplittableRandom(settings.getSeed());
+
+		long[] bikeIds = ids(Bike.class, settings.getBikes());
+		long[] clientIds = ids(Client.class, settings.getClients());
+		long[] rentIds = ids(Rent.class, bikeIds.length == 0 || clientIds.length == 0 ? 0 : settings.getRents());
+		int active = (int) Math.min(Math.round(settings.getRents() * settings.getActiveRatio()),
+				Math.min(bikeIds.length, clientIds.length));
+
+		// os alugueis em aberto usam a bicicleta e o cliente de mesmo indice
+		try (Batch batch = new Batch(INSERT_BIKE, settings.getBatchSize())) {
+			for (int i = 0; i < bikeIds.length; i++) {
+				batch.add(bikeIds[i], chassi(settings.getSeed(), i), MODELS[random.nextInt(MODELS.length)],
+						COLORS[random.nextInt(COLORS.length)], random.nextInt(10) < 8,
+						(i < active ? BikeStatus.RENTED : BikeStatus.AVAILABLE).name(), now);
+			}
+		}
+
+		try (Batch batch = new Batch(INSERT_CLIENT, settings.getBatchSize())) {
+			for (int i = 0; i < clientIds.length; i++) {
+				batch.add(clientIds[i], FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+						+ LAST_NAMES[random.nextInt(LAST_NAMES.length)], cpf(settings.getSeed(), i),
+						i < active ? rentIds[i] : null, now);
+			}
+		}
+
+		long late = 0;
+		try (Batch batch = new Batch(INSERT_RENT, settings.getBatchSize())) {
+			for (int i = 0; i < rentIds.length; i++) {
+				boolean open = i < active;
+				boolean isLate = random.nextDouble() < settings.getLateRatio();
+				int hours = duration(random);
+				int bike = open ? i : skewed(random, bikeIds.length);
+				int client = open ? i : skewed(random, clientIds.length);
+
+				LocalDateTime rentDate;
+				LocalDateTime returned = null;
+				if (open) {
+					// em aberto: dentro do prazo ou ja atrasado ha ate dois dias
+					rentDate = isLate ? reference.minusMinutes((hours + 1) * 60L + 1 + random.nextInt(48 * 60))
+							: reference.minusMinutes(random.nextInt(hours * 60));
+				} else {
+					rentDate = reference.minusMinutes(
+							(hours + 49) * 60L + random.nextInt(Math.max(1, settings.getHistoryDays()) * 24 * 60));
+					returned = isLate ? rentDate.plusMinutes((hours + 1) * 60L + 1 + random.nextInt(48 * 60))
+							: rentDate.plusMinutes(10 + random.nextInt((hours + 1) * 60 - 10));
+				}
+				late += isLate ? 1 : 0;
+				batch.add(rentIds[i], Timestamp.valueOf(rentDate), Timestamp.valueOf(rentDate.plusHours(hours + 1)),
+						returned == null ? null : Timestamp.valueOf(returned), hours,
+						"cliente" + client + "@mail.com", clientIds[client], bikeIds[bike], now);
+			}
+		}
+
+		GenerationReport report = new GenerationReport(bikeIds.length, clientIds.length, rentIds.length, active,
+				late, Duration.ofNanos(System.nanoTime() - start));
+		log.info("Dados sinteticos gerados (semente {}): {} bicicletas, {} clientes, {} alugueis ({} em aberto, "
+				+ "{} atrasados) em {} ms", settings.getSeed(), report.getBikes(), report.getClients(),
+				report.getRents(), report.getActiveRents(), report.getLateRents(), report.getElapsed().toMillis());
+		return report;
+	}
+
+	/**
+	 * Reserva os ids pelo gerador da entidade (sequence com pooled-lo no H2,
+	 * tabela no MySQL), o mesmo que o Hibernate usa nos cadastros.
+	 */
+	private long[] ids(Class<?> entity, int count) {
+		long[] ids = new long[count];
+		if (count == 0) {
+			return ids;
+		}
+		IdentifierGenerator generator = sessionFactory.getMetamodel().entityPersister(entity)
+				.getIdentifierGenerator();
+		try (StatelessSession session = sessionFactory.openStatelessSession()) {
+			for (int i = 0; i < count; i++) {
+				ids[i] = ((Number) generator.generate((SharedSessionContractImplementor) session, null)).longValue();
+			}
+		}
+		return ids;
+	}
+
+	private static int duration(SplittableRandom random) {
+		int value = random.nextInt(100);
+		for (int i = 0; i < DURATIONS.length; i++) {
+			value -= DURATION_WEIGHTS[i];
+			if (value < 0) {
+				return DURATIONS[i];
+			}
+		}
+		return DURATIONS[DURATIONS.length - 1];
+	}
+
+	/** Indice em [0, size) com mais peso nos primeiros. */
+	private static int skewed(SplittableRandom random, int size) {
+		double value = random.nextDouble();
+		return (int) (size * value * value);
+	}
+
+	/**
+	 * Acumula linhas e as envia em lotes, cada um na sua transacao.
+	 */
+	private class Batch implements AutoCloseable {
+
+		private final String sql;
+
+		private final int size;
+
+		private final List<Object[]> rows;
+
+		Batch(String sql, int size) {
+			this.sql = sql;
+			this.size = Math.max(1, size);
+			this.rows = new ArrayList<>(this.size);
+		}
+
+		void add(Object... row) {
+			rows.add(row);
+			if (rows.size() == size) {
+				flush();
+			}
+		}
+
+		private void flush() {
+			if (!rows.isEmpty()) {
+				transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(sql, rows));
+				rows.clear();
+			}
+		}
+
+		@Override
+		public void close() {
+			flush();
+		}
+
+	}
+
+}
@@ -1,12 +1,26 @@
 package br.com.bikeapi.model.entity;
 
 import java.io.Serializable;
+import java.time.Instant;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.PrePersist;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import javax.persistence.Version;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -14,21 +28,30 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Table(indexes = @Index(name = "ix_bike_status_model_color", columnList = "status, model, color"))
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Bike.CACHE_REGION)
+@NaturalIdCache(region = Bike.NATURAL_ID_CACHE_REGION)
 public class Bike implements Serializable{
 	
 	private static final long serialVersionUID = -1301934965199664570L;
 
+	public static final String CACHE_REGION = "bike";
+
+	public static final String NATURAL_ID_CACHE_REGION = "bike-natural-id";
+
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bike_seq")
+	@SequenceGenerator(name = "bike_seq", sequenceName = "bike_seq", allocationSize = 50)
 	private Long id;
 	
 	/**
 	 * Serial code to identify the bike
 	 */
+	@NaturalId(mutable = true)
 	@Column(unique = true)
 	private String chassi;
 	
@@ -50,4 +73,36 @@ public class Bike implements Serializable{
 	@Column
 	private Boolean companyProperty;
 
+	/**
+	 * Whether the bike can be rented, changed only by the rent creation and
+	 * return (see RentServiceImpl)
+	 */
+	@Enumerated(EnumType.STRING)
+	@Column(length = 16)
+	private BikeStatus status;
+
+	/**
+	 * Incremented on every update, used as the resource ETag
+	 */
+	@Version
+	private Long version;
+
+	/**
+	 * Date and time of the last change, used as the resource Last-Modified
+	 */
+	@UpdateTimestamp
+	@Column
+	private Instant lastModifiedDate;
+
+	/**
+	 * New bikes start available; left null on the entity otherwise so that
+	 * query by example probes do not filter by it
+	 */
+	@PrePersist
+	void defaultStatus() {
+		if (status == null) {
+			status = BikeStatus.AVAILABLE;
+		}
+	}
+
 }
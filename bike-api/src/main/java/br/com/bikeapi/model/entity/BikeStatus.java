@@ -0,0 +1,13 @@
+package br.com.bikeapi.model.entity;
+
+/**
+ * Availability of a {@link Bike}, kept by the rent service together with the
+ * rent creation and return
+ */
+public enum BikeStatus {
+
+	AVAILABLE,
+
+	RENTED
+
+}
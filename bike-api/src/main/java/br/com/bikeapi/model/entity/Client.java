@@ -1,12 +1,21 @@
 package br.com.bikeapi.model.entity;
 
 import java.io.Serializable;
+import java.time.Instant;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Version;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -14,22 +23,44 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Client.CACHE_REGION)
+@NaturalIdCache(region = Client.NATURAL_ID_CACHE_REGION)
 public class Client implements Serializable{
 	
 	private static final long serialVersionUID = -4398707453401390322L;
 
+	public static final String CACHE_REGION = "client";
+
+	public static final String NATURAL_ID_CACHE_REGION = "client-natural-id";
+
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "client_seq")
+	@SequenceGenerator(name = "client_seq", sequenceName = "client_seq", allocationSize = 50)
 	private Long id;
 	
 	@Column
 	private String nome;
 
+	@NaturalId(mutable = true)
 	@Column(unique = true)
 	private String cpf;
+
+	/**
+	 * Id of the rent in progress, or null, kept by the rent service together
+	 * with the rent creation and return
+	 */
+	@Column
+	private Long activeRentId;
+
+	@Version
+	private Long version;
+
+	@UpdateTimestamp
+	@Column
+	private Instant lastModifiedDate;
 	
 }
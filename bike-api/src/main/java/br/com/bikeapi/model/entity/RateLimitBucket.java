@@ -0,0 +1,38 @@
+package br.com.bikeapi.model.entity;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Token bucket shared by every node when the rate limiter runs with
+ * {@code application.rate-limit.store=database}. Only read and written
+ * through JDBC (see api.ratelimit.JdbcRateLimitStore); mapped here so the
+ * table is part of the schema
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+public class RateLimitBucket {
+
+	/**
+	 * Endpoint, key type and key, e.g. rent-create:cpf:95378866030
+	 */
+	@Id
+	@Column(length = 255)
+	private String bucketKey;
+
+	/**
+	 * Epoch nanoseconds at which the bucket is full again
+	 */
+	@Column(nullable = false)
+	private Long tat;
+
+}
@@ -1,6 +1,7 @@
 package br.com.bikeapi.model.entity;
 
 import java.io.Serializable;
+import java.time.Instant;
 import java.time.LocalDateTime;
 
 import javax.persistence.Column;
@@ -12,6 +13,10 @@ import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.OneToOne;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Version;
+
+import org.hibernate.annotations.UpdateTimestamp;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -28,7 +33,8 @@ public class Rent implements Serializable{
 	private static final long serialVersionUID = -6705960860735616347L;
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "rent_seq")
+	@SequenceGenerator(name = "rent_seq", sequenceName = "rent_seq", allocationSize = 50)
 	private Long id;
 	
 	@Column(nullable = false)
@@ -45,6 +51,13 @@ public class Rent implements Serializable{
 	
 	@Column
 	private String customerEmail;
+
+	/**
+	 * Se o atraso ja foi publicado como RentOverdue; null nos alugueis
+	 * anteriores a coluna
+	 */
+	@Column
+	private Boolean overdueNotified;
 	
 	@JoinColumn(name = "id_client", nullable = false)
 	@OneToOne(fetch = FetchType.LAZY)
@@ -53,5 +66,12 @@ public class Rent implements Serializable{
 	@JoinColumn(name = "id_bike", nullable = false)
 	@ManyToOne(fetch = FetchType.LAZY)
 	private Bike bike;
+
+	@Version
+	private Long version;
+
+	@UpdateTimestamp
+	@Column
+	private Instant lastModifiedDate;
 	
 }
@@ -1,12 +1,24 @@
 package br.com.bikeapi.model.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import br.com.bikeapi.model.entity.Bike;
 
-public interface BikeRepository extends JpaRepository<Bike, Long>{
+public interface BikeRepository extends JpaRepository<Bike, Long>, BikeRepositoryCustom {
 
 	/**
 	 * Verifica se a {@link Bike} existe na base.
@@ -16,14 +28,66 @@ public interface BikeRepository extends JpaRepository<Bike, Long>{
 	 * base, caso contrario, <code>false</code>
 	 */
 	boolean existsByChassi(String chassi);
-	
+
 	/**
-	 * Busca a {@link Bike} pelo chassi.
+	 * Percorre os chassis de todas as {@link Bike}s da base. Deve ser
+	 * consumido dentro de uma transacao.
 	 * 
-	 * @param chassi da {@link Bike}
-	 * @return um {@link Optional} contendo a {@link Bike}
-	 * ou nulo caso nao exista na base
+	 * @return os chassis cadastrados
+	 */
+	@QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "1000"))
+	@Query("select b.chassi from Bike b")
+	Stream<String> streamAllChassi();
+
+	/**
+	 * Verifica de uma vez quais dos chassis ja estao cadastrados.
+	 * 
+	 * @param chassis os chassis a verificar
+	 * @return os chassis que ja existem na base
+	 */
+	@Query("select b.chassi from Bike b where b.chassi in :chassis")
+	List<String> findExistingChassis(@Param("chassis") Collection<String> chassis);
+
+	/**
+	 * Busca apenas a versao e a data da ultima alteracao da {@link Bike}.
+	 * 
+	 * @param id da {@link Bike}
+	 * @return o {@link Optional} resultante da pesquisa
+	 */
+	@Query("select b.version as version, b.lastModifiedDate as lastModifiedDate"
+			+ " from Bike b where b.id = :id")
+	Optional<EntityVersion> findVersionById(@Param("id") Long id);
+
+	/**
+	 * Busca a {@link Bike} direto na base, travando a linha (select ... for
+	 * update) ate o fim da transacao.
+	 * 
+	 * @param id da {@link Bike}
+	 * @return o {@link Optional} resultante da pesquisa
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select b from Bike b where b.id = :id")
+	Optional<Bike> findByIdForUpdate(@Param("id") Long id);
+
+	/**
+	 * Verifica, pelo indice que comeca pelo status, se ha {@link Bike}s
+	 * gravadas antes da coluna existir.
+	 * 
+	 * @return <code>true</code> se alguma bicicleta esta sem status
+	 */
+	boolean existsByStatusIsNull();
+
+	/**
+	 * Preenche o status das {@link Bike}s gravadas antes da coluna existir,
+	 * pelos alugueis em aberto.
+	 * 
+	 * @return quantas bicicletas foram atualizadas
 	 */
-	Optional<Bike> findByChassi(String chassi);
+	@Transactional
+	@Modifying
+	@Query(value = "update bike set status = case when id in (select r.id_bike from rent r"
+			+ " where r.returned_date_time is null) then 'RENTED' else 'AVAILABLE' end"
+			+ " where status is null", nativeQuery = true)
+	int backfillStatus();
 	
 }
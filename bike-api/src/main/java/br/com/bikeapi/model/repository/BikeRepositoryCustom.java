@@ -0,0 +1,41 @@
+package br.com.bikeapi.model.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.bikeapi.model.entity.Bike;
+
+/**
+ * Consultas de {@link Bike} implementadas manualmente, fora da derivacao de
+ * queries do Spring Data.
+ */
+public interface BikeRepositoryCustom {
+
+	/**
+	 * Busca a {@link Bike} pelo chassi.
+	 * <p>
+	 * O chassi e o natural id da entidade, entao a busca passa pelo cache de
+	 * natural ids do Hibernate antes de ir a base.
+	 * </p>
+	 * 
+	 * @param chassi da {@link Bike}
+	 * @return um {@link Optional} contendo a {@link Bike}
+	 * ou vazio caso nao exista na base
+	 */
+	@Transactional(readOnly = true)
+	Optional<Bike> findByChassi(String chassi);
+
+	/**
+	 * Insere as bicicletas numa unica transacao, em lotes JDBC (veja
+	 * {@code hibernate.jdbc.batch_size}), e as desanexa em seguida, para que
+	 * importacoes grandes nao acumulem entidades no contexto de persistencia.
+	 * 
+	 * @param bikes bicicletas novas, sem id
+	 * @return as mesmas bicicletas, ja com id e desanexadas
+	 */
+	@Transactional
+	List<Bike> insertAll(List<Bike> bikes);
+
+}
@@ -0,0 +1,33 @@
+package br.com.bikeapi.model.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.hibernate.Session;
+
+import br.com.bikeapi.model.entity.Bike;
+
+public class BikeRepositoryCustomImpl implements BikeRepositoryCustom {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Override
+	public Optional<Bike> findByChassi(String chassi) {
+		return entityManager.unwrap(Session.class)
+					.bySimpleNaturalId(Bike.class)
+					.loadOptional(chassi);
+	}
+
+	@Override
+	public List<Bike> insertAll(List<Bike> bikes) {
+		bikes.forEach(entityManager::persist);
+		entityManager.flush();
+		entityManager.clear();
+		return bikes;
+	}
+
+}
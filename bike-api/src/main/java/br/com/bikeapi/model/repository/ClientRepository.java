@@ -1,12 +1,24 @@
 package br.com.bikeapi.model.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import br.com.bikeapi.model.entity.Client;
 
-public interface ClientRepository extends JpaRepository<Client, Long> {
+public interface ClientRepository extends JpaRepository<Client, Long>, ClientRepositoryCustom {
 
 	/**
 	 * Verifica se o {@link Client} com dado cpf existe na base
@@ -18,12 +30,58 @@ public interface ClientRepository extends JpaRepository<Client, Long> {
 	boolean existsByCpf(String cpf);
 
 	/**
-	 * Busca o {@link Client} dado seu cpf
+	 * Percorre os cpfs de todos os {@link Client}s da base. Deve ser
+	 * consumido dentro de uma transacao.
 	 * 
-	 * @param cpf do cliente
-	 * @return um {@link Optional} contendo o {@link Client}
-	 * ou nulo caso ele nao exista na base
+	 * @return os cpfs cadastrados
+	 */
+	@QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "1000"))
+	@Query("select c.cpf from Client c")
+	Stream<String> streamAllCpf();
+
+	/**
+	 * Verifica de uma vez quais dos cpfs ja estao cadastrados.
+	 * 
+	 * @param cpfs os cpfs a verificar
+	 * @return os cpfs que ja existem na base
+	 */
+	@Query("select c.cpf from Client c where c.cpf in :cpfs")
+	List<String> findExistingCpfs(@Param("cpfs") Collection<String> cpfs);
+
+	/**
+	 * Busca apenas a versao e a data da ultima alteracao do {@link Client}.
+	 * 
+	 * @param id do {@link Client}
+	 * @return o {@link Optional} resultante da pesquisa
+	 */
+	@Query("select c.version as version, c.lastModifiedDate as lastModifiedDate"
+			+ " from Client c where c.id = :id")
+	Optional<EntityVersion> findVersionById(@Param("id") Long id);
+
+	/**
+	 * Busca o {@link Client} direto na base, travando a linha (select ... for
+	 * update) ate o fim da transacao.
+	 * 
+	 * @param id do {@link Client}
+	 * @return o {@link Optional} resultante da pesquisa
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select c from Client c where c.id = :id")
+	Optional<Client> findByIdForUpdate(@Param("id") Long id);
+
+	/**
+	 * Aponta os {@link Client}s com aluguel em aberto e sem aluguel em
+	 * andamento gravado (os gravados antes da coluna existir) para esse
+	 * aluguel.
+	 * 
+	 * @return quantos clientes foram atualizados
 	 */
-	Optional<Client> findByCpf(String cpf);
+	@Transactional
+	@Modifying
+	@Query(value = "update client set active_rent_id = (select max(r.id) from rent r"
+			+ " where r.id_client = client.id and r.returned_date_time is null)"
+			+ " where active_rent_id is null and id in (select r.id_client from rent r"
+			+ " where r.returned_date_time is null)", nativeQuery = true)
+	int backfillActiveRent();
 
 }
@@ -0,0 +1,40 @@
+package br.com.bikeapi.model.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.bikeapi.model.entity.Client;
+
+/**
+ * Consultas de {@link Client} implementadas manualmente, fora da derivacao de
+ * queries do Spring Data.
+ */
+public interface ClientRepositoryCustom {
+
+	/**
+	 * Busca o {@link Client} dado seu cpf.
+	 * <p>
+	 * O cpf e o natural id da entidade, entao a busca passa pelo cache de
+	 * natural ids do Hibernate antes de ir a base.
+	 * </p>
+	 * 
+	 * @param cpf do cliente
+	 * @return um {@link Optional} contendo o {@link Client}
+	 * ou vazio caso ele nao exista na base
+	 */
+	@Transactional(readOnly = true)
+	Optional<Client> findByCpf(String cpf);
+
+	/**
+	 * Insere os clientes numa unica transacao, em lotes JDBC, e os desanexa
+	 * em seguida.
+	 * 
+	 * @param clients clientes novos, sem id
+	 * @return os mesmos clientes, ja com id e desanexados
+	 */
+	@Transactional
+	List<Client> insertAll(List<Client> clients);
+
+}
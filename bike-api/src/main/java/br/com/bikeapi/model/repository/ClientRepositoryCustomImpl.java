@@ -0,0 +1,33 @@
+package br.com.bikeapi.model.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.hibernate.Session;
+
+import br.com.bikeapi.model.entity.Client;
+
+public class ClientRepositoryCustomImpl implements ClientRepositoryCustom {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Override
+	public Optional<Client> findByCpf(String cpf) {
+		return entityManager.unwrap(Session.class)
+					.bySimpleNaturalId(Client.class)
+					.loadOptional(cpf);
+	}
+
+	@Override
+	public List<Client> insertAll(List<Client> clients) {
+		clients.forEach(entityManager::persist);
+		entityManager.flush();
+		entityManager.clear();
+		return clients;
+	}
+
+}
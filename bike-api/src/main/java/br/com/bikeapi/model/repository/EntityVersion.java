@@ -0,0 +1,15 @@
+package br.com.bikeapi.model.repository;
+
+import java.time.Instant;
+
+/**
+ * Projecao com a versao e a data da ultima alteracao de uma entidade,
+ * usada para responder GETs condicionais sem carregar a entidade inteira.
+ */
+public interface EntityVersion {
+
+	Long getVersion();
+
+	Instant getLastModifiedDate();
+
+}
@@ -0,0 +1,21 @@
+package br.com.bikeapi.model.repository;
+
+import java.time.Instant;
+
+/**
+ * Projecao agregada de uma listagem de alugueis: quantidade de registros e a
+ * ultima alteracao dos alugueis, das bicicletas e dos clientes que ela expoe.
+ * Toda alteracao grava a data corrente, que passa a ser a maior do grupo;
+ * incluir ou remover um aluguel muda a quantidade.
+ */
+public interface ListingVersion {
+
+	Long getCount();
+
+	Instant getRentModifiedDate();
+
+	Instant getBikeModifiedDate();
+
+	Instant getClientModifiedDate();
+
+}
@@ -0,0 +1,40 @@
+package br.com.bikeapi.model.repository;
+
+import java.time.LocalDateTime;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Linha do historico de alugueis exportado, ja com a bicicleta e o cliente,
+ * lida direto do cursor JDBC sem passar pelo contexto de persistencia.
+ */
+@Value
+@Builder
+public class RentHistoryRow {
+
+	long id;
+
+	LocalDateTime rentDate;
+
+	LocalDateTime expectedReturnDate;
+
+	LocalDateTime returnedDateTime;
+
+	int rentHoursDuration;
+
+	String customerEmail;
+
+	long bikeId;
+
+	String chassi;
+
+	String model;
+
+	long clientId;
+
+	String cpf;
+
+	String nome;
+
+}
@@ -4,15 +4,18 @@ import java.util.List;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import br.com.bikeapi.model.entity.Bike;
 import br.com.bikeapi.model.entity.Client;
 import br.com.bikeapi.model.entity.Rent;
 
-public interface RentRepository extends JpaRepository<Rent, Long>{
+public interface RentRepository extends JpaRepository<Rent, Long>, RentRepositoryCustom {
 
 	/**
 	 * Verifica se a bicicleta ja esta alugada.
@@ -41,14 +44,20 @@ public interface RentRepository extends JpaRepository<Rent, Long>{
 
 	/**
 	 * Procura alugueis pelo chassi da bicicleta ou pelo
-	 * cpf do cliente.
+	 * cpf do cliente. A bicicleta e o cliente vem na mesma
+	 * consulta, ja que a listagem expoe os dois.
 	 * 
 	 * @param chassi da bicicleta
 	 * @param cpf do cliente
 	 * @param pageRequest paginacao
 	 * @return a lista de alugueis correspondentes
 	 */
-	@Query("select r from Rent as r "
+	@EntityGraph(attributePaths = { "bike", "client" })
+	@Query(value = "select r from Rent as r "
+			+ "join r.bike as b "
+			+ "join r.client as c "
+			+ "where b.chassi = :chassi or c.cpf = :cpf",
+			countQuery = "select count(r.id) from Rent as r "
 			+ "join r.bike as b "
 			+ "join r.client as c "
 			+ "where b.chassi = :chassi or c.cpf = :cpf")
@@ -58,23 +67,70 @@ public interface RentRepository extends JpaRepository<Rent, Long>{
 						Pageable pageRequest);
 
 	/**
-	 * Busca os alugueis nao devolvidos.
+	 * Busca os alugueis nao devolvidos. A bicicleta vem junto, para o evento
+	 * RentOverdue publicado pelo job fora de uma sessao aberta.
 	 * 
 	 * @return uma lista contendo todos os alugueis nao devolvidos
 	 */
-	@Query("select r from Rent r"
+	@Query("select r from Rent r join fetch r.bike"
 			+ " where CURRENT_TIMESTAMP > r.expectedReturnDate"
 			+ " and r.returnedDateTime is null")
 	List<Rent> findByRentDateTimeLessThanAndNotReturned();
 
+	/**
+	 * Marca os alugueis cujo atraso ja foi publicado. Update em massa, sem
+	 * incrementar a versao: nao conflita com uma devolucao concorrente.
+	 * 
+	 * @param ids dos alugueis
+	 * @return os alugueis marcados
+	 */
+	@Transactional
+	@Modifying
+	@Query("update Rent r set r.overdueNotified = true where r.id in :ids")
+	int markOverdueNotified(@Param("ids") List<Long> ids);
+
 	/**
 	 * Busca a lista de alugueis feitas por determinado
-	 * cliente.
+	 * cliente, ja com a bicicleta e o cliente de cada um.
 	 * 
 	 * @param client o locador que se deseja procurar
 	 * @param pageable paginacao
 	 * @return A lista de alugueis do cliente
 	 */
+	@EntityGraph(attributePaths = { "bike", "client" })
 	Page<Rent> findByClient(Client client, Pageable pageable);
 
+	/**
+	 * Resume a listagem de {@link #findByBikeOrClient(String, String, Pageable)}
+	 * sem carregar os alugueis.
+	 * 
+	 * @param chassi da bicicleta
+	 * @param cpf do cliente
+	 * @return a versao agregada da listagem
+	 */
+	@Query("select count(r.id) as count,"
+			+ " max(r.lastModifiedDate) as rentModifiedDate,"
+			+ " max(b.lastModifiedDate) as bikeModifiedDate,"
+			+ " max(c.lastModifiedDate) as clientModifiedDate"
+			+ " from Rent r join r.bike b join r.client c"
+			+ " where b.chassi = :chassi or c.cpf = :cpf")
+	ListingVersion findListingVersionByBikeOrClient(
+						@Param("chassi") String chassi, 
+						@Param("cpf") String cpf);
+
+	/**
+	 * Resume a listagem de {@link #findByClient(Client, Pageable)} sem
+	 * carregar os alugueis.
+	 * 
+	 * @param clientId identificador do locador
+	 * @return a versao agregada da listagem
+	 */
+	@Query("select count(r.id) as count,"
+			+ " max(r.lastModifiedDate) as rentModifiedDate,"
+			+ " max(b.lastModifiedDate) as bikeModifiedDate,"
+			+ " max(c.lastModifiedDate) as clientModifiedDate"
+			+ " from Rent r join r.bike b join r.client c"
+			+ " where c.id = :clientId")
+	ListingVersion findListingVersionByClientId(@Param("clientId") Long clientId);
+
 }
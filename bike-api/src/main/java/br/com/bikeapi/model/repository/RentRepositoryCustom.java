@@ -0,0 +1,40 @@
+package br.com.bikeapi.model.repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import br.com.bikeapi.model.entity.Rent;
+
+/**
+ * Consultas de {@link br.com.bikeapi.model.entity.Rent} implementadas
+ * manualmente, fora da derivacao de queries do Spring Data.
+ */
+public interface RentRepositoryCustom {
+
+	/**
+	 * Percorre o historico de alugueis em ordem de id por um cursor JDBC
+	 * somente-leitura e para frente, entregando uma linha por vez. Nenhuma
+	 * entidade e carregada e nada e acumulado, entao a memoria usada nao
+	 * depende da quantidade de linhas.
+	 * 
+	 * @param from     inicio (inclusive) da data do aluguel, ou {@code null}
+	 * @param to       fim (exclusive) da data do aluguel, ou {@code null}
+	 * @param consumer recebe cada linha; uma excecao interrompe a leitura e
+	 *                 fecha o cursor
+	 * @return a quantidade de linhas lidas
+	 */
+	long streamHistory(LocalDateTime from, LocalDateTime to, Consumer<RentHistoryRow> consumer);
+
+	/**
+	 * Busca o {@link Rent} travando a linha (select ... for update) ate o fim
+	 * da transacao. Se ele ja estava no contexto de persistencia, o estado e
+	 * relido da base: uma devolucao concorrente que ja fez commit aparece, em
+	 * vez da copia carregada antes da trava.
+	 * 
+	 * @param id do {@link Rent}
+	 * @return o {@link Optional} resultante da pesquisa
+	 */
+	Optional<Rent> findByIdForUpdate(Long id);
+
+}
@@ -0,0 +1,97 @@
+package br.com.bikeapi.model.repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import javax.persistence.PersistenceContext;
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import br.com.bikeapi.model.entity.Rent;
+
+public class RentRepositoryCustomImpl implements RentRepositoryCustom {
+
+	private static final String HISTORY = "select r.id, r.rent_date, r.expected_return_date, r.returned_date_time,"
+			+ " r.rent_hours_duration, r.customer_email, b.id as bike_id, b.chassi, b.model,"
+			+ " c.id as client_id, c.cpf, c.nome"
+			+ " from rent r join bike b on b.id = r.id_bike join client c on c.id = r.id_client";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	/*
+	 * O MySQL so devolve as linhas aos poucos com fetch size Integer.MIN_VALUE
+	 * (ou useCursorFetch=true na url); com qualquer outro valor o driver le o
+	 * resultado inteiro para a memoria
+	 */
+	public RentRepositoryCustomImpl(DataSource dataSource,
+			@Value("${application.export.fetch-size:500}") int fetchSize) {
+		this.jdbcTemplate = new JdbcTemplate(dataSource);
+		this.jdbcTemplate.setFetchSize(fetchSize);
+	}
+
+	@Override
+	public Optional<Rent> findByIdForUpdate(Long id) {
+		Rent rent = entityManager.find(Rent.class, id);
+		if (rent != null) {
+			entityManager.refresh(rent, LockModeType.PESSIMISTIC_WRITE);
+		}
+		return Optional.ofNullable(rent);
+	}
+
+	@Override
+	public long streamHistory(LocalDateTime from, LocalDateTime to, Consumer<RentHistoryRow> consumer) {
+		StringBuilder sql = new StringBuilder(HISTORY);
+		List<Object> args = new ArrayList<>(2);
+		if (from != null) {
+			sql.append(args.isEmpty() ? " where" : " and").append(" r.rent_date >= ?");
+			args.add(Timestamp.valueOf(from));
+		}
+		if (to != null) {
+			sql.append(args.isEmpty() ? " where" : " and").append(" r.rent_date < ?");
+			args.add(Timestamp.valueOf(to));
+		}
+		sql.append(" order by r.id");
+
+		long[] rows = new long[1];
+		jdbcTemplate.query(sql.toString(), resultSet -> {
+			consumer.accept(toRow(resultSet));
+			rows[0]++;
+		}, args.toArray());
+		return rows[0];
+	}
+
+	private static RentHistoryRow toRow(ResultSet resultSet) throws SQLException {
+		return RentHistoryRow.builder()
+				.id(resultSet.getLong("id"))
+				.rentDate(toLocalDateTime(resultSet.getTimestamp("rent_date")))
+				.expectedReturnDate(toLocalDateTime(resultSet.getTimestamp("expected_return_date")))
+				.returnedDateTime(toLocalDateTime(resultSet.getTimestamp("returned_date_time")))
+				.rentHoursDuration(resultSet.getInt("rent_hours_duration"))
+				.customerEmail(resultSet.getString("customer_email"))
+				.bikeId(resultSet.getLong("bike_id"))
+				.chassi(resultSet.getString("chassi"))
+				.model(resultSet.getString("model"))
+				.clientId(resultSet.getLong("client_id"))
+				.cpf(resultSet.getString("cpf"))
+				.nome(resultSet.getString("nome"))
+				.build();
+	}
+
+	private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+		return timestamp == null ? null : timestamp.toLocalDateTime();
+	}
+
+}
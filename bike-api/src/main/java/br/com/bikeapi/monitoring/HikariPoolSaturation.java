@@ -0,0 +1,161 @@
+package br.com.bikeapi.monitoring;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.sql.DataSource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.PoolStats;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Le o estado do pool do Hikari: as conexoes ativas e as threads esperando
+ * pelo {@link HikariPoolMXBean}, e o tempo de espera por uma conexao por um
+ * {@link IMetricsTracker} proprio.
+ *
+ * <p>O datasource-proxy esconde o Hikari do Spring Boot, que por isso nao
+ * registra as metricas {@code hikaricp.*}; o tracker daqui repassa as medicoes
+ * ao tracker do Micrometer de cada registry em que e registrado. Se o pool ja
+ * tinha um tracker, so as conexoes ativas e as threads esperando ficam
+ * disponiveis.</p>
+ */
+@Slf4j
+public class HikariPoolSaturation implements PoolSaturation, MeterBinder {
+
+	private final HikariDataSource dataSource;
+
+	private final List<MeterRegistry> registries = new ArrayList<>();
+
+	private Tracker tracker;
+
+	private final LongAdder acquireNanos = new LongAdder();
+
+	private final LongAdder acquisitions = new LongAdder();
+
+	private HikariPoolSaturation(HikariDataSource dataSource) {
+		this.dataSource = dataSource;
+	}
+
+	/**
+	 * @param dataSource o {@link DataSource} da aplicacao, com o Hikari por
+	 *                   baixo de eventuais proxies
+	 * @throws SQLException quando o {@link DataSource} nao e do Hikari
+	 */
+	public static HikariPoolSaturation of(DataSource dataSource) throws SQLException {
+		HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+		HikariPoolSaturation saturation = new HikariPoolSaturation(hikari);
+		if (hikari.getMetricsTrackerFactory() != null || hikari.getMetricRegistry() != null) {
+			log.warn("Pool {} ja tem metricas proprias: o tempo de espera por conexao nao sera medido",
+					hikari.getPoolName());
+			return saturation;
+		}
+		hikari.setMetricsTrackerFactory(saturation::createTracker);
+		return saturation;
+	}
+
+	private synchronized IMetricsTracker createTracker(String poolName, PoolStats poolStats) {
+		tracker = new Tracker(poolName, poolStats);
+		registries.forEach(tracker::bindTo);
+		return tracker;
+	}
+
+	/**
+	 * Registra as metricas {@code hikaricp.*} do pool; antes de o pool
+	 * iniciar, elas ficam para quando o tracker for criado.
+	 */
+	@Override
+	public synchronized void bindTo(MeterRegistry registry) {
+		registries.add(registry);
+		if (tracker != null) {
+			tracker.bindTo(registry);
+		}
+	}
+
+	@Override
+	public long getAcquireNanos() {
+		return acquireNanos.sum();
+	}
+
+	@Override
+	public long getAcquisitions() {
+		return acquisitions.sum();
+	}
+
+	@Override
+	public int getActiveConnections() {
+		HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+		return pool == null ? 0 : pool.getActiveConnections();
+	}
+
+	@Override
+	public int getTotalConnections() {
+		HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+		return pool == null ? dataSource.getMaximumPoolSize() : pool.getTotalConnections();
+	}
+
+	@Override
+	public int getThreadsAwaitingConnection() {
+		HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+		return pool == null ? 0 : pool.getThreadsAwaitingConnection();
+	}
+
+	/**
+	 * Soma as esperas por conexao e repassa tudo aos trackers do Micrometer.
+	 */
+	private final class Tracker implements IMetricsTracker {
+
+		private final String poolName;
+
+		private final PoolStats poolStats;
+
+		private final List<IMetricsTracker> delegates = new CopyOnWriteArrayList<>();
+
+		private Tracker(String poolName, PoolStats poolStats) {
+			this.poolName = poolName;
+			this.poolStats = poolStats;
+		}
+
+		private void bindTo(MeterRegistry registry) {
+			delegates.add(new MicrometerMetricsTrackerFactory(registry).create(poolName, poolStats));
+		}
+
+		@Override
+		public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+			acquireNanos.add(elapsedAcquiredNanos);
+			acquisitions.increment();
+			delegates.forEach(delegate -> delegate.recordConnectionAcquiredNanos(elapsedAcquiredNanos));
+		}
+
+		@Override
+		public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+			delegates.forEach(delegate -> delegate.recordConnectionCreatedMillis(connectionCreatedMillis));
+		}
+
+		@Override
+		public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+			delegates.forEach(delegate -> delegate.recordConnectionUsageMillis(elapsedBorrowedMillis));
+		}
+
+		@Override
+		public void recordConnectionTimeout() {
+			delegates.forEach(IMetricsTracker::recordConnectionTimeout);
+		}
+
+		@Override
+		public void close() {
+			delegates.forEach(IMetricsTracker::close);
+		}
+
+	}
+
+}
@@ -0,0 +1,96 @@
+package br.com.bikeapi.monitoring;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import br.com.bikeapi.exception.BusinessException;
+import br.com.bikeapi.model.repository.BikeRepository;
+import br.com.bikeapi.model.repository.ClientRepository;
+import br.com.bikeapi.model.repository.RentRepository;
+import br.com.bikeapi.service.BikeService;
+import br.com.bikeapi.service.ClientService;
+import br.com.bikeapi.service.EmailService;
+import br.com.bikeapi.service.RentService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Mede o tempo de cada chamada aos servicos e repositorios, publicando
+ * histogramas de percentis em {@code bikeapi.service} e
+ * {@code bikeapi.repository}, com as tags {@code class}, {@code method},
+ * {@code outcome} e {@code exception}.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class InvocationMetricsAspect {
+
+	public static final String SERVICE_METRIC = "bikeapi.service";
+	public static final String REPOSITORY_METRIC = "bikeapi.repository";
+
+	private static final List<Class<?>> INSTRUMENTED_TYPES = Arrays.asList(
+			BikeService.class, ClientService.class, RentService.class, EmailService.class,
+			BikeRepository.class, ClientRepository.class, RentRepository.class);
+
+	private final MeterRegistry registry;
+
+	/*
+	 * O proxy do Spring Data implementa a interface do repositorio, mas os
+	 * metodos sao declarados em CrudRepository & cia; por isso a tag class vem
+	 * da interface instrumentada, e nao do tipo que declara o metodo
+	 */
+	private final Map<Class<?>, String> classTags = new ConcurrentHashMap<>();
+
+	@Around("execution(public * br.com.bikeapi.service.BikeService+.*(..))"
+			+ " || execution(public * br.com.bikeapi.service.ClientService+.*(..))"
+			+ " || execution(public * br.com.bikeapi.service.RentService+.*(..))"
+			+ " || execution(public * br.com.bikeapi.service.EmailService+.*(..))")
+	public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+		return time(SERVICE_METRIC, joinPoint);
+	}
+
+	@Around("execution(public * br.com.bikeapi.model.repository.BikeRepository+.*(..))"
+			+ " || execution(public * br.com.bikeapi.model.repository.ClientRepository+.*(..))"
+			+ " || execution(public * br.com.bikeapi.model.repository.RentRepository+.*(..))")
+	public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+		return time(REPOSITORY_METRIC, joinPoint);
+	}
+
+	private Object time(String metric, ProceedingJoinPoint joinPoint) throws Throwable {
+		Timer.Sample sample = Timer.start(registry);
+		String outcome = "SUCCESS";
+		String exception = "none";
+		try {
+			return joinPoint.proceed();
+		} catch (Throwable e) {
+			outcome = e instanceof BusinessException ? "BUSINESS_ERROR" : "ERROR";
+			exception = e.getClass().getSimpleName();
+			throw e;
+		} finally {
+			sample.stop(Timer.builder(metric)
+					.tag("class", classTag(joinPoint.getThis().getClass()))
+					.tag("method", joinPoint.getSignature().getName())
+					.tag("outcome", outcome)
+					.tag("exception", exception)
+					.publishPercentileHistogram()
+					.register(registry));
+		}
+	}
+
+	private String classTag(Class<?> proxyClass) {
+		return classTags.computeIfAbsent(proxyClass, type -> INSTRUMENTED_TYPES.stream()
+				.filter(instrumented -> instrumented.isAssignableFrom(type))
+				.findFirst()
+				.map(Class::getSimpleName)
+				.orElse(type.getSimpleName()));
+	}
+
+}
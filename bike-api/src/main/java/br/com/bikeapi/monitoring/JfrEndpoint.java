@@ -0,0 +1,144 @@
+package br.com.bikeapi.monitoring;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Controla gravacoes do Java Flight Recorder em {@code /actuator/jfr}:
+ * <ul>
+ * <li>POST inicia uma gravacao com as configuracoes {@code default} ou
+ * {@code profile} da JVM (que ja incluem os eventos de
+ * {@link br.com.bikeapi.monitoring.jfr});</li>
+ * <li>GET lista as gravacoes em andamento;</li>
+ * <li>DELETE {@code /actuator/jfr/{id}} encerra a gravacao e grava o arquivo
+ * {@code .jfr} em {@code application.jfr.dump-directory}.</li>
+ * </ul>
+ * Nao tem autenticacao, entao so e exposto por HTTP no perfil
+ * {@code development}.
+ */
+@Component
+@Endpoint(id = "jfr")
+@Slf4j
+public class JfrEndpoint {
+
+	private static final String DEFAULT_SETTINGS = "default";
+
+	private final Map<Long, Recording> recordings = new ConcurrentHashMap<>();
+
+	private final Path dumpDirectory;
+
+	public JfrEndpoint(@Value("${application.jfr.dump-directory:${java.io.tmpdir}}") String dumpDirectory) {
+		this.dumpDirectory = Paths.get(dumpDirectory);
+	}
+
+	@ReadOperation
+	public List<RecordingReport> recordings() {
+		return recordings.values().stream().map(JfrEndpoint::report).collect(Collectors.toList());
+	}
+
+	/**
+	 * @param settings    {@code default} (baixo overhead, o padrao) ou {@code profile}
+	 * @param maxDuration duracao maxima, no formato ISO-8601 (ex.: PT5M); sem ela a
+	 *                    gravacao segue ate ser encerrada
+	 * @return a gravacao iniciada
+	 */
+	@WriteOperation
+	public RecordingReport start(@Nullable String settings, @Nullable String maxDuration) {
+		String configuration = settings == null ? DEFAULT_SETTINGS : settings;
+		Recording recording;
+		try {
+			recording = new Recording(Configuration.getConfiguration(configuration));
+		} catch (IOException | ParseException e) {
+			throw new IllegalArgumentException("Invalid JFR settings: " + settings, e);
+		}
+		recording.setName("bike-api-" + recording.getId());
+		recording.setToDisk(true);
+		if (maxDuration != null) {
+			recording.setDuration(Duration.parse(maxDuration));
+		}
+		recording.start();
+		recordings.put(recording.getId(), recording);
+		log.info("Gravacao JFR {} iniciada com as configuracoes {}", recording.getName(), configuration);
+		return report(recording);
+	}
+
+	/**
+	 * @param id identificador da gravacao
+	 * @return a gravacao encerrada, com o caminho do arquivo gravado
+	 */
+	@DeleteOperation
+	public RecordingReport stop(@Selector long id) {
+		Recording recording = recordings.remove(id);
+		if (recording == null) {
+			return null;
+		}
+		Path file = dumpDirectory.resolve(recording.getName() + ".jfr");
+		try {
+			// com duracao maxima a gravacao pode ja ter parado sozinha
+			if (recording.getState() == RecordingState.RUNNING) {
+				recording.stop();
+			}
+			Files.createDirectories(dumpDirectory);
+			recording.dump(file);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			recording.close();
+		}
+		log.info("Gravacao JFR {} encerrada em {}", recording.getName(), file);
+		return report(recording).toBuilder().file(file.toString()).build();
+	}
+
+	private static RecordingReport report(Recording recording) {
+		return RecordingReport.builder()
+				.id(recording.getId())
+				.name(recording.getName())
+				.state(recording.getState().name())
+				.startTime(recording.getStartTime() == null ? null : recording.getStartTime().toString())
+				.duration(recording.getDuration() == null ? null : recording.getDuration().toString())
+				.build();
+	}
+
+	@lombok.Value
+	@Builder(toBuilder = true)
+	public static class RecordingReport {
+
+		long id;
+
+		String name;
+
+		String state;
+
+		String startTime;
+
+		String duration;
+
+		String file;
+
+	}
+
+}
@@ -0,0 +1,27 @@
+package br.com.bikeapi.monitoring;
+
+/**
+ * Estado do pool de conexoes lido pela {@link br.com.bikeapi.api.AdaptiveAdmission}.
+ *
+ * @see HikariPoolSaturation
+ */
+public interface PoolSaturation {
+
+	/**
+	 * @return o tempo total que as threads esperaram por uma conexao, em
+	 *         nanossegundos, desde o inicio
+	 */
+	long getAcquireNanos();
+
+	/**
+	 * @return as conexoes entregues pelo pool desde o inicio
+	 */
+	long getAcquisitions();
+
+	int getActiveConnections();
+
+	int getTotalConnections();
+
+	int getThreadsAwaitingConnection();
+
+}
@@ -0,0 +1,76 @@
+package br.com.bikeapi.monitoring;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import br.com.bikeapi.config.SecondLevelCacheProperties;
+import lombok.Builder;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+
+/**
+ * Expoe em {@code /actuator/secondlevelcache} o tamanho, o tempo de vida e a
+ * taxa de acerto de cada regiao do cache de segundo nivel.
+ */
+@Component
+@Endpoint(id = "secondlevelcache")
+@RequiredArgsConstructor
+public class SecondLevelCacheEndpoint {
+
+	private final EntityManagerFactory entityManagerFactory;
+	private final CacheManager secondLevelCacheManager;
+	private final SecondLevelCacheProperties properties;
+
+	@ReadOperation
+	public Map<String, RegionReport> regions() {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		Map<String, RegionReport> regions = new LinkedHashMap<>();
+		properties.getRegions().forEach((name, region) -> {
+			CacheRegionStatistics regionStatistics = statistics.getDomainDataRegionStatistics(name);
+			long hits = regionStatistics.getHitCount();
+			long misses = regionStatistics.getMissCount();
+			regions.put(name, RegionReport.builder()
+									.maximumSize(region.getMaximumSize())
+									.timeToLive(region.getTimeToLive().toString())
+									.size(estimatedSize(name))
+									.hitCount(hits)
+									.missCount(misses)
+									.putCount(regionStatistics.getPutCount())
+									.hitRatio(hits + misses == 0 ? 0d : (double) hits / (hits + misses))
+									.build());
+		});
+		return regions;
+	}
+
+	private long estimatedSize(String region) {
+		Cache<Object, Object> cache = secondLevelCacheManager.getCache(region);
+		if (cache == null) {
+			return 0;
+		}
+		return cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class).estimatedSize();
+	}
+
+	@Value
+	@Builder
+	public static class RegionReport {
+		long maximumSize;
+		String timeToLive;
+		long size;
+		long hitCount;
+		long missCount;
+		long putCount;
+		double hitRatio;
+	}
+
+}
@@ -0,0 +1,178 @@
+package br.com.bikeapi.monitoring;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.stereotype.Component;
+
+import br.com.bikeapi.config.SlowQueryProperties;
+import lombok.Builder;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+/**
+ * Agrupa os statements executados por fingerprint ({@link SqlFingerprints}),
+ * acumulando quantidade, tempo total e a distribuicao de tempos, e loga
+ * apenas os statements acima de {@code application.jdbc.slow-query.threshold}.
+ * 
+ * @see SqlFingerprintEndpoint
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SlowQueryListener implements QueryExecutionListener {
+
+	static final String OVERFLOW_FINGERPRINT = "(other)";
+
+	private final SlowQueryProperties properties;
+
+	private final ThreadLocal<Long> startedAt = new ThreadLocal<>();
+
+	/*
+	 * Statements preparados se repetem com o mesmo texto; guardar o fingerprint
+	 * evita rodar as expressoes regulares a cada execucao
+	 */
+	private final Map<String, String> fingerprints = new ConcurrentHashMap<>();
+
+	private final Map<String, FingerprintStats> stats = new ConcurrentHashMap<>();
+
+	@Override
+	public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+		startedAt.set(System.nanoTime());
+	}
+
+	@Override
+	public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+		Long started = startedAt.get();
+		startedAt.remove();
+		long elapsedNanos = started == null ? TimeUnit.MILLISECONDS.toNanos(execInfo.getElapsedTime())
+				: System.nanoTime() - started;
+		if (queryInfoList.isEmpty()) {
+			return;
+		}
+		// um lote de Statement com SQLs diferentes divide o tempo entre eles
+		long nanosPerQuery = elapsedNanos / queryInfoList.size();
+		for (QueryInfo queryInfo : queryInfoList) {
+			statsFor(queryInfo.getQuery()).record(nanosPerQuery);
+		}
+		if (elapsedNanos >= properties.getThreshold().toNanos()) {
+			logSlowQuery(execInfo, queryInfoList, elapsedNanos);
+		}
+	}
+
+	/**
+	 * @param limit numero maximo de fingerprints
+	 * @return os fingerprints que mais consumiram tempo no total
+	 */
+	public List<FingerprintReport> top(int limit) {
+		return stats.entrySet().stream()
+				.map(entry -> entry.getValue().report(entry.getKey()))
+				.sorted(Comparator.comparingDouble(FingerprintReport::getTotalMillis).reversed())
+				.limit(limit)
+				.collect(Collectors.toList());
+	}
+
+	public void reset() {
+		stats.clear();
+	}
+
+	private FingerprintStats statsFor(String sql) {
+		String fingerprint = fingerprints.get(sql);
+		if (fingerprint == null) {
+			fingerprint = SqlFingerprints.of(sql);
+			if (fingerprints.size() < properties.getMaxFingerprints() * 4) {
+				fingerprints.put(sql, fingerprint);
+			}
+		}
+		FingerprintStats fingerprintStats = stats.get(fingerprint);
+		if (fingerprintStats != null) {
+			return fingerprintStats;
+		}
+		if (stats.size() >= properties.getMaxFingerprints()) {
+			fingerprint = OVERFLOW_FINGERPRINT;
+		}
+		return stats.computeIfAbsent(fingerprint, key -> new FingerprintStats());
+	}
+
+	private void logSlowQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList, long elapsedNanos) {
+		for (QueryInfo queryInfo : queryInfoList) {
+			log.warn("Consulta lenta ({} ms, {}): {} {}", TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+					execInfo.isBatch() ? "lote de " + execInfo.getBatchSize() : "unica",
+					queryInfo.getQuery(), parameters(queryInfo));
+		}
+	}
+
+	private String parameters(QueryInfo queryInfo) {
+		if (queryInfo.getParametersList().isEmpty()) {
+			return "";
+		}
+		if (!properties.isLogParameters()) {
+			return "(parametros ocultos)";
+		}
+		return queryInfo.getParametersList().stream()
+				.map(operations -> operations.stream()
+						.map(ParameterSetOperation::getArgs)
+						.map(args -> String.valueOf(args.length > 1 ? args[1] : null))
+						.collect(Collectors.joining(", ", "[", "]")))
+				.collect(Collectors.joining(" "));
+	}
+
+	private static final class FingerprintStats {
+
+		private final LongAdder count = new LongAdder();
+		private final LongAdder totalNanos = new LongAdder();
+		// microssegundos, com 2 digitos significativos e tamanho ajustavel
+		private final Histogram histogram = new ConcurrentHistogram(2);
+
+		void record(long nanos) {
+			count.increment();
+			totalNanos.add(nanos);
+			histogram.recordValue(Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos)));
+		}
+
+		FingerprintReport report(String fingerprint) {
+			long executions = count.sum();
+			double totalMillis = totalNanos.sum() / 1_000_000d;
+			return FingerprintReport.builder()
+					.fingerprint(fingerprint)
+					.count(executions)
+					.totalMillis(totalMillis)
+					.meanMillis(executions == 0 ? 0d : totalMillis / executions)
+					.p99Millis(histogram.getValueAtPercentile(99) / 1_000d)
+					.maxMillis(histogram.getMaxValue() / 1_000d)
+					.build();
+		}
+
+	}
+
+	@Value
+	@Builder
+	public static class FingerprintReport {
+
+		String fingerprint;
+
+		long count;
+
+		double totalMillis;
+
+		double meanMillis;
+
+		double p99Millis;
+
+		double maxMillis;
+
+	}
+
+}
@@ -0,0 +1,38 @@
+package br.com.bikeapi.monitoring;
+
+import java.util.List;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import br.com.bikeapi.monitoring.SlowQueryListener.FingerprintReport;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Expoe em {@code /actuator/sqlfingerprints} os fingerprints de SQL que mais
+ * consumiram tempo, com a quantidade de execucoes, o tempo total, a media e o
+ * p99. Um DELETE zera as estatisticas.
+ */
+@Component
+@Endpoint(id = "sqlfingerprints")
+@RequiredArgsConstructor
+public class SqlFingerprintEndpoint {
+
+	private static final int DEFAULT_LIMIT = 20;
+
+	private final SlowQueryListener listener;
+
+	@ReadOperation
+	public List<FingerprintReport> top(@Nullable Integer limit) {
+		return listener.top(limit == null ? DEFAULT_LIMIT : limit);
+	}
+
+	@DeleteOperation
+	public void reset() {
+		listener.reset();
+	}
+
+}
@@ -0,0 +1,33 @@
+package br.com.bikeapi.monitoring;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normaliza um SQL em um fingerprint: literais viram {@code ?}, listas de
+ * {@code IN} e de {@code VALUES} sao colapsadas e os espacos sao
+ * padronizados, de forma que execucoes da mesma consulta com valores
+ * diferentes caiam no mesmo fingerprint.
+ */
+public final class SqlFingerprints {
+
+	private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+	private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+	private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+	private static final Pattern IN_LIST = Pattern.compile("\\bin \\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+	private static final Pattern VALUES_LIST = Pattern.compile("(\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\))(?:\\s*,\\s*\\1)+");
+
+	private SqlFingerprints() {
+	}
+
+	public static String of(String sql) {
+		String fingerprint = sql.trim().toLowerCase(Locale.ROOT);
+		fingerprint = STRING_LITERAL.matcher(fingerprint).replaceAll("?");
+		fingerprint = NUMBER_LITERAL.matcher(fingerprint).replaceAll("?");
+		fingerprint = WHITESPACE.matcher(fingerprint).replaceAll(" ");
+		fingerprint = IN_LIST.matcher(fingerprint).replaceAll("in (?+)");
+		fingerprint = VALUES_LIST.matcher(fingerprint).replaceAll("$1");
+		return fingerprint;
+	}
+
+}
@@ -0,0 +1,90 @@
+package br.com.bikeapi.monitoring;
+
+import java.io.IOException;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Conta os statements JDBC de cada requisicao HTTP, publicando a distribuicao
+ * em {@code bikeapi.http.statements} e avisando (log e
+ * {@code bikeapi.http.statements.over.budget}) quando a requisicao passa do
+ * orcamento configurado em {@code application.jdbc.statement-budget}.
+ * 
+ * <p>A contagem fica no atributo {@link #STATEMENT_COUNT_ATTRIBUTE} da
+ * requisicao, para que os testes possam verifica-la. Nas requisicoes
+ * assincronas a contagem segue para o executor (ver
+ * {@link br.com.bikeapi.api.ControllerExecutors}) e so e registrada no
+ * despacho assincrono que escreve a resposta.</p>
+ * 
+ * @see br.com.bikeapi.config.DataSourceProxyConfig
+ */
+@Slf4j
+public class StatementBudgetFilter extends OncePerRequestFilter {
+
+	public static final String STATEMENT_COUNT_ATTRIBUTE = StatementBudgetFilter.class.getName() + ".count";
+
+	private final MeterRegistry registry;
+	private final int budget;
+
+	public StatementBudgetFilter(MeterRegistry registry, int budget) {
+		this.registry = registry;
+		this.budget = budget;
+	}
+
+	@Override
+	protected boolean shouldNotFilterAsyncDispatch() {
+		return false;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		StatementCount count = (StatementCount) request.getAttribute(STATEMENT_COUNT_ATTRIBUTE);
+		if (isAsyncDispatch(request) && count != null) {
+			StatementCountListener.resume(count);
+		} else {
+			count = StatementCountListener.start();
+			request.setAttribute(STATEMENT_COUNT_ATTRIBUTE, count);
+		}
+		try {
+			filterChain.doFilter(request, response);
+		} finally {
+			StatementCountListener.stop();
+			if (!isAsyncStarted(request)) {
+				record(request, count);
+			}
+		}
+	}
+
+	private void record(HttpServletRequest request, StatementCount count) {
+		Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+		DistributionSummary.builder("bikeapi.http.statements")
+				.baseUnit("statements")
+				.tag("method", request.getMethod())
+				.tag("uri", uri)
+				.register(registry)
+				.record(count.getTotal());
+		if (count.getTotal() > budget) {
+			Counter.builder("bikeapi.http.statements.over.budget")
+					.tag("method", request.getMethod())
+					.tag("uri", uri)
+					.register(registry)
+					.increment();
+			log.warn("{} {} executou {} statements, acima do orcamento de {} ({})", request.getMethod(), uri,
+					count.getTotal(), budget, count);
+		}
+	}
+
+}
@@ -0,0 +1,66 @@
+package br.com.bikeapi.monitoring;
+
+import net.ttddyy.dsproxy.QueryType;
+
+/**
+ * Quantidade de statements JDBC executados, por tipo, dentro de um escopo
+ * (normalmente uma requisicao HTTP). Um lote JDBC conta como um statement.
+ */
+public class StatementCount {
+
+	private int select;
+	private int insert;
+	private int update;
+	private int delete;
+	private int other;
+
+	void increment(QueryType type) {
+		switch (type) {
+		case SELECT:
+			select++;
+			break;
+		case INSERT:
+			insert++;
+			break;
+		case UPDATE:
+			update++;
+			break;
+		case DELETE:
+			delete++;
+			break;
+		default:
+			other++;
+		}
+	}
+
+	public int getSelect() {
+		return select;
+	}
+
+	public int getInsert() {
+		return insert;
+	}
+
+	public int getUpdate() {
+		return update;
+	}
+
+	public int getDelete() {
+		return delete;
+	}
+
+	public int getOther() {
+		return other;
+	}
+
+	public int getTotal() {
+		return select + insert + update + delete + other;
+	}
+
+	@Override
+	public String toString() {
+		return "select=" + select + ", insert=" + insert + ", update=" + update + ", delete=" + delete
+				+ ", other=" + other;
+	}
+
+}
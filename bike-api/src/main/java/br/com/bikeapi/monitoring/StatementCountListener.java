@@ -0,0 +1,78 @@
+package br.com.bikeapi.monitoring;
+
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+
+/**
+ * Conta os statements executados pela thread atual enquanto houver um
+ * escopo aberto com {@link #start()}; fora dele nada e contado.
+ */
+@Component
+public class StatementCountListener implements QueryExecutionListener {
+
+	private static final ThreadLocal<StatementCount> CURRENT = new ThreadLocal<>();
+
+	/**
+	 * Abre um escopo de contagem para a thread atual.
+	 * 
+	 * @return a contagem do escopo aberto
+	 */
+	public static StatementCount start() {
+		StatementCount count = new StatementCount();
+		CURRENT.set(count);
+		return count;
+	}
+
+	/**
+	 * Continua, na thread atual, um escopo aberto em outra thread; usado quando
+	 * parte da requisicao roda num executor.
+	 * 
+	 * @param count a contagem do escopo, ou <code>null</code> para nao contar
+	 */
+	public static void resume(StatementCount count) {
+		if (count == null) {
+			CURRENT.remove();
+		} else {
+			CURRENT.set(count);
+		}
+	}
+
+	/**
+	 * @return a contagem do escopo aberto na thread atual, ou
+	 * <code>null</code> se nao ha escopo aberto
+	 */
+	public static StatementCount current() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * Fecha o escopo de contagem da thread atual.
+	 * 
+	 * @return a contagem do escopo fechado, ou <code>null</code> se nao havia
+	 * escopo aberto
+	 */
+	public static StatementCount stop() {
+		StatementCount count = CURRENT.get();
+		CURRENT.remove();
+		return count;
+	}
+
+	@Override
+	public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+	}
+
+	@Override
+	public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+		StatementCount count = CURRENT.get();
+		if (count != null && !queryInfoList.isEmpty()) {
+			count.increment(QueryUtils.getQueryType(queryInfoList.get(0).getQuery()));
+		}
+	}
+
+}
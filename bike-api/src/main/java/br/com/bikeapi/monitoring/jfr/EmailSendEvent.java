@@ -0,0 +1,29 @@
+package br.com.bikeapi.monitoring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Envio de email em {@code EmailServiceImpl.sendEmail}; a duracao do evento e
+ * o tempo gasto no servidor SMTP.
+ */
+@Name(EmailSendEvent.NAME)
+@Label("Email Send")
+@Category({ "Bike API", "Email" })
+@Description("Email sent through the SMTP server")
+@StackTrace(false)
+public class EmailSendEvent extends Event {
+
+	public static final String NAME = "br.com.bikeapi.EmailSend";
+
+	@Label("Recipient Count")
+	public int recipientCount;
+
+	@Label("Success")
+	public boolean success;
+
+}
@@ -0,0 +1,29 @@
+package br.com.bikeapi.monitoring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Execucao do job agendado que avisa os alugueis atrasados
+ * ({@code ScheduleService.sendMailToAllLateRents}).
+ */
+@Name(LateRentsMailJobEvent.NAME)
+@Label("Late Rents Mail Job")
+@Category({ "Bike API", "Scheduler" })
+@Description("Scheduled run that mails the customers with late rents")
+@StackTrace(false)
+public class LateRentsMailJobEvent extends Event {
+
+	public static final String NAME = "br.com.bikeapi.LateRentsMailJob";
+
+	@Label("Late Rents")
+	public int lateRents;
+
+	@Label("Recipient Count")
+	public int recipientCount;
+
+}
@@ -0,0 +1,35 @@
+package br.com.bikeapi.monitoring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Devolucao de uma bicicleta em {@code RentController.returnedBike}.
+ */
+@Name(RentReturnEvent.NAME)
+@Label("Rent Return")
+@Category({ "Bike API", "Rent" })
+@Description("Return of a rented bike")
+@StackTrace(false)
+public class RentReturnEvent extends Event {
+
+	public static final String NAME = "br.com.bikeapi.RentReturn";
+
+	@Label("Rent Id")
+	public long rentId;
+
+	@Label("Bike Id")
+	public long bikeId;
+
+	@Label("Client Id")
+	public long clientId;
+
+	@Label("Returned")
+	@Description("The rent was marked as returned")
+	public boolean returned;
+
+}
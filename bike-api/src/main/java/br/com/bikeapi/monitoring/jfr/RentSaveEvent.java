@@ -0,0 +1,39 @@
+package br.com.bikeapi.monitoring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Criacao de um aluguel em {@code RentServiceImpl.save}; a duracao do evento
+ * inclui as verificacoes de disponibilidade e o insert.
+ */
+@Name(RentSaveEvent.NAME)
+@Label("Rent Save")
+@Category({ "Bike API", "Rent" })
+@Description("Creation of a rent, including the availability checks")
+@StackTrace(false)
+public class RentSaveEvent extends Event {
+
+	public static final String NAME = "br.com.bikeapi.RentSave";
+
+	@Label("Rent Id")
+	public long rentId;
+
+	@Label("Bike Id")
+	public long bikeId;
+
+	@Label("Client Id")
+	public long clientId;
+
+	@Label("Rent Hours Duration")
+	public int rentHoursDuration;
+
+	@Label("Rejected")
+	@Description("The bike was already rented or the client had a rent in progress")
+	public boolean rejected;
+
+}
@@ -0,0 +1,23 @@
+package br.com.bikeapi.service;
+
+import java.io.IOException;
+import java.io.Reader;
+
+import br.com.bikeapi.api.dto.BikeImportReport;
+import br.com.bikeapi.model.entity.Bike;
+
+public interface BikeImportService {
+
+	/**
+	 * Importa {@link Bike}s de um CSV com cabecalho contendo as colunas
+	 * {@code chassi}, {@code model}, {@code color} e {@code companyProperty}.
+	 * Registros invalidos ou com chassi ja cadastrado sao rejeitados sem
+	 * interromper a importacao.
+	 * 
+	 * @param csv o arquivo, lido de forma incremental
+	 * @return o resultado da importacao
+	 * @throws IOException se o arquivo nao puder ser lido
+	 */
+	BikeImportReport importCsv(Reader csv) throws IOException;
+
+}
@@ -6,6 +6,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import br.com.bikeapi.model.entity.Bike;
+import br.com.bikeapi.model.repository.EntityVersion;
 
 public interface BikeService {
 
@@ -25,6 +26,14 @@ public interface BikeService {
 	 */
 	Optional<Bike> getById(Long id);
 
+	/**
+	 * Busca a versao de uma bicicleta sem carrega-la
+	 * 
+	 * @param id da bicicleta
+	 * @return o {@link Optional} resultante da pesquisa
+	 */
+	Optional<EntityVersion> getVersionById(Long id);
+
 	/**
 	 * Remove uma {@link Bike}
 	 * 
@@ -49,6 +58,17 @@ public interface BikeService {
 	 */
 	Page<Bike> find(Bike filter, Pageable pageRequest);
 
+	/**
+	 * Lista as {@link Bike}s disponiveis para aluguel pelo status, sem
+	 * consultar os alugueis
+	 * 
+	 * @param model o modelo exato, ou <code>null</code> para todos
+	 * @param color a cor exata, ou <code>null</code> para todas
+	 * @param pageRequest a paginacao
+	 * @return resultado paginado das bicicletas disponiveis
+	 */
+	Page<Bike> findAvailable(String model, String color, Pageable pageRequest);
+
 	/**
 	 * Busca uma {@link Bike} pelo chassi
 	 * 
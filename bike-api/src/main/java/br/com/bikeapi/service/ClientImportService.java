@@ -0,0 +1,33 @@
+package br.com.bikeapi.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Optional;
+
+import br.com.bikeapi.api.dto.ClientImportStatus;
+import br.com.bikeapi.model.entity.Client;
+
+public interface ClientImportService {
+
+	/**
+	 * Le um CSV de {@link Client}s com cabecalho contendo as colunas
+	 * {@code nome} e {@code cpf} e agenda a importacao em segundo plano.
+	 * Registros invalidos ou com cpf ja cadastrado sao rejeitados sem
+	 * interromper a importacao.
+	 * 
+	 * @param csv o arquivo, copiado para um arquivo temporario antes do
+	 *            retorno; a importacao o le em lotes
+	 * @return a situacao inicial da importacao, com o seu identificador
+	 * @throws IOException se o arquivo nao puder ser lido
+	 */
+	ClientImportStatus start(Reader csv) throws IOException;
+
+	/**
+	 * Busca o andamento de uma importacao
+	 * 
+	 * @param id identificador da importacao
+	 * @return o {@link Optional} resultante da pesquisa
+	 */
+	Optional<ClientImportStatus> getStatus(String id);
+
+}
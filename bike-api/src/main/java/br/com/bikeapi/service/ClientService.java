@@ -10,6 +10,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import br.com.bikeapi.model.entity.Client;
+import br.com.bikeapi.model.repository.EntityVersion;
 
 public interface ClientService {
 
@@ -29,6 +30,14 @@ public interface ClientService {
 	 */
 	Optional<Client> getById(@NotNull Long id);
 
+	/**
+	 * Busca a versao do {@link Client} sem carrega-lo
+	 * 
+	 * @param id do cliente
+	 * @return um {@link Optional} resultante da busca
+	 */
+	Optional<EntityVersion> getVersionById(@NotNull Long id);
+
 	/**
 	 * Remove um {@link Client}
 	 * 
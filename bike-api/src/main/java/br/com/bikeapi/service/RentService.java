@@ -1,7 +1,9 @@
 package br.com.bikeapi.service;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -9,6 +11,8 @@ import org.springframework.data.domain.Pageable;
 import br.com.bikeapi.api.dto.RentFilterDTO;
 import br.com.bikeapi.model.entity.Client;
 import br.com.bikeapi.model.entity.Rent;
+import br.com.bikeapi.model.repository.ListingVersion;
+import br.com.bikeapi.model.repository.RentHistoryRow;
 
 /**
  * Interface que comtempla os servicos oferecidos pelo
@@ -41,6 +45,15 @@ public interface RentService {
 	 */
 	Rent update(Rent rent);
 
+	/**
+	 * Registra a devolucao da bicicleta do aluguel. Repetir a devolucao nao
+	 * altera a data ja registrada.
+	 * 
+	 * @param rent o aluguel
+	 * @return o aluguel com a data de devolucao
+	 */
+	Rent returnBike(Rent rent);
+
 	/**
 	 * Filtra os alugueis
 	 * @param filterDTO os campos de {@link RentFilterDTO}
@@ -50,12 +63,27 @@ public interface RentService {
 	 */
 	Page<Rent> find(RentFilterDTO filterDTO, Pageable pageable);
 
+	/**
+	 * Resume a filtragem de alugueis sem carrega-los
+	 * @param filterDTO os campos de {@link RentFilterDTO}
+	 * que se deseja filtrar
+	 * @return a versao agregada da listagem
+	 */
+	ListingVersion getListingVersion(RentFilterDTO filterDTO);
+
 	/**
 	 * Busca todos os alugueis atrasados
 	 * 
 	 * @return Todos os alugueis atrasados
 	 */
 	List<Rent> getAllLateRents();
+
+	/**
+	 * Registra que o atraso dos alugueis ja foi publicado
+	 * 
+	 * @param rents alugueis atrasados
+	 */
+	void markOverdueNotified(List<Rent> rents);
 	
 	/**
 	 * Recupera o historico de alugueis de determinado cliente
@@ -66,4 +94,22 @@ public interface RentService {
 	 */
 	Page<Rent> getRentsByClient(Client client, Pageable pageable);
 
+	/**
+	 * Resume o historico de alugueis de determinado cliente sem carrega-los
+	 * 
+	 * @param clientId identificador do cliente
+	 * @return a versao agregada da listagem
+	 */
+	ListingVersion getRentsByClientVersion(Long clientId);
+
+	/**
+	 * Percorre o historico de alugueis sem carrega-lo em memoria
+	 * 
+	 * @param from     inicio (inclusive) da data do aluguel, ou {@code null}
+	 * @param to       fim (exclusive) da data do aluguel, ou {@code null}
+	 * @param consumer recebe cada linha do historico
+	 * @return a quantidade de linhas exportadas
+	 */
+	long exportHistory(LocalDateTime from, LocalDateTime to, Consumer<RentHistoryRow> consumer);
+
 }
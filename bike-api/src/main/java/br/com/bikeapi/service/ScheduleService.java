@@ -4,10 +4,13 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import br.com.bikeapi.model.entity.Rent;
+import br.com.bikeapi.monitoring.jfr.LateRentsMailJobEvent;
+import br.com.bikeapi.service.event.RentOverdue;
 import lombok.RequiredArgsConstructor;
 
 @Service
@@ -34,15 +37,30 @@ public class ScheduleService {
 	private String message;
 	private final RentService rentService;
 	private final EmailService emailService;
+	private final ApplicationEventPublisher eventPublisher;
 
 	@Scheduled(cron = CRON_LATE_RENTS)
 	public void sendMailToAllLateRents() {
-		List<Rent> allLateRents = rentService.getAllLateRents();
-		List<String> mailsList = allLateRents.stream()
-				.map(rent -> rent.getCustomerEmail())
-				.collect(Collectors.toList());
-		if (!mailsList.isEmpty() || mailsList != null) {
-			emailService.sendEmail(message, mailsList);
+		LateRentsMailJobEvent event = new LateRentsMailJobEvent();
+		event.begin();
+		try {
+			List<Rent> allLateRents = rentService.getAllLateRents();
+			List<String> mailsList = allLateRents.stream()
+					.map(rent -> rent.getCustomerEmail())
+					.collect(Collectors.toList());
+			event.lateRents = allLateRents.size();
+			// o email se repete a cada execucao, o evento sai uma vez por aluguel
+			List<Rent> newlyLate = allLateRents.stream()
+					.filter(rent -> !Boolean.TRUE.equals(rent.getOverdueNotified()))
+					.collect(Collectors.toList());
+			rentService.markOverdueNotified(newlyLate);
+			newlyLate.forEach(rent -> eventPublisher.publishEvent(new RentOverdue(rent)));
+			if (!mailsList.isEmpty()) {
+				event.recipientCount = mailsList.size();
+				emailService.sendEmail(message, mailsList);
+			}
+		} finally {
+			event.commit();
 		}
 		
 	}
@@ -0,0 +1,44 @@
+package br.com.bikeapi.service.availability;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+
+import br.com.bikeapi.model.repository.BikeRepository;
+import br.com.bikeapi.model.repository.ClientRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Preenche o status das bicicletas e o aluguel em andamento dos clientes
+ * gravados antes dessas colunas existirem, pelos alugueis em aberto. Roda
+ * antes do servidor web aceitar requisicoes, entao o aluguel nunca ve uma
+ * bicicleta sem status.
+ * 
+ * <p>As duas atualizacoes percorrem os alugueis, entao so rodam quando ha
+ * bicicleta sem status, uma consulta pelo indice. Basta essa verificacao:
+ * um cliente a preencher tem um aluguel em aberto anterior as colunas, e a
+ * bicicleta desse aluguel tambem ficou sem status. Depois da primeira vez a
+ * inicializacao so faz essa consulta.</p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AvailabilityBackfill implements SmartInitializingSingleton {
+
+	private final BikeRepository bikeRepository;
+	private final ClientRepository clientRepository;
+
+	@Override
+	public void afterSingletonsInstantiated() {
+		if (!bikeRepository.existsByStatusIsNull()) {
+			return;
+		}
+		int bikes = bikeRepository.backfillStatus();
+		int clients = clientRepository.backfillActiveRent();
+		if (bikes > 0 || clients > 0) {
+			log.info("Disponibilidade preenchida pelos alugueis em aberto: {} bicicletas, {} clientes", bikes,
+					clients);
+		}
+	}
+
+}
@@ -0,0 +1,253 @@
+package br.com.bikeapi.service.availability;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import br.com.bikeapi.model.entity.Bike;
+import br.com.bikeapi.model.entity.Rent;
+import br.com.bikeapi.service.availability.AvailabilityEvent.Type;
+import br.com.bikeapi.service.availability.AvailabilityEventRing.Replay;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Distribui os eventos de disponibilidade de bicicletas aos assinantes SSE.
+ * 
+ * <p>Quem publica (o aluguel e a devolucao) apenas enfileira o evento: cada
+ * assinante tem um buffer limitado, esvaziado por threads proprias, e quando
+ * ele enche o evento mais antigo e descartado. Um assinante lento perde
+ * eventos (percebe pelo salto nos ids) em vez de atrasar os demais ou
+ * acumular memoria.</p>
+ * 
+ * <p>Os eventos recentes ficam em um {@link AvailabilityEventRing}, de onde
+ * sao reenviados a quem reconecta com o header {@code Last-Event-ID}. Se o
+ * assinante perdeu mais do que o buffer guarda, ele recebe um evento
+ * {@code reset} e deve recarregar a disponibilidade pela api.</p>
+ */
+@Slf4j
+public class AvailabilityBroadcaster implements MeterBinder {
+
+	static final String RESET_EVENT = "reset";
+
+	private final Object lock = new Object();
+	private final AvailabilityEventRing ring;
+	private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+	private final int subscriberBuffer;
+	private final long streamTimeoutMillis;
+	private final ScheduledThreadPoolExecutor senders;
+	private final AtomicLong dropped = new AtomicLong();
+	private final AtomicLong published = new AtomicLong();
+
+	public AvailabilityBroadcaster(int ringSize, int subscriberBuffer, Duration heartbeatInterval,
+			Duration streamTimeout, int senderThreads) {
+		this.ring = new AvailabilityEventRing(ringSize);
+		this.subscriberBuffer = subscriberBuffer;
+		this.streamTimeoutMillis = streamTimeout.toMillis();
+		this.senders = new ScheduledThreadPoolExecutor(senderThreads, new CustomizableThreadFactory("availability-"));
+		this.senders.setRemoveOnCancelPolicy(true);
+		long heartbeat = heartbeatInterval.toMillis();
+		if (heartbeat > 0) {
+			// tambem e o que revela conexoes ja fechadas pelo cliente
+			senders.scheduleWithFixedDelay(this::heartbeat, heartbeat, heartbeat, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Registra um novo assinante.
+	 * 
+	 * @param lastEventId o ultimo evento recebido, ao reconectar, ou
+	 *                    {@code null}
+	 * @return o emitter a ser devolvido pelo controller
+	 */
+	public SseEmitter subscribe(Long lastEventId) {
+		SseEmitter emitter = new SseEmitter(streamTimeoutMillis);
+		Subscriber subscriber = new Subscriber(emitter);
+		emitter.onCompletion(() -> subscribers.remove(subscriber));
+		emitter.onTimeout(() -> subscribers.remove(subscriber));
+		emitter.onError(error -> subscribers.remove(subscriber));
+		synchronized (lock) {
+			if (lastEventId != null) {
+				Replay replay = ring.since(lastEventId);
+				if (!replay.isComplete()) {
+					subscriber.offer(Message.RESET);
+				}
+				replay.getEvents().forEach(event -> subscriber.offer(new Message(event)));
+			}
+			subscribers.add(subscriber);
+		}
+		subscriber.schedule();
+		return emitter;
+	}
+
+	public void rented(Rent rent) {
+		Bike bike = rent.getBike();
+		rented(bike == null ? null : bike.getId(), bike == null ? null : bike.getChassi(), rent.getId());
+	}
+
+	public void rented(Long bikeId, String chassi, Long rentId) {
+		publish(Type.RENTED, bikeId, chassi, rentId);
+	}
+
+	public void returned(Rent rent) {
+		Bike bike = rent.getBike();
+		returned(bike == null ? null : bike.getId(), bike == null ? null : bike.getChassi(), rent.getId());
+	}
+
+	public void returned(Long bikeId, String chassi, Long rentId) {
+		publish(Type.RETURNED, bikeId, chassi, rentId);
+	}
+
+	private void publish(Type type, Long bikeId, String chassi, Long rentId) {
+		synchronized (lock) {
+			AvailabilityEvent event = ring.append(type, bikeId, chassi, rentId, Instant.now());
+			Message message = new Message(event);
+			subscribers.forEach(subscriber -> subscriber.offer(message));
+		}
+		published.incrementAndGet();
+		subscribers.forEach(Subscriber::schedule);
+	}
+
+	private void heartbeat() {
+		subscribers.forEach(subscriber -> {
+			subscriber.offerIfIdle(Message.HEARTBEAT);
+			subscriber.schedule();
+		});
+	}
+
+	public int getSubscriberCount() {
+		return subscribers.size();
+	}
+
+	public void shutdown() {
+		senders.shutdownNow();
+		subscribers.forEach(subscriber -> subscriber.emitter.complete());
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("bikeapi.availability.subscribers", subscribers, Set::size)
+			.description("Assinantes conectados ao stream de disponibilidade")
+			.register(registry);
+		FunctionCounter.builder("bikeapi.availability.events", published, AtomicLong::get)
+			.description("Eventos de disponibilidade publicados")
+			.register(registry);
+		FunctionCounter.builder("bikeapi.availability.dropped", dropped, AtomicLong::get)
+			.description("Eventos descartados por buffers de assinantes cheios")
+			.register(registry);
+	}
+
+	/**
+	 * Um evento a enviar, ou um dos marcadores de controle.
+	 */
+	private static final class Message {
+
+		private static final Message RESET = new Message(null);
+
+		private static final Message HEARTBEAT = new Message(null);
+
+		private final AvailabilityEvent event;
+
+		private Message(AvailabilityEvent event) {
+			this.event = event;
+		}
+
+		private SseEmitter.SseEventBuilder toSse() {
+			if (this == RESET) {
+				return SseEmitter.event().name(RESET_EVENT).data("");
+			}
+			if (this == HEARTBEAT) {
+				return SseEmitter.event().comment("");
+			}
+			return SseEmitter.event()
+							.id(Long.toString(event.getId()))
+							.name(event.getType().name().toLowerCase())
+							.data(event, MediaType.APPLICATION_JSON);
+		}
+
+	}
+
+	private final class Subscriber {
+
+		private final SseEmitter emitter;
+
+		// guardado pelo proprio Subscriber
+		private final ArrayDeque<Message> buffer = new ArrayDeque<>();
+
+		private final AtomicBoolean draining = new AtomicBoolean();
+
+		private Subscriber(SseEmitter emitter) {
+			this.emitter = emitter;
+		}
+
+		private synchronized void offer(Message message) {
+			if (buffer.size() >= subscriberBuffer) {
+				buffer.pollFirst();
+				dropped.incrementAndGet();
+			}
+			buffer.addLast(message);
+		}
+
+		private synchronized void offerIfIdle(Message message) {
+			if (buffer.isEmpty()) {
+				buffer.addLast(message);
+			}
+		}
+
+		private synchronized Message poll() {
+			return buffer.pollFirst();
+		}
+
+		private synchronized boolean isEmpty() {
+			return buffer.isEmpty();
+		}
+
+		/*
+		 * No maximo uma thread esvazia o buffer de cada assinante, o que
+		 * mantem a ordem dos eventos
+		 */
+		private void schedule() {
+			if (!isEmpty() && draining.compareAndSet(false, true)) {
+				try {
+					senders.execute(this::drain);
+				} catch (RuntimeException e) {
+					draining.set(false);
+				}
+			}
+		}
+
+		private void drain() {
+			try {
+				Message message;
+				while ((message = poll()) != null) {
+					emitter.send(message.toSse());
+				}
+			} catch (IOException | IllegalStateException e) {
+				// conexao fechada pelo cliente ou emitter ja concluido
+				log.debug("Assinante do stream de disponibilidade desconectado: {}", e.getMessage());
+				subscribers.remove(this);
+				emitter.completeWithError(e);
+				return;
+			} finally {
+				draining.set(false);
+			}
+			schedule();
+		}
+
+	}
+
+}
@@ -0,0 +1,33 @@
+package br.com.bikeapi.service.availability;
+
+import java.time.Instant;
+
+import lombok.Value;
+
+/**
+ * Mudanca de disponibilidade de uma bicicleta, enviada aos assinantes do
+ * stream de disponibilidade.
+ */
+@Value
+public class AvailabilityEvent {
+
+	public enum Type {
+		RENTED, RETURNED
+	}
+
+	/**
+	 * Sequencial crescente, usado como id do evento SSE (Last-Event-ID)
+	 */
+	long id;
+
+	Type type;
+
+	Long bikeId;
+
+	String chassi;
+
+	Long rentId;
+
+	Instant occurredAt;
+
+}
@@ -0,0 +1,74 @@
+package br.com.bikeapi.service.availability;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import br.com.bikeapi.service.availability.AvailabilityEvent.Type;
+import lombok.Value;
+
+/**
+ * Ultimos eventos de disponibilidade, em um buffer circular de tamanho fixo,
+ * para que um assinante que reconecta receba o que perdeu.
+ * 
+ * <p>Nao e thread-safe; veja {@link AvailabilityBroadcaster}.</p>
+ */
+public class AvailabilityEventRing {
+
+	private final AvailabilityEvent[] events;
+
+	private long lastId;
+
+	public AvailabilityEventRing(int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("Invalid ring capacity");
+		}
+		this.events = new AvailabilityEvent[capacity];
+	}
+
+	public AvailabilityEvent append(Type type, Long bikeId, String chassi, Long rentId, Instant occurredAt) {
+		AvailabilityEvent event = new AvailabilityEvent(++lastId, type, bikeId, chassi, rentId, occurredAt);
+		events[(int) ((event.getId() - 1) % events.length)] = event;
+		return event;
+	}
+
+	/**
+	 * Eventos posteriores ao {@code lastEventId} ainda guardados.
+	 * 
+	 * @param lastEventId o ultimo evento recebido pelo assinante
+	 * @return os eventos seguintes; incompleto quando parte deles ja saiu do
+	 *         buffer ou quando o id nao pertence a esta execucao da api
+	 */
+	public Replay since(long lastEventId) {
+		if (lastEventId == lastId) {
+			return new Replay(Collections.emptyList(), true);
+		}
+		long oldestId = Math.max(1, lastId - events.length + 1);
+		boolean complete = lastEventId >= oldestId - 1 && lastEventId < lastId;
+		long fromId = complete ? lastEventId + 1 : oldestId;
+		List<AvailabilityEvent> replay = new ArrayList<>((int) (lastId - fromId + 1));
+		for (long id = fromId; id <= lastId; id++) {
+			replay.add(events[(int) ((id - 1) % events.length)]);
+		}
+		return new Replay(replay, complete);
+	}
+
+	public long getLastId() {
+		return lastId;
+	}
+
+	@Value
+	public static class Replay {
+
+		List<AvailabilityEvent> events;
+
+		/**
+		 * {@code false} quando eventos foram perdidos e o assinante precisa
+		 * recarregar o estado completo
+		 */
+		boolean complete;
+
+	}
+
+}
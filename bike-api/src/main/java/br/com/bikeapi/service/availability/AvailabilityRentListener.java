@@ -0,0 +1,44 @@
+package br.com.bikeapi.service.availability;
+
+import org.springframework.stereotype.Component;
+
+import br.com.bikeapi.service.event.RentCreated;
+import br.com.bikeapi.service.event.RentEvent;
+import br.com.bikeapi.service.event.RentEventListener;
+import br.com.bikeapi.service.event.RentReturned;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Repassa alugueis e devolucoes ao stream de disponibilidade. Com uma thread
+ * (o padrao) os eventos chegam aos assinantes na ordem de publicacao.
+ * 
+ * <p>O id do evento no stream so e atribuido aqui, entao o executor deste
+ * listener usa {@code caller-runs}: um evento descartado na fila nao deixaria
+ * lacuna de id nem {@code reset} para quem retoma com Last-Event-ID.</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class AvailabilityRentListener implements RentEventListener<RentEvent> {
+
+	private final AvailabilityBroadcaster broadcaster;
+
+	@Override
+	public String getName() {
+		return "availability";
+	}
+
+	@Override
+	public Class<RentEvent> getEventType() {
+		return RentEvent.class;
+	}
+
+	@Override
+	public void onEvent(RentEvent event) {
+		if (event instanceof RentCreated) {
+			broadcaster.rented(event.getBikeId(), event.getChassi(), event.getRentId());
+		} else if (event instanceof RentReturned) {
+			broadcaster.returned(event.getBikeId(), event.getChassi(), event.getRentId());
+		}
+	}
+
+}
@@ -0,0 +1,152 @@
+package br.com.bikeapi.service.bloom;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Filtro de Bloom escalavel (Almeida et al., 2007) para chaves textuais.
+ * 
+ * <p>Comeca com um filtro dimensionado para {@code initialCapacity} chaves.
+ * Quando ele enche, um novo filtro com o dobro da capacidade e uma taxa de
+ * falso positivo mais apertada e adicionado, de forma que a taxa total
+ * continua limitada a aproximadamente {@code falsePositiveRate} qualquer que
+ * seja o numero de chaves.</p>
+ * 
+ * <p>Nao e thread-safe; veja {@link UniqueKeyFilter}.</p>
+ */
+public class ScalableBloomFilter {
+
+	private static final int GROWTH_FACTOR = 2;
+	private static final double TIGHTENING_RATIO = 0.8;
+
+	private final List<Stage> stages = new ArrayList<>();
+
+	public ScalableBloomFilter(long initialCapacity, double falsePositiveRate) {
+		if (initialCapacity <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+			throw new IllegalArgumentException("Invalid bloom filter sizing");
+		}
+		/*
+		 * A soma da serie p0 * r^i converge para p0 / (1 - r); o primeiro
+		 * estagio recebe a fatia que mantem o total dentro da taxa pedida
+		 */
+		stages.add(new Stage(initialCapacity, falsePositiveRate * (1 - TIGHTENING_RATIO)));
+	}
+
+	public void put(CharSequence key) {
+		long hash = hash(key);
+		for (Stage stage : stages) {
+			if (stage.mightContain(hash)) {
+				return;
+			}
+		}
+		Stage current = stages.get(stages.size() - 1);
+		if (current.count >= current.capacity) {
+			current = new Stage(current.capacity * GROWTH_FACTOR, current.falsePositiveRate * TIGHTENING_RATIO);
+			stages.add(current);
+		}
+		current.put(hash);
+	}
+
+	/**
+	 * @return <code>false</code> se a chave certamente nao foi adicionada,
+	 * <code>true</code> se ela pode ter sido
+	 */
+	public boolean mightContain(CharSequence key) {
+		long hash = hash(key);
+		for (Stage stage : stages) {
+			if (stage.mightContain(hash)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public long size() {
+		long size = 0;
+		for (Stage stage : stages) {
+			size += stage.count;
+		}
+		return size;
+	}
+
+	public long memoryInBytes() {
+		long bytes = 0;
+		for (Stage stage : stages) {
+			bytes += stage.bits.length * (long) Long.BYTES;
+		}
+		return bytes;
+	}
+
+	/**
+	 * @return a taxa de falso positivo esperada para as chaves ja adicionadas
+	 */
+	public double expectedFalsePositiveRate() {
+		double allNegative = 1;
+		for (Stage stage : stages) {
+			double fill = 1 - Math.exp(-(double) stage.hashes * stage.count / stage.numBits);
+			allNegative *= 1 - Math.pow(fill, stage.hashes);
+		}
+		return 1 - allNegative;
+	}
+
+	/*
+	 * FNV-1a de 64 bits sobre os chars seguido do finalizador do MurmurHash3,
+	 * sem alocar nada
+	 */
+	private static long hash(CharSequence key) {
+		long hash = 0xcbf29ce484222325L;
+		for (int i = 0; i < key.length(); i++) {
+			hash ^= key.charAt(i);
+			hash *= 0x100000001b3L;
+		}
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		hash *= 0xc4ceb9fe1a85ec53L;
+		hash ^= hash >>> 33;
+		return hash;
+	}
+
+	private static final class Stage {
+
+		private final long capacity;
+		private final double falsePositiveRate;
+		private final long numBits;
+		private final int hashes;
+		private final long[] bits;
+		private long count;
+
+		Stage(long capacity, double falsePositiveRate) {
+			this.capacity = capacity;
+			this.falsePositiveRate = falsePositiveRate;
+			long optimalBits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+			this.bits = new long[(int) Math.max(1, (optimalBits + 63) / 64)];
+			this.numBits = bits.length * 64L;
+			this.hashes = Math.max(1, (int) Math.round((double) numBits / capacity * Math.log(2)));
+		}
+
+		void put(long hash) {
+			int h1 = (int) hash;
+			int h2 = (int) (hash >>> 32);
+			for (int i = 1; i <= hashes; i++) {
+				long index = ((h1 + i * (long) h2) & Long.MAX_VALUE) % numBits;
+				bits[(int) (index >>> 6)] |= 1L << index;
+			}
+			count++;
+		}
+
+		boolean mightContain(long hash) {
+			int h1 = (int) hash;
+			int h2 = (int) (hash >>> 32);
+			for (int i = 1; i <= hashes; i++) {
+				long index = ((h1 + i * (long) h2) & Long.MAX_VALUE) % numBits;
+				if ((bits[(int) (index >>> 6)] & (1L << index)) == 0) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+	}
+
+}
@@ -0,0 +1,184 @@
+package br.com.bikeapi.service.bloom;
+
+import java.util.Iterator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Pre-verificacao de unicidade de uma chave (chassi, cpf) antes da consulta
+ * {@code existsBy...}.
+ * 
+ * <p>Enquanto o filtro nao foi carregado com as chaves da base, ou se a chave
+ * pode existir, a consulta deve ser feita normalmente. Somente um "nao existe"
+ * definitivo permite pula-la; a constraint unique da tabela continua garantindo
+ * a unicidade.</p>
+ */
+public class UniqueKeyFilter implements MeterBinder {
+
+	private final String name;
+	private final long expectedInsertions;
+	private final double falsePositiveRate;
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private final LongAdder definitelyAbsent = new LongAdder();
+	private final LongAdder maybePresent = new LongAdder();
+	private final LongAdder falsePositives = new LongAdder();
+
+	private ScalableBloomFilter filter;
+	private ScalableBloomFilter rebuilding;
+	private volatile boolean ready;
+
+	public UniqueKeyFilter(String name, long expectedInsertions, double falsePositiveRate) {
+		this.name = name;
+		this.expectedInsertions = expectedInsertions;
+		this.falsePositiveRate = falsePositiveRate;
+		this.filter = new ScalableBloomFilter(expectedInsertions, falsePositiveRate);
+	}
+
+	/**
+	 * @param key a chave a verificar
+	 * @return <code>false</code> apenas se a chave certamente nao existe na base
+	 */
+	public boolean mightContain(String key) {
+		if (!ready || key == null) {
+			return true;
+		}
+		boolean mightContain;
+		lock.readLock().lock();
+		try {
+			mightContain = filter.mightContain(key);
+		} finally {
+			lock.readLock().unlock();
+		}
+		(mightContain ? maybePresent : definitelyAbsent).increment();
+		return mightContain;
+	}
+
+	public void put(String key) {
+		if (key == null) {
+			return;
+		}
+		lock.writeLock().lock();
+		try {
+			filter.put(key);
+			if (rebuilding != null) {
+				rebuilding.put(key);
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Registra que o filtro respondeu "pode existir" para uma chave que a base
+	 * confirmou nao existir.
+	 */
+	public void recordFalsePositive() {
+		falsePositives.increment();
+	}
+
+	/**
+	 * Recarrega o filtro com as chaves existentes. Chaves gravadas durante a
+	 * recarga tambem entram no novo filtro.
+	 * 
+	 * @param keys todas as chaves existentes na base
+	 */
+	public void rebuild(Iterator<String> keys) {
+		ScalableBloomFilter fresh = new ScalableBloomFilter(expectedInsertions, falsePositiveRate);
+		lock.writeLock().lock();
+		try {
+			rebuilding = fresh;
+		} finally {
+			lock.writeLock().unlock();
+		}
+		try {
+			while (keys.hasNext()) {
+				put(fresh, keys.next());
+			}
+			lock.writeLock().lock();
+			try {
+				filter = fresh;
+			} finally {
+				lock.writeLock().unlock();
+			}
+			ready = true;
+		} finally {
+			lock.writeLock().lock();
+			try {
+				rebuilding = null;
+			} finally {
+				lock.writeLock().unlock();
+			}
+		}
+	}
+
+	public boolean isReady() {
+		return ready;
+	}
+
+	public long size() {
+		return read(ScalableBloomFilter::size);
+	}
+
+	private void put(ScalableBloomFilter target, String key) {
+		lock.writeLock().lock();
+		try {
+			target.put(key);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private <T> T read(Function<ScalableBloomFilter, T> reader) {
+		lock.readLock().lock();
+		try {
+			return reader.apply(filter);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/*
+	 * Entre as chaves que nao existiam na base, a fracao em que o filtro
+	 * respondeu "pode existir"
+	 */
+	private double observedFalsePositiveRate() {
+		double negatives = definitelyAbsent.sum() + falsePositives.sum();
+		return negatives == 0 ? 0 : falsePositives.sum() / negatives;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("bloom.filter.entries", this, f -> f.read(ScalableBloomFilter::size))
+			.tag("filter", name)
+			.register(registry);
+		Gauge.builder("bloom.filter.memory", this, f -> f.read(ScalableBloomFilter::memoryInBytes))
+			.tag("filter", name)
+			.baseUnit("bytes")
+			.register(registry);
+		Gauge.builder("bloom.filter.fpp.expected", this, f -> f.read(ScalableBloomFilter::expectedFalsePositiveRate))
+			.tag("filter", name)
+			.register(registry);
+		Gauge.builder("bloom.filter.fpp.observed", this, UniqueKeyFilter::observedFalsePositiveRate)
+			.tag("filter", name)
+			.register(registry);
+		FunctionCounter.builder("bloom.filter.checks", definitelyAbsent, LongAdder::sum)
+			.tag("filter", name)
+			.tag("result", "absent")
+			.register(registry);
+		FunctionCounter.builder("bloom.filter.checks", maybePresent, LongAdder::sum)
+			.tag("filter", name)
+			.tag("result", "maybe")
+			.register(registry);
+		FunctionCounter.builder("bloom.filter.false.positives", falsePositives, LongAdder::sum)
+			.tag("filter", name)
+			.register(registry);
+	}
+
+}
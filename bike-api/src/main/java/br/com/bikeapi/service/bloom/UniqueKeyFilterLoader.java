@@ -0,0 +1,42 @@
+package br.com.bikeapi.service.bloom;
+
+import java.util.stream.Stream;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.bikeapi.model.repository.BikeRepository;
+import br.com.bikeapi.model.repository.ClientRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Carrega os filtros de unicidade com os chassis e cpfs existentes assim que
+ * a aplicacao sobe. Ate la, os filtros respondem "pode existir" e o cadastro
+ * consulta a base normalmente.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UniqueKeyFilterLoader {
+
+	private final BikeRepository bikeRepository;
+	private final ClientRepository clientRepository;
+	private final UniqueKeyFilter chassiFilter;
+	private final UniqueKeyFilter cpfFilter;
+
+	@EventListener(ApplicationReadyEvent.class)
+	@Transactional(readOnly = true)
+	public void rebuild() {
+		try (Stream<String> chassis = bikeRepository.streamAllChassi()) {
+			chassiFilter.rebuild(chassis.iterator());
+		}
+		try (Stream<String> cpfs = clientRepository.streamAllCpf()) {
+			cpfFilter.rebuild(cpfs.iterator());
+		}
+		log.info("Filtros de unicidade carregados: {} chassis, {} cpfs", chassiFilter.size(), cpfFilter.size());
+	}
+
+}
@@ -0,0 +1,176 @@
+package br.com.bikeapi.service.cache;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Builder;
+
+/**
+ * Cache limitado de buscas por chave, usado na camada de servico.
+ * 
+ * <p>Guarda tanto os resultados encontrados quanto as buscas sem resultado
+ * (cache negativo), estas com um tempo de vida mais curto. No modo
+ * <em>single-flight</em>, buscas concorrentes pela mesma chave ausente
+ * aguardam uma unica ida a base (ver {@link SingleFlight}).</p>
+ * 
+ * <p>Os valores guardados sao copias feitas pelo {@code snapshot} no momento
+ * da gravacao, compartilhadas entre as requisicoes e tratadas como somente
+ * leitura.</p>
+ * 
+ * <p>Cada grupo de chaves tem uma geracao, incrementada por toda gravacao ou
+ * invalidacao. Uma carga que termina depois de uma invalidacao da mesma chave
+ * descarta o proprio resultado, para que o valor anterior a alteracao nao
+ * fique em cache ate expirar.</p>
+ *
+ * @param <K> o tipo da chave
+ * @param <V> o tipo do valor
+ */
+public class LookupCache<K, V> implements MeterBinder {
+
+	private static final int GENERATION_STRIPES = 64;
+
+	private final String name;
+	private final SingleFlight<K, Optional<V>> singleFlight;
+	private final Cache<K, Optional<V>> cache;
+	private final UnaryOperator<V> snapshot;
+	private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+	@Builder
+	private LookupCache(String name, long maximumSize, Duration timeToLive, Duration negativeTimeToLive,
+			boolean singleFlight, Ticker ticker, UnaryOperator<V> snapshot) {
+		this.name = name;
+		this.snapshot = snapshot == null ? UnaryOperator.identity() : snapshot;
+		this.singleFlight = singleFlight ? new SingleFlight<>(name) : null;
+		this.cache = Caffeine.newBuilder()
+							.maximumSize(maximumSize)
+							.expireAfter(new PositiveNegativeExpiry<K, V>(timeToLive, negativeTimeToLive))
+							.ticker(ticker == null ? Ticker.systemTicker() : ticker)
+							.recordStats()
+							.build();
+	}
+
+	/**
+	 * Busca o valor da chave no cache, carregando-o com o loader em caso de
+	 * falta.
+	 * 
+	 * @param key a chave procurada
+	 * @param loader a busca na base, chamada apenas em caso de falta
+	 * @return o valor em cache ou o resultado do loader
+	 */
+	public Optional<V> get(K key, Function<K, Optional<V>> loader) {
+		if (key == null) {
+			return loader.apply(key);
+		}
+		Optional<V> cached = cache.getIfPresent(key);
+		if (cached != null) {
+			return cached;
+		}
+		if (singleFlight != null) {
+			return singleFlight.execute(key, missing -> load(missing, loader));
+		}
+		return load(key, loader);
+	}
+
+	/*
+	 * Grava antes de conferir a geracao: se a invalidacao veio depois da
+	 * conferencia, ela mesma remove o valor gravado
+	 */
+	private Optional<V> load(K key, Function<K, Optional<V>> loader) {
+		long generation = generations.get(stripe(key));
+		Optional<V> loaded = loader.apply(key).map(snapshot);
+		cache.put(key, loaded);
+		if (generations.get(stripe(key)) != generation) {
+			cache.asMap().remove(key, loaded);
+		}
+		return loaded;
+	}
+
+	private int stripe(K key) {
+		return (key.hashCode() & Integer.MAX_VALUE) % GENERATION_STRIPES;
+	}
+
+	private void advanceAll() {
+		for (int i = 0; i < GENERATION_STRIPES; i++) {
+			generations.incrementAndGet(i);
+		}
+	}
+
+	/**
+	 * Grava o valor recem salvo, substituindo inclusive um resultado negativo.
+	 */
+	public void put(K key, V value) {
+		if (key != null) {
+			generations.incrementAndGet(stripe(key));
+			cache.put(key, Optional.ofNullable(value).map(snapshot));
+		}
+	}
+
+	public void invalidate(K key) {
+		if (key != null) {
+			generations.incrementAndGet(stripe(key));
+			cache.invalidate(key);
+		}
+	}
+
+	/**
+	 * Remove os valores que atendem ao predicado, para quando a chave antiga
+	 * nao e conhecida (por exemplo, um cpf alterado).
+	 */
+	public void invalidateIf(Predicate<V> predicate) {
+		advanceAll();
+		cache.asMap().values().removeIf(value -> value.isPresent() && predicate.test(value.get()));
+	}
+
+	public void invalidateAll() {
+		advanceAll();
+		cache.invalidateAll();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		CaffeineCacheMetrics.monitor(registry, cache, name);
+		if (singleFlight != null) {
+			singleFlight.bindTo(registry);
+		}
+	}
+
+	private static class PositiveNegativeExpiry<K, V> implements Expiry<K, Optional<V>> {
+
+		private final long timeToLive;
+		private final long negativeTimeToLive;
+
+		PositiveNegativeExpiry(Duration timeToLive, Duration negativeTimeToLive) {
+			this.timeToLive = timeToLive.toNanos();
+			this.negativeTimeToLive = negativeTimeToLive.toNanos();
+		}
+
+		@Override
+		public long expireAfterCreate(K key, Optional<V> value, long currentTime) {
+			return value.isPresent() ? timeToLive : negativeTimeToLive;
+		}
+
+		@Override
+		public long expireAfterUpdate(K key, Optional<V> value, long currentTime, long currentDuration) {
+			return expireAfterCreate(key, value, currentTime);
+		}
+
+		@Override
+		public long expireAfterRead(K key, Optional<V> value, long currentTime, long currentDuration) {
+			return currentDuration;
+		}
+
+	}
+
+}
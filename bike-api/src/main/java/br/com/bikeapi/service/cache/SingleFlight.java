@@ -0,0 +1,116 @@
+package br.com.bikeapi.service.cache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Junta buscas concorrentes pela mesma chave numa unica ida a base: a
+ * primeira executa o loader e as que chegam enquanto ele roda esperam pelo
+ * mesmo resultado. Nada e guardado depois que o loader termina.
+ *
+ * <p>Metricas por nome (tag {@code name}):
+ * {@code bikeapi.singleflight.calls} (idas a base) e
+ * {@code bikeapi.singleflight.coalesced} (buscas que aproveitaram uma ida a
+ * base em andamento).</p>
+ *
+ * @param <K> o tipo da chave
+ * @param <V> o tipo do valor
+ */
+public class SingleFlight<K, V> implements MeterBinder {
+
+	private final String name;
+
+	private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+	private final LongAdder calls = new LongAdder();
+
+	private final LongAdder coalesced = new LongAdder();
+
+	public SingleFlight(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Busca o valor, aproveitando uma busca em andamento pela mesma chave.
+	 * Todas recebem o mesmo valor, que deve ser tratado como somente leitura.
+	 *
+	 * @param key    a chave procurada
+	 * @param loader a busca na base
+	 * @return o resultado do loader
+	 */
+	public V execute(K key, Function<K, V> loader) {
+		return execute(key, loader, UnaryOperator.identity());
+	}
+
+	/**
+	 * Busca o valor, aproveitando uma busca em andamento pela mesma chave.
+	 * Quem executou o loader recebe o proprio resultado; quem esperou recebe
+	 * uma copia, feita de um retrato tirado logo depois do loader, para que
+	 * nenhuma requisicao veja as alteracoes de outra (por exemplo, numa
+	 * entidade do open-in-view de quem executou).
+	 *
+	 * @param key    a chave procurada
+	 * @param loader a busca na base
+	 * @param copy   copia o valor para quem esperou
+	 * @return o resultado do loader, ou uma copia dele
+	 */
+	public V execute(K key, Function<K, V> loader, UnaryOperator<V> copy) {
+		if (key == null) {
+			return loader.apply(key);
+		}
+		CompletableFuture<V> call = new CompletableFuture<>();
+		CompletableFuture<V> running = inFlight.putIfAbsent(key, call);
+		if (running != null) {
+			coalesced.increment();
+			return copy.apply(join(running));
+		}
+		calls.increment();
+		try {
+			V value = loader.apply(key);
+			call.complete(copy.apply(value));
+			return value;
+		} catch (RuntimeException | Error e) {
+			call.completeExceptionally(e);
+			throw e;
+		} finally {
+			inFlight.remove(key, call);
+		}
+	}
+
+	private static <V> V join(CompletableFuture<V> call) {
+		try {
+			return call.join();
+		} catch (CompletionException e) {
+			// a mesma excecao do loader, para que quem esperou a trate igual
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		FunctionCounter.builder("bikeapi.singleflight.calls", calls, LongAdder::sum)
+			.description("Buscas que foram a base")
+			.tag("name", name)
+			.register(registry);
+		FunctionCounter.builder("bikeapi.singleflight.coalesced", coalesced, LongAdder::sum)
+			.description("Buscas que esperaram uma busca igual em andamento em vez de ir a base")
+			.tag("name", name)
+			.register(registry);
+	}
+
+}
@@ -0,0 +1,108 @@
+package br.com.bikeapi.service.csv;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Leitor de CSV (RFC 4180) que entrega um registro por vez, sem carregar o
+ * arquivo: campos entre aspas podem conter virgulas, quebras de linha e
+ * aspas dobradas. Aceita quebras de linha LF e CRLF.
+ */
+public class CsvReader {
+
+	private final Reader reader;
+
+	private final char[] buffer = new char[8 * 1024];
+
+	private int position;
+
+	private int limit;
+
+	private long line = 1;
+
+	private long recordLine;
+
+	public CsvReader(Reader reader) {
+		this.reader = reader;
+	}
+
+	/**
+	 * @return os campos do proximo registro, ou {@code null} no fim do arquivo
+	 */
+	public List<String> next() throws IOException {
+		int c = read();
+		// linhas em branco entre registros sao ignoradas
+		while (c == '\r' || c == '\n') {
+			if (c == '\n') {
+				line++;
+			}
+			c = read();
+		}
+		if (c < 0) {
+			return null;
+		}
+		recordLine = line;
+		List<String> fields = new ArrayList<>();
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+		while (true) {
+			if (quoted) {
+				if (c < 0) {
+					throw new IOException("Aspas nao fechadas no registro da linha " + recordLine);
+				}
+				if (c == '"') {
+					int following = read();
+					if (following == '"') {
+						field.append('"');
+					} else {
+						quoted = false;
+						c = following;
+						continue;
+					}
+				} else {
+					if (c == '\n') {
+						line++;
+					}
+					field.append((char) c);
+				}
+			} else if (c == '"' && field.length() == 0) {
+				quoted = true;
+			} else if (c == ',') {
+				fields.add(field.toString());
+				field.setLength(0);
+			} else if (c == '\n' || c < 0) {
+				if (c == '\n') {
+					line++;
+				}
+				fields.add(field.toString());
+				return fields;
+			} else if (c != '\r') {
+				field.append((char) c);
+			}
+			c = read();
+		}
+	}
+
+	/**
+	 * @return a linha do arquivo (a partir de 1) em que o ultimo registro
+	 *         lido comeca
+	 */
+	public long getLine() {
+		return recordLine;
+	}
+
+	private int read() throws IOException {
+		if (position == limit) {
+			limit = reader.read(buffer, 0, buffer.length);
+			position = 0;
+			if (limit <= 0) {
+				limit = 0;
+				return -1;
+			}
+		}
+		return buffer[position++];
+	}
+
+}
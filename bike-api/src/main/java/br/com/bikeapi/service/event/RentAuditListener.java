@@ -0,0 +1,32 @@
+package br.com.bikeapi.service.event;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Registra os eventos de aluguel no logger {@code br.com.bikeapi.audit}, que
+ * pode ser direcionado a um arquivo proprio na configuracao de log.
+ */
+@Component
+public class RentAuditListener implements RentEventListener<RentEvent> {
+
+	private static final Logger AUDIT = LoggerFactory.getLogger("br.com.bikeapi.audit");
+
+	@Override
+	public String getName() {
+		return "audit";
+	}
+
+	@Override
+	public Class<RentEvent> getEventType() {
+		return RentEvent.class;
+	}
+
+	@Override
+	public void onEvent(RentEvent event) {
+		AUDIT.info("{} rentId={} bikeId={} chassi={} clientId={} occurredAt={}", event.getClass().getSimpleName(),
+				event.getRentId(), event.getBikeId(), event.getChassi(), event.getClientId(), event.getOccurredAt());
+	}
+
+}
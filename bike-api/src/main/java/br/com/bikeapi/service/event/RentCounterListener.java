@@ -0,0 +1,58 @@
+package br.com.bikeapi.service.event;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Conta os eventos de aluguel por tipo em {@code bikeapi.rents.events}.
+ */
+@Component
+public class RentCounterListener implements RentEventListener<RentEvent>, MeterBinder {
+
+	private final LongAdder created = new LongAdder();
+
+	private final LongAdder returned = new LongAdder();
+
+	private final LongAdder overdue = new LongAdder();
+
+	@Override
+	public String getName() {
+		return "counters";
+	}
+
+	@Override
+	public Class<RentEvent> getEventType() {
+		return RentEvent.class;
+	}
+
+	@Override
+	public void onEvent(RentEvent event) {
+		if (event instanceof RentCreated) {
+			created.increment();
+		} else if (event instanceof RentReturned) {
+			returned.increment();
+		} else if (event instanceof RentOverdue) {
+			overdue.increment();
+		}
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		register(registry, "created", created);
+		register(registry, "returned", returned);
+		register(registry, "overdue", overdue);
+	}
+
+	private static void register(MeterRegistry registry, String type, LongAdder counter) {
+		FunctionCounter.builder("bikeapi.rents.events", counter, LongAdder::sum)
+			.description("Eventos de aluguel tratados, por tipo")
+			.tag("type", type)
+			.register(registry);
+	}
+
+}
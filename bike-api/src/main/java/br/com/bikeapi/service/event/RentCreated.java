@@ -0,0 +1,23 @@
+package br.com.bikeapi.service.event;
+
+import java.time.LocalDateTime;
+
+import br.com.bikeapi.model.entity.Rent;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Aluguel registrado: a bicicleta deixou de estar disponivel.
+ */
+@Getter
+@ToString(callSuper = true)
+public class RentCreated extends RentEvent {
+
+	private final LocalDateTime expectedReturnDate;
+
+	public RentCreated(Rent rent) {
+		super(rent);
+		this.expectedReturnDate = rent.getExpectedReturnDate();
+	}
+
+}
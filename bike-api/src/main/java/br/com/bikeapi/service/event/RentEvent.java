@@ -0,0 +1,44 @@
+package br.com.bikeapi.service.event;
+
+import java.time.Instant;
+
+import br.com.bikeapi.model.entity.Bike;
+import br.com.bikeapi.model.entity.Client;
+import br.com.bikeapi.model.entity.Rent;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Evento de dominio do ciclo de vida de um aluguel.
+ * 
+ * <p>Copia os campos do aluguel no momento da publicacao: os listeners rodam
+ * em outras threads, depois do commit, e nao devem tocar na entidade.</p>
+ */
+@Getter
+@ToString
+public abstract class RentEvent {
+
+	private final Long rentId;
+
+	private final Long bikeId;
+
+	private final String chassi;
+
+	private final Long clientId;
+
+	private final String customerEmail;
+
+	private final Instant occurredAt;
+
+	protected RentEvent(Rent rent) {
+		Bike bike = rent.getBike();
+		Client client = rent.getClient();
+		this.rentId = rent.getId();
+		this.bikeId = bike == null ? null : bike.getId();
+		this.chassi = bike == null ? null : bike.getChassi();
+		this.clientId = client == null ? null : client.getId();
+		this.customerEmail = rent.getCustomerEmail();
+		this.occurredAt = Instant.now();
+	}
+
+}
@@ -0,0 +1,175 @@
+package br.com.bikeapi.service.event;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import br.com.bikeapi.config.RentEventProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Entrega os {@link RentEvent} publicados pelo servico de alugueis aos
+ * {@link RentEventListener}.
+ * 
+ * <p>Os eventos chegam depois do commit da transacao que os publicou (ou na
+ * hora, quando publicados fora de uma transacao, como no job de alugueis
+ * atrasados). A thread da requisicao so enfileira o evento no executor de
+ * cada listener interessado: o tempo de resposta nao cresce com o numero nem
+ * com a lentidao dos listeners. Cada executor tem fila limitada e uma
+ * {@link RentEventProperties.RejectionPolicy} para quando ela enche.</p>
+ * 
+ * <p>Metricas por listener (tag {@code listener}):
+ * {@code bikeapi.events.queued}, {@code bikeapi.events.handled} (tempo de
+ * tratamento), {@code bikeapi.events.failed} e
+ * {@code bikeapi.events.rejected}.</p>
+ */
+@Slf4j
+@Component
+public class RentEventDispatcher implements MeterBinder {
+
+	private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+
+	private final List<Channel> channels;
+
+	public RentEventDispatcher(List<RentEventListener<?>> listeners, RentEventProperties properties) {
+		List<Channel> channels = new ArrayList<>(listeners.size());
+		for (RentEventListener<?> listener : listeners) {
+			channels.add(new Channel(listener, properties.get(listener.getName())));
+		}
+		this.channels = Collections.unmodifiableList(channels);
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void dispatch(RentEvent event) {
+		for (Channel channel : channels) {
+			if (channel.listener.getEventType().isInstance(event)) {
+				channel.executor.execute(() -> channel.handle(event));
+			}
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		channels.forEach(channel -> channel.executor.shutdown());
+		for (Channel channel : channels) {
+			try {
+				if (!channel.executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+					log.warn("Listener {} encerrado com {} eventos pendentes", channel.listener.getName(),
+							channel.executor.shutdownNow().size());
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				channel.executor.shutdownNow();
+			}
+		}
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		for (Channel channel : channels) {
+			String name = channel.listener.getName();
+			Gauge.builder("bikeapi.events.queued", channel.executor, executor -> executor.getQueue().size())
+				.description("Eventos aguardando o listener")
+				.tag("listener", name)
+				.register(registry);
+			FunctionTimer.builder("bikeapi.events.handled", channel, Channel::getHandled,
+						Channel::getHandlingNanos, TimeUnit.NANOSECONDS)
+				.description("Eventos tratados pelo listener")
+				.tag("listener", name)
+				.register(registry);
+			FunctionCounter.builder("bikeapi.events.failed", channel.failed, LongAdder::sum)
+				.description("Eventos em que o listener lancou excecao")
+				.tag("listener", name)
+				.register(registry);
+			FunctionCounter.builder("bikeapi.events.rejected", channel.rejected, LongAdder::sum)
+				.description("Eventos que encontraram a fila do listener cheia")
+				.tag("listener", name)
+				.register(registry);
+		}
+	}
+
+	/**
+	 * Um listener e o seu executor.
+	 */
+	private static final class Channel {
+
+		private final RentEventListener<?> listener;
+
+		private final ThreadPoolExecutor executor;
+
+		private final LongAdder handled = new LongAdder();
+
+		private final LongAdder handlingNanos = new LongAdder();
+
+		private final LongAdder failed = new LongAdder();
+
+		private final LongAdder rejected = new LongAdder();
+
+		private Channel(RentEventListener<?> listener, RentEventProperties.Listener settings) {
+			this.listener = listener;
+			this.executor = new ThreadPoolExecutor(settings.getThreads(), settings.getThreads(), 0L,
+					TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(settings.getQueueCapacity()),
+					new CustomizableThreadFactory("rent-events-" + listener.getName() + "-"),
+					rejectionHandler(settings.getRejectionPolicy()));
+		}
+
+		private RejectedExecutionHandler rejectionHandler(RentEventProperties.RejectionPolicy policy) {
+			RejectedExecutionHandler delegate;
+			switch (policy) {
+			case CALLER_RUNS:
+				delegate = new ThreadPoolExecutor.CallerRunsPolicy();
+				break;
+			case DISCARD_OLDEST:
+				delegate = new ThreadPoolExecutor.DiscardOldestPolicy();
+				break;
+			default:
+				delegate = new ThreadPoolExecutor.DiscardPolicy();
+			}
+			return (task, executor) -> {
+				rejected.increment();
+				log.debug("Fila do listener {} cheia, politica {}", listener.getName(), policy);
+				delegate.rejectedExecution(task, executor);
+			};
+		}
+
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		private void handle(RentEvent event) {
+			long start = System.nanoTime();
+			try {
+				((RentEventListener) listener).onEvent(event);
+			} catch (RuntimeException e) {
+				failed.increment();
+				log.error("Erro no listener {} ao tratar {}", listener.getName(), event, e);
+			} finally {
+				handlingNanos.add(System.nanoTime() - start);
+				handled.increment();
+			}
+		}
+
+		private long getHandled() {
+			return handled.sum();
+		}
+
+		private double getHandlingNanos() {
+			return handlingNanos.sum();
+		}
+
+	}
+
+}
@@ -0,0 +1,25 @@
+package br.com.bikeapi.service.event;
+
+/**
+ * Efeito colateral de um {@link RentEvent} (notificacao, auditoria,
+ * contadores...).
+ * 
+ * <p>Cada listener roda no seu proprio executor limitado, criado pelo
+ * {@link RentEventDispatcher} e configurado por
+ * {@code application.events.listeners.<nome>.*}: um listener lento ou parado
+ * nao atrasa a requisicao nem os outros listeners.</p>
+ *
+ * @param <E> tipo de evento tratado; {@link RentEvent} recebe todos
+ */
+public interface RentEventListener<E extends RentEvent> {
+
+	/**
+	 * Nome usado na configuracao e na tag {@code listener} das metricas
+	 */
+	String getName();
+
+	Class<E> getEventType();
+
+	void onEvent(E event);
+
+}
@@ -0,0 +1,24 @@
+package br.com.bikeapi.service.event;
+
+import java.time.LocalDateTime;
+
+import br.com.bikeapi.model.entity.Rent;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Aluguel em atraso, publicado uma vez por aluguel, na primeira execucao do
+ * job de alugueis atrasados que o encontra.
+ */
+@Getter
+@ToString(callSuper = true)
+public class RentOverdue extends RentEvent {
+
+	private final LocalDateTime expectedReturnDate;
+
+	public RentOverdue(Rent rent) {
+		super(rent);
+		this.expectedReturnDate = rent.getExpectedReturnDate();
+	}
+
+}
@@ -0,0 +1,23 @@
+package br.com.bikeapi.service.event;
+
+import java.time.LocalDateTime;
+
+import br.com.bikeapi.model.entity.Rent;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Bicicleta devolvida: volta a estar disponivel.
+ */
+@Getter
+@ToString(callSuper = true)
+public class RentReturned extends RentEvent {
+
+	private final LocalDateTime returnedDateTime;
+
+	public RentReturned(Rent rent) {
+		super(rent);
+		this.returnedDateTime = rent.getReturnedDateTime();
+	}
+
+}
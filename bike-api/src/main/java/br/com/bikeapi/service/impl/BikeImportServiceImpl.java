@@ -0,0 +1,247 @@
+package br.com.bikeapi.service.impl;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import br.com.bikeapi.api.dto.BikeDTO;
+import br.com.bikeapi.api.dto.BikeImportReport;
+import br.com.bikeapi.api.dto.BikeImportReport.RowError;
+import br.com.bikeapi.exception.BusinessException;
+import br.com.bikeapi.model.entity.Bike;
+import br.com.bikeapi.model.repository.BikeRepository;
+import br.com.bikeapi.service.BikeImportService;
+import br.com.bikeapi.service.bloom.UniqueKeyFilter;
+import br.com.bikeapi.service.cache.LookupCache;
+import br.com.bikeapi.service.csv.CsvReader;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Slf4j
+public class BikeImportServiceImpl implements BikeImportService {
+
+	static final int MAX_ERRORS = 1000;
+
+	private static final String[] COLUMNS = { "chassi", "model", "color", "companyProperty" };
+
+	private final BikeRepository repository;
+	private final LookupCache<String, Bike> chassiCache;
+	private final UniqueKeyFilter chassiFilter;
+	private final Validator validator;
+	private final int chunkSize;
+
+	public BikeImportServiceImpl(BikeRepository repository, LookupCache<String, Bike> chassiCache,
+			UniqueKeyFilter chassiFilter, Validator validator,
+			@Value("${application.bikes.import.chunk-size:1000}") int chunkSize) {
+		this.repository = repository;
+		this.chassiCache = chassiCache;
+		this.chassiFilter = chassiFilter;
+		this.validator = validator;
+		this.chunkSize = chunkSize;
+	}
+
+	@Override
+	public BikeImportReport importCsv(Reader csv) throws IOException {
+		long start = System.nanoTime();
+		CsvReader reader = new CsvReader(csv);
+		int[] positions = readHeader(reader.next());
+
+		Import result = new Import();
+		/*
+		 * Chassis repetidos dentro do proprio arquivo; a base so e consultada
+		 * uma vez por lote, com um IN de todos os chassis do lote
+		 */
+		Set<String> seen = new HashSet<>();
+		List<Row> chunk = new ArrayList<>(chunkSize);
+		List<String> fields;
+		while ((fields = reader.next()) != null) {
+			result.rows++;
+			Row row = toRow(reader.getLine(), fields, positions);
+			Set<ConstraintViolation<BikeDTO>> violations = validator.validate(row.dto);
+			if (row.invalidCompanyProperty) {
+				result.reject(row, "companyProperty deve ser true ou false");
+			} else if (!violations.isEmpty()) {
+				result.reject(row, describe(violations));
+			} else if (!seen.add(row.dto.getChassi())) {
+				result.reject(row, "Chassi repetido no arquivo.");
+			} else {
+				chunk.add(row);
+				if (chunk.size() == chunkSize) {
+					insertChunk(chunk, result);
+					chunk.clear();
+				}
+			}
+		}
+		insertChunk(chunk, result);
+
+		long elapsedNanos = System.nanoTime() - start;
+		BikeImportReport report = BikeImportReport.builder()
+				.rows(result.rows)
+				.imported(result.imported)
+				.rejected(result.rejected)
+				.errors(result.errors)
+				.errorsTruncated(result.rejected > result.errors.size())
+				.elapsedMillis(elapsedNanos / 1_000_000)
+				.rowsPerSecond(elapsedNanos == 0 ? 0 : result.rows / (elapsedNanos / 1_000_000_000d))
+				.build();
+		log.info("Importacao de bicicletas: {} registros, {} importados, {} rejeitados em {} ms",
+				report.getRows(), report.getImported(), report.getRejected(), report.getElapsedMillis());
+		return report;
+	}
+
+	private void insertChunk(List<Row> chunk, Import result) {
+		if (chunk.isEmpty()) {
+			return;
+		}
+		Set<String> existing = new HashSet<>(repository.findExistingChassis(
+				chunk.stream().map(row -> row.dto.getChassi()).collect(Collectors.toList())));
+		List<Row> accepted = new ArrayList<>(chunk.size());
+		for (Row row : chunk) {
+			if (existing.contains(row.dto.getChassi())) {
+				result.reject(row, "Chassi ja cadastrado.");
+			} else {
+				accepted.add(row);
+			}
+		}
+		if (accepted.isEmpty()) {
+			return;
+		}
+		try {
+			repository.insertAll(accepted.stream().map(BikeImportServiceImpl::toBike).collect(Collectors.toList()));
+			accepted.forEach(row -> registered(row, result));
+		} catch (DataIntegrityViolationException e) {
+			/*
+			 * Outra requisicao cadastrou um dos chassis depois da consulta; o
+			 * lote inteiro foi desfeito, entao insere um a um para rejeitar
+			 * apenas os conflitantes
+			 */
+			log.warn("Lote de {} bicicletas violou a unicidade do chassi, inserindo uma a uma", accepted.size());
+			for (Row row : accepted) {
+				try {
+					repository.insertAll(Collections.singletonList(toBike(row)));
+					registered(row, result);
+				} catch (DataIntegrityViolationException rowException) {
+					result.reject(row, "Chassi ja cadastrado.");
+				}
+			}
+		}
+	}
+
+	private void registered(Row row, Import result) {
+		result.imported++;
+		chassiFilter.put(row.dto.getChassi());
+		// remove uma eventual entrada negativa de uma busca anterior pelo chassi
+		chassiCache.invalidate(row.dto.getChassi());
+	}
+
+	private static int[] readHeader(List<String> header) {
+		if (header == null) {
+			throw new BusinessException("Arquivo vazio.");
+		}
+		Map<String, Integer> indexes = new HashMap<>();
+		for (int i = 0; i < header.size(); i++) {
+			indexes.put(header.get(i).trim(), i);
+		}
+		int[] positions = new int[COLUMNS.length];
+		for (int i = 0; i < COLUMNS.length; i++) {
+			Integer index = indexes.get(COLUMNS[i]);
+			if (index == null) {
+				throw new BusinessException("Coluna " + COLUMNS[i] + " ausente no cabecalho.");
+			}
+			positions[i] = index;
+		}
+		return positions;
+	}
+
+	private static Row toRow(long line, List<String> fields, int[] positions) {
+		String companyProperty = field(fields, positions[3]);
+		Row row = new Row();
+		row.line = line;
+		row.dto = BikeDTO.builder()
+				.chassi(field(fields, positions[0]))
+				.model(field(fields, positions[1]))
+				.color(field(fields, positions[2]))
+				.companyProperty(parseBoolean(companyProperty))
+				.build();
+		row.invalidCompanyProperty = companyProperty != null && row.dto.getCompanyProperty() == null;
+		return row;
+	}
+
+	private static String field(List<String> fields, int position) {
+		if (position >= fields.size()) {
+			return null;
+		}
+		String value = fields.get(position).trim();
+		return value.isEmpty() ? null : value;
+	}
+
+	private static Boolean parseBoolean(String value) {
+		if ("true".equalsIgnoreCase(value)) {
+			return Boolean.TRUE;
+		}
+		if ("false".equalsIgnoreCase(value)) {
+			return Boolean.FALSE;
+		}
+		return null;
+	}
+
+	private static String describe(Set<ConstraintViolation<BikeDTO>> violations) {
+		return violations.stream()
+				.map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+				.sorted()
+				.collect(Collectors.joining("; "));
+	}
+
+	private static Bike toBike(Row row) {
+		return Bike.builder()
+				.chassi(row.dto.getChassi())
+				.model(row.dto.getModel())
+				.color(row.dto.getColor())
+				.companyProperty(row.dto.getCompanyProperty())
+				.build();
+	}
+
+	private static class Row {
+
+		private long line;
+
+		private BikeDTO dto;
+
+		private boolean invalidCompanyProperty;
+
+	}
+
+	private static class Import {
+
+		private long rows;
+
+		private long imported;
+
+		private long rejected;
+
+		private final List<RowError> errors = new ArrayList<>();
+
+		private void reject(Row row, String message) {
+			rejected++;
+			if (errors.size() < MAX_ERRORS) {
+				errors.add(new RowError(row.line, row.dto.getChassi(), message));
+			}
+		}
+
+	}
+
+}
@@ -1,7 +1,9 @@
 package br.com.bikeapi.service.impl;
 
+import java.util.Objects;
 import java.util.Optional;
 
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.ExampleMatcher;
 import org.springframework.data.domain.Page;
@@ -10,29 +12,65 @@ import org.springframework.stereotype.Service;
 
 import br.com.bikeapi.exception.BusinessException;
 import br.com.bikeapi.model.entity.Bike;
+import br.com.bikeapi.model.entity.BikeStatus;
+import br.com.bikeapi.model.repository.EntityVersion;
 import br.com.bikeapi.model.repository.BikeRepository;
 import br.com.bikeapi.service.BikeService;
+import br.com.bikeapi.service.bloom.UniqueKeyFilter;
+import br.com.bikeapi.service.cache.LookupCache;
+import br.com.bikeapi.service.cache.SingleFlight;
 
 @Service
 public class BikeServiceImpl implements BikeService{
 
 	private BikeRepository repository; 
+	private LookupCache<String, Bike> chassiCache;
+	private UniqueKeyFilter chassiFilter;
+	private SingleFlight<Long, Optional<Bike>> byIdFlight;
 	
-	public BikeServiceImpl(BikeRepository repository) {
+	public BikeServiceImpl(BikeRepository repository, LookupCache<String, Bike> chassiCache,
+			UniqueKeyFilter chassiFilter, SingleFlight<Long, Optional<Bike>> byIdFlight) {
 		this.repository = repository;
+		this.chassiCache = chassiCache;
+		this.chassiFilter = chassiFilter;
+		this.byIdFlight = byIdFlight;
 	}
 
 	@Override
 	public Bike save(Bike bike) {
-		if (repository.existsByChassi(bike.getChassi())) {
+		if (chassiExists(bike.getChassi())) {
 			throw new BusinessException("Chassi ja cadastrado.");
 		}
-		return repository.save(bike);
+		Bike savedBike;
+		try {
+			savedBike = repository.save(bike);
+		} catch (DataIntegrityViolationException e) {
+			/*
+			 * A pre-verificacao pelo filtro pode ter pulado a consulta; a
+			 * constraint unique e quem garante a unicidade nesse caso
+			 */
+			if (repository.existsByChassi(bike.getChassi())) {
+				throw new BusinessException("Chassi ja cadastrado.", e);
+			}
+			throw e;
+		}
+		chassiFilter.put(savedBike.getChassi());
+		chassiCache.put(savedBike.getChassi(), savedBike);
+		return savedBike;
 	}
 
+	/*
+	 * Quem esperou pela busca de outra requisicao recebe uma copia, ja que a
+	 * original pertence ao EntityManager dela (e pode ser alterada num update)
+	 */
 	@Override
 	public Optional<Bike> getById(Long id) {
-		return repository.findById(id);
+		return byIdFlight.execute(id, repository::findById, found -> found.map(bike -> bike.toBuilder().build()));
+	}
+
+	@Override
+	public Optional<EntityVersion> getVersionById(Long id) {
+		return repository.findVersionById(id);
 	}
 
 	@Override
@@ -41,6 +79,7 @@ public class BikeServiceImpl implements BikeService{
 			throw new IllegalArgumentException("Bike id cannot be null");
 		}
 		repository.delete(bike);
+		evictFromCache(bike);
 	}
 
 	@Override
@@ -48,7 +87,11 @@ public class BikeServiceImpl implements BikeService{
 		if (bike == null || bike.getId() == null) {
 			throw new IllegalArgumentException("Bike id cannot be null");
 		}
-		return repository.save(bike);
+		Bike updatedBike = repository.save(bike);
+		chassiFilter.put(updatedBike.getChassi());
+		evictFromCache(updatedBike);
+		chassiCache.put(updatedBike.getChassi(), updatedBike);
+		return updatedBike;
 	}
 
 	@Override
@@ -66,9 +109,42 @@ public class BikeServiceImpl implements BikeService{
 		return repository.findAll(example, pageRequest);
 	}
 
+	/*
+	 * Igualdade exata e sem ignorar caixa, para que a consulta use o indice
+	 * (status, model, color)
+	 */
+	@Override
+	public Page<Bike> findAvailable(String model, String color, Pageable pageRequest) {
+		Bike probe = Bike.builder().status(BikeStatus.AVAILABLE).model(model).color(color).build();
+		return repository.findAll(Example.of(probe, ExampleMatcher.matching().withIgnoreNullValues()), pageRequest);
+	}
+
 	@Override
 	public Optional<Bike> findByChassi(String chassi) {
-		return repository.findByChassi(chassi);
+		return chassiCache.get(chassi, repository::findByChassi);
+	}
+
+	/*
+	 * Um "nao existe" definitivo do filtro dispensa a consulta a base
+	 */
+	private boolean chassiExists(String chassi) {
+		if (!chassiFilter.mightContain(chassi)) {
+			return false;
+		}
+		boolean exists = repository.existsByChassi(chassi);
+		if (!exists) {
+			chassiFilter.recordFalsePositive();
+		}
+		return exists;
+	}
+
+	/*
+	 * O chassi pode ter mudado desde que a bicicleta entrou no cache, entao
+	 * tambem remove pelo id
+	 */
+	private void evictFromCache(Bike bike) {
+		chassiCache.invalidate(bike.getChassi());
+		chassiCache.invalidateIf(cached -> Objects.equals(cached.getId(), bike.getId()));
 	}
 
 }
@@ -0,0 +1,486 @@
+package br.com.bikeapi.service.impl;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.annotation.PreDestroy;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import br.com.bikeapi.api.dto.ClientDTO;
+import br.com.bikeapi.api.dto.ClientImportStatus;
+import br.com.bikeapi.api.dto.ClientImportStatus.RowError;
+import br.com.bikeapi.api.dto.ClientImportStatus.State;
+import br.com.bikeapi.config.ClientImportProperties;
+import br.com.bikeapi.exception.BusinessException;
+import br.com.bikeapi.model.entity.Client;
+import br.com.bikeapi.model.repository.ClientRepository;
+import br.com.bikeapi.service.ClientImportService;
+import br.com.bikeapi.service.bloom.UniqueKeyFilter;
+import br.com.bikeapi.service.cache.LookupCache;
+import br.com.bikeapi.service.csv.CsvReader;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Slf4j
+public class ClientImportServiceImpl implements ClientImportService {
+
+	static final int MAX_ERRORS = 1000;
+
+	/*
+	 * Abaixo disso a validacao de um trecho nao compensa o custo de dividi-lo
+	 */
+	private static final int VALIDATION_THRESHOLD = 64;
+
+	private final ClientRepository repository;
+	private final LookupCache<String, Client> cpfCache;
+	private final UniqueKeyFilter cpfFilter;
+	private final Validator validator;
+	private final int chunkSize;
+	private final ForkJoinPool validationPool;
+	private final ThreadPoolExecutor executor;
+	private final Map<String, ImportJob> jobs;
+
+	public ClientImportServiceImpl(ClientRepository repository, LookupCache<String, Client> cpfCache,
+			UniqueKeyFilter cpfFilter, Validator validator, ClientImportProperties properties) {
+		this.repository = repository;
+		this.cpfCache = cpfCache;
+		this.cpfFilter = cpfFilter;
+		this.validator = validator;
+		this.chunkSize = properties.getChunkSize();
+		this.validationPool = new ForkJoinPool(properties.getParallelism() > 0 ? properties.getParallelism()
+				: Runtime.getRuntime().availableProcessors());
+		this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(properties.getQueueCapacity()), new CustomizableThreadFactory("client-import-"));
+		int retainedJobs = properties.getRetainedJobs();
+		this.jobs = Collections.synchronizedMap(new LinkedHashMap<String, ImportJob>() {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, ImportJob> eldest) {
+				return size() > retainedJobs && eldest.getValue().state != State.RUNNING;
+			}
+
+		});
+	}
+
+	@Override
+	public ClientImportStatus start(Reader csv) throws IOException {
+		/*
+		 * O corpo da requisicao nao pode ser lido depois que ela termina: ele e
+		 * copiado para um arquivo temporario enquanto o cabecalho e validado e
+		 * os registros contados, sem guarda-los, e a importacao le a copia em
+		 * lotes
+		 */
+		Path file = Files.createTempFile("client-import-", ".csv");
+		ImportJob job = null;
+		try {
+			long rows = 0;
+			try (Writer copy = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+				CsvReader reader = new CsvReader(new CopyingReader(csv, copy));
+				readHeader(reader.next());
+				while (reader.next() != null) {
+					rows++;
+				}
+			}
+			job = new ImportJob(UUID.randomUUID().toString(), rows);
+			jobs.put(job.id, job);
+			// RejectedExecutionException com a fila cheia
+			executor.execute(new ImportTask(job, file));
+		} catch (IOException | RuntimeException e) {
+			if (job != null) {
+				jobs.remove(job.id);
+			}
+			delete(file);
+			throw e;
+		}
+		log.info("Importacao de clientes {} agendada com {} registros", job.id, job.rows);
+		return job.snapshot();
+	}
+
+	@Override
+	public Optional<ClientImportStatus> getStatus(String id) {
+		return Optional.ofNullable(jobs.get(id)).map(ImportJob::snapshot);
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		// as importacoes ainda na fila nao vao rodar: apaga as suas copias
+		for (Runnable pending : executor.shutdownNow()) {
+			if (pending instanceof ImportTask) {
+				delete(((ImportTask) pending).file);
+			}
+		}
+		validationPool.shutdownNow();
+	}
+
+	private void run(ImportJob job, Path file) {
+		State finalState = State.FAILED;
+		try (Reader csv = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			CsvReader reader = new CsvReader(csv);
+			int[] positions = readHeader(reader.next());
+			/*
+			 * Cpfs repetidos dentro do proprio arquivo, ja normalizados para os
+			 * digitos; a base e consultada uma vez por lote
+			 */
+			Set<String> seen = new HashSet<>();
+			List<Row> chunk = new ArrayList<>(chunkSize);
+			List<String> fields;
+			while ((fields = reader.next()) != null) {
+				chunk.add(toRow(reader.getLine(), fields, positions));
+				if (chunk.size() == chunkSize) {
+					processChunk(chunk, seen, job);
+					chunk.clear();
+				}
+			}
+			processChunk(chunk, seen, job);
+			finalState = State.COMPLETED;
+		} catch (IOException | RuntimeException e) {
+			log.error("Importacao de clientes {} falhou", job.id, e);
+			job.failure = e.getMessage();
+		} finally {
+			delete(file);
+			job.finishedNanos = System.nanoTime();
+			job.finishedAt = Instant.now();
+			// por ultimo, para quem ve o estado final ver tambem o termino
+			job.state = finalState;
+			log.info("Importacao de clientes {}: {} registros, {} importados, {} rejeitados", job.id, job.rows,
+					job.imported.get(), job.rejected.get());
+		}
+	}
+
+	private void processChunk(List<Row> chunk, Set<String> seen, ImportJob job) {
+		String[] violations = new String[chunk.size()];
+		validationPool.invoke(new ValidationTask(chunk, violations, 0, chunk.size()));
+
+		List<Row> candidates = new ArrayList<>(chunk.size());
+		for (int i = 0; i < chunk.size(); i++) {
+			Row row = chunk.get(i);
+			if (violations[i] != null) {
+				job.reject(row, violations[i]);
+			} else if (!seen.add(row.cpf)) {
+				job.reject(row, "Cpf repetido no arquivo.");
+			} else {
+				candidates.add(row);
+			}
+		}
+		insertChunk(candidates, job);
+		job.processed.addAndGet(chunk.size());
+	}
+
+	private void insertChunk(List<Row> candidates, ImportJob job) {
+		if (candidates.isEmpty()) {
+			return;
+		}
+		// o cadastro avulso grava o cpf como veio, entao a base e consultada com e sem mascara
+		Set<String> existing = new HashSet<>(repository.findExistingCpfs(candidates.stream()
+				.flatMap(row -> Stream.of(row.cpf, masked(row.cpf)))
+				.collect(Collectors.toList())));
+		List<Row> accepted = new ArrayList<>(candidates.size());
+		for (Row row : candidates) {
+			if (existing.contains(row.cpf) || existing.contains(masked(row.cpf))) {
+				job.reject(row, "Client ja cadastrado");
+			} else {
+				accepted.add(row);
+			}
+		}
+		if (accepted.isEmpty()) {
+			return;
+		}
+		try {
+			repository.insertAll(accepted.stream().map(ClientImportServiceImpl::toClient).collect(Collectors.toList()));
+			accepted.forEach(row -> registered(row, job));
+		} catch (DataIntegrityViolationException e) {
+			/*
+			 * Outra requisicao cadastrou um dos cpfs depois da consulta; o lote
+			 * inteiro foi desfeito, entao insere um a um para rejeitar apenas
+			 * os conflitantes
+			 */
+			log.warn("Lote de {} clientes violou a unicidade do cpf, inserindo um a um", accepted.size());
+			for (Row row : accepted) {
+				try {
+					repository.insertAll(Collections.singletonList(toClient(row)));
+					registered(row, job);
+				} catch (DataIntegrityViolationException rowException) {
+					job.reject(row, "Client ja cadastrado");
+				}
+			}
+		}
+	}
+
+	private void registered(Row row, ImportJob job) {
+		job.imported.incrementAndGet();
+		cpfFilter.put(row.cpf);
+		cpfFilter.put(masked(row.cpf));
+		// remove uma eventual entrada negativa de uma busca anterior pelo cpf
+		cpfCache.invalidate(row.cpf);
+		cpfCache.invalidate(masked(row.cpf));
+	}
+
+	private String validate(Row row) {
+		Set<ConstraintViolation<ClientDTO>> violations = validator.validate(row.dto);
+		if (violations.isEmpty()) {
+			return null;
+		}
+		return violations.stream()
+				.map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+				.sorted()
+				.collect(Collectors.joining("; "));
+	}
+
+	/**
+	 * @return as posicoes das colunas {@code nome} e {@code cpf}
+	 */
+	private static int[] readHeader(List<String> header) {
+		if (header == null) {
+			throw new BusinessException("Arquivo vazio.");
+		}
+		Map<String, Integer> indexes = new HashMap<>();
+		for (int i = 0; i < header.size(); i++) {
+			indexes.put(header.get(i).trim(), i);
+		}
+		Integer nome = indexes.get("nome");
+		Integer cpf = indexes.get("cpf");
+		if (nome == null || cpf == null) {
+			throw new BusinessException("Coluna " + (nome == null ? "nome" : "cpf") + " ausente no cabecalho.");
+		}
+		return new int[] { nome, cpf };
+	}
+
+	private static Row toRow(long line, List<String> fields, int[] positions) {
+		Row row = new Row();
+		row.line = line;
+		row.dto = ClientDTO.builder().nome(field(fields, positions[0])).cpf(field(fields, positions[1])).build();
+		row.cpf = row.dto.getCpf() == null ? null : row.dto.getCpf().replaceAll("\\D", "");
+		return row;
+	}
+
+	private static String field(List<String> fields, int position) {
+		if (position >= fields.size()) {
+			return null;
+		}
+		String value = fields.get(position).trim();
+		return value.isEmpty() ? null : value;
+	}
+
+	/*
+	 * 000.000.000-00, para um cpf valido (11 digitos)
+	 */
+	private static String masked(String cpf) {
+		return cpf.substring(0, 3) + '.' + cpf.substring(3, 6) + '.' + cpf.substring(6, 9) + '-' + cpf.substring(9);
+	}
+
+	private static void delete(Path file) {
+		try {
+			Files.deleteIfExists(file);
+		} catch (IOException e) {
+			log.warn("Nao foi possivel apagar a copia da importacao {}", file, e);
+		}
+	}
+
+	private static Client toClient(Row row) {
+		return Client.builder().nome(row.dto.getNome()).cpf(row.cpf).build();
+	}
+
+	/**
+	 * Valida um trecho do lote, dividindo-o ao meio enquanto for grande; cada
+	 * registro tem a sua posicao em {@code violations}, entao as metades nao
+	 * compartilham estado.
+	 */
+	private final class ValidationTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final List<Row> rows;
+		private final String[] violations;
+		private final int from;
+		private final int to;
+
+		private ValidationTask(List<Row> rows, String[] violations, int from, int to) {
+			this.rows = rows;
+			this.violations = violations;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= VALIDATION_THRESHOLD) {
+				for (int i = from; i < to; i++) {
+					violations[i] = validate(rows.get(i));
+				}
+				return;
+			}
+			int middle = (from + to) >>> 1;
+			invokeAll(new ValidationTask(rows, violations, from, middle),
+					new ValidationTask(rows, violations, middle, to));
+		}
+
+	}
+
+	/**
+	 * Importacao na fila do executor, com a copia do arquivo que ela le
+	 */
+	private final class ImportTask implements Runnable {
+
+		private final ImportJob job;
+
+		private final Path file;
+
+		private ImportTask(ImportJob job, Path file) {
+			this.job = job;
+			this.file = file;
+		}
+
+		@Override
+		public void run() {
+			ClientImportServiceImpl.this.run(job, file);
+		}
+
+	}
+
+	/**
+	 * Repassa o que le a uma copia
+	 */
+	private static final class CopyingReader extends FilterReader {
+
+		private final Writer copy;
+
+		private CopyingReader(Reader reader, Writer copy) {
+			super(reader);
+			this.copy = copy;
+		}
+
+		@Override
+		public int read() throws IOException {
+			int c = super.read();
+			if (c >= 0) {
+				copy.write(c);
+			}
+			return c;
+		}
+
+		@Override
+		public int read(char[] buffer, int offset, int length) throws IOException {
+			int read = super.read(buffer, offset, length);
+			if (read > 0) {
+				copy.write(buffer, offset, read);
+			}
+			return read;
+		}
+
+	}
+
+	private static class Row {
+
+		private long line;
+
+		private ClientDTO dto;
+
+		/**
+		 * Cpf so com os digitos: o que e comparado, consultado e gravado
+		 */
+		private String cpf;
+
+	}
+
+	/**
+	 * Andamento de uma importacao. Escrito apenas pela thread da importacao e
+	 * lido pelas requisicoes de consulta.
+	 */
+	private static class ImportJob {
+
+		private final String id;
+
+		private final long rows;
+
+		private final Instant startedAt = Instant.now();
+
+		private final long startedNanos = System.nanoTime();
+
+		private final AtomicLong processed = new AtomicLong();
+
+		private final AtomicLong imported = new AtomicLong();
+
+		private final AtomicLong rejected = new AtomicLong();
+
+		private final List<RowError> errors = Collections.synchronizedList(new ArrayList<>());
+
+		private volatile State state = State.RUNNING;
+
+		private volatile String failure;
+
+		private volatile Instant finishedAt;
+
+		private volatile long finishedNanos;
+
+		private ImportJob(String id, long rows) {
+			this.id = id;
+			this.rows = rows;
+		}
+
+		private void reject(Row row, String message) {
+			rejected.incrementAndGet();
+			if (errors.size() < MAX_ERRORS) {
+				errors.add(new RowError(row.line, row.dto.getCpf(), message));
+			}
+		}
+
+		private ClientImportStatus snapshot() {
+			State currentState = state;
+			long elapsedNanos = (currentState == State.RUNNING ? System.nanoTime() : finishedNanos) - startedNanos;
+			long currentProcessed = processed.get();
+			List<RowError> currentErrors;
+			synchronized (errors) {
+				currentErrors = new ArrayList<>(errors);
+			}
+			long currentRejected = rejected.get();
+			return ClientImportStatus.builder()
+					.id(id)
+					.state(currentState)
+					.rows(rows)
+					.processed(currentProcessed)
+					.imported(imported.get())
+					.rejected(currentRejected)
+					.errors(currentErrors)
+					.errorsTruncated(currentRejected > currentErrors.size())
+					.failure(failure)
+					.startedAt(startedAt)
+					.finishedAt(currentState == State.RUNNING ? null : finishedAt)
+					.elapsedMillis(elapsedNanos / 1_000_000)
+					.rowsPerSecond(elapsedNanos <= 0 ? 0 : currentProcessed / (elapsedNanos / 1_000_000_000d))
+					.build();
+		}
+
+	}
+
+}
@@ -1,7 +1,9 @@
 package br.com.bikeapi.service.impl;
 
+import java.util.Objects;
 import java.util.Optional;
 
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.ExampleMatcher;
 import org.springframework.data.domain.Page;
@@ -10,29 +12,65 @@ import org.springframework.stereotype.Service;
 
 import br.com.bikeapi.exception.BusinessException;
 import br.com.bikeapi.model.entity.Client;
+import br.com.bikeapi.model.repository.EntityVersion;
 import br.com.bikeapi.model.repository.ClientRepository;
 import br.com.bikeapi.service.ClientService;
+import br.com.bikeapi.service.bloom.UniqueKeyFilter;
+import br.com.bikeapi.service.cache.LookupCache;
+import br.com.bikeapi.service.cache.SingleFlight;
 
 @Service
 public class ClienteServiceImpl implements ClientService {
 
 	private ClientRepository repository;
+	private LookupCache<String, Client> cpfCache;
+	private UniqueKeyFilter cpfFilter;
+	private SingleFlight<Long, Optional<Client>> byIdFlight;
 	
-	public ClienteServiceImpl(ClientRepository repository) {
+	public ClienteServiceImpl(ClientRepository repository, LookupCache<String, Client> cpfCache,
+			UniqueKeyFilter cpfFilter, SingleFlight<Long, Optional<Client>> byIdFlight) {
 		this.repository = repository;
+		this.cpfCache = cpfCache;
+		this.cpfFilter = cpfFilter;
+		this.byIdFlight = byIdFlight;
 	}
 
 	@Override
 	public Client save(Client cliente) {
-		if (repository.existsByCpf(cliente.getCpf())) {
+		if (cpfExists(cliente.getCpf())) {
 			throw new BusinessException("Client ja cadastrado");
 		}
-		return repository.save(cliente);
+		Client savedClient;
+		try {
+			savedClient = repository.save(cliente);
+		} catch (DataIntegrityViolationException e) {
+			/*
+			 * A pre-verificacao pelo filtro pode ter pulado a consulta; a
+			 * constraint unique e quem garante a unicidade nesse caso
+			 */
+			if (repository.existsByCpf(cliente.getCpf())) {
+				throw new BusinessException("Client ja cadastrado", e);
+			}
+			throw e;
+		}
+		cpfFilter.put(savedClient.getCpf());
+		cpfCache.put(savedClient.getCpf(), savedClient);
+		return savedClient;
 	}
 
+	/*
+	 * Quem esperou pela busca de outra requisicao recebe uma copia, ja que a
+	 * original pertence ao EntityManager dela (e pode ser alterada num update)
+	 */
 	@Override
 	public Optional<Client> getById(Long id) {
-		return repository.findById(id);
+		return byIdFlight.execute(id, repository::findById,
+				found -> found.map(client -> client.toBuilder().build()));
+	}
+
+	@Override
+	public Optional<EntityVersion> getVersionById(Long id) {
+		return repository.findVersionById(id);
 	}
 
 	@Override
@@ -41,6 +79,7 @@ public class ClienteServiceImpl implements ClientService {
 			throw new IllegalArgumentException("Client nao encontrado");
 		}
 		repository.delete(cliente);
+		evictFromCache(cliente);
 	}
 
 	@Override
@@ -48,7 +87,11 @@ public class ClienteServiceImpl implements ClientService {
 		if (cliente == null || cliente.getId() == null) {
 			throw new IllegalArgumentException("Client nao encontrado");
 		}
-		return repository.save(cliente);
+		Client updatedClient = repository.save(cliente);
+		cpfFilter.put(updatedClient.getCpf());
+		evictFromCache(updatedClient);
+		cpfCache.put(updatedClient.getCpf(), updatedClient);
+		return updatedClient;
 	}
 
 	@Override
@@ -68,7 +111,30 @@ public class ClienteServiceImpl implements ClientService {
 
 	@Override
 	public Optional<Client> findByCpf(String cpf) {
-		return repository.findByCpf(cpf);
+		return cpfCache.get(cpf, repository::findByCpf);
+	}
+
+	/*
+	 * Um "nao existe" definitivo do filtro dispensa a consulta a base
+	 */
+	private boolean cpfExists(String cpf) {
+		if (!cpfFilter.mightContain(cpf)) {
+			return false;
+		}
+		boolean exists = repository.existsByCpf(cpf);
+		if (!exists) {
+			cpfFilter.recordFalsePositive();
+		}
+		return exists;
+	}
+
+	/*
+	 * O cpf pode ter sido alterado desde que o cliente entrou no cache, entao
+	 * tambem remove pelo id
+	 */
+	private void evictFromCache(Client cliente) {
+		cpfCache.invalidate(cliente.getCpf());
+		cpfCache.invalidateIf(cached -> Objects.equals(cached.getId(), cliente.getId()));
 	}
 
 }
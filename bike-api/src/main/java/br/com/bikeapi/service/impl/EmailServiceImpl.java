@@ -7,6 +7,7 @@ import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
+import br.com.bikeapi.monitoring.jfr.EmailSendEvent;
 import br.com.bikeapi.service.EmailService;
 import lombok.RequiredArgsConstructor;
 
@@ -30,7 +31,15 @@ public class EmailServiceImpl implements EmailService {
 		mailMessage.setText(message);
 		mailMessage.setTo(mails);
 		
-		javaMailSender.send(mailMessage);
+		EmailSendEvent event = new EmailSendEvent();
+		event.recipientCount = mails.length;
+		event.begin();
+		try {
+			javaMailSender.send(mailMessage);
+			event.success = true;
+		} finally {
+			event.commit();
+		}
 		
 	}
 
@@ -1,41 +1,108 @@
 package br.com.bikeapi.service.impl;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
+
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import br.com.bikeapi.api.dto.RentFilterDTO;
 import br.com.bikeapi.exception.BusinessException;
+import br.com.bikeapi.model.entity.Bike;
+import br.com.bikeapi.model.entity.BikeStatus;
 import br.com.bikeapi.model.entity.Client;
 import br.com.bikeapi.model.entity.Rent;
+import br.com.bikeapi.model.repository.BikeRepository;
+import br.com.bikeapi.model.repository.ClientRepository;
+import br.com.bikeapi.model.repository.ListingVersion;
+import br.com.bikeapi.model.repository.RentHistoryRow;
 import br.com.bikeapi.model.repository.RentRepository;
+import br.com.bikeapi.monitoring.jfr.RentSaveEvent;
 import br.com.bikeapi.service.RentService;
+import br.com.bikeapi.service.cache.LookupCache;
+import br.com.bikeapi.service.event.RentCreated;
+import br.com.bikeapi.service.event.RentReturned;
 
 @Service
 public class RentServiceImpl implements RentService {
 
 	private RentRepository repository;
+	private BikeRepository bikeRepository;
+	private ClientRepository clientRepository;
+	private LookupCache<String, Bike> chassiCache;
+	private LookupCache<String, Client> cpfCache;
+	private EntityManagerFactory entityManagerFactory;
+	private ApplicationEventPublisher eventPublisher;
 
-	public RentServiceImpl(RentRepository repository) {
+	public RentServiceImpl(RentRepository repository, BikeRepository bikeRepository,
+			ClientRepository clientRepository, LookupCache<String, Bike> chassiCache,
+			LookupCache<String, Client> cpfCache, EntityManagerFactory entityManagerFactory,
+			ApplicationEventPublisher eventPublisher) {
 		this.repository = repository;
+		this.bikeRepository = bikeRepository;
+		this.clientRepository = clientRepository;
+		this.chassiCache = chassiCache;
+		this.cpfCache = cpfCache;
+		this.entityManagerFactory = entityManagerFactory;
+		this.eventPublisher = eventPublisher;
 	}
 
+	/*
+	 * Transacional para que os listeners de RentCreated so recebam o evento
+	 * depois do commit. A bicicleta e o cliente sao travados (sempre nessa
+	 * ordem) e o status da bicicleta e o aluguel em andamento do cliente
+	 * mudam na mesma transacao do aluguel, entao dois alugueis concorrentes
+	 * nao passam pela verificacao ao mesmo tempo
+	 */
 	@Override
+	@Transactional
 	public Rent save(Rent rent) {
-		if (repository.existsByBikeAndNotReturned(rent.getBike())) {
-			throw new BusinessException("Bike already rented");
-		}
-		if (repository.existsByClientAndNotReturned(rent.getClient())) {
-			throw new BusinessException("Client with rental in progress");
+		RentSaveEvent event = new RentSaveEvent();
+		event.begin();
+		try {
+			Bike bike = bikeRepository.findByIdForUpdate(rent.getBike().getId())
+					.orElseThrow(() -> new BusinessException("Bike not found"));
+			if (bike.getStatus() == BikeStatus.RENTED) {
+				event.rejected = true;
+				throw new BusinessException("Bike already rented");
+			}
+			Client client = clientRepository.findByIdForUpdate(rent.getClient().getId())
+					.orElseThrow(() -> new BusinessException("Client not found"));
+			if (client.getActiveRentId() != null) {
+				event.rejected = true;
+				throw new BusinessException("Client with rental in progress");
+			}
+			/*
+			 * 1 hour tolerance
+			 */
+			rent.setExpectedReturnDate(rent.getRentDate().plusHours(rent.getRentHoursDuration() + 1));
+			rent.setBike(bike);
+			rent.setClient(client);
+			Rent savedRent = repository.save(rent);
+			bike.setStatus(BikeStatus.RENTED);
+			client.setActiveRentId(savedRent.getId());
+			evictAfterCommit(bike, client);
+			event.rentId = id(savedRent.getId());
+			eventPublisher.publishEvent(new RentCreated(savedRent));
+			return savedRent;
+		} finally {
+			event.bikeId = rent.getBike() == null ? 0 : id(rent.getBike().getId());
+			event.clientId = rent.getClient() == null ? 0 : id(rent.getClient().getId());
+			event.rentHoursDuration = rent.getRentHoursDuration() == null ? 0 : rent.getRentHoursDuration();
+			event.commit();
 		}
-		/*
-		 * 1 hour tolerance
-		 */
-		rent.setExpectedReturnDate(rent.getRentDate().plusHours(rent.getRentHoursDuration() + 1));
-		return repository.save(rent);
 	}
 
 	@Override
@@ -48,19 +115,108 @@ public class RentServiceImpl implements RentService {
 		return repository.save(rent);
 	}
 
+	/*
+	 * A bicicleta e travada primeiro, na mesma ordem do aluguel, e o aluguel
+	 * e relido travado: duas devolucoes concorrentes passam uma de cada vez e
+	 * a segunda ve a data gravada pela primeira, em vez de falhar pela versao
+	 */
+	@Override
+	@Transactional
+	public Rent returnBike(Rent rent) {
+		Bike bike = bikeRepository.findByIdForUpdate(rent.getBike().getId()).orElse(null);
+		Rent current = repository.findByIdForUpdate(rent.getId()).orElse(rent);
+		if (current.getReturnedDateTime() != null) {
+			// devolucao repetida: mantem a data original e nao publica de novo
+			return current;
+		}
+		current.setReturnedDateTime(LocalDateTime.now());
+		Rent returnedRent = repository.save(current);
+		if (bike != null) {
+			bike.setStatus(BikeStatus.AVAILABLE);
+		}
+		Client client = clientRepository.findByIdForUpdate(current.getClient().getId())
+				.filter(found -> Objects.equals(found.getActiveRentId(), returnedRent.getId()))
+				.orElse(null);
+		if (client != null) {
+			client.setActiveRentId(null);
+		}
+		evictAfterCommit(bike, client);
+		eventPublisher.publishEvent(new RentReturned(returnedRent));
+		return returnedRent;
+	}
+
 	@Override
 	public Page<Rent> find(RentFilterDTO filterDTO, Pageable pageable) {
 		return repository.findByBikeOrClient(filterDTO.getChassi(), filterDTO.getCpf(), pageable);
 	}
 
+	@Override
+	public ListingVersion getListingVersion(RentFilterDTO filterDTO) {
+		return repository.findListingVersionByBikeOrClient(filterDTO.getChassi(), filterDTO.getCpf());
+	}
+
 	@Override
 	public Page<Rent> getRentsByClient(Client client, Pageable pageable) {
 		return repository.findByClient(client, pageable);
 	}
 
+	@Override
+	public ListingVersion getRentsByClientVersion(Long clientId) {
+		return repository.findListingVersionByClientId(clientId);
+	}
+
+	@Override
+	public long exportHistory(LocalDateTime from, LocalDateTime to, Consumer<RentHistoryRow> consumer) {
+		return repository.streamHistory(from, to, consumer);
+	}
+
+	/*
+	 * O status e o aluguel em andamento mudaram (com a versao): remove as
+	 * copias dos caches de chassi e cpf e do cache de segundo nivel depois
+	 * do commit, como o update da bicicleta, para que um update montado a
+	 * partir delas nao falhe pela versao antiga
+	 */
+	private void evictAfterCommit(Bike bike, Client client) {
+		Runnable evict = () -> {
+			Cache cache = entityManagerFactory.getCache();
+			if (bike != null) {
+				chassiCache.invalidate(bike.getChassi());
+				cache.evict(Bike.class, bike.getId());
+			}
+			if (client != null) {
+				cpfCache.invalidate(client.getCpf());
+				cache.evict(Client.class, client.getId());
+			}
+		};
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			evict.run();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				evict.run();
+			}
+		});
+	}
+
+	/*
+	 * Campos de eventos JFR nao aceitam null
+	 */
+	private static long id(Long id) {
+		return id == null ? 0 : id;
+	}
+
 	@Override
 	public List<Rent> getAllLateRents() {
 		return repository.findByRentDateTimeLessThanAndNotReturned();
 	}
 
+	@Override
+	public void markOverdueNotified(List<Rent> rents) {
+		if (!rents.isEmpty()) {
+			repository.markOverdueNotified(rents.stream().map(Rent::getId).collect(Collectors.toList()));
+		}
+	}
+
 }
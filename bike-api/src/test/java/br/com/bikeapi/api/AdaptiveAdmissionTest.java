@@ -0,0 +1,145 @@
+package br.com.bikeapi.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import br.com.bikeapi.config.AdmissionProperties;
+import br.com.bikeapi.monitoring.PoolSaturation;
+
+public class AdaptiveAdmissionTest {
+
+	private final FakePool pool = new FakePool();
+
+	private AdaptiveAdmission admission;
+
+	@AfterEach
+	public void tearDown() {
+		if (admission != null) {
+			admission.shutdown();
+		}
+	}
+
+	@Test
+	@DisplayName("Deve reduzir o limite com o pool saturado e recusar as leituras antes das escritas")
+	public void shedReadsFirstTest() {
+
+		// cenario
+		admission = new AdaptiveAdmission(pool, settings(10, 0.5));
+
+		// execucao
+		pool.acquire(20, TimeUnit.MILLISECONDS.toNanos(200));
+		admission.sample();
+		int reads = acquireAll(AdaptiveAdmission.Priority.LOW);
+		int writes = acquireAll(AdaptiveAdmission.Priority.HIGH);
+
+		// verificacao
+		assertThat(admission.getLimit()).isEqualTo(7);
+		assertThat(reads).isEqualTo(3);
+		assertThat(writes).isEqualTo(4);
+
+	}
+
+	@Test
+	@DisplayName("Deve subir o limite sem saturacao apenas quando ele foi atingido")
+	public void increaseWhenLimitReachedTest() {
+
+		// cenario
+		admission = new AdaptiveAdmission(pool, settings(10, 0.5));
+		pool.acquire(20, TimeUnit.MILLISECONDS.toNanos(1));
+
+		// execucao
+		admission.sample();
+		int idleLimit = admission.getLimit();
+		acquireAll(AdaptiveAdmission.Priority.LOW);
+		admission.sample();
+
+		// verificacao
+		assertThat(idleLimit).isEqualTo(10);
+		assertThat(admission.getLimit()).isEqualTo(12);
+
+	}
+
+	@Test
+	@DisplayName("Deve tratar como saturado o pool todo ativo com threads esperando e nenhuma conexao entregue")
+	public void stalledPoolTest() {
+
+		// cenario
+		admission = new AdaptiveAdmission(pool, settings(10, 0.5));
+		pool.active = 10;
+		pool.awaiting = 5;
+
+		// execucao
+		admission.sample();
+		admission.sample();
+
+		// verificacao
+		assertThat(admission.getLimit()).isEqualTo(4);
+
+	}
+
+	private int acquireAll(AdaptiveAdmission.Priority priority) {
+		int admitted = 0;
+		while (admission.tryAcquire(priority)) {
+			admitted++;
+		}
+		return admitted;
+	}
+
+	static AdmissionProperties settings(int initialLimit, double readShare) {
+		AdmissionProperties settings = new AdmissionProperties();
+		settings.setInitialLimit(initialLimit);
+		settings.setReadShare(readShare);
+		settings.setMinLimit(4);
+		settings.setSampleInterval(Duration.ofHours(1));
+		return settings;
+	}
+
+	static class FakePool implements PoolSaturation {
+
+		private long acquireNanos;
+
+		private long acquisitions;
+
+		private int active;
+
+		private int awaiting;
+
+		void acquire(int connections, long waitNanos) {
+			acquisitions += connections;
+			acquireNanos += connections * waitNanos;
+		}
+
+		@Override
+		public long getAcquireNanos() {
+			return acquireNanos;
+		}
+
+		@Override
+		public long getAcquisitions() {
+			return acquisitions;
+		}
+
+		@Override
+		public int getActiveConnections() {
+			return active;
+		}
+
+		@Override
+		public int getTotalConnections() {
+			return 10;
+		}
+
+		@Override
+		public int getThreadsAwaitingConnection() {
+			return awaiting;
+		}
+
+	}
+
+}
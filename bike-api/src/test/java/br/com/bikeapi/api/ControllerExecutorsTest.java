@@ -0,0 +1,178 @@
+package br.com.bikeapi.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.server.ResponseStatusException;
+
+import br.com.bikeapi.config.ControllerExecutorProperties;
+import br.com.bikeapi.monitoring.StatementCount;
+import br.com.bikeapi.monitoring.StatementCountListener;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class ControllerExecutorsTest {
+
+	private ControllerExecutors executors;
+
+	private AdaptiveAdmission admission;
+
+	@AfterEach
+	public void tearDown() {
+		StatementCountListener.stop();
+		if (executors != null) {
+			executors.shutdown();
+		}
+		if (admission != null) {
+			admission.shutdown();
+		}
+	}
+
+	@Test
+	@DisplayName("Deve rodar a leitura no executor de leitura, contando os statements para a requisicao")
+	public void readOnReadExecutorTest() throws Exception {
+
+		// cenario
+		executors = new ControllerExecutors(pool(2, 10), pool(1, 10), null, null);
+		StatementCount count = StatementCountListener.start();
+
+		// execucao
+		DeferredResult<StatementCount> current = executors.read(StatementCountListener::current);
+		DeferredResult<String> thread = executors.read(() -> Thread.currentThread().getName());
+
+		// verificacao
+		assertThat(awaitResult(current)).isSameAs(count);
+		assertThat(awaitResult(thread)).startsWith("web-read-");
+
+	}
+
+	@Test
+	@DisplayName("Deve abrir um EntityManager proprio para cada tarefa, sem usar o da requisicao, e fecha-lo no fim")
+	public void dedicatedEntityManagerPerTaskTest() throws Exception {
+
+		// cenario
+		EntityManagerFactory entityManagerFactory = Mockito.mock(EntityManagerFactory.class);
+		EntityManager taskEntityManager = Mockito.mock(EntityManager.class);
+		Mockito.when(taskEntityManager.isOpen()).thenReturn(true);
+		Mockito.when(entityManagerFactory.createEntityManager()).thenReturn(taskEntityManager);
+		EntityManager requestEntityManager = Mockito.mock(EntityManager.class);
+		executors = new ControllerExecutors(pool(1, 10), pool(1, 10), entityManagerFactory, null);
+		TransactionSynchronizationManager.bindResource(entityManagerFactory,
+				new EntityManagerHolder(requestEntityManager));
+
+		// execucao
+		DeferredResult<EntityManager> current;
+		try {
+			current = executors.read(() -> ((EntityManagerHolder) TransactionSynchronizationManager
+					.getResource(entityManagerFactory)).getEntityManager());
+		} finally {
+			TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+		}
+
+		// verificacao
+		assertThat(awaitResult(current)).isSameAs(taskEntityManager);
+		Mockito.verify(taskEntityManager, Mockito.timeout(5000)).close();
+		Mockito.verifyNoInteractions(requestEntityManager);
+
+	}
+
+	@Test
+	@DisplayName("Deve recusar com 503 quando a fila do executor esta cheia")
+	public void rejectWhenQueueIsFullTest() throws Exception {
+
+		// cenario
+		executors = new ControllerExecutors(pool(1, 10), pool(1, 1), null, null);
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		executors.bindTo(registry);
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		executors.write(() -> {
+			started.countDown();
+			return await(release);
+		});
+		assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+		DeferredResult<Boolean> queued = executors.write(() -> true);
+
+		// execucao
+		ResponseStatusException rejected = catchThrowableOfType(() -> executors.write(() -> true),
+				ResponseStatusException.class);
+		DeferredResult<Boolean> read = executors.read(() -> true);
+
+		// verificacao
+		assertThat(rejected.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+		assertThat(registry.get("bikeapi.web.executor.rejected").tag("executor", "write").functionCounter().count())
+				.isEqualTo(1);
+		assertThat(registry.get("bikeapi.web.executor.queued").tag("executor", "write").gauge().value())
+				.isEqualTo(1);
+		// o executor de leitura nao e afetado pelas escritas
+		assertThat(awaitResult(read)).isTrue();
+		release.countDown();
+		assertThat(awaitResult(queued)).isTrue();
+
+	}
+
+	@Test
+	@DisplayName("Deve recusar com 503 as leituras acima do limite de admissao, mantendo as escritas")
+	public void shedReadsOverAdmissionLimitTest() throws Exception {
+
+		// cenario
+		admission = new AdaptiveAdmission(new AdaptiveAdmissionTest.FakePool(), AdaptiveAdmissionTest.settings(4, 0.5));
+		executors = new ControllerExecutors(pool(2, 10), pool(1, 10), null, admission);
+		CountDownLatch release = new CountDownLatch(1);
+		DeferredResult<Boolean> first = executors.read(() -> await(release));
+		DeferredResult<Boolean> second = executors.read(() -> await(release));
+
+		// execucao
+		ResponseStatusException shed = catchThrowableOfType(() -> executors.read(() -> true),
+				ResponseStatusException.class);
+		DeferredResult<Boolean> write = executors.write(() -> true);
+
+		// verificacao
+		assertThat(shed.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+		assertThat(awaitResult(write)).isTrue();
+		release.countDown();
+		assertThat(awaitResult(first)).isTrue();
+		assertThat(awaitResult(second)).isTrue();
+		// as leituras terminadas devolvem a vaga
+		assertThat(awaitResult(executors.read(() -> true))).isTrue();
+
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T awaitResult(DeferredResult<T> result) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!result.hasResult() && System.nanoTime() < deadline) {
+			Thread.sleep(5);
+		}
+		assertThat(result.hasResult()).as("resultado da tarefa").isTrue();
+		return (T) result.getResult();
+	}
+
+	private static Boolean await(CountDownLatch latch) {
+		try {
+			return latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	private static ControllerExecutorProperties.Pool pool(int threads, int queueCapacity) {
+		return new ControllerExecutorProperties.Pool(threads, queueCapacity, Duration.ofSeconds(10));
+	}
+
+}
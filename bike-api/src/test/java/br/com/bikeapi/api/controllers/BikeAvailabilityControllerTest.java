@@ -0,0 +1,112 @@
+package br.com.bikeapi.api.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import br.com.bikeapi.config.AvailabilityConfig;
+import br.com.bikeapi.model.entity.Bike;
+import br.com.bikeapi.model.entity.Rent;
+import br.com.bikeapi.service.availability.AvailabilityBroadcaster;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@WebMvcTest(controllers = BikeAvailabilityController.class)
+@Import(AvailabilityConfig.class)
+@AutoConfigureMockMvc
+public class BikeAvailabilityControllerTest {
+
+	private static final String AVAILABILITY_API = "/api/bikes/availability";
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private AvailabilityBroadcaster broadcaster;
+
+	@Test
+	@DisplayName("Deve enviar os alugueis e devolucoes aos assinantes e retomar pelo Last-Event-ID")
+	public void streamTest() throws Exception {
+
+		// cenario
+		MvcResult first = mvc.perform(MockMvcRequestBuilders.get(AVAILABILITY_API)
+				.accept(MediaType.TEXT_EVENT_STREAM))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		// execucao
+		broadcaster.rented(rent(1l, 10l, "123abc"));
+		broadcaster.returned(rent(1l, 10l, "123abc"));
+		String firstStream = awaitContent(first.getResponse(), "\"type\":\"RETURNED\"");
+
+		MvcResult resumed = mvc.perform(MockMvcRequestBuilders.get(AVAILABILITY_API)
+				.header("Last-Event-ID", firstEventId(firstStream))
+				.accept(MediaType.TEXT_EVENT_STREAM))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		String resumedStream = awaitContent(resumed.getResponse(), "\"type\":\"RETURNED\"");
+
+		// verificacao
+		assertThat(firstStream).contains("event:rented").contains("\"chassi\":\"123abc\"")
+				.contains("\"type\":\"RENTED\"").contains("\"type\":\"RETURNED\"");
+		assertThat(resumedStream).contains("event:returned").doesNotContain("event:rented")
+				.doesNotContain("event:reset");
+		assertThat(broadcaster.getSubscriberCount()).isGreaterThanOrEqualTo(2);
+
+	}
+
+	@Test
+	@DisplayName("Deve pedir a recarga quando o Last-Event-ID nao puder ser retomado")
+	public void resetTest() throws Exception {
+
+		// execucao
+		MvcResult result = mvc.perform(MockMvcRequestBuilders.get(AVAILABILITY_API)
+				.header("Last-Event-ID", "999999")
+				.accept(MediaType.TEXT_EVENT_STREAM))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		// verificacao
+		assertThat(awaitContent(result.getResponse(), "event:reset")).contains("event:reset");
+
+	}
+
+	private static Rent rent(Long rentId, Long bikeId, String chassi) {
+		return Rent.builder().id(rentId).bike(Bike.builder().id(bikeId).chassi(chassi).build()).build();
+	}
+
+	private static String firstEventId(String stream) {
+		int start = stream.indexOf("id:") + 3;
+		return stream.substring(start, stream.indexOf('\n', start));
+	}
+
+	/*
+	 * Os eventos sao escritos pelas threads do broadcaster, fora da requisicao,
+	 * e o SseEmitter escreve o cabecalho e os dados de cada evento em partes:
+	 * espere por um trecho dos dados
+	 */
+	private static String awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+		long deadline = System.currentTimeMillis() + 5_000;
+		String content = response.getContentAsString();
+		while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+			content = response.getContentAsString();
+		}
+		return content;
+	}
+
+}
@@ -1,9 +1,13 @@
 package br.com.bikeapi.api.controllers;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.time.Instant;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Optional;
 
 import org.hamcrest.Matchers;
@@ -16,13 +20,16 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
@@ -30,14 +37,19 @@ import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import br.com.bikeapi.api.dto.BikeDTO;
+import br.com.bikeapi.api.dto.BikeImportReport;
+import br.com.bikeapi.config.ControllerExecutorConfig;
 import br.com.bikeapi.exception.BusinessException;
 import br.com.bikeapi.model.entity.Bike;
+import br.com.bikeapi.model.repository.EntityVersion;
+import br.com.bikeapi.service.BikeImportService;
 import br.com.bikeapi.service.BikeService;
 
 @ExtendWith(SpringExtension.class)
 @ActiveProfiles("test")
 @WebMvcTest(controllers = BikeController.class)
 @AutoConfigureMockMvc
+@Import(ControllerExecutorConfig.class)
 public class BikeControllerTest {
 
 	private static String BIKE_API = "/api/bikes";
@@ -47,6 +59,9 @@ public class BikeControllerTest {
 	
 	@MockBean
 	private BikeService service;
+	
+	@MockBean
+	private BikeImportService importService;
 
 	@Test
 	@DisplayName("Deve criar uma bicicleta com sucesso")
@@ -171,6 +186,61 @@ public class BikeControllerTest {
 		
 	}
 	
+	@Test
+	@DisplayName("Deve devolver o ETag da bicicleta e responder 304 quando ela nao mudou")
+	public void getBikeNotModifiedTest() throws Exception {
+		
+		// cenario
+		Long id = 1l;
+		Instant lastModified = Instant.parse("2021-01-10T10:15:30Z");
+		BDDMockito.given(service.getVersionById(id))
+				.willReturn(Optional.of(version(3l, lastModified)));
+		BDDMockito.given(service.getById(id))
+				.willReturn(Optional.of(Bike.builder().id(id).chassi("123456").build()));
+		
+		// execucao
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+				.get(BIKE_API.concat("/" + id))
+				.accept(MediaType.APPLICATION_JSON);
+		MockHttpServletRequestBuilder conditionalRequest = MockMvcRequestBuilders
+				.get(BIKE_API.concat("/" + id))
+				.header(HttpHeaders.IF_NONE_MATCH, "\"bike-1-3\"")
+				.accept(MediaType.APPLICATION_JSON);
+		MockHttpServletRequestBuilder modifiedSinceRequest = MockMvcRequestBuilders
+				.get(BIKE_API.concat("/" + id))
+				.header(HttpHeaders.IF_MODIFIED_SINCE, "Sun, 10 Jan 2021 10:15:30 GMT")
+				.accept(MediaType.APPLICATION_JSON);
+		
+		// verificacao
+		mvc.perform(request)
+			.andExpect(status().isOk())
+			.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"bike-1-3\""))
+			.andExpect(jsonPath("chassi").value("123456"));
+		mvc.perform(conditionalRequest)
+			.andExpect(status().isNotModified())
+			.andExpect(MockMvcResultMatchers.content().string(""));
+		mvc.perform(modifiedSinceRequest)
+			.andExpect(status().isNotModified());
+		
+		Mockito.verify(service, Mockito.times(1)).getById(id);
+		
+	}
+
+	private static EntityVersion version(Long version, Instant lastModified) {
+		return new EntityVersion() {
+			
+			@Override
+			public Long getVersion() {
+				return version;
+			}
+			
+			@Override
+			public Instant getLastModifiedDate() {
+				return lastModified;
+			}
+		};
+	}
+	
 	@Test
 	@DisplayName("Deve retornar ResourceNotFound quando a bicicleta procurada nao existir")
 	public void bikeNotFoundTest() throws Exception{
@@ -311,7 +381,10 @@ public class BikeControllerTest {
 				.accept(MediaType.APPLICATION_JSON);
 		
 		// verificacao
-		mvc.perform(request)
+		MvcResult result = mvc.perform(request)
+			.andExpect(request().asyncStarted())
+			.andReturn();
+		mvc.perform(asyncDispatch(result))
 			.andExpect(status().isOk())
 			.andExpect(jsonPath("content", Matchers.hasSize(1)))
 			.andExpect(jsonPath("totalElements").value(1))
@@ -320,6 +393,42 @@ public class BikeControllerTest {
 		
 	}
 	
+	@Test
+	@DisplayName("Deve listar as bicicletas disponiveis pelo modelo e pela cor")
+	public void findAvailableBikesTest() throws Exception{
+		
+		// cenario
+		Bike bike = Bike.builder()
+						.id(1l)
+						.chassi(createNewBike().getChassi())
+						.color(createNewBike().getColor())
+						.model(createNewBike().getModel())
+						.companyProperty(createNewBike().getCompanyProperty())
+						.build();
+		
+		BDDMockito.given(service.findAvailable(Mockito.eq(bike.getModel()), Mockito.eq(bike.getColor()),
+				Mockito.any(Pageable.class)))
+				  .willReturn(new PageImpl<Bike>(Arrays.asList(bike), PageRequest.of(0, 10), 1));
+		
+		String queryString = String.format("/available?model=%s&color=%s&page=0&size=10", bike.getModel(), bike.getColor());
+		
+		// execucao
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+				.get(BIKE_API.concat(queryString))
+				.accept(MediaType.APPLICATION_JSON);
+		
+		// verificacao
+		MvcResult result = mvc.perform(request)
+			.andExpect(request().asyncStarted())
+			.andReturn();
+		mvc.perform(asyncDispatch(result))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("content", Matchers.hasSize(1)))
+			.andExpect(jsonPath("content[0].id").value(1))
+			.andExpect(jsonPath("totalElements").value(1));
+		
+	}
+	
 	@Test
 	@DisplayName("Deve obter uma bicicleta pelo chassi")
 	public void getBikeInfoByChassi() throws Exception {
@@ -347,4 +456,33 @@ public class BikeControllerTest {
 	}
 	
 	
+	@Test
+	@DisplayName("Deve importar bicicletas de um CSV")
+	public void importCsvTest() throws Exception {
+		
+		// cenario
+		String csv = "chassi,model,color,companyProperty\n123456,Caloi Volcano,preta,true\n";
+		BDDMockito.given(importService.importCsv(Mockito.any()))
+				.willReturn(BikeImportReport.builder()
+											.rows(1)
+											.imported(1)
+											.errors(Collections.emptyList())
+											.build());
+		
+		// execucao
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+				.post(BIKE_API.concat("/import"))
+				.contentType("text/csv")
+				.accept(MediaType.APPLICATION_JSON)
+				.content(csv);
+		
+		// verificacao
+		mvc.perform(request)
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("rows").value(1))
+			.andExpect(jsonPath("imported").value(1))
+			.andExpect(jsonPath("errors", Matchers.hasSize(0)));
+		
+	}
+	
 }
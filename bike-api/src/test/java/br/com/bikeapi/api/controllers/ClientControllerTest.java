@@ -1,10 +1,14 @@
 package br.com.bikeapi.api.controllers;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.util.Arrays;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.DisplayName;
@@ -16,23 +20,29 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import br.com.bikeapi.api.dto.ClientDTO;
+import br.com.bikeapi.api.dto.ClientImportStatus;
+import br.com.bikeapi.config.ControllerExecutorConfig;
 import br.com.bikeapi.exception.BusinessException;
 import br.com.bikeapi.model.entity.Bike;
 import br.com.bikeapi.model.entity.Client;
 import br.com.bikeapi.model.entity.Rent;
+import br.com.bikeapi.service.ClientImportService;
 import br.com.bikeapi.service.ClientService;
 import br.com.bikeapi.service.RentService;
 
@@ -40,6 +50,7 @@ import br.com.bikeapi.service.RentService;
 @ActiveProfiles("test")
 @WebMvcTest(controllers = ClientController.class)
 @AutoConfigureMockMvc
+@Import(ControllerExecutorConfig.class)
 public class ClientControllerTest {
 	
 	private static final String CLIENTE_API = "/api/clientes";
@@ -53,6 +64,9 @@ public class ClientControllerTest {
 	@MockBean
 	private RentService rentService;
 	
+	@MockBean
+	private ClientImportService importService;
+	
 	@Test
 	@DisplayName("Deve criar um cliente com sucesso")
 	void createClienteTest() throws Exception {
@@ -320,7 +334,10 @@ public class ClientControllerTest {
 				.accept(MediaType.APPLICATION_JSON);
 		
 		// verificacao
-		mvc.perform(request)
+		MvcResult result = mvc.perform(request)
+			.andExpect(request().asyncStarted())
+			.andReturn();
+		mvc.perform(asyncDispatch(result))
 			.andExpect(status().isOk())
 			.andExpect(jsonPath("content", Matchers.hasSize(1)))
 			.andExpect(jsonPath("totalElements").value(1))
@@ -352,7 +369,10 @@ public class ClientControllerTest {
 					.accept(MediaType.APPLICATION_JSON);
 		
 		// verificacao
-		mvc.perform(request)
+		MvcResult result = mvc.perform(request)
+			.andExpect(request().asyncStarted())
+			.andReturn();
+		mvc.perform(asyncDispatch(result))
 			.andExpect(status().isOk())
 			.andExpect(jsonPath("content", Matchers.hasSize(1)))
 			.andExpect(jsonPath("totalElements").value(1))
@@ -362,4 +382,83 @@ public class ClientControllerTest {
 	}
 	
 	
+	@Test
+	@DisplayName("Deve agendar a importacao de clientes de um CSV")
+	void importCsvTest() throws Exception {
+		
+		// cenario
+		String csv = "nome,cpf\nCicrano,953.788.660-30\n";
+		BDDMockito.given(importService.start(Mockito.any()))
+				.willReturn(ClientImportStatus.builder()
+											.id("abc")
+											.state(ClientImportStatus.State.RUNNING)
+											.rows(1)
+											.build());
+		
+		// execucao
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+				.post(CLIENTE_API.concat("/import"))
+				.contentType("text/csv")
+				.accept(MediaType.APPLICATION_JSON)
+				.content(csv);
+		
+		// verificacao
+		mvc.perform(request)
+			.andExpect(status().isAccepted())
+			.andExpect(header().string(HttpHeaders.LOCATION, "/api/clientes/import/abc"))
+			.andExpect(jsonPath("state").value("RUNNING"))
+			.andExpect(jsonPath("rows").value(1));
+		
+	}
+	
+	@Test
+	@DisplayName("Deve responder 503 quando a fila de importacoes estiver cheia")
+	void importCsvQueueFullTest() throws Exception {
+		
+		// cenario
+		BDDMockito.given(importService.start(Mockito.any()))
+				.willThrow(new RejectedExecutionException());
+		
+		// execucao
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+				.post(CLIENTE_API.concat("/import"))
+				.contentType("text/csv")
+				.accept(MediaType.APPLICATION_JSON)
+				.content("nome,cpf\n");
+		
+		// verificacao
+		mvc.perform(request)
+			.andExpect(status().isServiceUnavailable());
+		
+	}
+	
+	@Test
+	@DisplayName("Deve obter o andamento de uma importacao de clientes")
+	void importStatusTest() throws Exception {
+		
+		// cenario
+		BDDMockito.given(importService.getStatus("abc"))
+				.willReturn(Optional.of(ClientImportStatus.builder()
+															.id("abc")
+															.state(ClientImportStatus.State.COMPLETED)
+															.processed(10)
+															.imported(9)
+															.rejected(1)
+															.build()));
+		
+		// execucao
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+				.get(CLIENTE_API.concat("/import/abc"))
+				.accept(MediaType.APPLICATION_JSON);
+		
+		// verificacao
+		mvc.perform(request)
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("state").value("COMPLETED"))
+			.andExpect(jsonPath("imported").value(9));
+		mvc.perform(MockMvcRequestBuilders.get(CLIENTE_API.concat("/import/xyz")))
+			.andExpect(status().isNotFound());
+		
+	}
+	
 }
@@ -0,0 +1,214 @@
+package br.com.bikeapi.api.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import br.com.bikeapi.config.DataGenProperties;
+import br.com.bikeapi.datagen.SyntheticDataGenerator;
+import br.com.bikeapi.model.repository.BikeRepository;
+import br.com.bikeapi.model.repository.ClientRepository;
+import br.com.bikeapi.model.repository.RentRepository;
+import br.com.bikeapi.monitoring.AllocationMeter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Orcamento de bytes alocados por requisicao na criacao, devolucao e
+ * listagem de alugueis e na filtragem de bicicletas, medidos pelo contador
+ * de alocacao da thread que executa o MockMvc e das threads dos executores
+ * dos controllers, onde essas requisicoes rodam. Por serem assincronas, elas
+ * passam duas vezes pelos filtros e pelo DispatcherServlet.
+ * 
+ * <p>O valor inclui a requisicao e a resposta simuladas do MockMvc (alguns
+ * KB, constantes) alem de tudo o que a aplicacao aloca: filtros, binding e
+ * serializacao JSON, ModelMapper, Hibernate e logs. O rate limit fica
+ * desligado, ja que o teste repete o mesmo cliente centenas de vezes.</p>
+ * 
+ * <p>Os orcamentos sao o maior valor medido no JDK 8 (HotSpot) mais cerca de
+ * 6%, a variacao entre execucoes, para que um aumento de alocacao falhe. A
+ * medida vale para a suite completa, em que o contexto compartilhado com os
+ * outros testes aloca uns 10% a mais do que este teste rodando sozinho: uma
+ * mudanca que aloca mais sobe o orcamento junto, com o novo valor medido.
+ * Em outra JVM os numeros mudam; ajuste com
+ * {@code -Dallocation-budget.<operacao>=<bytes>}.</p>
+ */
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+		"spring.jpa.properties.hibernate.show_sql=false",
+		"spring.jpa.properties.hibernate.format_sql=false",
+		"application.rate-limit.enabled=false" })
+@AutoConfigureMockMvc
+@Slf4j
+public class RentAllocationBudgetTest {
+
+	private static final int WARMUP = 100;
+
+	private static final int ITERATIONS = 100;
+
+	private static final long SEED = 7;
+
+	private static final String[] EXECUTOR_THREADS = { "web-read-", "web-write-" };
+
+	@Value("${allocation-budget.rent-create:415000}")
+	private long rentCreateBudget;
+
+	@Value("${allocation-budget.rent-return:475000}")
+	private long rentReturnBudget;
+
+	@Value("${allocation-budget.rent-find:775000}")
+	private long rentFindBudget;
+
+	@Value("${allocation-budget.client-rents:845000}")
+	private long clientRentsBudget;
+
+	@Value("${allocation-budget.bike-find:560000}")
+	private long bikeFindBudget;
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private SyntheticDataGenerator generator;
+
+	@Autowired
+	private RentRepository rentRepository;
+
+	@Autowired
+	private BikeRepository bikeRepository;
+
+	@Autowired
+	private ClientRepository clientRepository;
+
+	@BeforeEach
+	public void setUp() {
+		Assumptions.assumeTrue(AllocationMeter.isSupported(), "JVM sem contador de alocacao por thread");
+		DataGenProperties settings = new DataGenProperties();
+		settings.setSeed(SEED);
+		settings.setBikes(100);
+		settings.setClients(20);
+		settings.setRents(400);
+		settings.setActiveRatio(0);
+		generator.generate(settings);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		rentRepository.deleteAllInBatch();
+		bikeRepository.deleteAllInBatch();
+		clientRepository.deleteAllInBatch();
+	}
+
+	@Test
+	@DisplayName("Deve criar e devolver alugueis dentro do orcamento de alocacao")
+	public void createAndReturnRentAllocationTest() throws Exception {
+
+		// cenario
+		String chassi = SyntheticDataGenerator.chassi(SEED, 0);
+		String cpf = SyntheticDataGenerator.cpf(SEED, 0);
+		String rent = "{\"chassi\":\"" + chassi + "\",\"cpf\":\"" + cpf
+				+ "\",\"customerEmail\":\"customer@mail.com\",\"rentHoursDuration\":2}";
+		String returned = "{\"returned\":true,\"clientCpf\":\"" + cpf + "\"}";
+		AllocationMeter create = new AllocationMeter(EXECUTOR_THREADS);
+		AllocationMeter giveBack = new AllocationMeter(EXECUTOR_THREADS);
+
+		// execucao
+		for (int i = 0; i < WARMUP + ITERATIONS; i++) {
+			if (i == WARMUP) {
+				create.reset();
+				giveBack.reset();
+			}
+			MvcResult created = create.measure(() -> performAsync(MockMvcRequestBuilders.post("/api/rent")
+					.contentType(MediaType.APPLICATION_JSON).content(rent))
+				.andExpect(status().isCreated())
+				.andReturn());
+			String id = created.getResponse().getContentAsString();
+			giveBack.measure(() -> performAsync(MockMvcRequestBuilders.patch("/api/rent/" + id)
+					.contentType(MediaType.APPLICATION_JSON).content(returned))
+				.andExpect(status().isOk()));
+		}
+
+		// verificacao
+		log.info("Alocacao por requisicao: criar aluguel = {} bytes, devolver = {} bytes",
+				create.getBytesPerOperation(), giveBack.getBytesPerOperation());
+		assertThat(create.getBytesPerOperation()).as("bytes alocados ao criar um aluguel")
+			.isLessThanOrEqualTo(rentCreateBudget);
+		assertThat(giveBack.getBytesPerOperation()).as("bytes alocados ao devolver um aluguel")
+			.isLessThanOrEqualTo(rentReturnBudget);
+
+	}
+
+	@Test
+	@DisplayName("Deve listar alugueis dentro do orcamento de alocacao")
+	public void findRentsAllocationTest() throws Exception {
+
+		// cenario
+		String cpf = SyntheticDataGenerator.cpf(SEED, 0);
+		Long clientId = clientRepository.findByCpf(cpf).get().getId();
+
+		// execucao
+		long rentFind = bytesPerRequest(MockMvcRequestBuilders.get("/api/rent?cpf=" + cpf + "&page=0&size=10")
+				.accept(MediaType.APPLICATION_JSON));
+		long clientRents = bytesPerRequest(MockMvcRequestBuilders
+				.get("/api/clientes/" + clientId + "/rents?page=0&size=10").accept(MediaType.APPLICATION_JSON));
+
+		// verificacao
+		log.info("Alocacao por requisicao: filtrar alugueis = {} bytes, alugueis do cliente = {} bytes", rentFind,
+				clientRents);
+		assertThat(rentFind).as("bytes alocados ao filtrar alugueis").isLessThanOrEqualTo(rentFindBudget);
+		assertThat(clientRents).as("bytes alocados ao listar os alugueis do cliente")
+			.isLessThanOrEqualTo(clientRentsBudget);
+
+	}
+
+	@Test
+	@DisplayName("Deve filtrar bicicletas dentro do orcamento de alocacao")
+	public void findBikesAllocationTest() throws Exception {
+
+		// execucao
+		long bikeFind = bytesPerRequest(MockMvcRequestBuilders.get("/api/bikes?model=caloi&page=0&size=20")
+				.accept(MediaType.APPLICATION_JSON));
+
+		// verificacao
+		log.info("Alocacao por requisicao: filtrar bicicletas = {} bytes", bikeFind);
+		assertThat(bikeFind).as("bytes alocados ao filtrar bicicletas").isLessThanOrEqualTo(bikeFindBudget);
+
+	}
+
+	private long bytesPerRequest(RequestBuilder request) throws Exception {
+		AllocationMeter meter = new AllocationMeter(EXECUTOR_THREADS);
+		for (int i = 0; i < WARMUP + ITERATIONS; i++) {
+			if (i == WARMUP) {
+				meter.reset();
+			}
+			meter.measure(() -> performAsync(request).andExpect(status().isOk()));
+		}
+		return meter.getBytesPerOperation();
+	}
+
+	private ResultActions performAsync(RequestBuilder request) throws Exception {
+		MvcResult result = mvc.perform(request).andExpect(request().asyncStarted()).andReturn();
+		return mvc.perform(asyncDispatch(result));
+	}
+
+}
@@ -1,12 +1,29 @@
 package br.com.bikeapi.api.controllers;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
 
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.DisplayName;
@@ -18,25 +35,38 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockAsyncContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import br.com.bikeapi.api.dto.RentDTO;
 import br.com.bikeapi.api.dto.RentFilterDTO;
 import br.com.bikeapi.api.dto.ReturnedBikeDTO;
+import br.com.bikeapi.api.ratelimit.RateLimitExceededException;
+import br.com.bikeapi.api.ratelimit.RateLimiter;
+import br.com.bikeapi.config.AsyncRequestConfig;
+import br.com.bikeapi.config.ControllerExecutorConfig;
 import br.com.bikeapi.exception.BusinessException;
 import br.com.bikeapi.model.entity.Bike;
 import br.com.bikeapi.model.entity.Client;
 import br.com.bikeapi.model.entity.Rent;
+import br.com.bikeapi.model.repository.ListingVersion;
+import br.com.bikeapi.model.repository.RentHistoryRow;
 import br.com.bikeapi.service.BikeService;
 import br.com.bikeapi.service.ClientService;
 import br.com.bikeapi.service.RentService;
@@ -45,6 +75,7 @@ import br.com.bikeapi.service.RentService;
 @ActiveProfiles("test")
 @WebMvcTest(controllers = RentController.class)
 @AutoConfigureMockMvc
+@Import({ ControllerExecutorConfig.class, AsyncRequestConfig.class })
 public class RentControllerTest {
 
 	private static final String RENT_API = "/api/rent";
@@ -61,6 +92,9 @@ public class RentControllerTest {
 	@MockBean
 	private ClientService clienteService;
 
+	@MockBean
+	private RateLimiter rateLimiter;
+
 	@Test
 	@DisplayName("Deve realizar um aluguel com sucesso")
 	void createRentTest() throws Exception {
@@ -86,7 +120,32 @@ public class RentControllerTest {
 				.contentType(MediaType.APPLICATION_JSON).content(json);
 
 		// verificacao
-		mvc.perform(request).andExpect(status().isCreated()).andExpect(content().string("1"));
+		performAsync(request).andExpect(status().isCreated()).andExpect(content().string("1"));
+
+	}
+
+	@Test
+	@DisplayName("Deve recusar com 429 e Retry-After o aluguel acima do rate limit")
+	void createRentRateLimitedTest() throws Exception {
+
+		// cenario
+		RentDTO dto = RentDTO.builder().customerEmail("costumer@gmail.com").rentHoursDuration(2).cpf("389.831.240-24")
+				.chassi("123abc").build();
+		String json = new ObjectMapper().writeValueAsString(dto);
+
+		BDDMockito.willThrow(new RateLimitExceededException("Limite de requisicoes excedido.", 2_500_000_000L))
+				.given(rateLimiter)
+				.acquire(Mockito.eq(RateLimiter.RENT_CREATE), Mockito.any(), Mockito.eq("389.831.240-24"));
+
+		// execucao
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(RENT_API).accept(MediaType.APPLICATION_JSON)
+				.contentType(MediaType.APPLICATION_JSON).content(json);
+
+		// verificacao
+		mvc.perform(request).andExpect(status().isTooManyRequests())
+				.andExpect(header().string(HttpHeaders.RETRY_AFTER, "3"))
+				.andExpect(jsonPath("errors[0]").value("Limite de requisicoes excedido."));
+		Mockito.verify(service, Mockito.never()).save(Mockito.any(Rent.class));
 
 	}
 
@@ -105,7 +164,7 @@ public class RentControllerTest {
 				.contentType(MediaType.APPLICATION_JSON).content(json);
 
 		// verificacao
-		mvc.perform(request).andExpect(status().isBadRequest()).andExpect(jsonPath("errors", Matchers.hasSize(1)))
+		performAsync(request).andExpect(status().isBadRequest()).andExpect(jsonPath("errors", Matchers.hasSize(1)))
 				.andExpect(jsonPath("errors[0]").value("Bike not found with given chassi"));
 
 	}
@@ -127,7 +186,7 @@ public class RentControllerTest {
 				.contentType(MediaType.APPLICATION_JSON).content(json);
 
 		// verificacao
-		mvc.perform(request).andExpect(status().isBadRequest()).andExpect(jsonPath("errors", Matchers.hasSize(1)))
+		performAsync(request).andExpect(status().isBadRequest()).andExpect(jsonPath("errors", Matchers.hasSize(1)))
 				.andExpect(jsonPath("errors[0]").value("Client not found with given cpf"));
 
 	}
@@ -154,7 +213,7 @@ public class RentControllerTest {
 				.contentType(MediaType.APPLICATION_JSON).content(json);
 
 		// verificacao
-		mvc.perform(request).andExpect(status().isBadRequest()).andExpect(jsonPath("errors", Matchers.hasSize(1)))
+		performAsync(request).andExpect(status().isBadRequest()).andExpect(jsonPath("errors", Matchers.hasSize(1)))
 				.andExpect(jsonPath("errors[0]").value("Bike already rented"));
 
 	}
@@ -186,8 +245,8 @@ public class RentControllerTest {
 				.accept(MediaType.APPLICATION_JSON).contentType(MediaType.APPLICATION_JSON).content(json);
 
 		// verificacao
-		mvc.perform(request).andExpect(status().isOk());
-		Mockito.verify(service, Mockito.times(1)).update(rent);
+		performAsync(request).andExpect(status().isOk());
+		Mockito.verify(service, Mockito.times(1)).returnBike(rent);
 
 	}
 
@@ -210,7 +269,7 @@ public class RentControllerTest {
 				.contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON).content(json);
 
 		// verificacao
-		mvc.perform(request).andExpect(status().isNotFound());
+		performAsync(request).andExpect(status().isNotFound());
 
 	}
 
@@ -255,10 +314,10 @@ public class RentControllerTest {
 		// verificacao
 		mvc.perform(request).andExpect(status().isBadRequest());
 		/*
-		 * verifica que o metodo update nunca foi
+		 * verifica que o metodo returnBike nunca foi
 		 * chamado pelo service correspondente
 		 */
-		Mockito.verify(service, Mockito.never()).update(rent);
+		Mockito.verify(service, Mockito.never()).returnBike(rent);
 
 	}
 
@@ -280,6 +339,8 @@ public class RentControllerTest {
 		PageRequest pageRequest = PageRequest.of(0, 10);
 		BDDMockito.given(service.find(Mockito.any(RentFilterDTO.class), Mockito.any(Pageable.class)))
 					.willReturn(new PageImpl<Rent>(Arrays.asList(rent), pageRequest, 1));
+		BDDMockito.given(service.getListingVersion(Mockito.any(RentFilterDTO.class)))
+					.willReturn(listingVersion(1l));
 
 		String queryString = String.format("?chassi=%s&cliente=%s&page=0&size=10", 
 								bike.getChassi(), client.getCpf());
@@ -291,7 +352,7 @@ public class RentControllerTest {
 						.accept(MediaType.APPLICATION_JSON);
 		
 		// verificacao
-		mvc.perform(request)
+		performAsync(request)
 			.andExpect(jsonPath("content", Matchers.hasSize(1)))
 			.andExpect(jsonPath("totalElements").value(1))
 			.andExpect(jsonPath("pageable.pageSize").value(10))
@@ -299,4 +360,205 @@ public class RentControllerTest {
 
 	}
 
+	@Test
+	@DisplayName("Deve responder 304 quando a listagem de alugueis nao mudou")
+	void findRentsNotModifiedTest() throws Exception {
+
+		// cenario
+		BDDMockito.given(service.getListingVersion(Mockito.any(RentFilterDTO.class)))
+					.willReturn(listingVersion(1l));
+		BDDMockito.given(service.find(Mockito.any(RentFilterDTO.class), Mockito.any(Pageable.class)))
+					.willReturn(new PageImpl<Rent>(Arrays.asList(), PageRequest.of(0, 10), 0));
+		String etag = performAsync(MockMvcRequestBuilders.get(RENT_API.concat("?chassi=123abc&page=0&size=10")))
+					.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		// execucao
+		MockHttpServletRequestBuilder request =
+					MockMvcRequestBuilders
+						.get(RENT_API.concat("?chassi=123abc&page=0&size=10"))
+						.header(HttpHeaders.IF_NONE_MATCH, etag)
+						.accept(MediaType.APPLICATION_JSON);
+		MockHttpServletRequestBuilder otherPageRequest =
+					MockMvcRequestBuilders
+						.get(RENT_API.concat("?chassi=123abc&page=1&size=10"))
+						.header(HttpHeaders.IF_NONE_MATCH, etag)
+						.accept(MediaType.APPLICATION_JSON);
+		MockHttpServletRequestBuilder otherSortRequest =
+					MockMvcRequestBuilders
+						.get(RENT_API.concat("?chassi=123abc&page=0&size=10&sort=rentDate,desc"))
+						.header(HttpHeaders.IF_NONE_MATCH, etag)
+						.accept(MediaType.APPLICATION_JSON);
+
+		// verificacao
+		performAsync(request).andExpect(status().isNotModified());
+		performAsync(otherPageRequest).andExpect(status().isOk());
+		performAsync(otherSortRequest).andExpect(status().isOk());
+		Mockito.verify(service, Mockito.times(3))
+					.find(Mockito.any(RentFilterDTO.class), Mockito.any(Pageable.class));
+
+	}
+
+	@Test
+	@DisplayName("Deve exportar o historico de alugueis em CSV compactado, filtrando pelas datas")
+	@SuppressWarnings("unchecked")
+	void exportRentHistoryTest() throws Exception {
+
+		// cenario
+		RentHistoryRow row = RentHistoryRow.builder().id(7).rentDate(LocalDateTime.of(2021, 1, 10, 9, 30))
+				.expectedReturnDate(LocalDateTime.of(2021, 1, 10, 12, 30)).rentHoursDuration(2)
+				.customerEmail("costumer@gmail.com").bikeId(1).chassi("123abc").model("Caloi Volcano").clientId(2)
+				.cpf("389.831.240-24").nome("Silva, Fulana").build();
+		BDDMockito.given(service.exportHistory(Mockito.any(), Mockito.any(), Mockito.any())).willAnswer(invocation -> {
+			((Consumer<RentHistoryRow>) invocation.getArgument(2)).accept(row);
+			return 1L;
+		});
+
+		// execucao
+		MvcResult result = mvc.perform(MockMvcRequestBuilders
+					.get(RENT_API.concat("/export?format=csv&from=2021-01-01&to=2021-02-01&gzip=true")))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		// verificacao
+		assertThat(result.getRequest().getAsyncContext().getTimeout()).isEqualTo(Duration.ofMinutes(30).toMillis());
+		byte[] body = mvc.perform(asyncDispatch(result))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION,
+						Matchers.containsString("rents-2021-01-01-2021-02-01.csv.gz")))
+				.andReturn().getResponse().getContentAsByteArray();
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+				new GZIPInputStream(new ByteArrayInputStream(body)), StandardCharsets.UTF_8))) {
+			assertThat(reader.readLine()).startsWith("id,rent_date,expected_return_date");
+			assertThat(reader.readLine()).isEqualTo("7,2021-01-10T09:30,2021-01-10T12:30,,2,costumer@gmail.com,"
+					+ "1,123abc,Caloi Volcano,2,389.831.240-24,\"Silva, Fulana\"");
+			assertThat(reader.readLine()).isNull();
+		}
+		Mockito.verify(service).exportHistory(Mockito.eq(LocalDateTime.of(2021, 1, 1, 0, 0)),
+				Mockito.eq(LocalDateTime.of(2021, 2, 1, 0, 0)), Mockito.any());
+
+	}
+
+	@Test
+	@DisplayName("Deve exportar o historico de alugueis em NDJSON, um objeto por linha")
+	@SuppressWarnings("unchecked")
+	void exportRentHistoryNdjsonTest() throws Exception {
+
+		// cenario
+		RentHistoryRow first = RentHistoryRow.builder().id(7).rentDate(LocalDateTime.of(2021, 1, 10, 9, 30))
+				.expectedReturnDate(LocalDateTime.of(2021, 1, 10, 12, 30)).rentHoursDuration(2)
+				.customerEmail("costumer@gmail.com").bikeId(1).chassi("123abc").model("Caloi Volcano").clientId(2)
+				.cpf("389.831.240-24").nome("Silva, Fulana").build();
+		RentHistoryRow second = RentHistoryRow.builder().id(8).rentDate(LocalDateTime.of(2021, 1, 11, 8, 0))
+				.expectedReturnDate(LocalDateTime.of(2021, 1, 11, 10, 0))
+				.returnedDateTime(LocalDateTime.of(2021, 1, 11, 9, 45)).rentHoursDuration(2)
+				.customerEmail("costumer@gmail.com").bikeId(1).chassi("123abc").model("Caloi Volcano").clientId(2)
+				.cpf("389.831.240-24").nome("Silva, Fulana").build();
+		BDDMockito.given(service.exportHistory(Mockito.any(), Mockito.any(), Mockito.any())).willAnswer(invocation -> {
+			((Consumer<RentHistoryRow>) invocation.getArgument(2)).accept(first);
+			((Consumer<RentHistoryRow>) invocation.getArgument(2)).accept(second);
+			return 2L;
+		});
+
+		// execucao
+		MvcResult result = mvc.perform(MockMvcRequestBuilders
+					.get(RENT_API.concat("/export?format=ndjson&from=2021-01-01&to=2021-02-01")))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		// verificacao
+		String body = mvc.perform(asyncDispatch(result))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION,
+						Matchers.containsString("rents-2021-01-01-2021-02-01.ndjson")))
+				.andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+		String[] lines = body.split("\n");
+		assertThat(lines).hasSize(2);
+		ObjectMapper mapper = new ObjectMapper();
+		for (String line : lines) {
+			assertThat(line).startsWith("{");
+		}
+		JsonNode firstLine = mapper.readTree(lines[0]);
+		assertThat(firstLine.get("id").asLong()).isEqualTo(7);
+		assertThat(firstLine.get("returnedDateTime").isNull()).isTrue();
+		assertThat(firstLine.get("nome").asText()).isEqualTo("Silva, Fulana");
+		JsonNode secondLine = mapper.readTree(lines[1]);
+		assertThat(secondLine.get("id").asLong()).isEqualTo(8);
+		assertThat(secondLine.get("returnedDateTime").asText()).isEqualTo("2021-01-11T09:45");
+
+	}
+
+	@Test
+	@DisplayName("Deve recusar a exportacao em formato desconhecido")
+	void exportUnknownFormatTest() throws Exception {
+
+		// execucao e verificacao
+		mvc.perform(MockMvcRequestBuilders.get(RENT_API.concat("/export?format=xml")))
+			.andExpect(status().isBadRequest());
+		Mockito.verify(service, Mockito.never()).exportHistory(Mockito.any(), Mockito.any(), Mockito.any());
+
+	}
+
+	@Test
+	@DisplayName("Deve responder 503 quando a listagem passa do tempo limite do executor")
+	void findRentsTimeoutTest() throws Exception {
+
+		// cenario
+		CountDownLatch release = new CountDownLatch(1);
+		BDDMockito.given(service.getListingVersion(Mockito.any(RentFilterDTO.class))).willAnswer(invocation -> {
+			release.await(5, TimeUnit.SECONDS);
+			return listingVersion(1l);
+		});
+		MvcResult result = mvc.perform(MockMvcRequestBuilders.get(RENT_API.concat("?chassi=123abc")))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		// execucao
+		MockAsyncContext asyncContext = (MockAsyncContext) result.getRequest().getAsyncContext();
+		for (AsyncListener listener : asyncContext.getListeners()) {
+			listener.onTimeout(new AsyncEvent(asyncContext));
+		}
+		release.countDown();
+
+		// verificacao
+		mvc.perform(asyncDispatch(result))
+			.andExpect(status().isServiceUnavailable())
+			.andExpect(jsonPath("errors[0]").value("Tempo limite da requisicao esgotado."));
+
+	}
+
+	/*
+	 * Criacao, devolucao e listagem de alugueis respondem pelos executores dos
+	 * controllers
+	 */
+	private ResultActions performAsync(RequestBuilder request) throws Exception {
+		MvcResult result = mvc.perform(request).andExpect(request().asyncStarted()).andReturn();
+		return mvc.perform(asyncDispatch(result));
+	}
+
+	private static ListingVersion listingVersion(Long count) {
+		Instant lastModified = Instant.parse("2021-01-10T10:15:30Z");
+		return new ListingVersion() {
+
+			@Override
+			public Long getCount() {
+				return count;
+			}
+
+			@Override
+			public Instant getRentModifiedDate() {
+				return lastModified;
+			}
+
+			@Override
+			public Instant getBikeModifiedDate() {
+				return lastModified;
+			}
+
+			@Override
+			public Instant getClientModifiedDate() {
+				return lastModified;
+			}
+		};
+	}
+
 }
@@ -0,0 +1,152 @@
+package br.com.bikeapi.api.controllers;
+
+import static br.com.bikeapi.monitoring.StatementCountMatchers.selects;
+import static br.com.bikeapi.monitoring.StatementCountMatchers.total;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import br.com.bikeapi.model.entity.Bike;
+import br.com.bikeapi.model.entity.Client;
+import br.com.bikeapi.model.entity.Rent;
+import br.com.bikeapi.model.repository.BikeRepository;
+import br.com.bikeapi.model.repository.BikeRepositoryTest;
+import br.com.bikeapi.model.repository.ClientRepository;
+import br.com.bikeapi.model.repository.ClientRepositoryTest;
+import br.com.bikeapi.model.repository.RentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Garante que as listagens de alugueis nao voltem a carregar a bicicleta e o
+ * cliente de cada linha em consultas separadas (N+1).
+ */
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest(properties = "application.jdbc.statement-budget=3")
+@AutoConfigureMockMvc
+public class RentStatementCountTest {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private RentRepository rentRepository;
+
+	@Autowired
+	private BikeRepository bikeRepository;
+
+	@Autowired
+	private ClientRepository clientRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private MeterRegistry registry;
+
+	private Client client;
+
+	@BeforeEach
+	public void setUp() {
+		client = createRent("NPLUS1A", "389.831.240-24").getClient();
+		createRent("NPLUS1B", "953.788.660-30");
+		createRent("NPLUS1C", "529.982.247-25");
+		/*
+		 * Sem o cache de segundo nivel cada getBike()/getClient() preguicoso
+		 * viraria um select
+		 */
+		entityManagerFactory.getCache().evictAll();
+	}
+
+	@AfterEach
+	public void tearDown() {
+		rentRepository.deleteAll();
+		bikeRepository.deleteAll();
+		clientRepository.deleteAll();
+	}
+
+	@Test
+	@DisplayName("Deve filtrar alugueis com a bicicleta e o cliente na mesma consulta")
+	public void findRentsWithoutNPlusOneTest() throws Exception {
+
+		// execucao
+		String query = "?chassi=NPLUS1A&cpf=953.788.660-30&page=0&size=10";
+
+		// verificacao
+		performAsync(MockMvcRequestBuilders.get("/api/rent".concat(query)).accept(MediaType.APPLICATION_JSON))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("content", Matchers.hasSize(2)))
+			.andExpect(jsonPath("content[*].bike.chassi", Matchers.containsInAnyOrder("NPLUS1A", "NPLUS1B")))
+			// versao agregada (ETag) + alugueis com bicicleta e cliente
+			.andExpect(selects(2))
+			.andExpect(total(2));
+
+	}
+
+	@Test
+	@DisplayName("Deve avisar quando a requisicao passa do orcamento de statements")
+	public void overStatementBudgetTest() throws Exception {
+
+		// execucao
+		performAsync(MockMvcRequestBuilders.get("/api/clientes/" + client.getId() + "/rents")
+				.accept(MediaType.APPLICATION_JSON))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("content", Matchers.hasSize(1)))
+			// versao do cliente + versao agregada + cliente + alugueis com bicicleta e cliente
+			.andExpect(selects(4));
+
+		// verificacao
+		assertThat(registry.get("bikeapi.http.statements.over.budget")
+				.tag("uri", "/api/clientes/{id}/rents")
+				.counter().count()).isEqualTo(1);
+
+	}
+
+	/*
+	 * As listagens rodam no executor de leitura; os statements de la contam
+	 * para a requisicao e sao registrados no despacho assincrono
+	 */
+	private ResultActions performAsync(RequestBuilder request) throws Exception {
+		MvcResult result = mvc.perform(request).andExpect(request().asyncStarted()).andReturn();
+		return mvc.perform(asyncDispatch(result));
+	}
+
+	private Rent createRent(String chassi, String cpf) {
+		Bike bike = bikeRepository.save(BikeRepositoryTest.createNewBike(chassi));
+		Client client = clientRepository.save(ClientRepositoryTest.createNewClient(cpf));
+		LocalDateTime now = LocalDateTime.now();
+		return rentRepository.save(Rent.builder()
+						.bike(bike)
+						.client(client)
+						.rentDate(now)
+						.expectedReturnDate(now.plusHours(4))
+						.rentHoursDuration(4)
+						.customerEmail("customer@mail.com")
+						.build());
+	}
+
+}
@@ -0,0 +1,75 @@
+package br.com.bikeapi.api.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest
+public class JdbcRateLimitStoreTest {
+
+	private static final String KEY = "rent-create:cpf:38983124024";
+
+	@Autowired
+	private DataSource dataSource;
+
+	private final AtomicLong now = new AtomicLong(TimeUnit.DAYS.toNanos(1));
+
+	@Test
+	@DisplayName("Deve compartilhar o balde entre as instancias pela base")
+	public void sharedBucketTest() {
+
+		// cenario
+		Bandwidth bandwidth = new Bandwidth(2, Duration.ofMinutes(1));
+		JdbcRateLimitStore node1 = new JdbcRateLimitStore(dataSource, now::get);
+		JdbcRateLimitStore node2 = new JdbcRateLimitStore(dataSource, now::get);
+
+		// execucao
+		long first = node1.tryConsume(KEY, bandwidth);
+		long second = node2.tryConsume(KEY, bandwidth);
+		long third = node1.tryConsume(KEY, bandwidth);
+
+		// verificacao
+		assertThat(first).isZero();
+		assertThat(second).isZero();
+		assertThat(third).isEqualTo(TimeUnit.SECONDS.toNanos(30));
+		assertThat(node2.tryConsume("rent-create:cpf:95378866030", bandwidth)).isZero();
+
+	}
+
+	@Test
+	@DisplayName("Deve apagar apenas os baldes que ja estao cheios")
+	public void purgeFullBucketsTest() {
+
+		// cenario
+		Bandwidth bandwidth = new Bandwidth(2, Duration.ofMinutes(1));
+		JdbcRateLimitStore store = new JdbcRateLimitStore(dataSource, now::get);
+		store.tryConsume(KEY, bandwidth);
+		now.addAndGet(TimeUnit.SECONDS.toNanos(20));
+		store.tryConsume("rent-return:cpf:38983124024", bandwidth);
+
+		// execucao
+		now.addAndGet(TimeUnit.SECONDS.toNanos(15));
+		store.purge();
+
+		// verificacao
+		assertThat(new JdbcTemplate(dataSource).queryForList("select bucket_key from rate_limit_bucket", String.class))
+				.containsExactly("rent-return:cpf:38983124024");
+
+	}
+
+}
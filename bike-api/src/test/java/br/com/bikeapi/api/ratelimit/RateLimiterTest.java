@@ -0,0 +1,87 @@
+package br.com.bikeapi.api.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import br.com.bikeapi.config.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class RateLimiterTest {
+
+	private final AtomicLong now = new AtomicLong();
+
+	@Test
+	@DisplayName("Deve aceitar a rajada ate a capacidade e recusar a seguinte com o tempo ate o proximo token")
+	public void burstThenRejectTest() {
+
+		// cenario
+		RateLimiter limiter = newLimiter(null, new RateLimitProperties.Limit(3, Duration.ofMinutes(1)));
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		limiter.bindTo(registry);
+		MockHttpServletRequest request = new MockHttpServletRequest();
+
+		// execucao
+		for (int i = 0; i < 3; i++) {
+			limiter.acquire(RateLimiter.RENT_CREATE, request, "389.831.240-24");
+		}
+		RateLimitExceededException rejected = catchThrowableOfType(
+				() -> limiter.acquire(RateLimiter.RENT_CREATE, request, "38983124024"),
+				RateLimitExceededException.class);
+
+		// verificacao
+		assertThat(rejected).isNotNull();
+		assertThat(rejected.getRetryAfterSeconds()).isEqualTo(20);
+		assertThat(registry.get("bikeapi.ratelimit.rejected").tag("endpoint", RateLimiter.RENT_CREATE)
+				.tag("key", "cpf").functionCounter().count()).isEqualTo(1);
+		// outro CPF e outro endpoint tem os seus proprios baldes
+		limiter.acquire(RateLimiter.RENT_CREATE, request, "953.788.660-30");
+		limiter.acquire(RateLimiter.RENT_RETURN, request, "389.831.240-24");
+
+	}
+
+	@Test
+	@DisplayName("Deve devolver os tokens ao balde com o passar do tempo")
+	public void refillTest() {
+
+		// cenario
+		RateLimiter limiter = newLimiter(new RateLimitProperties.Limit(2, Duration.ofSeconds(10)), null);
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader("X-Api-Key", "kiosk-1");
+		limiter.acquire(RateLimiter.RENT_CREATE, request, null);
+		limiter.acquire(RateLimiter.RENT_CREATE, request, null);
+
+		// execucao
+		now.addAndGet(TimeUnit.SECONDS.toNanos(4));
+		RateLimitExceededException early = catchThrowableOfType(
+				() -> limiter.acquire(RateLimiter.RENT_CREATE, request, null), RateLimitExceededException.class);
+		now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+		limiter.acquire(RateLimiter.RENT_CREATE, request, null);
+
+		// verificacao
+		assertThat(early.getRetryAfterSeconds()).isEqualTo(1);
+		MockHttpServletRequest other = new MockHttpServletRequest();
+		other.addHeader("X-Api-Key", "kiosk-2");
+		limiter.acquire(RateLimiter.RENT_CREATE, other, null);
+
+	}
+
+	private RateLimiter newLimiter(RateLimitProperties.Limit apiKey, RateLimitProperties.Limit cpf) {
+		RateLimitProperties.Endpoint endpoint = new RateLimitProperties.Endpoint();
+		endpoint.setApiKey(apiKey);
+		endpoint.setCpf(cpf);
+		RateLimitProperties properties = new RateLimitProperties();
+		properties.getEndpoints().put(RateLimiter.RENT_CREATE, endpoint);
+		properties.getEndpoints().put(RateLimiter.RENT_RETURN, endpoint);
+		LocalRateLimitStore store = new LocalRateLimitStore(100, Duration.ofMinutes(1), now::get);
+		return new RateLimiter(properties.getEndpoints(), "X-Api-Key", store);
+	}
+
+}
@@ -0,0 +1,62 @@
+package br.com.bikeapi.api.validation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Set;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import javax.validation.Validator;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import br.com.bikeapi.api.dto.BikeDTO;
+
+public class ChassiValidatorTest {
+
+	private static final Validator VALIDATOR = Validation.buildDefaultValidatorFactory().getValidator();
+
+	@Test
+	@DisplayName("Deve aceitar chassis com letras, digitos e hifen")
+	public void validChassiTest() {
+
+		assertThat(ChassiValidator.isValid("123abc", 6, 255)).isTrue();
+		assertThat(ChassiValidator.isValid("NEW-BIKE", 6, 255)).isTrue();
+		assertThat(ChassiValidator.isValid("BK000000042", 6, 255)).isTrue();
+
+	}
+
+	@Test
+	@DisplayName("Deve rejeitar chassis curtos, longos ou com outros caracteres")
+	public void invalidChassiTest() {
+
+		assertThat(ChassiValidator.isValid("12345", 6, 255)).isFalse();
+		assertThat(ChassiValidator.isValid("1234567", 6, 6)).isFalse();
+		assertThat(ChassiValidator.isValid("123 456", 6, 255)).isFalse();
+		assertThat(ChassiValidator.isValid("123.456", 6, 255)).isFalse();
+		assertThat(ChassiValidator.isValid("ÇA1234", 6, 255)).isFalse();
+
+	}
+
+	@Test
+	@DisplayName("Deve validar o chassi do BikeDTO pela anotacao")
+	public void bikeDtoChassiTest() {
+
+		// cenario
+		BikeDTO dto = BikeDTO.builder().chassi("123 45").model("Caloi Volcano").color("preta")
+				.companyProperty(true).build();
+
+		// execucao
+		Set<ConstraintViolation<BikeDTO>> violations = VALIDATOR.validate(dto);
+
+		// verificacao
+		assertThat(violations).hasSize(1);
+		ConstraintViolation<BikeDTO> violation = violations.iterator().next();
+		assertThat(violation.getPropertyPath().toString()).isEqualTo("chassi");
+		assertThat(violation.getMessage())
+				.isEqualTo("deve ter entre 6 e 255 caracteres, apenas letras, digitos ou hifen");
+
+	}
+
+}
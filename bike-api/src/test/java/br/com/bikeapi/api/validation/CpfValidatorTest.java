@@ -0,0 +1,122 @@
+package br.com.bikeapi.api.validation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import javax.validation.Validation;
+import javax.validation.Validator;
+
+import org.hibernate.validator.constraints.br.CPF;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import br.com.bikeapi.datagen.SyntheticDataGenerator;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+public class CpfValidatorTest {
+
+	private static final Validator VALIDATOR = Validation.buildDefaultValidatorFactory().getValidator();
+
+	@Test
+	@DisplayName("Deve aceitar cpfs validos com e sem mascara")
+	public void validCpfTest() {
+
+		assertThat(CpfValidator.isValid("953.788.660-30")).isTrue();
+		assertThat(CpfValidator.isValid("95378866030")).isTrue();
+		assertThat(CpfValidator.isValid("953788660-30")).isTrue();
+
+	}
+
+	@Test
+	@DisplayName("Deve rejeitar cpfs com digito verificador, mascara ou digitos repetidos invalidos")
+	public void invalidCpfTest() {
+
+		assertThat(CpfValidator.isValid("953.788.660-31")).isFalse();
+		assertThat(CpfValidator.isValid("953.788.660.30")).isFalse();
+		assertThat(CpfValidator.isValid("953.788660-30")).isFalse();
+		assertThat(CpfValidator.isValid("953788.660-30")).isFalse();
+		assertThat(CpfValidator.isValid("953..788660-30")).isFalse();
+		assertThat(CpfValidator.isValid("953788660--30")).isFalse();
+		assertThat(CpfValidator.isValid("9537886603-0")).isFalse();
+		assertThat(CpfValidator.isValid("111.111.111-11")).isFalse();
+		assertThat(CpfValidator.isValid("00000000000")).isFalse();
+		assertThat(CpfValidator.isValid("")).isFalse();
+
+	}
+
+	@Test
+	@DisplayName("Deve concordar com o @CPF do Hibernate Validator, exceto na mascara com um so ponto")
+	public void sameAsHibernateCpfTest() {
+
+		// cenario
+		Random random = new Random(42);
+		List<String> candidates = new ArrayList<>();
+		for (int i = 0; i < 2000; i++) {
+			String cpf = SyntheticDataGenerator.cpf(3, i);
+			candidates.add(cpf);
+			candidates.add(mask(cpf, true, true));
+			candidates.add(mask(cpf, false, false));
+			candidates.add(mutate(mask(cpf, true, true), random));
+			candidates.add(mutate(cpf, random));
+		}
+		for (char digit = '0'; digit <= '9'; digit++) {
+			candidates.add(new String(new char[11]).replace('\0', digit));
+		}
+
+		// execucao e verificacao
+		for (String candidate : candidates) {
+			if (candidate.indexOf('.') >= 0 && candidate.indexOf('.') == candidate.lastIndexOf('.')) {
+				/*
+				 * O @CPF confere os digitos dessa mascara nas posicoes erradas
+				 * e so a aceita por coincidencia
+				 */
+				assertThat(CpfValidator.isValid(candidate)).as(candidate).isFalse();
+				continue;
+			}
+			boolean hibernate = VALIDATOR.validate(new HibernateCpf(candidate)).isEmpty();
+			assertThat(CpfValidator.isValid(candidate)).as(candidate).isEqualTo(hibernate);
+		}
+
+	}
+
+	private static String mask(String cpf, boolean firstDot, boolean secondDot) {
+		return cpf.substring(0, 3) + (firstDot ? "." : "") + cpf.substring(3, 6) + (secondDot ? "." : "")
+				+ cpf.substring(6, 9) + "-" + cpf.substring(9);
+	}
+
+	private static String mutate(String cpf, Random random) {
+		StringBuilder mutated = new StringBuilder(cpf);
+		int position = random.nextInt(cpf.length());
+		switch (random.nextInt(4)) {
+		case 0:
+			mutated.setCharAt(position, "0123456789.-x".charAt(random.nextInt(13)));
+			break;
+		case 1:
+			mutated.deleteCharAt(position);
+			break;
+		case 2:
+			mutated.insert(position, ".-0".charAt(random.nextInt(3)));
+			break;
+		default:
+			char swapped = mutated.charAt(position);
+			int other = random.nextInt(cpf.length());
+			mutated.setCharAt(position, mutated.charAt(other));
+			mutated.setCharAt(other, swapped);
+		}
+		return mutated.toString();
+	}
+
+	@Data
+	@AllArgsConstructor
+	private static class HibernateCpf {
+
+		@CPF
+		private String cpf;
+
+	}
+
+}
@@ -0,0 +1,129 @@
+package br.com.bikeapi.datagen;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.validation.Validation;
+import javax.validation.Validator;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import br.com.bikeapi.api.dto.ReturnedBikeDTO;
+import br.com.bikeapi.config.DataGenProperties;
+import br.com.bikeapi.model.entity.Bike;
+import br.com.bikeapi.model.repository.BikeRepository;
+import br.com.bikeapi.model.repository.BikeRepositoryTest;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.show_sql=false")
+@Import(SyntheticDataGenerator.class)
+public class SyntheticDataGeneratorTest {
+
+	private static final LocalDateTime REFERENCE = LocalDateTime.of(2021, 1, 15, 12, 0);
+
+	@Autowired
+	SyntheticDataGenerator generator;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	BikeRepository bikeRepository;
+
+	@Test
+	@DisplayName("Deve inserir o volume pedido com alugueis em aberto unicos por bicicleta e por cliente")
+	public void generateTest() {
+
+		// cenario
+		DataGenProperties settings = new DataGenProperties();
+		settings.setBikes(300);
+		settings.setClients(500);
+		settings.setRents(5000);
+		settings.setActiveRatio(0.05);
+		settings.setLateRatio(0.2);
+		settings.setBatchSize(128);
+		settings.setReferenceDate(REFERENCE);
+
+		// execucao
+		GenerationReport report = generator.generate(settings);
+
+		// verificacao
+		assertThat(report.getRows()).isEqualTo(5800);
+		assertThat(count("select count(*) from bike")).isEqualTo(300);
+		assertThat(count("select count(*) from client")).isEqualTo(500);
+		assertThat(count("select count(*) from rent")).isEqualTo(5000);
+		assertThat(count("select count(*) from rent where returned_date_time is null")).isEqualTo(250);
+		assertThat(count("select count(distinct id_bike) from rent where returned_date_time is null")).isEqualTo(250);
+		assertThat(count("select count(distinct id_client) from rent where returned_date_time is null"))
+			.isEqualTo(250);
+		assertThat(count("select count(*) from rent where returned_date_time > expected_return_date"
+				+ " or (returned_date_time is null and expected_return_date < ?)", REFERENCE))
+			.isEqualTo(report.getLateRents()).isBetween(800L, 1200L);
+		assertThat(count("select count(*) from rent where rent_date > ? or returned_date_time > ?", REFERENCE,
+				REFERENCE)).isZero();
+
+	}
+
+	@Test
+	@DisplayName("Deve continuar gerando ids validos para os cadastros feitos pelo Hibernate depois da carga")
+	public void saveAfterGenerateTest() {
+
+		// cenario
+		DataGenProperties settings = new DataGenProperties();
+		settings.setBikes(120);
+		settings.setClients(0);
+		settings.setRents(0);
+		generator.generate(settings);
+
+		// execucao
+		Bike bike = bikeRepository.saveAndFlush(BikeRepositoryTest.createNewBike("NEW-BIKE"));
+
+		// verificacao
+		assertThat(bike.getId()).isNotNull();
+		assertThat(count("select count(*) from bike")).isEqualTo(121);
+
+	}
+
+	@Test
+	@DisplayName("Deve gerar chassis e cpfs validos, unicos e reproduziveis pela semente")
+	public void keysTest() {
+
+		// cenario
+		Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+		Set<String> chassis = new HashSet<>();
+		Set<String> cpfs = new HashSet<>();
+
+		// execucao
+		for (int i = 0; i < 10_000; i++) {
+			chassis.add(SyntheticDataGenerator.chassi(42, i));
+			cpfs.add(SyntheticDataGenerator.cpf(42, i));
+		}
+
+		// verificacao
+		assertThat(chassis).hasSize(10_000);
+		assertThat(cpfs).hasSize(10_000);
+		assertThat(cpfs).allSatisfy(cpf -> assertThat(validator
+				.validate(ReturnedBikeDTO.builder().returned(true).clientCpf(cpf).build())).isEmpty());
+		assertThat(SyntheticDataGenerator.cpf(42, 7)).isEqualTo(SyntheticDataGenerator.cpf(42, 7))
+			.isNotEqualTo(SyntheticDataGenerator.cpf(43, 7));
+		assertThat(SyntheticDataGenerator.chassi(42, 7)).isNotEqualTo(SyntheticDataGenerator.chassi(43, 7));
+
+	}
+
+	private long count(String sql, Object... args) {
+		return jdbcTemplate.queryForObject(sql, Long.class, args);
+	}
+
+}
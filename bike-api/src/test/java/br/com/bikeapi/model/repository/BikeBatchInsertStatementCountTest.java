@@ -0,0 +1,72 @@
+package br.com.bikeapi.model.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import br.com.bikeapi.model.entity.Bike;
+
+/**
+ * Confere que a insercao em massa de bicicletas sai em lotes JDBC: com ids de
+ * sequence (allocationSize 50) e {@code hibernate.jdbc.batch_size=50}, cada
+ * 50 linhas custam um statement de insert e uma ida a sequence. Com
+ * GenerationType.IDENTITY seria um statement por linha. O teste conta
+ * statements, nao mede vazao; no H2 os itens do lote sao executados um a um.
+ */
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest(properties = {
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"spring.jpa.properties.hibernate.show_sql=false" })
+public class BikeBatchInsertStatementCountTest {
+
+	private static final int ROWS = 5000;
+
+	private static final int BATCH_SIZE = 50;
+
+	@Autowired
+	private BikeRepository repository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Test
+	@DisplayName("Deve inserir bicicletas em lotes JDBC, com um statement por lote")
+	public void batchInsertWithSequenceIdsTest() {
+
+		// cenario
+		Statistics statistics = entityManager.getEntityManagerFactory()
+				.unwrap(SessionFactory.class).getStatistics();
+		List<Bike> bikes = new ArrayList<>(ROWS);
+		for (int i = 0; i < ROWS; i++) {
+			bikes.add(BikeRepositoryTest.createNewBike("SEQ" + i));
+		}
+		statistics.clear();
+
+		// execucao
+		repository.saveAll(bikes);
+		entityManager.flush();
+		entityManager.clear();
+
+		// verificacao
+		assertThat(statistics.getEntityInsertCount()).isEqualTo(ROWS);
+		// um insert por lote e uma chamada a sequence a cada 50 ids
+		assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2 * ROWS / BATCH_SIZE + 1);
+		assertThat(repository.count()).isEqualTo(ROWS);
+
+	}
+
+}
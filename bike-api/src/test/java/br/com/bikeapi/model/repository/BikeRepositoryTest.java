@@ -2,6 +2,8 @@ package br.com.bikeapi.model.repository;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
 import org.junit.jupiter.api.DisplayName;
@@ -10,10 +12,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import br.com.bikeapi.model.entity.Bike;
+import br.com.bikeapi.model.entity.BikeStatus;
 
 @ExtendWith(SpringExtension.class)
 @ActiveProfiles("test")
@@ -117,4 +124,67 @@ public class BikeRepositoryTest {
 		
 	}
 		
+	@Test
+	@DisplayName("Deve retornar a versao da bicicleta e incrementa-la a cada atualizacao")
+	public void findVersionByIdTest() {
+		
+		// cenario
+		Bike bike = entityManager.persistAndFlush(createNewBike("123456"));
+		EntityVersion before = repository.findVersionById(bike.getId()).get();
+		
+		// execucao
+		bike.setColor("azul");
+		entityManager.flush();
+		EntityVersion after = repository.findVersionById(bike.getId()).get();
+		
+		// verificacao
+		assertThat(before.getLastModifiedDate()).isNotNull();
+		assertThat(after.getVersion()).isEqualTo(before.getVersion() + 1);
+		assertThat(repository.findVersionById(bike.getId() + 1)).isEmpty();
+		
+	}
+
+	@Test
+	@DisplayName("Deve inserir bicicletas em lote e informar quais chassis ja existem")
+	public void insertAllAndFindExistingChassisTest() {
+		
+		// cenario
+		List<Bike> bikes = Arrays.asList(createNewBike("AAA111"), createNewBike("BBB222"));
+		
+		// execucao
+		repository.insertAll(bikes);
+		List<String> existing = repository.findExistingChassis(Arrays.asList("AAA111", "BBB222", "CCC333"));
+		
+		// verificacao
+		assertThat(bikes).allMatch(bike -> bike.getId() != null);
+		assertThat(entityManager.getEntityManager().contains(bikes.get(0))).isFalse();
+		assertThat(existing).containsExactlyInAnyOrder("AAA111", "BBB222");
+		
+	}
+
+	@Test
+	@DisplayName("Deve gravar a bicicleta nova como disponivel e filtrar as disponiveis pelo status")
+	public void findAvailableByStatusTest() {
+		
+		// cenario
+		Bike available = entityManager.persist(createNewBike("AAA111"));
+		Bike rented = entityManager.persist(createNewBike("BBB222"));
+		Bike otherColor = createNewBike("CCC333");
+		otherColor.setColor("azul");
+		entityManager.persist(otherColor);
+		
+		// execucao
+		Bike locked = repository.findByIdForUpdate(rented.getId()).get();
+		locked.setStatus(BikeStatus.RENTED);
+		entityManager.flush();
+		Bike probe = Bike.builder().status(BikeStatus.AVAILABLE).model("Caloi Volcano").color("preta").build();
+		Page<Bike> result = repository.findAll(Example.of(probe, ExampleMatcher.matching().withIgnoreNullValues()),
+				PageRequest.of(0, 10));
+		
+		// verificacao
+		assertThat(available.getStatus()).isEqualTo(BikeStatus.AVAILABLE);
+		assertThat(result.getContent()).extracting(Bike::getChassi).containsExactly("AAA111");
+		
+	}
+
 }
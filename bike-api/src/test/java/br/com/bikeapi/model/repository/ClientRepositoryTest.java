@@ -2,6 +2,8 @@ package br.com.bikeapi.model.repository;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
 import org.junit.jupiter.api.DisplayName;
@@ -113,4 +115,22 @@ public class ClientRepositoryTest {
 	
 
 
+	@Test
+	@DisplayName("Deve inserir clientes em lote e informar quais cpfs ja existem")
+	public void insertAllAndFindExistingCpfsTest() {
+		
+		// cenario
+		List<Client> clients = Arrays.asList(createNewClient("953.788.660-30"), createNewClient("123.456.789-09"));
+		
+		// execucao
+		repository.insertAll(clients);
+		List<String> existing = repository.findExistingCpfs(
+				Arrays.asList("953.788.660-30", "123.456.789-09", "111.444.777-35"));
+		
+		// verificacao
+		assertThat(clients).allMatch(client -> client.getId() != null);
+		assertThat(existing).containsExactlyInAnyOrder("953.788.660-30", "123.456.789-09");
+		
+	}
+
 }
@@ -3,6 +3,8 @@ package br.com.bikeapi.model.repository;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.junit.jupiter.api.DisplayName;
@@ -17,6 +19,7 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import br.com.bikeapi.model.entity.Bike;
+import br.com.bikeapi.model.entity.BikeStatus;
 import br.com.bikeapi.model.entity.Client;
 import br.com.bikeapi.model.entity.Rent;
 
@@ -28,6 +31,12 @@ public class RentRepositoryTest {
 	@Autowired
 	RentRepository repository;
 	
+	@Autowired
+	BikeRepository bikeRepository;
+	
+	@Autowired
+	ClientRepository clientRepository;
+	
 	@Autowired
 	TestEntityManager entityManager;
 	
@@ -63,6 +72,53 @@ public class RentRepositoryTest {
 		
 	}
 	
+	@Test
+	@DisplayName("Deve preencher o status da bicicleta sem status pelos alugueis em aberto")
+	void backfillBikeStatusTest() {
+		
+		// cenario
+		Rent rent = createAndPersistRent(LocalDateTime.now());
+		Bike idle = entityManager.persist(BikeRepositoryTest.createNewBike("456def"));
+		entityManager.flush();
+		entityManager.getEntityManager().createNativeQuery("update bike set status = null").executeUpdate();
+		entityManager.clear();
+		
+		// execucao
+		boolean pending = bikeRepository.existsByStatusIsNull();
+		int updated = bikeRepository.backfillStatus();
+		entityManager.clear();
+		
+		// verificacao
+		assertThat(pending).isTrue();
+		assertThat(bikeRepository.existsByStatusIsNull()).isFalse();
+		assertThat(updated).isEqualTo(2);
+		assertThat(entityManager.find(Bike.class, rent.getBike().getId()).getStatus()).isEqualTo(BikeStatus.RENTED);
+		assertThat(entityManager.find(Bike.class, idle.getId()).getStatus()).isEqualTo(BikeStatus.AVAILABLE);
+		assertThat(bikeRepository.backfillStatus()).isZero();
+		
+	}
+	
+	@Test
+	@DisplayName("Deve apontar o cliente sem aluguel em andamento gravado para o seu aluguel em aberto")
+	void backfillClientActiveRentTest() {
+		
+		// cenario
+		Rent rent = createAndPersistRent(LocalDateTime.now());
+		entityManager.flush();
+		entityManager.clear();
+		
+		// execucao
+		int updated = clientRepository.backfillActiveRent();
+		entityManager.clear();
+		
+		// verificacao
+		assertThat(updated).isEqualTo(1);
+		assertThat(entityManager.find(Client.class, rent.getClient().getId()).getActiveRentId())
+				.isEqualTo(rent.getId());
+		assertThat(clientRepository.backfillActiveRent()).isZero();
+		
+	}
+	
 	public Rent createAndPersistRent(LocalDateTime rentDate) {
 		Bike bike = BikeRepositoryTest.createNewBike("123abc");
 		entityManager.persist(bike);
@@ -116,6 +172,47 @@ public class RentRepositoryTest {
 		
 	}
 	
+	@Test
+	@DisplayName("Deve reler o aluguel ja carregado ao trava-lo, vendo uma devolucao gravada por outra transacao")
+	void findByIdForUpdateTest() {
+		
+		// cenario
+		Rent rent = createAndPersistRent(LocalDateTime.now());
+		entityManager.flush();
+		entityManager.getEntityManager()
+				.createNativeQuery("update rent set returned_date_time = current_timestamp, version = version + 1")
+				.executeUpdate();
+		
+		// execucao
+		Rent locked = repository.findByIdForUpdate(rent.getId()).get();
+		
+		// verificacao
+		assertThat(locked).isSameAs(rent);
+		assertThat(locked.getReturnedDateTime()).isNotNull();
+		assertThat(repository.findByIdForUpdate(-1l)).isEmpty();
+		
+	}
+	
+	@Test
+	@DisplayName("Deve marcar o atraso como publicado sem alterar a versao do aluguel")
+	void markOverdueNotifiedTest() {
+		
+		// cenario
+		Rent rent = createAndPersistRent(LocalDateTime.now().minusHours(24 * 5));
+		Long version = rent.getVersion();
+		
+		// execucao
+		int marked = repository.markOverdueNotified(Arrays.asList(rent.getId()));
+		entityManager.clear();
+		
+		// verificacao
+		assertThat(marked).isEqualTo(1);
+		Rent result = entityManager.find(Rent.class, rent.getId());
+		assertThat(result.getOverdueNotified()).isTrue();
+		assertThat(result.getVersion()).isEqualTo(version);
+		
+	}
+	
 	@Test
 	@DisplayName("Deve buscar o aluguel pelo chassi da bicicleta ou pelo cpf do cliente")
 	void findByBikeOrClientTest() {
@@ -135,4 +232,59 @@ public class RentRepositoryTest {
 		
 	}
 	
+	@Test
+	@DisplayName("Deve alterar a versao agregada da listagem quando a bicicleta do aluguel muda")
+	void findListingVersionTest() throws InterruptedException {
+		
+		// cenario
+		Rent rent = createAndPersistRent(LocalDateTime.now());
+		entityManager.flush();
+		ListingVersion before = repository.findListingVersionByBikeOrClient("123abc", null);
+		
+		// execucao
+		// no JDK 8 o relogio tem resolucao de milissegundos
+		Thread.sleep(5);
+		rent.getBike().setColor("azul");
+		entityManager.flush();
+		ListingVersion after = repository.findListingVersionByBikeOrClient("123abc", null);
+		ListingVersion empty = repository.findListingVersionByClientId(rent.getClient().getId() + 1);
+		
+		// verificacao
+		assertThat(before.getCount()).isEqualTo(1);
+		assertThat(after.getCount()).isEqualTo(1);
+		assertThat(after.getBikeModifiedDate()).isAfter(before.getBikeModifiedDate());
+		assertThat(after.getRentModifiedDate()).isEqualTo(before.getRentModifiedDate());
+		assertThat(repository.findListingVersionByClientId(rent.getClient().getId()).getBikeModifiedDate())
+				.isEqualTo(after.getBikeModifiedDate());
+		assertThat(empty.getCount()).isZero();
+		
+	}
+
+	@Test
+	@DisplayName("Deve percorrer o historico de alugueis com a bicicleta e o cliente, filtrando pela data")
+	void streamHistoryTest() {
+		
+		// cenario
+		Rent rent = createAndPersistRent(LocalDateTime.now().minusDays(5));
+		entityManager.flush();
+		List<RentHistoryRow> rows = new ArrayList<>();
+		
+		// execucao
+		long all = repository.streamHistory(null, null, rows::add);
+		long recent = repository.streamHistory(LocalDateTime.now().minusDays(1), null, row -> {});
+		long older = repository.streamHistory(LocalDateTime.now().minusDays(6), LocalDateTime.now().minusDays(4),
+				row -> {});
+		
+		// verificacao
+		assertThat(all).isEqualTo(1);
+		assertThat(rows).hasSize(1);
+		assertThat(rows.get(0).getId()).isEqualTo(rent.getId());
+		assertThat(rows.get(0).getChassi()).isEqualTo("123abc");
+		assertThat(rows.get(0).getCpf()).isEqualTo("389.831.240-24");
+		assertThat(rows.get(0).getReturnedDateTime()).isNull();
+		assertThat(recent).isZero();
+		assertThat(older).isEqualTo(1);
+		
+	}
+
 }
@@ -0,0 +1,119 @@
+package br.com.bikeapi.monitoring;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Mede os bytes alocados pela thread atual em cada operacao, pelo contador
+ * de alocacao do {@code com.sun.management.ThreadMXBean}, por exemplo:
+ * 
+ * <pre>
+ * AllocationMeter meter = new AllocationMeter();
+ * for (int i = 0; i &lt; 200; i++) {
+ * 	meter.measure(() -&gt; mvc.perform(request));
+ * }
+ * assertThat(meter.getBytesPerOperation()).isLessThanOrEqualTo(budget);
+ * </pre>
+ * 
+ * <p>Enxerga o que a propria thread aloca e, se informados, o que alocam as
+ * threads cujo nome comeca com um dos prefixos (por exemplo os executores dos
+ * controllers, {@code web-read-}); a operacao deve terminar dentro de
+ * {@link #measure(Callable)}, e nada mais deve rodar nessas threads ao mesmo
+ * tempo. O valor e uma media e inclui objetos que o JIT eliminaria depois de
+ * aquecido, por isso {@link #reset()} deve ser chamado apos um
+ * aquecimento.</p>
+ */
+public class AllocationMeter {
+
+	private static final com.sun.management.ThreadMXBean THREADS = threads();
+
+	private final String[] threadPrefixes;
+
+	private long bytes;
+
+	private long operations;
+
+	/**
+	 * @param threadPrefixes prefixos dos nomes das outras threads que a
+	 *                       operacao usa
+	 */
+	public AllocationMeter(String... threadPrefixes) {
+		this.threadPrefixes = threadPrefixes;
+	}
+
+	private static com.sun.management.ThreadMXBean threads() {
+		java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		if (threads instanceof com.sun.management.ThreadMXBean
+				&& ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported()) {
+			com.sun.management.ThreadMXBean allocation = (com.sun.management.ThreadMXBean) threads;
+			allocation.setThreadAllocatedMemoryEnabled(true);
+			return allocation;
+		}
+		return null;
+	}
+
+	/**
+	 * @return se a JVM expoe o contador de alocacao por thread
+	 */
+	public static boolean isSupported() {
+		return THREADS != null;
+	}
+
+	public <T> T measure(Callable<T> operation) throws Exception {
+		long threadId = Thread.currentThread().getId();
+		Map<Long, Long> othersBefore = otherThreadsAllocatedBytes();
+		long before = THREADS.getThreadAllocatedBytes(threadId);
+		try {
+			return operation.call();
+		} finally {
+			bytes += THREADS.getThreadAllocatedBytes(threadId) - before;
+			// threads criadas durante a operacao partem de zero
+			for (Map.Entry<Long, Long> other : otherThreadsAllocatedBytes().entrySet()) {
+				bytes += other.getValue() - othersBefore.getOrDefault(other.getKey(), 0L);
+			}
+			operations++;
+		}
+	}
+
+	private Map<Long, Long> otherThreadsAllocatedBytes() {
+		Map<Long, Long> allocated = new HashMap<>();
+		if (threadPrefixes.length == 0) {
+			return allocated;
+		}
+		for (ThreadInfo thread : THREADS.getThreadInfo(THREADS.getAllThreadIds())) {
+			if (thread != null && hasPrefix(thread.getThreadName())) {
+				long threadBytes = THREADS.getThreadAllocatedBytes(thread.getThreadId());
+				if (threadBytes >= 0) {
+					allocated.put(thread.getThreadId(), threadBytes);
+				}
+			}
+		}
+		return allocated;
+	}
+
+	private boolean hasPrefix(String threadName) {
+		for (String prefix : threadPrefixes) {
+			if (threadName.startsWith(prefix)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public void reset() {
+		bytes = 0;
+		operations = 0;
+	}
+
+	public long getBytesPerOperation() {
+		return operations == 0 ? 0 : bytes / operations;
+	}
+
+	public long getOperations() {
+		return operations;
+	}
+
+}
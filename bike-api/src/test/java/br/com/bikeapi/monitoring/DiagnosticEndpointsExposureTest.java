@@ -0,0 +1,43 @@
+package br.com.bikeapi.monitoring;
+
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+/*
+ * Mesma configuracao de InvocationMetricsAspectTest, para reaproveitar o
+ * contexto da aplicacao entre as duas classes
+ */
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest
+@AutoConfigureMetrics
+@AutoConfigureMockMvc
+public class DiagnosticEndpointsExposureTest {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Test
+	@DisplayName("Nao deve expor por HTTP os endpoints de diagnostico fora do perfil de desenvolvimento")
+	public void diagnosticEndpointsNotExposedTest() throws Exception {
+
+		// execucao / verificacao
+		for (String endpoint : new String[] { "jfr", "sqlfingerprints", "secondlevelcache" }) {
+			mvc.perform(MockMvcRequestBuilders.get("/actuator/" + endpoint))
+				.andExpect(status().isNotFound());
+		}
+
+	}
+
+}
@@ -0,0 +1,102 @@
+package br.com.bikeapi.monitoring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.assertj.core.api.Assertions;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import br.com.bikeapi.exception.BusinessException;
+import br.com.bikeapi.model.repository.BikeRepository;
+import br.com.bikeapi.model.repository.BikeRepositoryTest;
+import br.com.bikeapi.service.BikeService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest
+@AutoConfigureMetrics
+@AutoConfigureMockMvc
+public class InvocationMetricsAspectTest {
+
+	@Autowired
+	private BikeService service;
+
+	@Autowired
+	private BikeRepository repository;
+
+	@Autowired
+	private MeterRegistry registry;
+
+	@Autowired
+	private MockMvc mvc;
+
+	@AfterEach
+	public void tearDown() {
+		repository.deleteAll();
+	}
+
+	@Test
+	@DisplayName("Deve registrar o tempo das chamadas ao servico e ao repositorio por metodo e resultado")
+	public void timeServiceAndRepositoryCallsTest() {
+
+		// cenario
+		service.save(BikeRepositoryTest.createNewBike("METRIC1"));
+
+		// execucao
+		Throwable exception = Assertions.catchThrowable(
+				() -> service.save(BikeRepositoryTest.createNewBike("METRIC1")));
+
+		// verificacao
+		assertThat(exception).isInstanceOf(BusinessException.class);
+		assertThat(timer(InvocationMetricsAspect.SERVICE_METRIC, "BikeService", "save", "SUCCESS").count())
+				.isEqualTo(1);
+		assertThat(timer(InvocationMetricsAspect.SERVICE_METRIC, "BikeService", "save", "BUSINESS_ERROR").count())
+				.isEqualTo(1);
+		assertThat(timer(InvocationMetricsAspect.REPOSITORY_METRIC, "BikeRepository", "save", "SUCCESS").count())
+				.isEqualTo(1);
+		assertThat(timer(InvocationMetricsAspect.REPOSITORY_METRIC, "BikeRepository", "existsByChassi", "SUCCESS")
+				.count()).isGreaterThanOrEqualTo(1);
+
+	}
+
+	@Test
+	@DisplayName("Deve expor os histogramas no endpoint de scrape do Prometheus")
+	public void prometheusScrapeTest() throws Exception {
+
+		// cenario
+		service.getById(1l);
+
+		// execucao / verificacao
+		mvc.perform(MockMvcRequestBuilders.get("/actuator/prometheus"))
+			.andExpect(status().isOk())
+			.andExpect(content().string(Matchers.containsString(
+					"bikeapi_service_seconds_bucket{class=\"BikeService\",exception=\"none\",method=\"getById\"")))
+			.andExpect(content().string(Matchers.containsString(
+					"bikeapi_repository_seconds_count{class=\"BikeRepository\",exception=\"none\",method=\"findById\"")));
+
+	}
+
+	private Timer timer(String metric, String type, String method, String outcome) {
+		return registry.get(metric)
+				.tag("class", type)
+				.tag("method", method)
+				.tag("outcome", outcome)
+				.timer();
+	}
+
+}
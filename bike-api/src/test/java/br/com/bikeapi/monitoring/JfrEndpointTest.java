@@ -0,0 +1,86 @@
+package br.com.bikeapi.monitoring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+
+import br.com.bikeapi.model.entity.Bike;
+import br.com.bikeapi.model.entity.Client;
+import br.com.bikeapi.model.entity.Rent;
+import br.com.bikeapi.model.repository.BikeRepository;
+import br.com.bikeapi.model.repository.ClientRepository;
+import br.com.bikeapi.model.repository.RentRepository;
+import br.com.bikeapi.monitoring.JfrEndpoint.RecordingReport;
+import br.com.bikeapi.monitoring.jfr.RentSaveEvent;
+import br.com.bikeapi.service.cache.LookupCacheTest;
+import br.com.bikeapi.service.impl.RentServiceImpl;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class JfrEndpointTest {
+
+	@TempDir
+	Path dumpDirectory;
+
+	@Test
+	@DisplayName("Deve gravar os eventos de negocio entre o inicio e o fim da gravacao")
+	public void recordRentSaveEventTest() throws Exception {
+
+		// cenario
+		JfrEndpoint endpoint = new JfrEndpoint(dumpDirectory.toString());
+		RentRepository repository = Mockito.mock(RentRepository.class);
+		BikeRepository bikeRepository = Mockito.mock(BikeRepository.class);
+		ClientRepository clientRepository = Mockito.mock(ClientRepository.class);
+		Bike bike = Bike.builder().id(2l).build();
+		Client client = Client.builder().id(3l).build();
+		Rent rent = Rent.builder()
+						.bike(bike)
+						.client(client)
+						.rentDate(LocalDateTime.now())
+						.rentHoursDuration(4)
+						.build();
+		EntityManagerFactory entityManagerFactory = Mockito.mock(EntityManagerFactory.class);
+		Mockito.when(entityManagerFactory.getCache()).thenReturn(Mockito.mock(Cache.class));
+		Mockito.when(bikeRepository.findByIdForUpdate(2l)).thenReturn(Optional.of(bike));
+		Mockito.when(clientRepository.findByIdForUpdate(3l)).thenReturn(Optional.of(client));
+		Mockito.when(repository.save(rent)).thenAnswer(invocation -> {
+			rent.setId(1l);
+			return rent;
+		});
+
+		// execucao
+		RecordingReport started = endpoint.start("default", null);
+		assertThat(endpoint.recordings()).extracting(RecordingReport::getState).containsExactly("RUNNING");
+		new RentServiceImpl(repository, bikeRepository, clientRepository, LookupCacheTest.newCache(false),
+				LookupCacheTest.newCache(false), entityManagerFactory, Mockito.mock(ApplicationEventPublisher.class))
+				.save(rent);
+		RecordingReport stopped = endpoint.stop(started.getId());
+
+		// verificacao
+		assertThat(endpoint.recordings()).isEmpty();
+		List<RecordedEvent> events = RecordingFile.readAllEvents(Paths.get(stopped.getFile())).stream()
+				.filter(event -> event.getEventType().getName().equals(RentSaveEvent.NAME))
+				.collect(Collectors.toList());
+		assertThat(events).hasSize(1);
+		assertThat(events.get(0).getLong("rentId")).isEqualTo(1);
+		assertThat(events.get(0).getLong("bikeId")).isEqualTo(2);
+		assertThat(events.get(0).getLong("clientId")).isEqualTo(3);
+		assertThat(events.get(0).getBoolean("rejected")).isFalse();
+
+	}
+
+}
@@ -0,0 +1,89 @@
+package br.com.bikeapi.monitoring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+import java.util.Optional;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import br.com.bikeapi.model.entity.Bike;
+import br.com.bikeapi.model.repository.BikeRepository;
+import br.com.bikeapi.model.repository.BikeRepositoryTest;
+import br.com.bikeapi.monitoring.SecondLevelCacheEndpoint.RegionReport;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest
+public class SecondLevelCacheEndpointTest {
+
+	@Autowired
+	private BikeRepository repository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private SecondLevelCacheEndpoint endpoint;
+
+	@AfterEach
+	public void tearDown() {
+		repository.deleteAll();
+	}
+
+	@Test
+	@DisplayName("Deve buscar a bicicleta pelo chassi a partir do cache de natural ids")
+	public void findByChassiFromNaturalIdCacheTest() {
+
+		// cenario
+		Bike bike = repository.save(BikeRepositoryTest.createNewBike("NATID1"));
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		// execucao
+		Optional<Bike> first = repository.findByChassi("NATID1");
+		Optional<Bike> second = repository.findByChassi("NATID1");
+
+		// verificacao
+		assertThat(first.get().getId()).isEqualTo(bike.getId());
+		assertThat(second.get().getId()).isEqualTo(bike.getId());
+		assertThat(statistics.getNaturalIdCacheHitCount()).isGreaterThan(0);
+		assertThat(statistics.getSecondLevelCacheHitCount()).isGreaterThan(0);
+		assertThat(statistics.getNaturalIdQueryExecutionCount()).isZero();
+
+	}
+
+	@Test
+	@DisplayName("Deve expor tamanho, tempo de vida e taxa de acerto das regioes")
+	public void regionsReportTest() {
+
+		// cenario
+		repository.save(BikeRepositoryTest.createNewBike("NATID2"));
+		repository.findByChassi("NATID2");
+
+		// execucao
+		Map<String, RegionReport> regions = endpoint.regions();
+
+		// verificacao
+		assertThat(regions).containsKeys(Bike.CACHE_REGION, Bike.NATURAL_ID_CACHE_REGION, "client",
+				"client-natural-id");
+		RegionReport bikeRegion = regions.get(Bike.CACHE_REGION);
+		assertThat(bikeRegion.getMaximumSize()).isEqualTo(10000);
+		assertThat(bikeRegion.getTimeToLive()).isEqualTo("PT30M");
+		assertThat(bikeRegion.getSize()).isGreaterThan(0);
+		assertThat(bikeRegion.getHitRatio()).isBetween(0d, 1d);
+
+	}
+
+}
@@ -0,0 +1,96 @@
+package br.com.bikeapi.monitoring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import br.com.bikeapi.config.SlowQueryProperties;
+import br.com.bikeapi.monitoring.SlowQueryListener.FingerprintReport;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+
+public class SlowQueryListenerTest {
+
+	@Test
+	@DisplayName("Deve normalizar literais, listas e espacos no fingerprint")
+	public void fingerprintTest() {
+
+		// execucao
+		String first = SqlFingerprints.of("SELECT * FROM bike b0_\n  WHERE b0_.chassi = 'ABC''1' AND b0_.id IN (1, 2, 3)");
+		String second = SqlFingerprints.of("select * from bike b0_ where b0_.chassi='X' and b0_.id in (7)");
+		String insert = SqlFingerprints.of("insert into bike (chassi, id) values (?, ?), (?, ?), (?, ?)");
+
+		// verificacao
+		assertThat(first).isEqualTo("select * from bike b0_ where b0_.chassi = ? and b0_.id in (?+)");
+		assertThat(second).isEqualTo("select * from bike b0_ where b0_.chassi=? and b0_.id in (?+)");
+		assertThat(insert).isEqualTo("insert into bike (chassi, id) values (?, ?)");
+
+	}
+
+	@Test
+	@DisplayName("Deve agrupar as execucoes por fingerprint e ordenar pelo tempo total")
+	public void topFingerprintsTest() {
+
+		// cenario
+		SlowQueryProperties properties = new SlowQueryProperties();
+		properties.setThreshold(Duration.ofHours(1));
+		SlowQueryListener listener = new SlowQueryListener(properties);
+
+		// execucao
+		for (int i = 0; i < 3; i++) {
+			execute(listener, "select * from bike where id = " + i, 2);
+		}
+		execute(listener, "select * from client where cpf = '1'", 1);
+
+		// verificacao
+		List<FingerprintReport> top = listener.top(10);
+		assertThat(top).hasSize(2);
+		assertThat(top.get(0).getFingerprint()).isEqualTo("select * from bike where id = ?");
+		assertThat(top.get(0).getCount()).isEqualTo(3);
+		assertThat(top.get(0).getTotalMillis()).isGreaterThanOrEqualTo(6);
+		assertThat(top.get(0).getP99Millis()).isGreaterThanOrEqualTo(1.9);
+		assertThat(listener.top(1)).hasSize(1);
+
+	}
+
+	@Test
+	@DisplayName("Deve somar os fingerprints excedentes em um unico grupo")
+	public void maxFingerprintsTest() {
+
+		// cenario
+		SlowQueryProperties properties = new SlowQueryProperties();
+		properties.setMaxFingerprints(2);
+		SlowQueryListener listener = new SlowQueryListener(properties);
+
+		// execucao
+		execute(listener, "select * from bike", 0);
+		execute(listener, "select * from client", 0);
+		execute(listener, "select * from rent", 0);
+		execute(listener, "select * from bike_identity_benchmark", 0);
+
+		// verificacao
+		assertThat(listener.top(10))
+			.extracting(FingerprintReport::getFingerprint)
+			.containsExactlyInAnyOrder("select * from bike", "select * from client",
+					SlowQueryListener.OVERFLOW_FINGERPRINT);
+
+	}
+
+	private static void execute(SlowQueryListener listener, String sql, long sleepMillis) {
+		List<QueryInfo> queries = Collections.singletonList(new QueryInfo(sql));
+		ExecutionInfo execInfo = new ExecutionInfo();
+		listener.beforeQuery(execInfo, queries);
+		try {
+			Thread.sleep(sleepMillis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		listener.afterQuery(execInfo, queries);
+	}
+
+}
@@ -0,0 +1,47 @@
+package br.com.bikeapi.monitoring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.function.ToIntFunction;
+
+import org.springframework.test.web.servlet.ResultMatcher;
+
+/**
+ * {@link ResultMatcher}s para verificar quantos statements JDBC uma
+ * requisicao do MockMvc executou, por exemplo:
+ * 
+ * <pre>
+ * mvc.perform(request).andExpect(StatementCountMatchers.selects(2));
+ * </pre>
+ */
+public final class StatementCountMatchers {
+
+	private StatementCountMatchers() {
+	}
+
+	public static ResultMatcher selects(int expected) {
+		return matcher("select", StatementCount::getSelect, expected);
+	}
+
+	public static ResultMatcher inserts(int expected) {
+		return matcher("insert", StatementCount::getInsert, expected);
+	}
+
+	public static ResultMatcher updates(int expected) {
+		return matcher("update", StatementCount::getUpdate, expected);
+	}
+
+	public static ResultMatcher total(int expected) {
+		return matcher("total", StatementCount::getTotal, expected);
+	}
+
+	private static ResultMatcher matcher(String type, ToIntFunction<StatementCount> counter, int expected) {
+		return result -> {
+			StatementCount count = (StatementCount) result.getRequest()
+					.getAttribute(StatementBudgetFilter.STATEMENT_COUNT_ATTRIBUTE);
+			assertThat(count).as("statement count of the request").isNotNull();
+			assertThat(counter.applyAsInt(count)).as("%s statements (%s)", type, count).isEqualTo(expected);
+		};
+	}
+
+}
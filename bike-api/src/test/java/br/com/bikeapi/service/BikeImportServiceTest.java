@@ -0,0 +1,175 @@
+package br.com.bikeapi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.validation.Validation;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import br.com.bikeapi.api.dto.BikeImportReport;
+import br.com.bikeapi.exception.BusinessException;
+import br.com.bikeapi.model.entity.Bike;
+import br.com.bikeapi.model.repository.BikeRepository;
+import br.com.bikeapi.service.bloom.UniqueKeyFilter;
+import br.com.bikeapi.service.cache.LookupCacheTest;
+import br.com.bikeapi.service.csv.CsvReader;
+import br.com.bikeapi.service.impl.BikeImportServiceImpl;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class BikeImportServiceTest {
+
+	private static final String HEADER = "chassi,model,color,companyProperty\n";
+
+	private BikeImportService service;
+
+	@MockBean
+	private BikeRepository repository;
+
+	private UniqueKeyFilter chassiFilter;
+
+	@BeforeEach
+	public void setUp() {
+		this.chassiFilter = new UniqueKeyFilter("chassi", 1000, 0.01);
+		this.service = new BikeImportServiceImpl(repository, LookupCacheTest.newCache(true), chassiFilter,
+				Validation.buildDefaultValidatorFactory().getValidator(), 2);
+		Mockito.when(repository.insertAll(Mockito.anyList())).then(invocation -> invocation.getArgument(0));
+	}
+
+	@Test
+	@DisplayName("Deve importar as bicicletas validas em lotes e rejeitar as invalidas")
+	@SuppressWarnings("unchecked")
+	public void importCsvTest() throws Exception {
+
+		// cenario
+		String csv = HEADER
+				+ "AAA111,Caloi Volcano,preta,true\n"
+				+ "BBB222,\"Caloi, Elite\",azul,false\n"
+				+ "123,Caloi Volcano,preta,true\n"
+				+ "AAA111,Caloi Volcano,preta,true\n"
+				+ "CCC333,Caloi Volcano,preta,talvez\n"
+				+ "DDD444,Caloi Volcano,verde,true\n";
+		Mockito.when(repository.findExistingChassis(Mockito.anyCollection())).thenReturn(Collections.emptyList());
+
+		// execucao
+		BikeImportReport report = service.importCsv(new StringReader(csv));
+
+		// verificacao
+		assertThat(report.getRows()).isEqualTo(6);
+		assertThat(report.getImported()).isEqualTo(3);
+		assertThat(report.getRejected()).isEqualTo(3);
+		assertThat(report.isErrorsTruncated()).isFalse();
+		assertThat(report.getErrors()).extracting(BikeImportReport.RowError::getLine).containsExactly(4L, 5L, 6L);
+		assertThat(report.getErrors().get(0).getMessage()).contains("chassi");
+		assertThat(report.getErrors().get(1).getMessage()).isEqualTo("Chassi repetido no arquivo.");
+		assertThat(chassiFilter.mightContain("DDD444")).isTrue();
+
+		ArgumentCaptor<List<Bike>> inserted = ArgumentCaptor.forClass(List.class);
+		Mockito.verify(repository, Mockito.times(2)).insertAll(inserted.capture());
+		assertThat(inserted.getAllValues().get(0)).extracting(Bike::getModel)
+				.containsExactly("Caloi Volcano", "Caloi, Elite");
+		assertThat(inserted.getAllValues().get(1)).extracting(Bike::getChassi).containsExactly("DDD444");
+
+	}
+
+	@Test
+	@DisplayName("Deve rejeitar chassis ja cadastrados com uma consulta por lote")
+	public void importExistingChassiTest() throws Exception {
+
+		// cenario
+		String csv = HEADER + "AAA111,Caloi Volcano,preta,true\nBBB222,Caloi Volcano,preta,true\n";
+		Mockito.when(repository.findExistingChassis(Mockito.anyCollection()))
+				.thenReturn(Collections.singletonList("BBB222"));
+
+		// execucao
+		BikeImportReport report = service.importCsv(new StringReader(csv));
+
+		// verificacao
+		assertThat(report.getImported()).isEqualTo(1);
+		assertThat(report.getErrors()).hasSize(1);
+		assertThat(report.getErrors().get(0).getChassi()).isEqualTo("BBB222");
+		assertThat(report.getErrors().get(0).getMessage()).isEqualTo("Chassi ja cadastrado.");
+		Mockito.verify(repository, Mockito.times(1)).findExistingChassis(Mockito.anyCollection());
+
+	}
+
+	@Test
+	@DisplayName("Deve inserir uma a uma quando o lote violar a unicidade do chassi")
+	public void importConcurrentDuplicateTest() throws Exception {
+
+		// cenario
+		String csv = HEADER + "AAA111,Caloi Volcano,preta,true\nBBB222,Caloi Volcano,preta,true\n";
+		Mockito.when(repository.findExistingChassis(Mockito.anyCollection())).thenReturn(Collections.emptyList());
+		Mockito.when(repository.insertAll(Mockito.anyList())).then(invocation -> {
+			List<Bike> bikes = invocation.getArgument(0);
+			if (bikes.stream().anyMatch(bike -> bike.getChassi().equals("BBB222"))) {
+				throw new DataIntegrityViolationException("unique");
+			}
+			return bikes;
+		});
+
+		// execucao
+		BikeImportReport report = service.importCsv(new StringReader(csv));
+
+		// verificacao
+		assertThat(report.getImported()).isEqualTo(1);
+		assertThat(report.getRejected()).isEqualTo(1);
+		assertThat(report.getErrors().get(0).getChassi()).isEqualTo("BBB222");
+
+	}
+
+	@Test
+	@DisplayName("Deve lancar erro quando faltar uma coluna no cabecalho")
+	public void importMissingColumnTest() {
+
+		// cenario
+		String csv = "chassi,model,color\nAAA111,Caloi Volcano,preta\n";
+
+		// execucao
+		Throwable exception = Assertions.catchThrowable(() -> service.importCsv(new StringReader(csv)));
+
+		// verificacao
+		assertThat(exception).isInstanceOf(BusinessException.class)
+				.hasMessage("Coluna companyProperty ausente no cabecalho.");
+		Mockito.verify(repository, Mockito.never()).insertAll(Mockito.anyList());
+
+	}
+
+	@Test
+	@DisplayName("Deve ler campos entre aspas com virgulas, aspas e quebras de linha")
+	public void csvReaderQuotedFieldsTest() throws Exception {
+
+		// cenario
+		CsvReader reader = new CsvReader(
+				new StringReader("a,\"b,\"\"c\"\"\r\nd\",\r\n\r\ne\n"));
+
+		// execucao
+		List<String> first = reader.next();
+		long firstLine = reader.getLine();
+		List<String> second = reader.next();
+
+		// verificacao
+		assertThat(first).isEqualTo(Arrays.asList("a", "b,\"c\"\r\nd", ""));
+		assertThat(firstLine).isEqualTo(1);
+		assertThat(second).containsExactly("e");
+		assertThat(reader.getLine()).isEqualTo(4);
+		assertThat(reader.next()).isNull();
+
+	}
+
+}
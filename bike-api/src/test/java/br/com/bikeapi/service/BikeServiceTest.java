@@ -6,8 +6,14 @@ package br.com.bikeapi.service;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,6 +22,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mockito;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -26,6 +33,9 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 import br.com.bikeapi.exception.BusinessException;
 import br.com.bikeapi.model.entity.Bike;
 import br.com.bikeapi.model.repository.BikeRepository;
+import br.com.bikeapi.service.bloom.UniqueKeyFilter;
+import br.com.bikeapi.service.cache.LookupCacheTest;
+import br.com.bikeapi.service.cache.SingleFlight;
 import br.com.bikeapi.service.impl.BikeServiceImpl;
 
 /**
@@ -41,9 +51,13 @@ public class BikeServiceTest {
 	@MockBean
 	private BikeRepository repository;
 	
+	private UniqueKeyFilter chassiFilter;
+	
 	@BeforeEach
 	public void setUp() {
-		this.service = new BikeServiceImpl(repository);
+		this.chassiFilter = new UniqueKeyFilter("chassi", 1000, 0.01);
+		this.service = new BikeServiceImpl(repository, LookupCacheTest.newCache(true), chassiFilter,
+				new SingleFlight<>("bike-by-id"));
 	}
 	
 	@Test
@@ -104,6 +118,47 @@ public class BikeServiceTest {
 		
 	}
 	
+	@Test
+	@DisplayName("Deve salvar sem consultar a base quando o filtro garante que o chassi nao existe")
+	public void saveSkipsExistsWhenFilterSaysAbsent() {
+		
+		// cenario
+		chassiFilter.rebuild(Collections.<String>emptyIterator());
+		Bike bike = createValidBike();
+		Mockito.when(repository.save(bike))
+				.thenReturn(bike.toBuilder().id(1l).build());
+		
+		// execucao
+		service.save(bike);
+		
+		// verificacao
+		Mockito.verify(repository, Mockito.never()).existsByChassi(Mockito.anyString());
+		assertThat(chassiFilter.mightContain(bike.getChassi())).isTrue();
+		
+	}
+	
+	@Test
+	@DisplayName("Deve traduzir a violacao da constraint unique do chassi em erro de negocio")
+	public void duplicatedChassiConstraintViolationTest() {
+		
+		// cenario
+		chassiFilter.rebuild(Collections.<String>emptyIterator());
+		Bike bike = createValidBike();
+		Mockito.when(repository.save(bike))
+				.thenThrow(new DataIntegrityViolationException("uk_chassi"));
+		Mockito.when(repository.existsByChassi(bike.getChassi()))
+				.thenReturn(true);
+		
+		// execucao
+		Throwable exception = Assertions.catchThrowable(() -> service.save(bike));
+		
+		// verificacao
+		assertThat(exception)
+			.isInstanceOf(BusinessException.class)
+			.hasMessage("Chassi ja cadastrado.");
+		
+	}
+	
 	@Test
 	@DisplayName("Deve retornar uma bicicleta pelo seu ID")
 	public void getByIdTest() {
@@ -129,6 +184,43 @@ public class BikeServiceTest {
 		
 	}
 	
+	@Test
+	@DisplayName("Deve fazer uma unica consulta para buscas concorrentes pelo mesmo id, com uma copia para cada")
+	public void concurrentGetByIdTest() throws Exception {
+
+		// cenario
+		Bike bike = createValidBike();
+		bike.setId(1l);
+		CountDownLatch start = new CountDownLatch(1);
+		Mockito.when(repository.findById(1l)).thenAnswer(invocation -> {
+			Thread.sleep(200);
+			return Optional.of(bike);
+		});
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		List<Future<Optional<Bike>>> results = new ArrayList<>();
+
+		// execucao
+		for (int i = 0; i < 4; i++) {
+			results.add(executor.submit(() -> {
+				start.await();
+				return service.getById(1l);
+			}));
+		}
+		start.countDown();
+
+		// verificacao
+		List<Bike> found = new ArrayList<>();
+		for (Future<Optional<Bike>> result : results) {
+			found.add(result.get(5, TimeUnit.SECONDS).get());
+		}
+		executor.shutdown();
+		Mockito.verify(repository, Mockito.times(1)).findById(1l);
+		assertThat(found).allMatch(bike::equals);
+		assertThat(found.stream().filter(each -> each == bike).count()).isEqualTo(1);
+		assertThat(found.stream().distinct().count()).isEqualTo(1);
+
+	}
+
 	@Test
 	@DisplayName("Deve retornar vazio ao obter uma bicicleta por id quando ela nao existir na base")
 	public void bikeNotFoundTest() {
@@ -254,6 +346,49 @@ public class BikeServiceTest {
 		assertThat(bike.get().getId()).isEqualTo(1l);
 		assertThat(bike.get().getChassi()).isEqualTo(chassi);
 		Mockito.verify(repository, Mockito.times(1)).findByChassi(chassi);
-	} 
+	}
+	
+	@Test
+	@DisplayName("Deve buscar a bicicleta pelo chassi no cache a partir da segunda consulta")
+	public void getBikeByChassiFromCache() {
+		
+		// cenario
+		String chassi = "123abc";
+		Mockito.when(repository.findByChassi(chassi))
+				.thenReturn(Optional.of(Bike.builder()
+											.id(1l)
+											.chassi(chassi)
+											.build()));
+		
+		// execucao
+		service.findByChassi(chassi);
+		Optional<Bike> bike = service.findByChassi(chassi);
+		
+		// verificacao
+		assertThat(bike.isPresent()).isTrue();
+		Mockito.verify(repository, Mockito.times(1)).findByChassi(chassi);
+	}
+	
+	@Test
+	@DisplayName("Deve encontrar a bicicleta salva apos uma busca sem resultado pelo mesmo chassi")
+	public void saveReplacesNegativeCacheEntry() {
+		
+		// cenario
+		Bike bike = createValidBike();
+		Mockito.when(repository.findByChassi(bike.getChassi()))
+				.thenReturn(Optional.empty());
+		Mockito.when(repository.save(bike))
+				.thenReturn(Bike.builder().id(1l).chassi(bike.getChassi()).build());
+		service.findByChassi(bike.getChassi());
+		
+		// execucao
+		service.save(bike);
+		Optional<Bike> foundBike = service.findByChassi(bike.getChassi());
+		
+		// verificacao
+		assertThat(foundBike.isPresent()).isTrue();
+		assertThat(foundBike.get().getId()).isEqualTo(1l);
+		Mockito.verify(repository, Mockito.times(1)).findByChassi(bike.getChassi());
+	}
 	
 }
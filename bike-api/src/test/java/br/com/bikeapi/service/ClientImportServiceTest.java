@@ -0,0 +1,209 @@
+package br.com.bikeapi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.StringReader;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import javax.validation.Validation;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import br.com.bikeapi.api.dto.ClientImportStatus;
+import br.com.bikeapi.api.dto.ClientImportStatus.State;
+import br.com.bikeapi.config.ClientImportProperties;
+import br.com.bikeapi.datagen.SyntheticDataGenerator;
+import br.com.bikeapi.exception.BusinessException;
+import br.com.bikeapi.model.entity.Client;
+import br.com.bikeapi.model.repository.ClientRepository;
+import br.com.bikeapi.service.bloom.UniqueKeyFilter;
+import br.com.bikeapi.service.cache.LookupCacheTest;
+import br.com.bikeapi.service.impl.ClientImportServiceImpl;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class ClientImportServiceTest {
+
+	private ClientImportServiceImpl service;
+
+	@MockBean
+	private ClientRepository repository;
+
+	private UniqueKeyFilter cpfFilter;
+
+	@BeforeEach
+	public void setUp() {
+		ClientImportProperties properties = new ClientImportProperties();
+		properties.setChunkSize(100);
+		properties.setParallelism(2);
+		this.cpfFilter = new UniqueKeyFilter("cpf", 1000, 0.01);
+		this.service = new ClientImportServiceImpl(repository, LookupCacheTest.newCache(true), cpfFilter,
+				Validation.buildDefaultValidatorFactory().getValidator(), properties);
+		Mockito.when(repository.insertAll(Mockito.anyList())).then(invocation -> invocation.getArgument(0));
+	}
+
+	@AfterEach
+	public void tearDown() {
+		service.shutdown();
+	}
+
+	@Test
+	@DisplayName("Deve importar os clientes validos em segundo plano e rejeitar os invalidos")
+	@SuppressWarnings("unchecked")
+	public void importCsvTest() throws Exception {
+
+		// cenario
+		StringBuilder csv = new StringBuilder("nome,cpf\n");
+		for (int i = 0; i < 250; i++) {
+			csv.append("Cliente ").append(i).append(',').append(SyntheticDataGenerator.cpf(1, i)).append('\n');
+		}
+		csv.append("Cliente invalido,111.111.111-12\n");
+		csv.append("Cliente repetido,").append(SyntheticDataGenerator.cpf(1, 0)).append('\n');
+		String existing = SyntheticDataGenerator.cpf(1, 10);
+		Mockito.when(repository.findExistingCpfs(Mockito.anyCollection())).then(invocation -> {
+			return ((Collection<String>) invocation.getArgument(0)).contains(existing)
+					? Collections.singletonList(existing)
+					: Collections.emptyList();
+		});
+
+		// execucao
+		ClientImportStatus started = service.start(new StringReader(csv.toString()));
+		ClientImportStatus finished = awaitCompletion(started.getId());
+
+		// verificacao
+		assertThat(started.getRows()).isEqualTo(252);
+		assertThat(finished.getState()).isEqualTo(State.COMPLETED);
+		assertThat(finished.getProcessed()).isEqualTo(252);
+		assertThat(finished.getImported()).isEqualTo(249);
+		assertThat(finished.getRejected()).isEqualTo(3);
+		assertThat(finished.getErrors()).extracting(ClientImportStatus.RowError::getLine)
+				.containsExactlyInAnyOrder(12L, 252L, 253L);
+		assertThat(finished.getFinishedAt()).isNotNull();
+		assertThat(cpfFilter.mightContain(SyntheticDataGenerator.cpf(1, 249))).isTrue();
+
+		ArgumentCaptor<List<Client>> inserted = ArgumentCaptor.forClass(List.class);
+		Mockito.verify(repository, Mockito.times(3)).insertAll(inserted.capture());
+		assertThat(inserted.getAllValues()).extracting(List::size).containsExactly(99, 100, 50);
+		Mockito.verify(repository, Mockito.times(3)).findExistingCpfs(Mockito.anyCollection());
+
+	}
+
+	@Test
+	@DisplayName("Deve comparar, consultar e gravar o cpf so com os digitos, com ou sem mascara no arquivo")
+	@SuppressWarnings("unchecked")
+	public void importNormalizedCpfTest() throws Exception {
+
+		// cenario
+		String csv = "nome,cpf\n"
+				+ "Fulana,953.788.660-30\n"
+				+ "Fulana de novo,95378866030\n"
+				+ "Beltrano,38983124024\n";
+		// cadastrado pela api com mascara
+		Mockito.when(repository.findExistingCpfs(Mockito.anyCollection()))
+				.thenReturn(Collections.singletonList("389.831.240-24"));
+
+		// execucao
+		ClientImportStatus finished = awaitCompletion(service.start(new StringReader(csv)).getId());
+
+		// verificacao
+		assertThat(finished.getImported()).isEqualTo(1);
+		assertThat(finished.getErrors()).extracting(ClientImportStatus.RowError::getMessage)
+				.containsExactly("Cpf repetido no arquivo.", "Client ja cadastrado");
+		ArgumentCaptor<Collection<String>> looked = ArgumentCaptor.forClass(Collection.class);
+		Mockito.verify(repository).findExistingCpfs(looked.capture());
+		assertThat(looked.getValue()).contains("95378866030", "38983124024", "389.831.240-24");
+		ArgumentCaptor<List<Client>> inserted = ArgumentCaptor.forClass(List.class);
+		Mockito.verify(repository).insertAll(inserted.capture());
+		assertThat(inserted.getValue()).extracting(Client::getCpf).containsExactly("95378866030");
+
+	}
+
+	@Test
+	@DisplayName("Deve indicar erros truncados apenas quando houver mais rejeicoes que erros listados")
+	public void errorsTruncatedTest() throws Exception {
+
+		// cenario
+		int maxErrors = 1000;
+		StringBuilder csv = new StringBuilder("nome,cpf\n");
+		for (int i = 0; i < maxErrors; i++) {
+			csv.append("Cliente invalido,111.111.111-12\n");
+		}
+
+		// execucao
+		ClientImportStatus all = awaitCompletion(service.start(new StringReader(csv.toString())).getId());
+		csv.append("Mais um invalido,111.111.111-12\n");
+		ClientImportStatus truncated = awaitCompletion(service.start(new StringReader(csv.toString())).getId());
+
+		// verificacao
+		assertThat(all.getRejected()).isEqualTo(maxErrors);
+		assertThat(all.getErrors()).hasSize(maxErrors);
+		assertThat(all.isErrorsTruncated()).isFalse();
+		assertThat(truncated.getRejected()).isEqualTo(maxErrors + 1);
+		assertThat(truncated.getErrors()).hasSize(maxErrors);
+		assertThat(truncated.isErrorsTruncated()).isTrue();
+
+	}
+
+	@Test
+	@DisplayName("Deve marcar a importacao como falha quando a base estiver indisponivel")
+	public void importFailureTest() throws Exception {
+
+		// cenario
+		String csv = "nome,cpf\nCicrano,953.788.660-30\n";
+		Mockito.when(repository.findExistingCpfs(Mockito.anyCollection()))
+				.thenThrow(new IllegalStateException("base indisponivel"));
+
+		// execucao
+		ClientImportStatus finished = awaitCompletion(service.start(new StringReader(csv)).getId());
+
+		// verificacao
+		assertThat(finished.getState()).isEqualTo(State.FAILED);
+		assertThat(finished.getFailure()).isEqualTo("base indisponivel");
+		assertThat(finished.getImported()).isZero();
+
+	}
+
+	@Test
+	@DisplayName("Deve lancar erro quando faltar uma coluna no cabecalho")
+	public void importMissingColumnTest() {
+
+		// execucao
+		Throwable exception = Assertions.catchThrowable(() -> service.start(new StringReader("nome\nCicrano\n")));
+
+		// verificacao
+		assertThat(exception).isInstanceOf(BusinessException.class)
+				.hasMessage("Coluna cpf ausente no cabecalho.");
+
+	}
+
+	@Test
+	@DisplayName("Deve retornar vazio para uma importacao inexistente")
+	public void unknownStatusTest() {
+
+		assertThat(service.getStatus("inexistente")).isEmpty();
+
+	}
+
+	private ClientImportStatus awaitCompletion(String id) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 10_000;
+		ClientImportStatus status = service.getStatus(id).get();
+		while (status.getState() == State.RUNNING && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+			status = service.getStatus(id).get();
+		}
+		return status;
+	}
+
+}
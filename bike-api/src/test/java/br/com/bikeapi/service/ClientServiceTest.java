@@ -3,6 +3,7 @@ package br.com.bikeapi.service;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,6 +24,9 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 import br.com.bikeapi.exception.BusinessException;
 import br.com.bikeapi.model.entity.Client;
 import br.com.bikeapi.model.repository.ClientRepository;
+import br.com.bikeapi.service.bloom.UniqueKeyFilter;
+import br.com.bikeapi.service.cache.LookupCacheTest;
+import br.com.bikeapi.service.cache.SingleFlight;
 import br.com.bikeapi.service.impl.ClienteServiceImpl;
 
 @ExtendWith(SpringExtension.class)
@@ -34,9 +38,13 @@ public class ClientServiceTest {
 	@MockBean
 	private ClientRepository repository;
 	
+	private UniqueKeyFilter cpfFilter;
+	
 	@BeforeEach
 	public void setUp() {
-		this.service = new ClienteServiceImpl(repository);
+		this.cpfFilter = new UniqueKeyFilter("cpf", 1000, 0.01);
+		this.service = new ClienteServiceImpl(repository, LookupCacheTest.newCache(true), cpfFilter,
+				new SingleFlight<>("client-by-id"));
 	}
 	
 	@Test
@@ -91,6 +99,30 @@ public class ClientServiceTest {
 		
 	}
 	
+	@Test
+	@DisplayName("Deve consultar a base apenas quando o filtro indica que o cpf pode existir")
+	public void saveChecksDatabaseOnlyForPossibleDuplicates() {
+		
+		// cenario
+		Client cliente = createValidClient();
+		cpfFilter.rebuild(Collections.singletonList(cliente.getCpf()).iterator());
+		Mockito.when(repository.existsByCpf(cliente.getCpf()))
+				.thenReturn(true);
+		Client other = Client.builder().nome("Fulano").cpf("529.982.247-25").build();
+		Mockito.when(repository.save(other))
+				.thenReturn(other.toBuilder().id(2l).build());
+		
+		// execucao
+		Throwable exception = Assertions.catchThrowable(() -> service.save(cliente));
+		service.save(other);
+		
+		// verificacao
+		assertThat(exception).isInstanceOf(BusinessException.class);
+		Mockito.verify(repository).existsByCpf(cliente.getCpf());
+		Mockito.verify(repository, Mockito.never()).existsByCpf(other.getCpf());
+		
+	}
+	
 	@Test
 	@DisplayName("Deve retornar um cliente por seu Id")
 	void getByIdTest() throws Exception {
@@ -243,4 +275,32 @@ public class ClientServiceTest {
 		
 	}
 	
+	@Test
+	@DisplayName("Deve remover do cache o cpf antigo ao atualizar o cpf do cliente")
+	void updateEvictsOldCpfFromCache() throws Exception {
+		
+		// cenario
+		String oldCpf = "389.831.240-24";
+		Client client = Client.builder().id(1l).cpf(oldCpf).build();
+		Mockito.when(repository.findByCpf(oldCpf))
+				.thenReturn(Optional.of(client), Optional.empty());
+		service.findByCpf(oldCpf);
+		
+		Client updatedClient = Client.builder().id(1l).cpf("953.788.660-30").build();
+		Mockito.when(repository.save(updatedClient))
+				.thenReturn(updatedClient);
+		
+		// execucao
+		service.update(updatedClient);
+		Optional<Client> byOldCpf = service.findByCpf(oldCpf);
+		Optional<Client> byNewCpf = service.findByCpf("953.788.660-30");
+		
+		// verificacao
+		assertThat(byOldCpf.isPresent()).isFalse();
+		assertThat(byNewCpf.isPresent()).isTrue();
+		Mockito.verify(repository, Mockito.times(2)).findByCpf(oldCpf);
+		Mockito.verify(repository, Mockito.never()).findByCpf("953.788.660-30");
+		
+	}
+	
 }
@@ -10,11 +10,16 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -25,9 +30,16 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 import br.com.bikeapi.api.dto.RentFilterDTO;
 import br.com.bikeapi.exception.BusinessException;
 import br.com.bikeapi.model.entity.Bike;
+import br.com.bikeapi.model.entity.BikeStatus;
 import br.com.bikeapi.model.entity.Client;
 import br.com.bikeapi.model.entity.Rent;
+import br.com.bikeapi.model.repository.BikeRepository;
+import br.com.bikeapi.model.repository.ClientRepository;
 import br.com.bikeapi.model.repository.RentRepository;
+import br.com.bikeapi.service.cache.LookupCache;
+import br.com.bikeapi.service.cache.LookupCacheTest;
+import br.com.bikeapi.service.event.RentCreated;
+import br.com.bikeapi.service.event.RentReturned;
 import br.com.bikeapi.service.impl.RentServiceImpl;
 
 @ExtendWith(SpringExtension.class)
@@ -39,9 +51,30 @@ public class RentServiceTest {
 	@MockBean
 	private RentRepository repository;
 	
+	@MockBean
+	private BikeRepository bikeRepository;
+	
+	@MockBean
+	private ClientRepository clientRepository;
+	
+	private ApplicationEventPublisher eventPublisher;
+	
+	private LookupCache<String, Bike> chassiCache;
+	
+	private LookupCache<String, Client> cpfCache;
+	
+	private Cache secondLevelCache;
+	
 	@BeforeEach
 	public void setUp() {
-		this.service = new RentServiceImpl(repository);
+		this.eventPublisher = Mockito.mock(ApplicationEventPublisher.class);
+		this.chassiCache = LookupCacheTest.newCache(false);
+		this.cpfCache = LookupCacheTest.newCache(false);
+		this.secondLevelCache = Mockito.mock(Cache.class);
+		EntityManagerFactory entityManagerFactory = Mockito.mock(EntityManagerFactory.class);
+		Mockito.when(entityManagerFactory.getCache()).thenReturn(secondLevelCache);
+		this.service = new RentServiceImpl(repository, bikeRepository, clientRepository, chassiCache, cpfCache,
+				entityManagerFactory, eventPublisher);
 	}
 	
 	@Test
@@ -50,8 +83,10 @@ public class RentServiceTest {
 		
 		// cenario
 		long id = 1l;
-		Bike bike = Bike.builder().id(id).build();
-		Client client = Client.builder().id(id).build(); 
+		Bike bike = Bike.builder().id(id).chassi("123abc").build();
+		Client client = Client.builder().id(id).cpf("38983124024").build(); 
+		chassiCache.put(bike.getChassi(), bike.toBuilder().build());
+		cpfCache.put(client.getCpf(), client.toBuilder().build());
 		final LocalDateTime now = LocalDateTime.now();
 		Rent savingRent = Rent.builder()
 							  .bike(bike)
@@ -69,10 +104,10 @@ public class RentServiceTest {
 							 .expectedReturnDate(LocalDateTime.now().plusHours(2*24))
 							 .build();
 		
-		Mockito.when(repository.existsByBikeAndNotReturned(bike))
-				.thenReturn(false);
-		Mockito.when(repository.existsByClientAndNotReturned(client))
-				.thenReturn(false);
+		Mockito.when(bikeRepository.findByIdForUpdate(id))
+				.thenReturn(Optional.of(bike));
+		Mockito.when(clientRepository.findByIdForUpdate(id))
+				.thenReturn(Optional.of(client));
 		Mockito.when(repository.save(savingRent))
 				.thenReturn(savedRent);
 		
@@ -86,6 +121,17 @@ public class RentServiceTest {
 		assertThat(rent.getClient()).isEqualTo(savedRent.getClient());
 		assertThat(rent.getBike()).isEqualTo(savedRent.getBike());
 		assertThat(rent.getExpectedReturnDate()).isEqualTo(savedRent.getExpectedReturnDate());
+		assertThat(bike.getStatus()).isEqualTo(BikeStatus.RENTED);
+		assertThat(client.getActiveRentId()).isEqualTo(id);
+		assertThat(chassiCache.get(bike.getChassi(), key -> Optional.empty())).isEmpty();
+		assertThat(cpfCache.get(client.getCpf(), key -> Optional.empty())).isEmpty();
+		Mockito.verify(secondLevelCache).evict(Bike.class, id);
+		Mockito.verify(secondLevelCache).evict(Client.class, id);
+		ArgumentCaptor<Object> event = ArgumentCaptor.forClass(Object.class);
+		Mockito.verify(eventPublisher).publishEvent(event.capture());
+		assertThat(event.getValue()).isInstanceOf(RentCreated.class);
+		assertThat(((RentCreated) event.getValue()).getRentId()).isEqualTo(id);
+		assertThat(((RentCreated) event.getValue()).getBikeId()).isEqualTo(id);
 		
 	}
 	
@@ -95,8 +141,8 @@ public class RentServiceTest {
 		
 		// cenario
 		Rent savingRent = createRental();
-		Mockito.when(repository.existsByBikeAndNotReturned(createRental().getBike()))
-				.thenReturn(true);
+		Mockito.when(bikeRepository.findByIdForUpdate(1l))
+				.thenReturn(Optional.of(Bike.builder().id(1l).status(BikeStatus.RENTED).build()));
 		
 		// execucao
 		Throwable exception = 
@@ -115,8 +161,10 @@ public class RentServiceTest {
 		
 		// cenario
 		Rent savingRent = createRental();
-		Mockito.when(repository.existsByClientAndNotReturned(createRental().getClient()))
-				.thenReturn(true);
+		Mockito.when(bikeRepository.findByIdForUpdate(1l))
+				.thenReturn(Optional.of(Bike.builder().id(1l).status(BikeStatus.AVAILABLE).build()));
+		Mockito.when(clientRepository.findByIdForUpdate(1l))
+				.thenReturn(Optional.of(Client.builder().id(1l).activeRentId(2l).build()));
 		
 		// execucao 
 		Throwable exception = 
@@ -190,6 +238,87 @@ public class RentServiceTest {
 		
 	}
 	
+	@Test
+	@DisplayName("Deve registrar a devolucao e publicar a bicicleta como disponivel")
+	void returnBikeTest() throws Exception {
+		
+		// cenario
+		Rent rent = createRental();
+		rent.setId(1l);
+		Bike bike = Bike.builder().id(1l).chassi("123abc").status(BikeStatus.RENTED).build();
+		Client client = Client.builder().id(1l).cpf("38983124024").activeRentId(1l).build();
+		chassiCache.put(bike.getChassi(), bike.toBuilder().build());
+		Mockito.when(repository.findByIdForUpdate(1l)).thenReturn(Optional.of(rent));
+		Mockito.when(repository.save(rent)).thenReturn(rent);
+		Mockito.when(bikeRepository.findByIdForUpdate(1l)).thenReturn(Optional.of(bike));
+		Mockito.when(clientRepository.findByIdForUpdate(1l)).thenReturn(Optional.of(client));
+		
+		// execucao
+		Rent returnedRent = service.returnBike(rent);
+		
+		// verificacao
+		assertThat(returnedRent.getReturnedDateTime()).isNotNull();
+		assertThat(bike.getStatus()).isEqualTo(BikeStatus.AVAILABLE);
+		assertThat(client.getActiveRentId()).isNull();
+		assertThat(chassiCache.get(bike.getChassi(), key -> Optional.empty())).isEmpty();
+		Mockito.verify(secondLevelCache).evict(Bike.class, 1l);
+		Mockito.verify(secondLevelCache).evict(Client.class, 1l);
+		Mockito.verify(repository).save(rent);
+		ArgumentCaptor<Object> event = ArgumentCaptor.forClass(Object.class);
+		Mockito.verify(eventPublisher).publishEvent(event.capture());
+		assertThat(event.getValue()).isInstanceOf(RentReturned.class);
+		assertThat(((RentReturned) event.getValue()).getReturnedDateTime())
+				.isEqualTo(returnedRent.getReturnedDateTime());
+		
+	}
+	
+	@Test
+	@DisplayName("Deve ignorar uma devolucao repetida")
+	void returnBikeTwiceTest() throws Exception {
+		
+		// cenario
+		LocalDateTime returnedAt = LocalDateTime.now().minusMinutes(5);
+		Rent rent = createRental();
+		rent.setId(1l);
+		rent.setReturnedDateTime(returnedAt);
+		Mockito.when(repository.findByIdForUpdate(1l)).thenReturn(Optional.of(rent));
+		
+		// execucao
+		Rent returnedRent = service.returnBike(rent);
+		
+		// verificacao
+		assertThat(returnedRent.getReturnedDateTime()).isEqualTo(returnedAt);
+		Mockito.verify(repository, Mockito.never()).save(Mockito.any());
+		Mockito.verifyNoInteractions(eventPublisher);
+		
+	}
+	
+	@Test
+	@DisplayName("Deve ignorar a devolucao quando uma devolucao concorrente ja foi gravada")
+	void returnBikeConcurrentlyTest() throws Exception {
+		
+		// cenario
+		Rent rent = createRental();
+		rent.setId(1l);
+		LocalDateTime returnedAt = LocalDateTime.now().minusSeconds(1);
+		Rent current = createRental();
+		current.setId(1l);
+		current.setReturnedDateTime(returnedAt);
+		Mockito.when(bikeRepository.findByIdForUpdate(1l))
+				.thenReturn(Optional.of(Bike.builder().id(1l).status(BikeStatus.AVAILABLE).build()));
+		Mockito.when(repository.findByIdForUpdate(1l)).thenReturn(Optional.of(current));
+		
+		// execucao
+		Rent returnedRent = service.returnBike(rent);
+		
+		// verificacao
+		assertThat(returnedRent.getReturnedDateTime()).isEqualTo(returnedAt);
+		Mockito.verify(repository, Mockito.never()).save(Mockito.any());
+		Mockito.verify(clientRepository, never()).findByIdForUpdate(Mockito.anyLong());
+		Mockito.verifyNoInteractions(eventPublisher);
+		
+	}
+	
 	@Test
 	@DisplayName("Deve filtrar as bicicletas pelas propriedades")
 	void findRentTest() throws Exception {
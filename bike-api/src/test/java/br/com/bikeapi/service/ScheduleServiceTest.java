@@ -0,0 +1,87 @@
+package br.com.bikeapi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import br.com.bikeapi.model.entity.Bike;
+import br.com.bikeapi.model.entity.Client;
+import br.com.bikeapi.model.entity.Rent;
+import br.com.bikeapi.service.event.RentOverdue;
+
+public class ScheduleServiceTest {
+
+	private ScheduleService service;
+
+	private RentService rentService;
+
+	private EmailService emailService;
+
+	private ApplicationEventPublisher eventPublisher;
+
+	@BeforeEach
+	public void setUp() {
+		this.rentService = Mockito.mock(RentService.class);
+		this.emailService = Mockito.mock(EmailService.class);
+		this.eventPublisher = Mockito.mock(ApplicationEventPublisher.class);
+		this.service = new ScheduleService(rentService, emailService, eventPublisher);
+		ReflectionTestUtils.setField(service, "message", "Atencao!");
+	}
+
+	@Test
+	@DisplayName("Deve enviar o email a todos os atrasados e publicar o atraso so dos ainda nao publicados")
+	public void publishOverdueOncePerRentTest() {
+
+		// cenario
+		Rent notified = lateRent(1l, true);
+		Rent newlyLate = lateRent(2l, null);
+		Mockito.when(rentService.getAllLateRents()).thenReturn(Arrays.asList(notified, newlyLate));
+
+		// execucao
+		service.sendMailToAllLateRents();
+
+		// verificacao
+		Mockito.verify(emailService).sendEmail("Atencao!", Arrays.asList("1@gmail.com", "2@gmail.com"));
+		Mockito.verify(rentService).markOverdueNotified(Collections.singletonList(newlyLate));
+		ArgumentCaptor<RentOverdue> event = ArgumentCaptor.forClass(RentOverdue.class);
+		Mockito.verify(eventPublisher).publishEvent(event.capture());
+		assertThat(event.getValue().getRentId()).isEqualTo(2l);
+
+	}
+
+	@Test
+	@DisplayName("Nao deve enviar email quando nao houver alugueis atrasados")
+	public void noLateRentsTest() {
+
+		// cenario
+		Mockito.when(rentService.getAllLateRents()).thenReturn(Collections.<Rent>emptyList());
+
+		// execucao
+		service.sendMailToAllLateRents();
+
+		// verificacao
+		Mockito.verify(emailService, Mockito.never()).sendEmail(Mockito.anyString(), Mockito.<List<String>>any());
+		Mockito.verifyNoInteractions(eventPublisher);
+
+	}
+
+	private static Rent lateRent(long id, Boolean overdueNotified) {
+		return Rent.builder().id(id).customerEmail(id + "@gmail.com")
+				.expectedReturnDate(LocalDateTime.now().minusHours(1))
+				.bike(Bike.builder().id(id).chassi("chassi" + id).build())
+				.client(Client.builder().id(id).build())
+				.overdueNotified(overdueNotified).build();
+	}
+
+}
@@ -0,0 +1,60 @@
+package br.com.bikeapi.service.availability;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import br.com.bikeapi.service.availability.AvailabilityEvent.Type;
+import br.com.bikeapi.service.availability.AvailabilityEventRing.Replay;
+
+public class AvailabilityEventRingTest {
+
+	@Test
+	@DisplayName("Deve reenviar os eventos posteriores ao Last-Event-ID")
+	public void replaySinceTest() {
+
+		// cenario
+		AvailabilityEventRing ring = new AvailabilityEventRing(4);
+		for (long i = 1; i <= 3; i++) {
+			ring.append(Type.RENTED, i, "BIKE00" + i, i, Instant.now());
+		}
+
+		// execucao
+		Replay replay = ring.since(1);
+
+		// verificacao
+		assertThat(replay.isComplete()).isTrue();
+		assertThat(replay.getEvents()).extracting(AvailabilityEvent::getId).containsExactly(2L, 3L);
+		assertThat(ring.since(3).getEvents()).isEmpty();
+		assertThat(ring.since(3).isComplete()).isTrue();
+
+	}
+
+	@Test
+	@DisplayName("Deve indicar a perda de eventos que ja sairam do buffer")
+	public void replayGapTest() {
+
+		// cenario
+		AvailabilityEventRing ring = new AvailabilityEventRing(4);
+		for (long i = 1; i <= 10; i++) {
+			ring.append(Type.RETURNED, i, "BIKE00" + i, i, Instant.now());
+		}
+
+		// execucao
+		Replay lost = ring.since(2);
+		Replay edge = ring.since(6);
+		Replay unknown = ring.since(42);
+
+		// verificacao
+		assertThat(lost.isComplete()).isFalse();
+		assertThat(lost.getEvents()).extracting(AvailabilityEvent::getId).containsExactly(7L, 8L, 9L, 10L);
+		assertThat(edge.isComplete()).isTrue();
+		assertThat(edge.getEvents()).extracting(AvailabilityEvent::getId).containsExactly(7L, 8L, 9L, 10L);
+		assertThat(unknown.isComplete()).isFalse();
+
+	}
+
+}
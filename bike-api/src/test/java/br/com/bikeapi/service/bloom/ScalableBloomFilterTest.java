@@ -0,0 +1,62 @@
+package br.com.bikeapi.service.bloom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ScalableBloomFilterTest {
+
+	@Test
+	@DisplayName("Nao deve ter falso negativo e deve manter a taxa de falso positivo ao crescer")
+	public void noFalseNegativesAndBoundedFalsePositivesTest() {
+
+		// cenario
+		ScalableBloomFilter filter = new ScalableBloomFilter(1000, 0.01);
+		int keys = 20000;
+
+		// execucao
+		for (int i = 0; i < keys; i++) {
+			filter.put("CHASSI-" + i);
+		}
+
+		// verificacao
+		for (int i = 0; i < keys; i++) {
+			assertThat(filter.mightContain("CHASSI-" + i)).isTrue();
+		}
+		int falsePositives = 0;
+		int probes = 100000;
+		for (int i = 0; i < probes; i++) {
+			if (filter.mightContain("OUTRO-" + i)) {
+				falsePositives++;
+			}
+		}
+		// chaves que ja colidiam com as anteriores nao sao contadas de novo
+		assertThat(filter.size()).isBetween((long) (keys * 0.98), (long) keys);
+		assertThat((double) falsePositives / probes).isLessThan(0.02);
+		assertThat(filter.expectedFalsePositiveRate()).isLessThanOrEqualTo(0.01);
+
+	}
+
+	@Test
+	@DisplayName("Deve crescer a memoria apenas quando o estagio atual enche")
+	public void growsOnlyWhenFullTest() {
+
+		// cenario
+		ScalableBloomFilter filter = new ScalableBloomFilter(100, 0.01);
+		long initialMemory = filter.memoryInBytes();
+
+		// execucao
+		for (int i = 0; i < 100; i++) {
+			filter.put("CPF-" + i);
+		}
+		long memoryWhenFull = filter.memoryInBytes();
+		filter.put("CPF-extra");
+
+		// verificacao
+		assertThat(memoryWhenFull).isEqualTo(initialMemory);
+		assertThat(filter.memoryInBytes()).isGreaterThan(initialMemory);
+
+	}
+
+}
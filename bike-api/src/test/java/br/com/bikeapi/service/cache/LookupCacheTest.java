@@ -0,0 +1,201 @@
+package br.com.bikeapi.service.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class LookupCacheTest {
+
+	public static <V> LookupCache<String, V> newCache(boolean singleFlight) {
+		return newCache(singleFlight, System::nanoTime);
+	}
+
+	private static <V> LookupCache<String, V> newCache(boolean singleFlight,
+			com.github.benmanes.caffeine.cache.Ticker ticker) {
+		return LookupCache.<String, V>builder()
+						.name("test")
+						.maximumSize(100)
+						.timeToLive(Duration.ofMinutes(10))
+						.negativeTimeToLive(Duration.ofSeconds(5))
+						.singleFlight(singleFlight)
+						.ticker(ticker)
+						.build();
+	}
+
+	@Test
+	@DisplayName("Deve buscar na base apenas na primeira consulta de uma chave")
+	public void cachedLookupTest() {
+
+		// cenario
+		LookupCache<String, String> cache = newCache(false);
+		AtomicInteger loads = new AtomicInteger();
+
+		// execucao
+		cache.get("123abc", key -> { loads.incrementAndGet(); return Optional.of("bike"); });
+		Optional<String> value = cache.get("123abc", key -> { loads.incrementAndGet(); return Optional.of("bike"); });
+
+		// verificacao
+		assertThat(value).contains("bike");
+		assertThat(loads.get()).isEqualTo(1);
+
+	}
+
+	@Test
+	@DisplayName("Deve expirar o resultado negativo antes do resultado encontrado")
+	public void negativeResultExpiresFirstTest() {
+
+		// cenario
+		AtomicLong now = new AtomicLong();
+		LookupCache<String, String> cache = newCache(true, now::get);
+		AtomicInteger loads = new AtomicInteger();
+		cache.get("ausente", key -> { loads.incrementAndGet(); return Optional.empty(); });
+		cache.get("presente", key -> { loads.incrementAndGet(); return Optional.of("bike"); });
+
+		// execucao
+		now.addAndGet(TimeUnit.SECONDS.toNanos(6));
+		cache.get("ausente", key -> { loads.incrementAndGet(); return Optional.empty(); });
+		cache.get("presente", key -> { loads.incrementAndGet(); return Optional.of("bike"); });
+
+		// verificacao
+		assertThat(loads.get()).isEqualTo(3);
+
+	}
+
+	@Test
+	@DisplayName("Deve substituir o resultado negativo quando o valor for salvo")
+	public void putReplacesNegativeResultTest() {
+
+		// cenario
+		LookupCache<String, String> cache = newCache(true);
+		cache.get("123abc", key -> Optional.empty());
+
+		// execucao
+		cache.put("123abc", "bike");
+
+		// verificacao
+		assertThat(cache.get("123abc", key -> Optional.empty())).contains("bike");
+
+	}
+
+	@Test
+	@DisplayName("Deve remover os valores pelo predicado quando a chave antiga nao e conhecida")
+	public void invalidateIfTest() {
+
+		// cenario
+		LookupCache<String, String> cache = newCache(true);
+		cache.put("cpf-antigo", "cliente-1");
+		cache.put("outro-cpf", "cliente-2");
+
+		// execucao
+		cache.invalidateIf("cliente-1"::equals);
+
+		// verificacao
+		assertThat(cache.get("cpf-antigo", key -> Optional.empty())).isEmpty();
+		assertThat(cache.get("outro-cpf", key -> Optional.empty())).contains("cliente-2");
+
+	}
+
+	@Test
+	@DisplayName("Nao deve guardar o resultado de uma carga invalidada durante a consulta")
+	public void staleLoadAfterInvalidateTest() {
+
+		// cenario
+		LookupCache<String, String> cache = newCache(false);
+		AtomicInteger loads = new AtomicInteger();
+
+		// execucao
+		Optional<String> stale = cache.get("123abc", key -> {
+			loads.incrementAndGet();
+			cache.invalidate(key);
+			return Optional.of("modelo-antigo");
+		});
+		Optional<String> value = cache.get("123abc", key -> {
+			loads.incrementAndGet();
+			return Optional.of("modelo-novo");
+		});
+
+		// verificacao
+		assertThat(stale).contains("modelo-antigo");
+		assertThat(value).contains("modelo-novo");
+		assertThat(loads.get()).isEqualTo(2);
+
+	}
+
+	@Test
+	@DisplayName("Deve guardar uma copia do valor carregado ou gravado")
+	public void snapshotTest() {
+
+		// cenario
+		LookupCache<String, StringBuilder> cache = LookupCache.<String, StringBuilder>builder()
+						.name("test")
+						.maximumSize(100)
+						.timeToLive(Duration.ofMinutes(10))
+						.negativeTimeToLive(Duration.ofSeconds(5))
+						.snapshot(StringBuilder::new)
+						.build();
+		StringBuilder saved = new StringBuilder("bike");
+
+		// execucao
+		cache.put("123abc", saved);
+		saved.append("-alterada");
+
+		// verificacao
+		assertThat(cache.get("123abc", key -> Optional.empty()).map(StringBuilder::toString)).contains("bike");
+
+	}
+
+	@Test
+	@DisplayName("Deve fazer uma unica consulta para faltas concorrentes da mesma chave")
+	public void singleFlightTest() throws Exception {
+
+		// cenario
+		LookupCache<String, String> cache = newCache(true);
+		AtomicInteger loads = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		List<Future<Optional<String>>> results = new ArrayList<>();
+
+		// execucao
+		for (int i = 0; i < 8; i++) {
+			results.add(executor.submit(() -> {
+				start.await();
+				return cache.get("123abc", key -> {
+					loads.incrementAndGet();
+					sleep(100);
+					return Optional.of("bike");
+				});
+			}));
+		}
+		start.countDown();
+
+		// verificacao
+		for (Future<Optional<String>> result : results) {
+			assertThat(result.get(5, TimeUnit.SECONDS)).contains("bike");
+		}
+		executor.shutdown();
+		assertThat(loads.get()).isEqualTo(1);
+
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
@@ -0,0 +1,125 @@
+package br.com.bikeapi.service.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class SingleFlightTest {
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+	@AfterEach
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	@DisplayName("Deve executar o loader uma vez para buscas concorrentes pela mesma chave e contar as que esperaram")
+	public void coalesceConcurrentCallsTest() throws Exception {
+
+		// cenario
+		SingleFlight<Long, String> flight = new SingleFlight<>("test");
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		flight.bindTo(registry);
+		AtomicInteger loads = new AtomicInteger();
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Function<Long, String> loader = key -> {
+			loads.incrementAndGet();
+			loading.countDown();
+			await(release);
+			return "bike-" + key;
+		};
+
+		// execucao
+		List<Future<String>> results = new ArrayList<>();
+		results.add(executor.submit(() -> flight.execute(1l, loader)));
+		loading.await(5, TimeUnit.SECONDS);
+		for (int i = 0; i < 3; i++) {
+			results.add(executor.submit(() -> flight.execute(1l, loader)));
+		}
+		waitCoalesced(registry, 3);
+		release.countDown();
+
+		// verificacao
+		for (Future<String> result : results) {
+			assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("bike-1");
+		}
+		assertThat(loads.get()).isEqualTo(1);
+		assertThat(registry.get("bikeapi.singleflight.calls").tag("name", "test").functionCounter().count())
+				.isEqualTo(1);
+		assertThat(flight.execute(1l, loader)).isEqualTo("bike-1");
+		assertThat(loads.get()).isEqualTo(2);
+
+	}
+
+	@Test
+	@DisplayName("Deve repassar a excecao do loader para quem esperou")
+	public void propagateLoaderExceptionTest() throws Exception {
+
+		// cenario
+		SingleFlight<Long, String> flight = new SingleFlight<>("test");
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		flight.bindTo(registry);
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Function<Long, String> loader = key -> {
+			loading.countDown();
+			await(release);
+			throw new IllegalStateException("Base indisponivel");
+		};
+
+		// execucao
+		Future<String> leader = executor.submit(() -> flight.execute(1l, loader));
+		loading.await(5, TimeUnit.SECONDS);
+		Future<String> waiter = executor.submit(() -> flight.execute(1l, loader));
+		waitCoalesced(registry, 1);
+		release.countDown();
+
+		// verificacao
+		for (Future<String> result : Arrays.asList(leader, waiter)) {
+			try {
+				result.get(5, TimeUnit.SECONDS);
+			} catch (ExecutionException e) {
+				assertThat(e.getCause()).isInstanceOf(IllegalStateException.class)
+						.hasMessage("Base indisponivel");
+				continue;
+			}
+			throw new AssertionError("A busca deveria falhar");
+		}
+
+	}
+
+	private static void waitCoalesced(SimpleMeterRegistry registry, int expected) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (registry.get("bikeapi.singleflight.coalesced").functionCounter().count() < expected
+				&& System.nanoTime() < deadline) {
+			Thread.sleep(5);
+		}
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
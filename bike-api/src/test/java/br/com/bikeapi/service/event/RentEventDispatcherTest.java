@@ -0,0 +1,230 @@
+package br.com.bikeapi.service.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import br.com.bikeapi.config.RentEventProperties;
+import br.com.bikeapi.config.RentEventProperties.RejectionPolicy;
+import br.com.bikeapi.model.entity.Bike;
+import br.com.bikeapi.model.entity.Client;
+import br.com.bikeapi.model.entity.Rent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class RentEventDispatcherTest {
+
+	private final String caller = Thread.currentThread().getName();
+
+	private RentEventDispatcher dispatcher;
+
+	@AfterEach
+	public void tearDown() {
+		if (dispatcher != null) {
+			dispatcher.shutdown();
+		}
+	}
+
+	@Test
+	@DisplayName("Deve entregar cada evento apenas aos listeners do seu tipo, fora da thread que publicou")
+	public void dispatchByEventTypeTest() throws Exception {
+
+		// cenario
+		RecordingListener<RentEvent> all = new RecordingListener<>("all", RentEvent.class, 3);
+		RecordingListener<RentReturned> returns = new RecordingListener<>("returns", RentReturned.class, 1);
+		dispatcher = new RentEventDispatcher(Arrays.asList(all, returns), new RentEventProperties());
+
+		// execucao
+		dispatcher.dispatch(new RentCreated(rent()));
+		dispatcher.dispatch(new RentReturned(rent()));
+		dispatcher.dispatch(new RentOverdue(rent()));
+
+		// verificacao
+		assertThat(all.done.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(returns.done.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(all.events).extracting(event -> event.getClass().getSimpleName())
+				.containsExactly("RentCreated", "RentReturned", "RentOverdue");
+		assertThat(returns.events).hasSize(1).first().isInstanceOf(RentReturned.class);
+		assertThat(all.threads).allMatch(thread -> thread.startsWith("rent-events-all-"));
+
+	}
+
+	@Test
+	@DisplayName("Deve descartar eventos com a fila do listener cheia sem bloquear quem publica")
+	public void discardWhenQueueIsFullTest() throws Exception {
+
+		// cenario
+		CountDownLatch release = new CountDownLatch(1);
+		RecordingListener<RentEvent> slow = new RecordingListener<RentEvent>("slow", RentEvent.class, 2) {
+			@Override
+			public void onEvent(RentEvent event) {
+				await(release);
+				super.onEvent(event);
+			}
+		};
+		RecordingListener<RentEvent> fast = new RecordingListener<>("fast", RentEvent.class, 5);
+		RentEventProperties properties = new RentEventProperties();
+		properties.getListeners().put("slow", listenerSettings(1, RejectionPolicy.DISCARD));
+		dispatcher = new RentEventDispatcher(Arrays.asList(slow, fast), properties);
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		dispatcher.bindTo(registry);
+
+		// execucao
+		long start = System.nanoTime();
+		for (int i = 0; i < 5; i++) {
+			dispatcher.dispatch(new RentCreated(rent()));
+		}
+		long publishMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		assertThat(fast.done.await(5, TimeUnit.SECONDS)).isTrue();
+		release.countDown();
+
+		// verificacao
+		assertThat(slow.done.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(publishMillis).isLessThan(1000);
+		// um evento em tratamento, um na fila e os outros tres descartados
+		assertThat(registry.get("bikeapi.events.rejected").tag("listener", "slow").functionCounter().count())
+				.isEqualTo(3);
+		assertThat(registry.get("bikeapi.events.rejected").tag("listener", "fast").functionCounter().count())
+				.isZero();
+		assertThat(fast.events).hasSize(5);
+
+	}
+
+	@Test
+	@DisplayName("Deve tratar o evento na thread que publicou com a politica caller-runs e a fila cheia")
+	public void callerRunsWhenQueueIsFullTest() throws Exception {
+
+		// cenario
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch started = new CountDownLatch(1);
+		RecordingListener<RentEvent> listener = new RecordingListener<RentEvent>("audit", RentEvent.class, 3) {
+			@Override
+			public void onEvent(RentEvent event) {
+				if (!Thread.currentThread().getName().equals(caller)) {
+					started.countDown();
+					await(release);
+				}
+				super.onEvent(event);
+			}
+		};
+		RentEventProperties properties = new RentEventProperties();
+		properties.getListeners().put("audit", listenerSettings(1, RejectionPolicy.CALLER_RUNS));
+		dispatcher = new RentEventDispatcher(Arrays.asList(listener), properties);
+
+		// execucao
+		dispatcher.dispatch(new RentCreated(rent()));
+		assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+		dispatcher.dispatch(new RentCreated(rent()));
+		dispatcher.dispatch(new RentCreated(rent()));
+		release.countDown();
+
+		// verificacao
+		assertThat(listener.done.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(listener.threads).contains(caller);
+
+	}
+
+	@Test
+	@DisplayName("Deve contar as falhas de um listener sem afetar os demais")
+	public void listenerFailureTest() throws Exception {
+
+		// cenario
+		RecordingListener<RentEvent> failing = new RecordingListener<RentEvent>("failing", RentEvent.class, 1) {
+			@Override
+			public void onEvent(RentEvent event) {
+				done.countDown();
+				throw new IllegalStateException("falha no listener");
+			}
+		};
+		RecordingListener<RentEvent> other = new RecordingListener<>("other", RentEvent.class, 1);
+		dispatcher = new RentEventDispatcher(Arrays.asList(failing, other), new RentEventProperties());
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		dispatcher.bindTo(registry);
+
+		// execucao
+		dispatcher.dispatch(new RentReturned(rent()));
+
+		// verificacao
+		assertThat(other.done.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(failing.done.await(5, TimeUnit.SECONDS)).isTrue();
+		dispatcher.shutdown();
+		assertThat(registry.get("bikeapi.events.failed").tag("listener", "failing").functionCounter().count())
+				.isEqualTo(1);
+		assertThat(registry.get("bikeapi.events.handled").tag("listener", "failing").functionTimer().count())
+				.isEqualTo(1);
+		assertThat(registry.get("bikeapi.events.failed").tag("listener", "other").functionCounter().count())
+				.isZero();
+
+	}
+
+	private static RentEventProperties.Listener listenerSettings(int queueCapacity, RejectionPolicy policy) {
+		RentEventProperties.Listener settings = new RentEventProperties.Listener();
+		settings.setQueueCapacity(queueCapacity);
+		settings.setRejectionPolicy(policy);
+		return settings;
+	}
+
+	private static Rent rent() {
+		return Rent.builder()
+				   .id(1l)
+				   .bike(Bike.builder().id(10l).chassi("123abc").build())
+				   .client(Client.builder().id(20l).build())
+				   .rentDate(LocalDateTime.now())
+				   .expectedReturnDate(LocalDateTime.now().plusHours(3))
+				   .build();
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static class RecordingListener<E extends RentEvent> implements RentEventListener<E> {
+
+		private final String name;
+
+		private final Class<E> eventType;
+
+		protected final CountDownLatch done;
+
+		private final List<RentEvent> events = new CopyOnWriteArrayList<>();
+
+		private final List<String> threads = new CopyOnWriteArrayList<>();
+
+		private RecordingListener(String name, Class<E> eventType, int expectedEvents) {
+			this.name = name;
+			this.eventType = eventType;
+			this.done = new CountDownLatch(expectedEvents);
+		}
+
+		@Override
+		public String getName() {
+			return name;
+		}
+
+		@Override
+		public Class<E> getEventType() {
+			return eventType;
+		}
+
+		@Override
+		public void onEvent(E event) {
+			events.add(event);
+			threads.add(Thread.currentThread().getName());
+			done.countDown();
+		}
+
+	}
+
+}